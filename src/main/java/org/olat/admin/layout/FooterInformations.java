@@ -19,6 +19,8 @@
  */
 package org.olat.admin.layout;
 
+import java.util.Objects;
+
 import org.olat.core.helpers.Settings;
 import org.olat.core.util.StringHelper;
 
@@ -71,4 +73,26 @@ public class FooterInformations {
 		parsedFooterLine = parsedFooterLine.replaceAll(urlregex, "<a href=\"http$3://$4$5\" target=\"_blank\">$2$4$5</a>");
 		return parsedFooterLine;
 	}
+
+	/**
+	 * The hash code follows the configuration, it's part of the render cache
+	 * fingerprint of the footer.
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(layoutModule.getFooterLine(), layoutModule.getFooterLinkUri());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(obj instanceof FooterInformations) {
+			FooterInformations infos = (FooterInformations)obj;
+			return Objects.equals(layoutModule.getFooterLine(), infos.layoutModule.getFooterLine())
+					&& Objects.equals(layoutModule.getFooterLinkUri(), infos.layoutModule.getFooterLinkUri());
+		}
+		return false;
+	}
 }
\ No newline at end of file
@@ -19,6 +19,7 @@
  */
 package org.olat.admin.layout;
 
+import org.olat.core.util.event.CoalescableEvent;
 import org.olat.core.util.event.MultiUserEvent;
 
 /**
@@ -29,7 +30,7 @@ import org.olat.core.util.event.MultiUserEvent;
  * Initial Date:  20.06.2008 <br>
  * @author Roman Haag, frentix GmbH, roman.haag@frentix.com
  */
-public class LayoutChangedEvent extends MultiUserEvent {
+public class LayoutChangedEvent extends MultiUserEvent implements CoalescableEvent {
 
 	private static final long serialVersionUID = 6963077725749903124L;
 	
@@ -42,5 +43,9 @@ public class LayoutChangedEvent extends MultiUserEvent {
 	public String toString(){
 		return getCommand();
 	}
-	
+
+	@Override
+	public String getCoalescingKey() {
+		return null;
+	}
 }
@@ -0,0 +1,116 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.admin.sysinfo;
+
+import java.util.Map;
+
+import org.olat.core.gui.UserRequest;
+import org.olat.core.gui.components.form.flexible.FormItem;
+import org.olat.core.gui.components.form.flexible.FormItemContainer;
+import org.olat.core.gui.components.form.flexible.elements.FormLink;
+import org.olat.core.gui.components.form.flexible.elements.StaticTextElement;
+import org.olat.core.gui.components.form.flexible.impl.FormBasicController;
+import org.olat.core.gui.components.form.flexible.impl.FormEvent;
+import org.olat.core.gui.components.form.flexible.impl.FormLayoutContainer;
+import org.olat.core.gui.components.link.Link;
+import org.olat.core.gui.control.Controller;
+import org.olat.core.gui.control.WindowControl;
+import org.olat.core.util.mail.manager.MailOutboxSender;
+import org.olat.core.util.mail.model.MailOutboxStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Show the depth of the mail outbox and the throughput of the SMTP
+ * connections of this node.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class MailOutboxController extends FormBasicController {
+	
+	private FormLink refreshButton;
+	private StaticTextElement pendingEl;
+	private StaticTextElement sendingEl;
+	private StaticTextElement failedEl;
+	private StaticTextElement sentEl;
+	private StaticTextElement sentMinuteEl;
+	private StaticTextElement retriedEl;
+	private StaticTextElement connectionsEl;
+	
+	@Autowired
+	private MailOutboxSender mailOutbox;
+	
+	public MailOutboxController(UserRequest ureq, WindowControl wControl) {
+		super(ureq, wControl, "mail_outbox");
+		
+		initForm(ureq);
+		loadStatistics();
+	}
+
+	@Override
+	protected void initForm(FormItemContainer formLayout, Controller listener, UserRequest ureq) {
+		if(formLayout instanceof FormLayoutContainer) {
+			((FormLayoutContainer)formLayout).contextPut("enabled", Boolean.valueOf(mailOutbox.isEnabled()));
+		}
+		
+		FormLayoutContainer statsCont = FormLayoutContainer.createDefaultFormLayout("stats", getTranslator());
+		formLayout.add("stats", statsCont);
+
+		pendingEl = uifactory.addStaticTextElement("pending", "mailoutbox.pending", "", statsCont);
+		sendingEl = uifactory.addStaticTextElement("sending", "mailoutbox.sending", "", statsCont);
+		failedEl = uifactory.addStaticTextElement("failed", "mailoutbox.failed", "", statsCont);
+		sentMinuteEl = uifactory.addStaticTextElement("sent.minute", "mailoutbox.sent.minute", "", statsCont);
+		sentEl = uifactory.addStaticTextElement("sent", "mailoutbox.sent", "", statsCont);
+		retriedEl = uifactory.addStaticTextElement("retried", "mailoutbox.retried", "", statsCont);
+		connectionsEl = uifactory.addStaticTextElement("connections", "mailoutbox.connections", "", statsCont);
+		
+		refreshButton = uifactory.addFormLink("mailoutbox.refresh", formLayout, Link.BUTTON);
+		refreshButton.setIconLeftCSS("o_icon o_icon_refresh");
+	}
+	
+	private void loadStatistics() {
+		Map<MailOutboxStatus,Long> depth = mailOutbox.getQueueDepth();
+		pendingEl.setValue(depth.get(MailOutboxStatus.pending).toString());
+		sendingEl.setValue(depth.get(MailOutboxStatus.sending).toString());
+		failedEl.setValue(depth.get(MailOutboxStatus.failed).toString());
+		sentMinuteEl.setValue(Long.toString(mailOutbox.getSentLastMinute()));
+		sentEl.setValue(Long.toString(mailOutbox.getSentMessages()));
+		retriedEl.setValue(Long.toString(mailOutbox.getRetriedMessages()));
+		connectionsEl.setValue(mailOutbox.getOpenConnections() + " / " + mailOutbox.getMaxConnections());
+	}
+
+	@Override
+	protected void doDispose() {
+		//
+	}
+
+	@Override
+	protected void formInnerEvent(UserRequest ureq, FormItem source, FormEvent event) {
+		if(refreshButton == source) {
+			loadStatistics();
+		}
+		super.formInnerEvent(ureq, source, event);
+	}
+
+	@Override
+	protected void formOK(UserRequest ureq) {
+		//
+	}
+}
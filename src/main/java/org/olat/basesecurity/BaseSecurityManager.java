@@ -31,12 +31,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
@@ -47,7 +45,7 @@ import javax.persistence.TypedQuery;
 import org.apache.logging.log4j.Logger;
 import org.olat.basesecurity.events.NewIdentityCreatedEvent;
 import org.olat.basesecurity.manager.AuthenticationHistoryDAO;
-import org.olat.basesecurity.model.OrganisationRefImpl;
+import org.olat.basesecurity.manager.IdentityRolesCache;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.persistence.PersistenceHelper;
 import org.olat.core.commons.services.webdav.manager.WebDAVAuthManager;
@@ -94,6 +92,8 @@ public class BaseSecurityManager implements BaseSecurity, UserDataDeletable {
 	@Autowired
 	private LoginModule loginModule;
 	@Autowired
+	private IdentityRolesCache identityRolesCache;
+	@Autowired
 	private OrganisationService organisationService;
 	@Autowired
 	private AuthenticationHistoryDAO authenticationHistoryDao;
@@ -143,46 +143,7 @@ public class BaseSecurityManager implements BaseSecurity, UserDataDeletable {
 
 	@Override
 	public Roles getRoles(IdentityRef identity, boolean withInherited) {
-		StringBuilder sb = new StringBuilder(512);
-		sb.append("select org.key, org.identifier, membership.role from organisation as org ")
-		  .append(" inner join org.group baseGroup")
-		  .append(" inner join baseGroup.members membership")
-		  .append(" where membership.identity.key=:identityKey");
-		if(!withInherited) {
-			sb.append(" and membership.inheritanceModeString in ('").append(GroupMembershipInheritance.none.name()).append("','").append(GroupMembershipInheritance.root.name()).append("')");
-		}
-		
-		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
-				.createQuery(sb.toString(), Object[].class)
-				.setParameter("identityKey", identity.getKey())
-				.getResultList();
-		Map<OrganisationRef, List<OrganisationRoles>> orgToRoles = new HashMap<>();
-
-		Set<String> rolesStr = new HashSet<>();
-		for(Object[] rawObject:rawObjects) {
-			Long organisationKey = (Long)rawObject[0];
-			String role = (String)rawObject[2];
-			if(!OrganisationRoles.isValue(role)) {
-				continue;
-			}
-			rolesStr.add(role);
-
-			List<OrganisationRoles> roleList = orgToRoles
-					.computeIfAbsent(new OrganisationRefImpl(organisationKey), key -> new ArrayList<>());
-			roleList.add(OrganisationRoles.valueOf(role));
-		}
-
-		boolean isInvitee = rolesStr.contains(OrganisationRoles.invitee.name());
-		boolean isGuestOnly = false;
-		if(!rolesStr.contains(OrganisationRoles.user.name())) {
-			isGuestOnly = rolesStr.contains(OrganisationRoles.guest.name());
-		}
-		
-		List<RolesByOrganisation> rolesByOrganisations = new ArrayList<>();
-		for(Map.Entry<OrganisationRef, List<OrganisationRoles>> entry:orgToRoles.entrySet()) {
-			rolesByOrganisations.add(new RolesByOrganisation(entry.getKey(), entry.getValue()));
-		}
-		return Roles.valueOf(rolesByOrganisations, isGuestOnly, isInvitee);
+		return identityRolesCache.getRoles(identity, withInherited);
 	}
 
 	@Override
@@ -17,35 +17,33 @@
  * frentix GmbH, http://www.frentix.com
  * <p>
  */
-package org.olat.core.commons.services.vfs.manager;
+package org.olat.basesecurity.events;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.olat.core.util.event.MultiUserEvent;
 
 /**
+ * Fired after the commit of a change of memberships or grants, the roles
+ * and permissions of the identities must be reloaded on all nodes.
  * 
- * Initial date: 15 mars 2019<br>
- * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ * Initial date: 18 oct. 2026<br>
  *
  */
-public class AsyncIncrementFileDownloadEvent extends MultiUserEvent {
+public class IdentityRolesChangedEvent extends MultiUserEvent {
 
-	private static final long serialVersionUID = 5439824954399187557L;
-	public static final String ASYNC_FILE_SIZE = "async-file-size-updates";
+	private static final long serialVersionUID = -4123618208547201738L;
 	
-	private String filename;
-	private String relativePath;
+	private final ArrayList<Long> identityKeys;
 	
-	public AsyncIncrementFileDownloadEvent(String relativePath, String filename) {
-		super(ASYNC_FILE_SIZE);
-		this.filename = filename;
-		this.relativePath = relativePath;
-	}
-
-	public String getFilename() {
-		return filename;
+	public IdentityRolesChangedEvent(Collection<Long> identityKeys) {
+		super("identity-roles-changed");
+		this.identityKeys = new ArrayList<>(identityKeys);
 	}
 
-	public String getRelativePath() {
-		return relativePath;
+	public List<Long> getIdentityKeys() {
+		return identityKeys;
 	}
 }
@@ -19,9 +19,11 @@
  */
 package org.olat.basesecurity.manager;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.persistence.TypedQuery;
 
@@ -76,6 +78,29 @@ public class AuthenticationDAO {
 		return authentications != null && !authentications.isEmpty();
 	}
 	
+	/**
+	 * 
+	 * @param identities A list of identities
+	 * @param provider The authentication provider
+	 * @return The authentications of the specified identities with the provider
+	 */
+	public List<Authentication> getAuthentications(List<? extends IdentityRef> identities, String provider) {
+		if(identities == null || identities.isEmpty()) return new ArrayList<>();
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append("select auth from ").append(AuthenticationImpl.class.getName()).append(" as auth")
+		  .append(" inner join fetch auth.identity as ident")
+		  .append(" where ident.key in (:identityKeys) and auth.provider=:provider");
+		
+		List<Long> identityKeys = identities.stream()
+				.map(IdentityRef::getKey).collect(Collectors.toList());
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Authentication.class)
+				.setParameter("identityKeys", identityKeys)
+				.setParameter("provider", provider)
+				.getResultList();
+	}
+	
 	public Authentication updateAuthentication(Authentication authentication) {
 		return dbInstance.getCurrentEntityManager().merge(authentication);
 	}
@@ -24,8 +24,10 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 
 import org.olat.basesecurity.Grant;
 import org.olat.basesecurity.Group;
@@ -52,6 +54,8 @@ public class GroupDAO {
 	
 	@Autowired
 	private DB dbInstance;
+	@Autowired
+	private IdentityRolesCache identityRolesCache;
 	
 	public Group createGroup() {
 		GroupImpl group = new GroupImpl();
@@ -97,6 +101,7 @@ public class GroupDAO {
 		membership.setRole(role);
 		membership.setInheritanceMode(inheritanceMode);
 		dbInstance.getCurrentEntityManager().persist(membership);
+		identityRolesCache.invalidate(identity.getKey());
 		
 		Set<GroupMembership> members = ((GroupImpl)group).getMembers();
 		if(members == null) {
@@ -131,10 +136,12 @@ public class GroupDAO {
 		membership.setRole(role);
 		membership.setInheritanceMode(inheritanceMode);
 		dbInstance.getCurrentEntityManager().persist(membership);
+		identityRolesCache.invalidate(identity.getKey());
 	}
 	
 	public GroupMembership updateInheritanceMode(GroupMembership membership, GroupMembershipInheritance inheritanceMode) {
 		((GroupMembershipImpl)membership).setInheritanceMode(inheritanceMode);
+		identityRolesCache.invalidate(membership.getIdentity().getKey());
 		return dbInstance.getCurrentEntityManager().merge(membership);
 	}
 	
@@ -146,10 +153,12 @@ public class GroupDAO {
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
 		}
+		invalidate(memberships);
 		return memberships.size();
 	}
 	
 	public int removeMemberships(Group group, String role) {
+		identityRolesCache.invalidate(getMemberKeys(group, role));
 		return dbInstance.getCurrentEntityManager().createNamedQuery("deleteMembershipsByGroupAndRole")
 				.setParameter("groupKey", group.getKey())
 				.setParameter("role", role)
@@ -165,6 +174,7 @@ public class GroupDAO {
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
 		}
+		invalidate(memberships);
 		return memberships.size();
 	}
 	
@@ -178,12 +188,14 @@ public class GroupDAO {
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
 		}
+		invalidate(memberships);
 		return memberships.size();
 	}
 	
 	public int removeMemberships(IdentityRef identity) {
 		String deleteQuery = "delete from bgroupmember as membership where membership.identity.key=:identityKey";
 		
+		identityRolesCache.invalidate(identity.getKey());
 		return dbInstance.getCurrentEntityManager()
 				.createQuery(deleteQuery).setParameter("identityKey", identity.getKey())
 				.executeUpdate();
@@ -191,6 +203,38 @@ public class GroupDAO {
 	
 	public void removeMembership(GroupMembership membership) {
 		dbInstance.getCurrentEntityManager().remove(membership);
+		identityRolesCache.invalidate(membership.getIdentity().getKey());
+	}
+	
+	private void invalidate(List<GroupMembership> memberships) {
+		if(memberships.isEmpty()) return;
+		
+		List<Long> identityKeys = memberships.stream()
+				.map(membership -> membership.getIdentity().getKey())
+				.distinct()
+				.collect(Collectors.toList());
+		identityRolesCache.invalidate(identityKeys);
+	}
+	
+	/**
+	 * @param group The group
+	 * @param role The role or null for all roles
+	 * @return The primary keys of the members of the group
+	 */
+	private List<Long> getMemberKeys(Group group, String role) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select distinct membership.identity.key from bgroupmember as membership")
+		  .append(" where membership.group.key=:groupKey");
+		if(role != null) {
+			sb.append(" and membership.role=:role");
+		}
+		TypedQuery<Long> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class)
+				.setParameter("groupKey", group.getKey());
+		if(role != null) {
+			query.setParameter("role", role);
+		}
+		return query.getResultList();
 	}
 	
 	public int countMembers(Group group) {
@@ -253,6 +297,10 @@ public class GroupDAO {
 	}
 	
 	public boolean hasGrant(IdentityRef identity, String permission, OLATResource resource) {
+		if(identityRolesCache.isEnabled()) {
+			return getPermissions(identity, resource).contains(permission);
+		}
+		
 		StringBuilder sb = new StringBuilder();
 		sb.append("select count(grant) from bgrant as grant")
 		  .append(" inner join grant.group as baseGroup")
@@ -269,6 +317,10 @@ public class GroupDAO {
 	}
 	
 	public List<String> getPermissions(IdentityRef identity, OLATResource resource) {
+		return identityRolesCache.getPermissions(identity, resource, () -> loadPermissions(identity, resource));
+	}
+	
+	private List<String> loadPermissions(IdentityRef identity, OLATResource resource) {
 		return dbInstance.getCurrentEntityManager()
 				.createNamedQuery("grantedPermissionByIdentityAndResource", String.class)
 				.setParameter("identityKey", identity.getKey())
@@ -342,6 +394,7 @@ public class GroupDAO {
 		grant.setRole(role);
 		grant.setResource(resource);
 		dbInstance.getCurrentEntityManager().persist(grant);
+		identityRolesCache.invalidate(getMemberKeys(group, role));
 	}
 	
 	public void removeGrant(Group group, String role, String permission, OLATResource resource) {
@@ -362,6 +415,9 @@ public class GroupDAO {
 		for(Grant grant:grantToDelete) {
 			em.remove(grant);
 		}
+		if(!grantToDelete.isEmpty()) {
+			identityRolesCache.invalidate(getMemberKeys(group, role));
+		}
 	}
 	
 	public void removeGrants(Group group, String role, OLATResource resource) {
@@ -381,6 +437,9 @@ public class GroupDAO {
 		for(Grant grant:grantToDelete) {
 			em.remove(grant);
 		}
+		if(!grantToDelete.isEmpty()) {
+			identityRolesCache.invalidate(getMemberKeys(group, role));
+		}
 	}
 
 }
@@ -0,0 +1,268 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.basesecurity.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+
+import org.apache.logging.log4j.Logger;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.olat.basesecurity.IdentityRef;
+import org.olat.basesecurity.events.IdentityRolesChangedEvent;
+import org.olat.basesecurity.model.IdentityRolesSnapshot;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.id.Roles;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.cache.CacheWrapper;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.resource.OLATResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache of the roles and the permissions of the identities. The roles are
+ * loaded with one query, the permissions per resource on demand. The
+ * snapshots are invalidated by the changes of memberships and grants in the
+ * {@link GroupDAO}: at once on the local node and after the commit of the
+ * transaction on all nodes of the cluster.<br>
+ * A snapshot loaded while an invalidation happens is not kept in the cache,
+ * it cannot hide the change.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+@Service
+public class IdentityRolesCache implements GenericEventListener {
+	
+	private static final Logger log = Tracing.createLoggerFor(IdentityRolesCache.class);
+	
+	private static final OLATResourceable IDENTITY_ROLES_ORES = OresHelper.createOLATResourceableType(IdentityRolesCache.class);
+	
+	@Value("${security.roles.cache.enabled:true}")
+	private boolean enabled;
+	
+	@Autowired
+	private DB dbInstance;
+	
+	private final CoordinatorManager coordinatorManager;
+	private final CacheWrapper<Long,IdentityRolesSnapshot> snapshots;
+	/* incremented by every invalidation, a snapshot loaded during an invalidation is discarded */
+	private final AtomicLong generation = new AtomicLong();
+	/* identities changed by the transaction of the current thread, not committed yet */
+	private final ThreadLocal<Set<Long>> uncommittedChanges = ThreadLocal.withInitial(HashSet::new);
+	
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+	
+	@Autowired
+	public IdentityRolesCache(CoordinatorManager coordinatorManager) {
+		this.coordinatorManager = coordinatorManager;
+		snapshots = coordinatorManager.getCoordinator().getCacher().getCache(IdentityRolesCache.class.getSimpleName(), "snapshots");
+		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, IDENTITY_ROLES_ORES);
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		snapshots.clear();
+	}
+
+	public Roles getRoles(IdentityRef identity, boolean withInherited) {
+		if(!enabled || hasUncommittedChanges(identity.getKey())) {
+			return loadSnapshot(identity.getKey()).getRoles(withInherited);
+		}
+		
+		IdentityRolesSnapshot snapshot = snapshots.get(identity.getKey());
+		if(snapshot == null) {
+			misses.increment();
+			snapshot = loadAndCacheSnapshot(identity.getKey());
+		} else {
+			hits.increment();
+		}
+		return snapshot.getRoles(withInherited);
+	}
+	
+	/**
+	 * @param identity The identity
+	 * @param resource The resource
+	 * @param loader Load the permissions of the identity on the resource
+	 * @return The permissions of the identity on the resource
+	 */
+	public List<String> getPermissions(IdentityRef identity, OLATResource resource, Supplier<List<String>> loader) {
+		if(!enabled || hasUncommittedChanges(identity.getKey())) {
+			return loader.get();
+		}
+		
+		IdentityRolesSnapshot snapshot = snapshots.get(identity.getKey());
+		if(snapshot != null && snapshot.hasPermissions(resource.getKey())) {
+			hits.increment();
+		} else {
+			misses.increment();
+			if(snapshot == null) {
+				snapshot = loadAndCacheSnapshot(identity.getKey());
+			}
+		}
+		return snapshot.getPermissions(resource.getKey(), loader);
+	}
+	
+	private IdentityRolesSnapshot loadAndCacheSnapshot(Long identityKey) {
+		long currentGeneration = generation.get();
+		IdentityRolesSnapshot snapshot = loadSnapshot(identityKey);
+		snapshots.put(identityKey, snapshot);
+		if(currentGeneration != generation.get()) {
+			// an invalidation happened while loading, the snapshot is maybe outdated
+			snapshots.remove(identityKey);
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * The transaction of the current thread changed the roles of the identity,
+	 * the cache is bypassed until the end of the transaction: the cached snapshot
+	 * doesn't see the changes and a snapshot with the changes must not be visible
+	 * to the other transactions.
+	 */
+	private boolean hasUncommittedChanges(Long identityKey) {
+		return uncommittedChanges.get().contains(identityKey);
+	}
+	
+	private IdentityRolesSnapshot loadSnapshot(Long identityKey) {
+		StringBuilder sb = new StringBuilder(512);
+		sb.append("select org.key, membership.role, membership.inheritanceModeString from organisation as org ")
+		  .append(" inner join org.group baseGroup")
+		  .append(" inner join baseGroup.members membership")
+		  .append(" where membership.identity.key=:identityKey");
+		
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("identityKey", identityKey)
+				.getResultList();
+		return IdentityRolesSnapshot.valueOf(identityKey, rawObjects);
+	}
+	
+	/**
+	 * Remove the snapshots of the specified identities now and after the end of
+	 * the current transaction, on this node and on the other nodes of the cluster.
+	 * 
+	 * @param identityKeys The primary keys of the identities
+	 */
+	public void invalidate(Collection<Long> identityKeys) {
+		if(identityKeys == null || identityKeys.isEmpty()) return;
+		
+		List<Long> keys = new ArrayList<>(identityKeys);
+		invalidations.add(keys.size());
+		invalidateLocal(keys);
+		
+		EntityManager em = dbInstance.getCurrentEntityManager();
+		if(em.getTransaction().isActive()) {
+			// the other transactions see the changes after the commit
+			uncommittedChanges.get().addAll(keys);
+			em.unwrap(SessionImplementor.class).getActionQueue()
+				.registerProcess((AfterTransactionCompletionProcess)(success, session) -> {
+					uncommittedChanges.remove();
+					invalidateAfterCompletion(keys);
+				});
+		} else {
+			invalidateAfterCompletion(keys);
+		}
+	}
+	
+	public void invalidate(Long identityKey) {
+		invalidate(Collections.singletonList(identityKey));
+	}
+	
+	private void invalidateAfterCompletion(Collection<Long> identityKeys) {
+		invalidateLocal(identityKeys);
+		try {
+			IdentityRolesChangedEvent event = new IdentityRolesChangedEvent(identityKeys);
+			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, IDENTITY_ROLES_ORES);
+		} catch (Exception e) {
+			log.error("Cannot propagate the changes of roles", e);
+		}
+	}
+	
+	private void invalidateLocal(Collection<Long> identityKeys) {
+		generation.incrementAndGet();
+		for(Long identityKey:identityKeys) {
+			snapshots.remove(identityKey);
+		}
+	}
+	
+	@Override
+	public void event(Event event) {
+		if(event instanceof IdentityRolesChangedEvent) {
+			invalidateLocal(((IdentityRolesChangedEvent)event).getIdentityKeys());
+		}
+	}
+	
+	public void clear() {
+		generation.incrementAndGet();
+		snapshots.clear();
+	}
+	
+	public int size() {
+		return snapshots.size();
+	}
+	
+	public long getHits() {
+		return hits.sum();
+	}
+	
+	public long getMisses() {
+		return misses.sum();
+	}
+	
+	public long getInvalidations() {
+		return invalidations.sum();
+	}
+	
+	/**
+	 * @return The hit rate in percent
+	 */
+	public long getHitRate() {
+		long total = hits.sum() + misses.sum();
+		return total == 0 ? 0 : (hits.sum() * 100) / total;
+	}
+	
+	@Override
+	public String toString() {
+		return "identityRolesCache[size=" + size() + ":hits=" + getHits() + ":misses=" + getMisses()
+			+ ":invalidations=" + getInvalidations() + ":hitRate=" + getHitRate() + "%]";
+	}
+}
@@ -306,6 +306,22 @@ public class OrganisationDAO {
 				.getResultList();
 	}
 	
+	/**
+	 * @param role The role
+	 * @return The keys of the identities with the role in any organisation
+	 */
+	public List<Long> getIdentityKeys(String role) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select distinct membership.identity.key from organisation org")
+		  .append(" inner join org.group baseGroup")
+		  .append(" inner join baseGroup.members membership")
+		  .append(" where membership.role=:role");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class)
+				.setParameter("role", role)
+				.getResultList();
+	}
+	
 	/**
 	 * The method search identities, which are not deleted,
 	 * which a not part of an organization.
@@ -0,0 +1,137 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.basesecurity.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.olat.basesecurity.GroupMembershipInheritance;
+import org.olat.basesecurity.OrganisationRoles;
+import org.olat.core.id.OrganisationRef;
+import org.olat.core.id.Roles;
+import org.olat.core.id.RolesByOrganisation;
+
+/**
+ * The roles of an identity in the organisations, with and without the
+ * inherited memberships, and the permissions granted to the identity on the
+ * resources already checked. The roles are immutable, the permissions are
+ * loaded on demand.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class IdentityRolesSnapshot {
+	
+	private final Long identityKey;
+	private final Roles roles;
+	private final Roles rolesWithoutInherited;
+	private final ConcurrentMap<Long,List<String>> permissions = new ConcurrentHashMap<>();
+	
+	private IdentityRolesSnapshot(Long identityKey, Roles roles, Roles rolesWithoutInherited) {
+		this.identityKey = identityKey;
+		this.roles = roles;
+		this.rolesWithoutInherited = rolesWithoutInherited;
+	}
+	
+	/**
+	 * @param identityKey The identity
+	 * @param rawObjects The organisation key, the role and the inheritance mode of the memberships
+	 * @return The snapshot
+	 */
+	public static IdentityRolesSnapshot valueOf(Long identityKey, List<Object[]> rawObjects) {
+		Map<Long, List<OrganisationRoles>> orgToRoles = new HashMap<>();
+		Map<Long, List<OrganisationRoles>> orgToRolesWithoutInherited = new HashMap<>();
+		Set<String> rolesStr = new HashSet<>();
+		Set<String> rolesWithoutInheritedStr = new HashSet<>();
+		for(Object[] rawObject:rawObjects) {
+			Long organisationKey = (Long)rawObject[0];
+			String role = (String)rawObject[1];
+			if(!OrganisationRoles.isValue(role)) {
+				continue;
+			}
+			
+			OrganisationRoles organisationRole = OrganisationRoles.valueOf(role);
+			rolesStr.add(role);
+			orgToRoles.computeIfAbsent(organisationKey, key -> new ArrayList<>()).add(organisationRole);
+			
+			String inheritanceMode = (String)rawObject[2];
+			if(GroupMembershipInheritance.none.name().equals(inheritanceMode)
+					|| GroupMembershipInheritance.root.name().equals(inheritanceMode)) {
+				rolesWithoutInheritedStr.add(role);
+				orgToRolesWithoutInherited.computeIfAbsent(organisationKey, key -> new ArrayList<>()).add(organisationRole);
+			}
+		}
+		return new IdentityRolesSnapshot(identityKey, toRoles(orgToRoles, rolesStr),
+				toRoles(orgToRolesWithoutInherited, rolesWithoutInheritedStr));
+	}
+	
+	private static Roles toRoles(Map<Long, List<OrganisationRoles>> orgToRoles, Set<String> rolesStr) {
+		boolean isInvitee = rolesStr.contains(OrganisationRoles.invitee.name());
+		boolean isGuestOnly = false;
+		if(!rolesStr.contains(OrganisationRoles.user.name())) {
+			isGuestOnly = rolesStr.contains(OrganisationRoles.guest.name());
+		}
+		
+		List<RolesByOrganisation> rolesByOrganisations = new ArrayList<>();
+		for(Map.Entry<Long, List<OrganisationRoles>> entry:orgToRoles.entrySet()) {
+			OrganisationRef organisation = new OrganisationRefImpl(entry.getKey());
+			rolesByOrganisations.add(new RolesByOrganisation(organisation, entry.getValue()));
+		}
+		return Roles.valueOf(rolesByOrganisations, isGuestOnly, isInvitee);
+	}
+	
+	public Long getIdentityKey() {
+		return identityKey;
+	}
+	
+	public Roles getRoles(boolean withInherited) {
+		return withInherited ? roles : rolesWithoutInherited;
+	}
+	
+	/**
+	 * @param resourceKey The primary key of the resource
+	 * @param loader Load the permissions if they are not already in the snapshot
+	 * @return The permissions granted on the resource
+	 */
+	public List<String> getPermissions(Long resourceKey, Supplier<List<String>> loader) {
+		List<String> resourcePermissions = permissions.get(resourceKey);
+		if(resourcePermissions == null) {
+			// the query runs outside of the map
+			resourcePermissions = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+			List<String> currentPermissions = permissions.putIfAbsent(resourceKey, resourcePermissions);
+			if(currentPermissions != null) {
+				resourcePermissions = currentPermissions;
+			}
+		}
+		return resourcePermissions;
+	}
+	
+	public boolean hasPermissions(Long resourceKey) {
+		return permissions.containsKey(resourceKey);
+	}
+}
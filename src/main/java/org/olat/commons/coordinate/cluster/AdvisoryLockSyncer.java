@@ -0,0 +1,342 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.AssertException;
+import org.olat.core.logging.DBRuntimeException;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.coordinate.Syncer;
+import org.olat.core.util.coordinate.SyncerCallback;
+import org.olat.core.util.coordinate.SyncerExecutor;
+import org.olat.core.util.coordinate.util.WeakLockTable;
+import org.olat.core.util.resource.OresHelper;
+
+/**
+ * Syncer which uses the advisory locks of the database instead of the rows
+ * of the pessimistic locks table. The lock is identified by a 64 bits hash of
+ * the resource, there are no rows to insert or to lock.
+ * <ul>
+ * 	<li>PostgreSQL: pg_try_advisory_lock / pg_advisory_unlock</li>
+ * 	<li>MySQL: GET_LOCK / RELEASE_LOCK</li>
+ * </ul>
+ * The locks of both databases are bound to the connection. The lock is held
+ * by a connection of a small set of connections dedicated to the locks and
+ * not taken from the pool of hibernate: the callback can commit and close its
+ * session without releasing the lock, and the syncs cannot drain the pool of
+ * hibernate. A connection which fails to release its lock is closed, the
+ * database releases the lock with the connection. The wait for a connection
+ * and for a lock is bounded by the lock timeout.<br>
+ * Within the VM, the threads are synchronized with a lock object of a
+ * weak lock table first.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class AdvisoryLockSyncer implements Syncer {
+	
+	private static final Logger log = Tracing.createLoggerFor(AdvisoryLockSyncer.class);
+	
+	private final DB dbInstance;
+	private final DataSource lockDataSource;
+	private final SyncStatistics statistics;
+	private final int lockTimeout;
+	private final int executionTimeThreshold;
+	
+	private final Semaphore lockConnections;
+	private final BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>();
+	private final WeakLockTable localLocks = new WeakLockTable();
+	private final ThreadLocal<OLATResourceable> currentSync = new ThreadLocal<>();
+	
+	/**
+	 * @param dbInstance The database
+	 * @param lockDataSource The data source of the connections which hold the locks, not pooled
+	 * @param maxLockConnections The max. number of connections holding a lock at the same time
+	 * @param statistics The statistics to collect the wait and hold times
+	 * @param lockTimeout The time in seconds to wait for a connection and for a lock
+	 * @param executionTimeThreshold The time in milliseconds after which a long sync is logged
+	 */
+	public AdvisoryLockSyncer(DB dbInstance, DataSource lockDataSource, int maxLockConnections,
+			SyncStatistics statistics, int lockTimeout, int executionTimeThreshold) {
+		this.dbInstance = dbInstance;
+		this.lockDataSource = lockDataSource;
+		this.statistics = statistics;
+		this.lockTimeout = lockTimeout;
+		this.executionTimeThreshold = executionTimeThreshold;
+		lockConnections = new Semaphore(Math.max(1, maxLockConnections), true);
+	}
+	
+	/**
+	 * @param db The database
+	 * @return true if the database has advisory locks
+	 */
+	public static boolean isSupported(DB db) {
+		return db.isPostgreSQL() || db.isMySQL();
+	}
+	
+	/**
+	 * Close the idle connections.
+	 */
+	public void shutdown() {
+		Connection connection;
+		while((connection = idleConnections.poll()) != null) {
+			closeQuietly(connection);
+		}
+	}
+	
+	@Override
+	public <T> T doInSync(OLATResourceable ores, SyncerCallback<T> callback) {
+		if(currentSync.get() != null) {
+			throw new AssertException("AdvisoryLockSyncer: nested doInSync is not allowed");
+		}
+		
+		String asset = OresHelper.createStringRepresenting(ores);
+		long lockKey = getLockKey(asset);
+		long start = System.currentTimeMillis();
+		long acquired;
+		T res;
+		
+		Object localLock = localLocks.getLockFor(asset);
+		synchronized(localLock) {//cluster_ok is per vm only, the advisory lock is for the cluster
+			currentSync.set(ores);
+			Connection lockConnection = null;
+			try {
+				lockConnection = acquireLock(lockKey);
+				acquired = System.currentTimeMillis();
+				
+				res = callback.execute();
+				
+				// see ClusterSyncer for the reasons of the commit
+				dbInstance.commit();
+			} finally {
+				currentSync.remove();
+				if(lockConnection != null) {
+					releaseLock(lockConnection, lockKey);
+				}
+			}
+		}
+		
+		long stop = System.currentTimeMillis();
+		statistics.record(ores.getResourceableTypeName(), acquired - start, stop - acquired);
+		if (stop - start > executionTimeThreshold && log.isDebugEnabled()) {
+			log.warn("execution time exceeded limit of {}: {}", executionTimeThreshold, (stop - start), new AssertException("generate stacktrace"));
+		}
+		return res;
+	}
+	
+	@Override
+	public void doInSync(OLATResourceable ores, final SyncerExecutor executor) {
+		doInSync(ores, () -> {
+			executor.execute();
+			return null;
+		});
+	}
+
+	@Override
+	public void assertAlreadyDoInSyncFor(OLATResourceable ores) {
+		OLATResourceable syncOres = currentSync.get();
+		if(syncOres == null || !syncOres.getResourceableTypeName().equals(ores.getResourceableTypeName())
+				|| !syncOres.getResourceableId().equals(ores.getResourceableId())) {
+			throw new AssertException("This method must be called from doInSync block with ores=" + ores);
+		}
+	}
+	
+	/**
+	 * @param asset The string representing the resource
+	 * @return A 64 bits hash of the resource, a collision only serializes
+	 * 		two unrelated resources
+	 */
+	static long getLockKey(String asset) {
+		UUID uuid = UUID.nameUUIDFromBytes(asset.getBytes(StandardCharsets.UTF_8));
+		return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+	}
+	
+	static String getLockName(long lockKey) {
+		return "oo_sync_" + Long.toHexString(lockKey);
+	}
+	
+	/**
+	 * @param lockKey The key of the lock
+	 * @return The connection which holds the lock
+	 */
+	private Connection acquireLock(long lockKey) {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(lockTimeout);
+		Connection connection = borrowConnection(lockKey);
+		try {
+			boolean locked;
+			if(dbInstance.isPostgreSQL()) {
+				locked = tryLockPostgreSQL(connection, lockKey, deadline);
+			} else {
+				locked = lockMySQL(connection, lockKey, deadline);
+			}
+			if(!locked) {
+				throw new DBRuntimeException("Cannot acquire the advisory lock " + getLockName(lockKey) + " within " + lockTimeout + "s");
+			}
+			return connection;
+		} catch (SQLException e) {
+			giveBackConnection(connection, false);
+			throw new DBRuntimeException("Cannot acquire the advisory lock " + getLockName(lockKey), e);
+		} catch (RuntimeException e) {
+			giveBackConnection(connection, true);
+			throw e;
+		}
+	}
+	
+	/**
+	 * pg_advisory_lock waits without timeout, try the lock until the deadline.
+	 */
+	private boolean tryLockPostgreSQL(Connection connection, long lockKey, long deadline) throws SQLException {
+		long pause = 5;
+		try(PreparedStatement statement = connection.prepareStatement("select pg_try_advisory_lock(?)")) {
+			statement.setLong(1, lockKey);
+			while(true) {
+				try(ResultSet rs = statement.executeQuery()) {
+					if(rs.next() && rs.getBoolean(1)) {
+						return true;
+					}
+				}
+				if(System.currentTimeMillis() + pause > deadline) {
+					return false;
+				}
+				try {
+					Thread.sleep(pause);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+				pause = Math.min(200, pause * 2);
+			}
+		}
+	}
+	
+	private boolean lockMySQL(Connection connection, long lockKey, long deadline) throws SQLException {
+		int timeout = (int)Math.max(0, TimeUnit.MILLISECONDS.toSeconds(deadline - System.currentTimeMillis()));
+		try(PreparedStatement statement = connection.prepareStatement("select get_lock(?, ?)")) {
+			statement.setString(1, getLockName(lockKey));
+			statement.setInt(2, timeout);
+			try(ResultSet rs = statement.executeQuery()) {
+				return rs.next() && rs.getInt(1) == 1;
+			}
+		}
+	}
+	
+	private void releaseLock(Connection connection, long lockKey) {
+		String sql = dbInstance.isPostgreSQL() ? "select pg_advisory_unlock(?)" : "select release_lock(?)";
+		boolean released = false;
+		try(PreparedStatement statement = connection.prepareStatement(sql)) {
+			if(dbInstance.isPostgreSQL()) {
+				statement.setLong(1, lockKey);
+			} else {
+				statement.setString(1, getLockName(lockKey));
+			}
+			try(ResultSet rs = statement.executeQuery()) {
+				released = rs.next() && rs.getBoolean(1);
+			}
+		} catch (SQLException e) {
+			log.error("Cannot release the advisory lock: {}", getLockName(lockKey), e);
+		} finally {
+			// the lock is maybe still held, the connection must be closed
+			giveBackConnection(connection, released);
+		}
+	}
+	
+	/**
+	 * Wait at most the lock timeout for one of the dedicated connections.
+	 */
+	private Connection borrowConnection(long lockKey) {
+		try {
+			if(!lockConnections.tryAcquire(lockTimeout, TimeUnit.SECONDS)) {
+				throw new DBRuntimeException("No connection for the advisory lock " + getLockName(lockKey) + " within " + lockTimeout + "s");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DBRuntimeException("Interrupted while waiting a connection for the advisory lock " + getLockName(lockKey), e);
+		}
+		
+		try {
+			Connection connection;
+			while((connection = idleConnections.poll()) != null) {
+				if(connection.isValid(5)) {
+					return connection;
+				}
+				closeQuietly(connection);
+			}
+			connection = lockDataSource.getConnection();
+			// the locks are not transactional, don't keep a transaction open
+			connection.setAutoCommit(true);
+			return connection;
+		} catch (SQLException e) {
+			lockConnections.release();
+			throw new DBRuntimeException("Cannot open a connection for the advisory lock " + getLockName(lockKey), e);
+		}
+	}
+	
+	/**
+	 * @param connection The connection
+	 * @param reusable false if the connection holds maybe a lock and must be closed
+	 */
+	private void giveBackConnection(Connection connection, boolean reusable) {
+		try {
+			if(!reusable) {
+				discard(connection);
+			} else if(!idleConnections.offer(connection)) {
+				closeQuietly(connection);
+			}
+		} finally {
+			lockConnections.release();
+		}
+	}
+	
+	/**
+	 * Abort the connection before closing it, if the data source is a pool
+	 * (JNDI), the connection must not go back to the pool with the lock.
+	 */
+	private void discard(Connection connection) {
+		try {
+			connection.abort(Runnable::run);
+		} catch (SQLException | RuntimeException e) {
+			log.debug("Cannot abort the connection of an advisory lock", e);
+		}
+		closeQuietly(connection);
+	}
+	
+	private void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			log.error("Cannot close the connection of an advisory lock", e);
+		}
+	}
+}
@@ -24,6 +24,8 @@
 */
 package org.olat.commons.coordinate.cluster;
 
+import javax.sql.DataSource;
+
 import org.apache.logging.log4j.Logger;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.services.lock.pessimistic.PessimisticLockManager;
@@ -51,6 +53,13 @@ public class ClusterSyncer implements Syncer {
 	private PessimisticLockManager pessimisticLockManager;
 	private DB dbInstance;
 	
+	private String syncMode = "plock";
+	private int advisoryLockTimeout = 60;
+	private int advisoryLockConnections = 10;
+	private DataSource lockDataSource;
+	private AdvisoryLockSyncer advisoryLockSyncer;
+	private final SyncStatistics statistics = new SyncStatistics();
+	
 	/**
 	 * [used by spring]
 	 * @param pessimisticLockManager
@@ -63,20 +72,45 @@ public class ClusterSyncer implements Syncer {
 		dbInstance = db;
 	}
 	
+	/**
+	 * [used by spring]
+	 */
+	public void init() {
+		if("advisory".equals(syncMode)) {
+			if(AdvisoryLockSyncer.isSupported(dbInstance)) {
+				advisoryLockSyncer = new AdvisoryLockSyncer(dbInstance, lockDataSource, advisoryLockConnections,
+						statistics, advisoryLockTimeout, executionTimeThreshold);
+				log.info("Syncer uses the advisory locks of the database");
+			} else {
+				log.warn("The database {} has no advisory locks, the syncer uses the pessimistic locks", dbInstance.getDbVendor());
+			}
+		}
+	}
+	
+	/**
+	 * @return The wait and hold times of the sync points
+	 */
+	public SyncStatistics getStatistics() {
+		return statistics;
+	}
+	
 	/**
 	 * @see org.olat.core.util.coordinate.Syncer#doInSync(org.olat.core.id.OLATResourceable, org.olat.core.util.coordinate.SyncerCallback)
 	 */
 	public <T> T doInSync(OLATResourceable ores, SyncerCallback<T> callback) {
+		if(advisoryLockSyncer != null) {
+			return advisoryLockSyncer.doInSync(ores, callback);
+		}
+		
 		getData().setSyncObject(ores);// Store ores-object for assertAlreadyDoInSyncFor(ores)
 		String asset = OresHelper.createStringRepresenting(ores);
 		
 		// 1. sync on vm (performance and net bandwith reason, and also for a fair per-node handling of db request) 
 		// cluster:::: measure throughput with/without this sync
 		// : maybe also measure if with a n-Semaphore (at most n concurrent accesses) throughput incs or decs
-		long start = 0;
 		boolean isDebug = log.isDebugEnabled();
-		if (isDebug) start = System.currentTimeMillis();
-	
+		long start = System.currentTimeMillis();
+		long acquired;
 
 		T res;
 		Object syncObj = DerivedStringSyncer.getInstance().getSynchLockFor(ores);
@@ -90,6 +124,7 @@ public class ClusterSyncer implements Syncer {
 			// until the transaction is committed or rollbacked
 			try {
 				getPessimisticLockManager().findOrPersistPLock(asset);
+				acquired = System.currentTimeMillis();
 	
 				// now execute the task, which may or may not contain further db queries.
 				res = callback.execute();
@@ -112,8 +147,9 @@ public class ClusterSyncer implements Syncer {
 			// was acceptable there as well.
 			dbInstance.commit();
 		}
+		long stop = System.currentTimeMillis();
+		statistics.record(ores.getResourceableTypeName(), acquired - start, stop - acquired);
 		if (isDebug) {
-			long stop = System.currentTimeMillis();
 			if (stop-start > executionTimeThreshold) {
 				log.warn("execution time exceeded limit of "+executionTimeThreshold+": "+(stop-start), new AssertException("generate stacktrace"));
 			}
@@ -142,6 +178,10 @@ public class ClusterSyncer implements Syncer {
 	 */
 	@Override
 	public void assertAlreadyDoInSyncFor(OLATResourceable ores) {
+		if(advisoryLockSyncer != null) {
+			advisoryLockSyncer.assertAlreadyDoInSyncFor(ores);
+			return;
+		}
 		if (getData().getSyncObject() == null || !getData().isEquals(ores) || (getData().getNestedLevel() == 0) ) {
 			throw new AssertException("This method must be called from doInSync block with ores=" + ores);
 		}
@@ -155,6 +195,47 @@ public class ClusterSyncer implements Syncer {
 		this.executionTimeThreshold = executionTimeThreshold;
 	}
 
+	/**
+	 * [used by spring]
+	 * @param syncMode plock for the pessimistic locks table or advisory for the advisory locks of the database
+	 */
+	public void setSyncMode(String syncMode) {
+		this.syncMode = syncMode;
+	}
+
+	/**
+	 * [used by spring]
+	 * @param advisoryLockTimeout The time in seconds to wait for an advisory lock
+	 */
+	public void setAdvisoryLockTimeout(int advisoryLockTimeout) {
+		this.advisoryLockTimeout = advisoryLockTimeout;
+	}
+
+	/**
+	 * [used by spring]
+	 * @param advisoryLockConnections The max. number of connections holding an advisory lock
+	 */
+	public void setAdvisoryLockConnections(int advisoryLockConnections) {
+		this.advisoryLockConnections = advisoryLockConnections;
+	}
+
+	/**
+	 * [used by spring]
+	 * @param lockDataSource The data source of the connections holding the advisory locks
+	 */
+	public void setLockDataSource(DataSource lockDataSource) {
+		this.lockDataSource = lockDataSource;
+	}
+	
+	/**
+	 * [used by spring]
+	 */
+	public void destroy() {
+		if(advisoryLockSyncer != null) {
+			advisoryLockSyncer.shutdown();
+		}
+	}
+
 	private void setData(ThreadLocalClusterSyncer data) {
 		this.data.set(data);
 	}
@@ -0,0 +1,162 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The wait and hold times of the synchronization points of the syncer,
+ * grouped by type of resource. The times are collected in histograms
+ * with fixed buckets in milliseconds, to find the hot sync points.<br>
+ * The resources themselves are not used as key: there is one sync point
+ * per user, course, test session... and the map would grow without limit.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class SyncStatistics {
+	
+	/**
+	 * The upper bounds in milliseconds of the buckets, the last bucket is unbounded
+	 */
+	public static final long[] BUCKETS = new long[] { 1, 5, 10, 50, 100, 500, 1000, 5000 };
+	
+	private final ConcurrentMap<String,SyncPointStatistics> syncPoints = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param type The type of resource
+	 * @param waitTime The time in milliseconds to acquire the locks
+	 * @param holdTime The time in milliseconds the locks were held
+	 */
+	public void record(String type, long waitTime, long holdTime) {
+		syncPoints.computeIfAbsent(type, SyncPointStatistics::new).record(waitTime, holdTime);
+	}
+	
+	/**
+	 * @param maxResults The max. number of sync points
+	 * @return The sync points with the most wait time
+	 */
+	public List<SyncPointStatistics> getHotSyncPoints(int maxResults) {
+		List<SyncPointStatistics> statistics = new ArrayList<>(syncPoints.values());
+		Collections.sort(statistics, Comparator.comparingLong((SyncPointStatistics s) -> s.getWaitTime().getTotal()).reversed());
+		return statistics.size() > maxResults ? statistics.subList(0, maxResults) : statistics;
+	}
+	
+	public SyncPointStatistics getStatistics(String type) {
+		return syncPoints.get(type);
+	}
+	
+	public void reset() {
+		syncPoints.clear();
+	}
+	
+	public static class SyncPointStatistics {
+		
+		private final String type;
+		private final Histogram waitTime = new Histogram();
+		private final Histogram holdTime = new Histogram();
+		
+		public SyncPointStatistics(String type) {
+			this.type = type;
+		}
+		
+		private void record(long wait, long hold) {
+			waitTime.record(wait);
+			holdTime.record(hold);
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public Histogram getWaitTime() {
+			return waitTime;
+		}
+
+		public Histogram getHoldTime() {
+			return holdTime;
+		}
+	}
+	
+	public static class Histogram {
+		
+		private final LongAdder[] counts = new LongAdder[BUCKETS.length + 1];
+		private final LongAdder total = new LongAdder();
+		private final AtomicLong max = new AtomicLong();
+		
+		public Histogram() {
+			for(int i=counts.length; i-->0; ) {
+				counts[i] = new LongAdder();
+			}
+		}
+		
+		private void record(long time) {
+			int bucket = 0;
+			while(bucket < BUCKETS.length && time > BUCKETS[bucket]) {
+				bucket++;
+			}
+			counts[bucket].increment();
+			total.add(time);
+			max.accumulateAndGet(time, Math::max);
+		}
+		
+		/**
+		 * @return The number of measures in every bucket
+		 */
+		public long[] getCounts() {
+			long[] values = new long[counts.length];
+			for(int i=counts.length; i-->0; ) {
+				values[i] = counts[i].sum();
+			}
+			return values;
+		}
+		
+		public long getCount() {
+			long count = 0;
+			for(LongAdder c:counts) {
+				count += c.sum();
+			}
+			return count;
+		}
+		
+		/**
+		 * @return The sum of all the times in milliseconds
+		 */
+		public long getTotal() {
+			return total.sum();
+		}
+		
+		public long getAverage() {
+			long count = getCount();
+			return count == 0 ? 0 : total.sum() / count;
+		}
+		
+		public long getMax() {
+			return max.get();
+		}
+	}
+}
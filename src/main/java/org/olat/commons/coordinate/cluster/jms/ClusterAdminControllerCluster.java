@@ -34,6 +34,8 @@ import java.util.Map;
 import org.olat.admin.user.UserSearchController;
 import org.olat.basesecurity.events.SingleIdentityChosenEvent;
 import org.olat.commons.coordinate.cluster.ClusterCoordinator;
+import org.olat.commons.coordinate.cluster.ClusterSyncer;
+import org.olat.commons.coordinate.cluster.SyncStatistics;
 import org.olat.commons.coordinate.cluster.lock.ClusterLockManager;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.gui.UserRequest;
@@ -53,6 +55,7 @@ import org.olat.core.util.Formatter;
 import org.olat.core.util.cache.CacheWrapper;
 import org.olat.core.util.coordinate.Coordinator;
 import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.coordinate.Syncer;
 import org.olat.core.util.coordinate.SyncerExecutor;
 import org.olat.core.util.event.MultiUserEvent;
 import org.olat.core.util.resource.OresHelper;
@@ -135,6 +138,9 @@ public class ClusterAdminControllerCluster extends BasicController {
 		mainVc.put("performanceinfos", perfInfoVc);
 		updatePerfInfos();
 		
+		mainVc.contextPut("syncBuckets", SyncStatistics.BUCKETS);
+		updateSyncInfos();
+		
 		// test for the distributed cache
 		cachetest = createVelocityContainer("cachetest");
 		testCachePut = LinkFactory.createButtonSmall("testCachePut", cachetest, this);
@@ -145,6 +151,7 @@ public class ClusterAdminControllerCluster extends BasicController {
 		final VelocityContainer busMsgs = createVelocityContainer("busmsgs");
 		busMsgs.contextPut("time", Formatter.formatDatetime(new Date()));
 		
+		updateFrameInfos(busMsgs);
 		mainVc.put("busmsgs", busMsgs);
 		// let a thread repeatively dump all messages
 		Thread pollThread = new Thread(new Runnable(){
@@ -161,10 +168,12 @@ public class ClusterAdminControllerCluster extends BasicController {
 					busMsgs.contextPut("time", Formatter.formatDatetime(new Date()));
 					busMsgs.contextPut("recmsgs", clusBus.getListOfReceivedMsgs());
 					busMsgs.contextPut("sentmsgs", clusBus.getListOfSentMsgs());
+					updateFrameInfos(busMsgs);
 					// also let node infos refresh
 					updateNodeInfos();
 					// also let perf infos refresh
 					updatePerfInfos();
+					updateSyncInfos();
 					// update cache info
 					updateCacheInfo();
 				}
@@ -201,6 +210,28 @@ public class ClusterAdminControllerCluster extends BasicController {
 		mainVc.contextPut("busListenerInfos", clusBus.getBusInfosAsString());
 	}
 	
+	void updateFrameInfos(VelocityContainer busMsgs) {
+		busMsgs.contextPut("sentframes", clusBus.getNumOfSentFrames());
+		busMsgs.contextPut("coalescedmsgs", clusBus.getNumOfCoalescedMessages());
+		busMsgs.contextPut("framesize", clusBus.getMrtgProbeJMSFrameSize());
+		busMsgs.contextPut("frameevents", clusBus.getMrtgProbeJMSFrameEvents());
+		busMsgs.contextPut("batchtime", clusBus.getMrtgProbeJMSBatchTime());
+		busMsgs.contextPut("sendtime", clusBus.getMrtgProbeJMSSendTime());
+		busMsgs.contextPut("deliverytime", clusBus.getMrtgProbeJMSDeliveryTime());
+	}
+	
+	void updateSyncInfos() {
+		SyncStatistics statistics = getSyncStatistics();
+		if(statistics != null) {
+			mainVc.contextPut("syncPoints", statistics.getHotSyncPoints(20));
+		}
+	}
+	
+	private SyncStatistics getSyncStatistics() {
+		Syncer syncer = CoordinatorManager.getInstance().getCoordinator().getSyncer();
+		return syncer instanceof ClusterSyncer ? ((ClusterSyncer)syncer).getStatistics() : null;
+	}
+	
 	void updatePerfInfos() {
 		// collect performance information
 		
@@ -288,6 +319,10 @@ public class ClusterAdminControllerCluster extends BasicController {
 		} else if (source == resetStats) {
 			clusBus.resetStats();
 			updatePerfInfos();
+			if(getSyncStatistics() != null) {
+				getSyncStatistics().reset();
+				updateSyncInfos();
+			}
 		}
 	}
   
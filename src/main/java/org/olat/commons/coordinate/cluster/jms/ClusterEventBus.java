@@ -24,13 +24,18 @@
 */
 package org.olat.commons.coordinate.cluster.jms;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.Objects;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
@@ -50,15 +55,22 @@ import org.olat.core.logging.OLATRuntimeException;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.cluster.ClusterConfig;
 import org.olat.core.util.event.AbstractEventBus;
+import org.olat.core.util.event.CoalescableEvent;
 import org.olat.core.util.event.GenericEventListener;
 import org.olat.core.util.event.MultiUserEvent;
 import org.olat.core.util.event.businfo.BusListenerInfo;
 import org.olat.core.util.event.businfo.BusListenerInfos;
 import org.olat.core.util.resource.OresHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * This class realizes a clustered (multiple java vm) system event bus. it uses JMS 
  * (per default, apache activeMQ 4.1.4 is configured using spring) as an implementation.
+ * <p>
+ * The events are collected during a short batch interval and sent together
+ * in one compact frame (see {@link ClusterEventFrame}). The idempotent events
+ * (see {@link CoalescableEvent}) which are already waiting in the batch are
+ * dropped.
  * 
  * @author Felix Jost
  */
@@ -72,10 +84,20 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	// settings
 	private long sendInterval = 1000; // 1000 miliseconds between each "ping/alive/info" message, can be set using spring
 	private long jmsMsgDelayLimit = 5000;  // max duration of ClusterInfoEvent send-receive time in ms
+	private long batchInterval = 5; // collect the events during 5 miliseconds before sending them, can be set using spring
+	private int maxBatchSize = 500; // max. number of events in a frame, can be set using spring
 	
 	// counters
 	private long latestSentMsgId = -1;
 	private long numOfSentMessages = 0;
+	private final AtomicLong numOfCoalescedMessages = new AtomicLong();
+	private long numOfSentFrames = 0;
+	
+	// events waiting to be sent
+	private final Object pendingLock = new Object();
+	private List<JMSWrapper> pendingEvents = new ArrayList<>();
+	private Map<CoalescingKey,JMSWrapper> pendingCoalescableEvents = new HashMap<>();
+	private long firstPendingTime = -1;
 	
 	// stats
 	private List<String> msgsSent = new ArrayList<>(); 
@@ -106,7 +128,12 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	
 	private final SimpleProbe mrtgProbeJMSEnqueueTime_ = new SimpleProbe();
 	
-	private ExecutorService jmsExecutor;
+	private final SimpleProbe mrtgProbeJMSFrameSize_ = new SimpleProbe();
+	private final SimpleProbe mrtgProbeJMSFrameEvents_ = new SimpleProbe();
+	private final SimpleProbe mrtgProbeJMSBatchTime_ = new SimpleProbe();
+	private final SimpleProbe mrtgProbeJMSSendTime_ = new SimpleProbe();
+	
+	private ScheduledExecutorService jmsExecutor;
 	
 	/**
 	 * [used by spring]
@@ -118,7 +145,8 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	}
 
 	public void springInit() throws JMSException {
-		jmsExecutor = Executors.newSingleThreadExecutor();
+		// the producer session is only used by this thread
+		jmsExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("oo-cluster-event-bus-"));
 		
 		connection = connectionFactory.createConnection();
 		sessionConsumer = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
@@ -182,6 +210,34 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		return mrtgProbeJMSEnqueueTime_;
 	}
 	
+	/**
+	 * @return The size in bytes of the sent frames
+	 */
+	public SimpleProbe getMrtgProbeJMSFrameSize() {
+		return mrtgProbeJMSFrameSize_;
+	}
+	
+	/**
+	 * @return The number of events of the sent frames
+	 */
+	public SimpleProbe getMrtgProbeJMSFrameEvents() {
+		return mrtgProbeJMSFrameEvents_;
+	}
+	
+	/**
+	 * @return The time in ms the first event of a frame waited in the batch
+	 */
+	public SimpleProbe getMrtgProbeJMSBatchTime() {
+		return mrtgProbeJMSBatchTime_;
+	}
+	
+	/**
+	 * @return The time in ms to encode and send a frame
+	 */
+	public SimpleProbe getMrtgProbeJMSSendTime() {
+		return mrtgProbeJMSSendTime_;
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.olat.core.util.event.GenericEventListener#event(org.olat.core.gui.control.Event)
 	 */
@@ -221,36 +277,93 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		// (the receiver will detect whether messages are from itself and thus can be ignored, since they were already sent directly.
 		final long msgId = ++latestSentMsgId;
 		final Integer nodeId = clusterConfig.getNodeId();
+		final JMSWrapper wrapper = new JMSWrapper(nodeId, msgId, ores, event);
 		
-		jmsExecutor.execute(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					ObjectMessage message = sessionProducer.createObjectMessage();
-					message.setObject(new JMSWrapper(nodeId, msgId, ores, event));
-					producer.send(message);
-				} catch (Exception e) {
-					log.error("Cannot send JMS message", e);
-					// cluster:::: what shall we do here: the JMS bus is broken! and we thus cannot know if other nodes are alive.
-					// if we are the only node running, then we could continue.
-					// a) either throw an exception - meaning olat doesn't really run at all and produces redscreens all the time and logging in is not possible.
-					// b) or warn in the log/jmx - but surveillance is critical here!!
-					// -> do the more fail-fast option a) at the moment for correctness reasons.
-					System.err.println("###############################################################################################");
-					System.err.println("### ClusterEventBus: communication error with JMS - cannot send messages!!!" + e);
-					System.err.println("###############################################################################################");
-					
-					throw new OLATRuntimeException("communication error with JMS - cannot send messages!!!", e);
+		boolean firstPending;
+		boolean fullBatch;
+		synchronized(pendingLock) {
+			if(event instanceof CoalescableEvent) {
+				CoalescingKey key = new CoalescingKey(ores, event);
+				if(pendingCoalescableEvents.containsKey(key)) {
+					numOfCoalescedMessages.incrementAndGet();
+					if (log.isDebugEnabled()) log.debug("coalesced msg: ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() + ", event:" + event);
+					return;
 				}
-				numOfSentMessages++;
+				pendingCoalescableEvents.put(key, wrapper);
+			}
+			pendingEvents.add(wrapper);
+			firstPending = pendingEvents.size() == 1;
+			if(firstPending) {
+				firstPendingTime = System.currentTimeMillis();
 			}
-		});
+			fullBatch = pendingEvents.size() == maxBatchSize;
+		}
+
+		if(fullBatch || batchInterval <= 0) {
+			jmsExecutor.execute(this::sendPendingEvents);
+		} else if(firstPending) {
+			jmsExecutor.schedule(this::sendPendingEvents, batchInterval, TimeUnit.MILLISECONDS);
+		}
 
 		// store it for later access by the admin controller
 		String sentMsg = "sent msg: from node:" + nodeId + ", olat-id:" + msgId + ", ores:"	+ ores.getResourceableTypeName() + ":" + ores.getResourceableId()+", event:"+event;
 		addToSentScreen(sentMsg);
 		if (log.isDebugEnabled()) log.debug(sentMsg);
 	}
+	
+	/**
+	 * Send the waiting events in frames. Only called by the
+	 * JMS executor.
+	 */
+	private void sendPendingEvents() {
+		List<JMSWrapper> events;
+		long batchStartTime;
+		synchronized(pendingLock) {
+			if(pendingEvents.isEmpty()) {
+				return;
+			}
+			events = pendingEvents;
+			batchStartTime = firstPendingTime;
+			pendingEvents = new ArrayList<>();
+			pendingCoalescableEvents = new HashMap<>();
+			firstPendingTime = -1;
+		}
+		
+		long startTime = System.currentTimeMillis();
+		mrtgProbeJMSBatchTime_.addMeasurement(startTime - batchStartTime);
+		for(int i=0; i<events.size(); i += maxBatchSize) {
+			List<JMSWrapper> frameEvents = events.subList(i, Math.min(events.size(), i + maxBatchSize));
+			sendFrame(frameEvents);
+		}
+	}
+	
+	private void sendFrame(List<JMSWrapper> frameEvents) {
+		try {
+			long startTime = System.currentTimeMillis();
+			byte[] frame = ClusterEventFrame.encode(clusterConfig.getNodeId(), frameEvents);
+			BytesMessage message = sessionProducer.createBytesMessage();
+			message.writeBytes(frame);
+			producer.send(message);
+			
+			mrtgProbeJMSFrameSize_.addMeasurement(frame.length);
+			mrtgProbeJMSFrameEvents_.addMeasurement(frameEvents.size());
+			mrtgProbeJMSSendTime_.addMeasurement(System.currentTimeMillis() - startTime);
+		} catch (Exception e) {
+			log.error("Cannot send JMS message", e);
+			// cluster:::: what shall we do here: the JMS bus is broken! and we thus cannot know if other nodes are alive.
+			// if we are the only node running, then we could continue.
+			// a) either throw an exception - meaning olat doesn't really run at all and produces redscreens all the time and logging in is not possible.
+			// b) or warn in the log/jmx - but surveillance is critical here!!
+			// -> do the more fail-fast option a) at the moment for correctness reasons.
+			System.err.println("###############################################################################################");
+			System.err.println("### ClusterEventBus: communication error with JMS - cannot send messages!!!" + e);
+			System.err.println("###############################################################################################");
+			
+			throw new OLATRuntimeException("communication error with JMS - cannot send messages!!!", e);
+		}
+		numOfSentMessages += frameEvents.size();
+		numOfSentFrames++;
+	}
 
 	/**
 	 * called by springs org.springframework.jms.listener.DefaultMessageListenerContainer, see coredefaultconfig.xml
@@ -300,44 +413,31 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 			lastOnMessageFinishTime_ = -1;
 		}
 
-		ObjectMessage om = (ObjectMessage) message;
 		try {
 			// unpack
-			JMSWrapper jmsWrapper = (JMSWrapper) om.getObject();
-			Integer nodeId = jmsWrapper.getNodeId();			
-			MultiUserEvent event = jmsWrapper.getMultiUserEvent();
-			OLATResourceable ores = jmsWrapper.getOres();
-			boolean fromSameNode = clusterConfig.getNodeId().equals(nodeId);
-
-			String recMsg = "received msg: "+(fromSameNode? "[same node]":"")+" from node:" + 
-			nodeId + ", olat-id:" + jmsWrapper.getMsgId() + ", ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() +
-			", event:"+event+"}";
+			List<JMSWrapper> jmsWrappers = unpack(message);
 
 			// stats
-			final long jmsTimestamp = om.getJMSTimestamp();
+			final long jmsTimestamp = message.getJMSTimestamp();
 			if (jmsTimestamp!=0) {
 				final long deliveryTime = receiveTime - jmsTimestamp;
 				if (deliveryTime>1500) {
 					// then issue a log statement
-					log.warn("message received with long delivery time (longer than 1500ms: {}): {}", deliveryTime, recMsg);
+					log.warn("message received with long delivery time (longer than 1500ms: {}): {} events", deliveryTime, jmsWrappers.size());
 				}
 				mrtgProbeJMSDeliveryTime_.addMeasurement(deliveryTime);
 			}
 			
-			addToReceivedScreen(recMsg);
-			if (log.isDebugEnabled()) log.debug(recMsg);
-			
-			// message with destination and source both having this vm are ignored here, since they were already 
-			// "inline routed" when having been sent (direct call within the vm).
-			// distribute the unmarshalled event to all JVM wide listeners for this channel.
-			doFire(event, ores);
+			for(JMSWrapper jmsWrapper:jmsWrappers) {
+				serveEvent(jmsWrapper);
+			}
 			
 			// stats
 			final long doneTime = System.currentTimeMillis();
 			final long processingTime = doneTime - receiveTime;
 			if (processingTime>500) {
 				// then issue a log statement
-				log.warn("message received with long processing time (longer than 500ms: {}): {}", processingTime, recMsg);
+				log.warn("message received with long processing time (longer than 500ms: {}): {} events", processingTime, jmsWrappers.size());
 			}
 			mrtgProbeJMSProcessingTime_.addMeasurement(processingTime);
 		} catch (Error er) {
@@ -356,6 +456,38 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		}
 	}
 
+	private List<JMSWrapper> unpack(Message message) throws JMSException, IOException {
+		if(message instanceof BytesMessage) {
+			BytesMessage bm = (BytesMessage)message;
+			byte[] frame = new byte[(int)bm.getBodyLength()];
+			bm.readBytes(frame);
+			return ClusterEventFrame.decode(frame);
+		}
+		// message of a node which doesn't send frames
+		List<JMSWrapper> wrappers = new ArrayList<>(1);
+		wrappers.add((JMSWrapper)((ObjectMessage)message).getObject());
+		return wrappers;
+	}
+	
+	private void serveEvent(JMSWrapper jmsWrapper) {
+		Integer nodeId = jmsWrapper.getNodeId();			
+		MultiUserEvent event = jmsWrapper.getMultiUserEvent();
+		OLATResourceable ores = jmsWrapper.getOres();
+		boolean fromSameNode = clusterConfig.getNodeId().equals(nodeId);
+
+		String recMsg = "received msg: "+(fromSameNode? "[same node]":"")+" from node:" + 
+		nodeId + ", olat-id:" + jmsWrapper.getMsgId() + ", ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() +
+		", event:"+event+"}";
+		
+		addToReceivedScreen(recMsg);
+		if (log.isDebugEnabled()) log.debug(recMsg);
+		
+		// message with destination and source both having this vm are ignored here, since they were already 
+		// "inline routed" when having been sent (direct call within the vm).
+		// distribute the unmarshalled event to all JVM wide listeners for this channel.
+		doFire(event, ores);
+	}
+
 	private NodeInfo getNodeInfoFor(Integer nodeId) {
 		synchronized (nodeInfos) {//cluster_ok node info is per vm only
 			NodeInfo f = nodeInfos.get(nodeId);
@@ -383,6 +515,25 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	public long getNumOfSentMessages() {
 		return numOfSentMessages;
 	}
+	
+	/**
+	 * [used by spring to auto export mbean data]
+	 * 
+	 * @return the number of frames sent since startup of this java vm
+	 */
+	public long getNumOfSentFrames() {
+		return numOfSentFrames;
+	}
+	
+	/**
+	 * [used by spring to auto export mbean data]
+	 * 
+	 * @return the number of idempotent events dropped because the same
+	 * 		event was already waiting to be sent
+	 */
+	public long getNumOfCoalescedMessages() {
+		return numOfCoalescedMessages.get();
+	}
 
 	/**
 	 * [used by spring to auto export mbean data]
@@ -458,13 +609,20 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		log.info("ClusterEventBus: Set stop flag for ClusterInfoEvent-Thread.");
 		isClusterInfoEventThreadRunning = false;
 		try {
-			jmsExecutor.shutdownNow();
+			// send the last frames
+			jmsExecutor.shutdown();
+			if(!jmsExecutor.awaitTermination(2, TimeUnit.SECONDS)) {
+				jmsExecutor.shutdownNow();
+			}
 			sessionProducer.close();
 			sessionConsumer.close();
 			connection.close();
 			log.info("ClusterEventBus stopped");
 		} catch (JMSException e) {
 			log.warn("Exception in stop ClusteredSearchProvider, ",e);
+		} catch (InterruptedException e) {
+			log.warn("Interrupted while sending the last events", e);
+			Thread.currentThread().interrupt();
 		}
 	}
 
@@ -486,6 +644,20 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		this.jmsMsgDelayLimit = jmsMsgDelayLimit;
 	}
 
+	/**
+	 * [used by spring]
+	 */
+	public void setBatchInterval(long batchInterval) {
+		this.batchInterval = batchInterval;
+	}
+
+	/**
+	 * [used by spring]
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : 1;
+	}
+
 	/**
 	 * [used by spring]
 	 */
@@ -496,5 +668,43 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	public void setDestination(Topic destination) {
 		this.destination = destination;
 	}
+	
+	private static class CoalescingKey {
+		
+		private final String resType;
+		private final Long resId;
+		private final Class<?> eventClass;
+		private final String command;
+		private final String key;
+		
+		public CoalescingKey(OLATResourceable ores, MultiUserEvent event) {
+			resType = ores.getResourceableTypeName();
+			resId = ores.getResourceableId();
+			eventClass = event.getClass();
+			command = event.getCommand();
+			key = ((CoalescableEvent)event).getCoalescingKey();
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(resType, resId, eventClass, command, key);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof CoalescingKey) {
+				CoalescingKey ck = (CoalescingKey)obj;
+				return eventClass.equals(ck.eventClass)
+						&& Objects.equals(resType, ck.resType)
+						&& Objects.equals(resId, ck.resId)
+						&& Objects.equals(command, ck.command)
+						&& Objects.equals(key, ck.key);
+			}
+			return false;
+		}
+	}
 
 }
@@ -0,0 +1,115 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.jms;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.olat.core.util.event.MultiUserEvent;
+
+/**
+ * The compact format of the messages of the cluster event bus. A frame
+ * holds all the events collected by a node during the batch interval.
+ * The wrappers are written field by field, only the events are serialized,
+ * with one object stream for the whole frame so the class descriptors are
+ * written once per frame and not once per event.<br>
+ * The frame starts with a magic number and the version of the format.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class ClusterEventFrame {
+
+	private static final int MAGIC = 0x4f4f4556;// OOEV
+	private static final int FORMAT_VERSION = 1;
+
+	private ClusterEventFrame() {
+		//
+	}
+
+	/**
+	 * @param nodeId The node which sends the events
+	 * @param wrappers The events
+	 * @return The frame
+	 * @throws IOException
+	 */
+	public static byte[] encode(Integer nodeId, List<JMSWrapper> wrappers) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(512 + wrappers.size() * 128);
+		try(DataOutputStream out = new DataOutputStream(buffer)) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(nodeId.intValue());
+			out.writeInt(wrappers.size());
+			try(ObjectOutputStream oout = new ObjectOutputStream(out)) {
+				for(JMSWrapper wrapper:wrappers) {
+					oout.writeLong(wrapper.getMsgId());
+					oout.writeUTF(wrapper.getResType());
+					Long resId = wrapper.getResId();
+					oout.writeBoolean(resId != null);
+					if(resId != null) {
+						oout.writeLong(resId.longValue());
+					}
+					oout.writeUnshared(wrapper.getMultiUserEvent());
+				}
+			}
+		}
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * @param frame The frame
+	 * @return The events of the frame
+	 * @throws IOException If the frame cannot be read or has an unknown format
+	 */
+	public static List<JMSWrapper> decode(byte[] frame) throws IOException {
+		try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame))) {
+			if(in.readInt() != MAGIC) {
+				throw new IOException("Not a frame of the cluster event bus");
+			}
+			int version = in.readInt();
+			if(version != FORMAT_VERSION) {
+				throw new IOException("Unknown version of frame of the cluster event bus: " + version);
+			}
+
+			Integer nodeId = Integer.valueOf(in.readInt());
+			int size = in.readInt();
+			List<JMSWrapper> wrappers = new ArrayList<>(size);
+			try(ObjectInputStream oin = new ObjectInputStream(in)) {
+				for(int i=0; i<size; i++) {
+					long msgId = oin.readLong();
+					String resType = oin.readUTF();
+					Long resId = oin.readBoolean() ? Long.valueOf(oin.readLong()) : null;
+					MultiUserEvent event = (MultiUserEvent)oin.readUnshared();
+					wrappers.add(new JMSWrapper(nodeId, msgId, resType, resId, event));
+				}
+			} catch(ClassNotFoundException | ClassCastException e) {
+				throw new IOException("Cannot read the events of the frame", e);
+			}
+			return wrappers;
+		}
+	}
+}
@@ -57,6 +57,14 @@ public class JMSWrapper implements Serializable {
 		resId = ores.getResourceableId();
 		resType = ores.getResourceableTypeName();
 	}
+	
+	JMSWrapper(Integer nodeId, long msgId, String resType, Long resId, MultiUserEvent event) {
+		this.event = event;
+		this.msgId = msgId;
+		this.nodeId = nodeId;
+		this.resId = resId;
+		this.resType = resType;
+	}
 
 	public OLATResourceable getOres() {
 		return new OLATResourceable(){
@@ -70,6 +78,14 @@ public class JMSWrapper implements Serializable {
 			}};
 	}
 	
+	Long getResId() {
+		return resId;
+	}
+
+	String getResType() {
+		return resType;
+	}
+	
 	public MultiUserEvent getMultiUserEvent() {
 		return event;
 	}
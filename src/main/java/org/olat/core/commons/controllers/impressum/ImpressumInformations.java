@@ -46,4 +46,25 @@ public class ImpressumInformations {
 				&& impressumModule.getPosition() != null
 				&& Position.footer.equals(impressumModule.getPosition());
 	}
+
+	/**
+	 * The hash code follows the configuration, it's part of the render cache
+	 * fingerprint of the footer.
+	 */
+	@Override
+	public int hashCode() {
+		return (isTop() ? 1 : 0) + (isFooter() ? 2 : 0);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(obj instanceof ImpressumInformations) {
+			ImpressumInformations infos = (ImpressumInformations)obj;
+			return isTop() == infos.isTop() && isFooter() == infos.isFooter();
+		}
+		return false;
+	}
 }
@@ -32,9 +32,10 @@ import org.olat.core.commons.services.vfs.VFSRepositoryService;
 import org.olat.core.gui.UserRequest;
 import org.olat.core.gui.control.Controller;
 import org.olat.core.gui.control.WindowControl;
+import org.olat.core.gui.media.ClasspathMediaResource;
 import org.olat.core.gui.media.ForbiddenMediaResource;
 import org.olat.core.gui.media.MediaResource;
-import org.olat.core.gui.media.NotFoundMediaResource;
+import org.olat.core.gui.media.ServletUtil;
 import org.olat.core.gui.translator.Translator;
 import org.olat.core.util.vfs.VFSConstants;
 import org.olat.core.util.vfs.VFSLeaf;
@@ -70,13 +71,15 @@ public class CmdServeThumbnailResource implements FolderCommand {
 			}
 			
 			if(vfsLeaf != null && vfsLeaf.canMeta() == VFSConstants.YES) {
-				VFSLeaf thumbnail = vfsRepositoryservice.getThumbnail(vfsLeaf, 200, 200, false);
+				// don't wait, the listing is refreshed when the thumbnail is ready
+				VFSLeaf thumbnail = vfsRepositoryservice.getThumbnailIfAvailable(vfsLeaf, 200, 200, false,
+						() -> folderComponent.setDirty(true));
 				if(thumbnail != null) {
 					mr = new VFSMediaResource(thumbnail);
 				}
 			}
 			if(mr == null) {
-				mr = new NotFoundMediaResource();
+				mr = new PlaceholderMediaResource();
 			}
 		}
 		ureq.getDispatchResult().setResultingMediaResource(mr);
@@ -97,4 +100,20 @@ public class CmdServeThumbnailResource implements FolderCommand {
 	public String getModalTitle() {
 		return null;
 	}
+	
+	/**
+	 * The placeholder is delivered while the thumbnail is generated, it
+	 * must not be cached by the browser which will ask the thumbnail again.
+	 */
+	private static class PlaceholderMediaResource extends ClasspathMediaResource {
+		
+		public PlaceholderMediaResource() {
+			super(CmdServeThumbnailResource.class.getPackage(), "_static/thumbnail_placeholder.png");
+		}
+
+		@Override
+		public long getCacheControlDuration() {
+			return ServletUtil.CACHE_NO_CACHE;
+		}
+	}
 }
\ No newline at end of file
@@ -85,6 +85,7 @@ public class FolderComponent extends AbstractComponent {
 	private VFSContainer rootContainer;
 	private VFSContainer currentContainer;
 	private String currentContainerPath;
+	private String warmedUpContainerPath;
 	private String currentSortOrder;
 	// need to know our children in advance in order to be able to identify them later...
 	private List<VFSItem> currentContainerChildren;
@@ -374,6 +375,10 @@ public class FolderComponent extends AbstractComponent {
 				it.remove();
 			}
 		}
+		// load the metadata in one query for the comparators and the renderer
+		if(currentContainer.canMeta() == VFSConstants.YES) {
+			vfsRepositoryService.getChildrenMetadataFor(currentContainer);
+		}
 		try {
 			Collections.sort(children, comparator);
 		} catch (Exception e) {
@@ -406,6 +411,11 @@ public class FolderComponent extends AbstractComponent {
 		
 		currentContainerPath = relPath;
 		updateChildren();
+		if(currentContainer.canMeta() == VFSConstants.YES && !relPath.equals(warmedUpContainerPath)) {
+			// prepare the thumbnails of the tooltips in background, only once per opened folder
+			warmedUpContainerPath = relPath;
+			vfsRepositoryService.warmUpThumbnails(currentContainer, 200, 200, false);
+		}
 		return true;
 	}
 
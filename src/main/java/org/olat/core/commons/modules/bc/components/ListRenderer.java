@@ -204,7 +204,9 @@ public class ListRenderer {
 		
 		String relPath = currentContainer.getRelPath();
 		Map<String,VFSMetadata> metadatas = Collections.emptyMap();
-		if(relPath != null) {
+		if(currentContainer.canMeta() == VFSConstants.YES) {
+			metadatas = vfsRepositoryService.getChildrenMetadataFor(currentContainer);
+		} else if(relPath != null) {
 			List<VFSMetadata> m = vfsRepositoryService.getChildren(relPath);
 			metadatas = m.stream().collect(Collectors.toMap(VFSMetadata::getFilename, v -> v, (u, v) -> u));
 		}
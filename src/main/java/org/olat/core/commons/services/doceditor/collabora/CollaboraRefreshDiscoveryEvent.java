@@ -19,6 +19,7 @@
  */
 package org.olat.core.commons.services.doceditor.collabora;
 
+import org.olat.core.util.event.CoalescableEvent;
 import org.olat.core.util.event.MultiUserEvent;
 
 /**
@@ -27,7 +28,7 @@ import org.olat.core.util.event.MultiUserEvent;
  * @author uhensler, urs.hensler@frentix.com, http://www.frentix.com
  *
  */
-public class CollaboraRefreshDiscoveryEvent extends MultiUserEvent {
+public class CollaboraRefreshDiscoveryEvent extends MultiUserEvent implements CoalescableEvent {
 
 	private static final long serialVersionUID = -4615967211962635938L;
 	
@@ -35,4 +36,8 @@ public class CollaboraRefreshDiscoveryEvent extends MultiUserEvent {
 		super("collabora-refresh-discovery");
 	}
 
+	@Override
+	public String getCoalescingKey() {
+		return null;
+	}
 }
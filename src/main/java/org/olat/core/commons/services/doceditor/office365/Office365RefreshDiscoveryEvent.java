@@ -19,6 +19,7 @@
  */
 package org.olat.core.commons.services.doceditor.office365;
 
+import org.olat.core.util.event.CoalescableEvent;
 import org.olat.core.util.event.MultiUserEvent;
 
 /**
@@ -27,7 +28,7 @@ import org.olat.core.util.event.MultiUserEvent;
  * @author uhensler, urs.hensler@frentix.com, http://www.frentix.com
  *
  */
-public class Office365RefreshDiscoveryEvent extends MultiUserEvent {
+public class Office365RefreshDiscoveryEvent extends MultiUserEvent implements CoalescableEvent {
 	
 	private static final long serialVersionUID = 243206509106217949L;
 
@@ -35,4 +36,8 @@ public class Office365RefreshDiscoveryEvent extends MultiUserEvent {
 		super("office365-refresh-discovery");
 	}
 
+	@Override
+	public String getCoalescingKey() {
+		return null;
+	}
 }
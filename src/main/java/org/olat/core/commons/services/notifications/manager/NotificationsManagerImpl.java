@@ -41,6 +41,14 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
@@ -62,6 +70,7 @@ import org.olat.core.commons.services.notifications.Subscriber;
 import org.olat.core.commons.services.notifications.SubscriptionContext;
 import org.olat.core.commons.services.notifications.SubscriptionInfo;
 import org.olat.core.commons.services.notifications.SubscriptionItem;
+import org.olat.core.commons.services.notifications.manager.PublisherNewsBuffer.PendingNews;
 import org.olat.core.commons.services.notifications.model.NoSubscriptionInfo;
 import org.olat.core.commons.services.notifications.model.PublisherImpl;
 import org.olat.core.commons.services.notifications.model.SubscriberImpl;
@@ -96,7 +105,9 @@ import org.olat.properties.PropertyManager;
 import org.olat.user.UserDataDeletable;
 import org.olat.user.UserDataExportable;
 import org.olat.user.manager.ManifestBuilder;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * Description: <br>
@@ -105,7 +116,7 @@ import org.springframework.beans.factory.InitializingBean;
  * Initial Date: 21.10.2004 <br>
  * @author Felix Jost
  */
-public class NotificationsManagerImpl implements NotificationsManager, UserDataDeletable, UserDataExportable, GenericEventListener, InitializingBean {
+public class NotificationsManagerImpl implements NotificationsManager, UserDataDeletable, UserDataExportable, GenericEventListener, InitializingBean, DisposableBean {
 	private static final Logger log = Tracing.createLoggerFor(NotificationsManagerImpl.class);
 
 	private static final int PUB_STATE_OK = 0;
@@ -117,18 +128,59 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	private final OLATResourceable oresMyself = OresHelper.lookupType(NotificationsManagerImpl.class);
 	private final OLATResourceable asyncSubscription = OresHelper.createOLATResourceableType("NotificationsManagerAsyncSub");
 
-	private Map<String, NotificationsHandler> notificationHandlers;
+	private volatile Map<String, NotificationsHandler> notificationHandlers;
 	
 	private List<String> notificationIntervals;
 	private String defaultNotificationInterval;
 	private static final Map<String, Integer> INTERVAL_DEF_MAP = buildIntervalMap();
 	private Object lockObject = new Object();
 	
+	private boolean publisherDrivenMail;
+	private int mailWorkers = 4;
+	private long newsFlushInterval = 2000;
+	private long subscriberKeysTimeToLive = 60000;
+	private PublisherNewsBuffer newsBuffer;
+	private volatile ScheduledExecutorService newsFlushScheduler;
+	
 	private DB dbInstance;
 	private BaseSecurity securityManager;
 	private PropertyManager propertyManager;
 	private CoordinatorManager coordinatorManager;
 
+	/**
+	 * [used by Spring]
+	 * @param publisherDrivenMail Start the notification mails from the publishers with news
+	 */
+	public void setPublisherDrivenMail(boolean publisherDrivenMail) {
+		this.publisherDrivenMail = publisherDrivenMail;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param mailWorkers The number of threads which assemble and send the mails
+	 */
+	public void setMailWorkers(int mailWorkers) {
+		this.mailWorkers = mailWorkers;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param newsFlushInterval The interval in milliseconds between two updates of the
+	 * 		date of the news of a publisher, 0 updates the publisher immediately
+	 */
+	public void setNewsFlushInterval(long newsFlushInterval) {
+		this.newsFlushInterval = newsFlushInterval;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param subscriberKeysTimeToLive The time in milliseconds the keys of the subscribers of
+	 * 		a publisher are held to fire the events
+	 */
+	public void setSubscriberKeysTimeToLive(long subscriberKeysTimeToLive) {
+		this.subscriberKeysTimeToLive = subscriberKeysTimeToLive;
+	}
+
 	/**
 	 * [used by Spring]
 	 * @param dbInstance
@@ -165,6 +217,47 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, asyncSubscription);
+		
+		newsBuffer = new PublisherNewsBuffer(subscriberKeysTimeToLive);
+		startNewsFlush(newsFlushInterval);
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		stopNewsFlush();
+	}
+	
+	/**
+	 * Collect the news of the publishers and flush them at the specified interval.
+	 * 
+	 * @param interval The interval in milliseconds, 0 doesn't collect the news
+	 */
+	protected synchronized void startNewsFlush(long interval) {
+		if(newsFlushScheduler == null && interval > 0) {
+			ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("oo-notifications-news-"));
+			scheduler.scheduleWithFixedDelay(this::flushPublisherNews, interval, interval, TimeUnit.MILLISECONDS);
+			newsFlushScheduler = scheduler;
+		}
+	}
+	
+	/**
+	 * Stop to collect the news, the news already collected are flushed.
+	 */
+	protected synchronized void stopNewsFlush() {
+		ScheduledExecutorService scheduler = newsFlushScheduler;
+		if(scheduler != null) {
+			// the next news are published immediately
+			newsFlushScheduler = null;
+			scheduler.shutdown();
+			try {
+				if(scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+					flushPublisherNews();
+				}
+			} catch (InterruptedException e) {
+				log.error("", e);
+				Thread.currentThread().interrupt();
+			}
+		}
 	}
 
 	@Override
@@ -332,8 +425,22 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		log.info(Tracing.M_AUDIT, "starting notification cronjob to send email");
 		WorkThreadInformations.setLongRunningTask("sendNotifications");
 		
+		if(publisherDrivenMail) {
+			notifyAffectedSubscribersByEmail();
+		} else {
+			notifyVisibleIdentitiesByEmail();
+		}
+		
+		// done, purge last entry
+		WorkThreadInformations.unsetLongRunningTask("sendNotifications");
+		log.info(Tracing.M_AUDIT, "end notification cronjob to send email");
+	}
+	
+	private void notifyVisibleIdentitiesByEmail() {
+		long start = System.currentTimeMillis();
 		int counter = 0;
 		int closeConnection = 0;
+		int mails = 0;
 		List<Identity> identities;
 		do {
 			identities = securityManager.loadVisibleIdentities(counter, BATCH_SIZE);
@@ -344,7 +451,9 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 				}
 	
 				closeConnection++;
-				processSubscribersByEmail(identity);
+				if(processSubscribersByEmail(identity, null, null)) {
+					mails++;
+				}
 				if(closeConnection % 20 == 0) {
 					dbInstance.commitAndCloseSession();
 				}
@@ -352,36 +461,154 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 			counter += identities.size();
 			dbInstance.commitAndCloseSession();
 		} while(identities.size() == BATCH_SIZE);
+		logMailStatistics(counter, mails, 0, start);
+	}
+	
+	/**
+	 * Start from the publishers with news newer than the oldest date a
+	 * notification mail can report, load only the identities with an
+	 * enabled subscriber to one of them and assemble their mails on a
+	 * bounded pool of workers, a batch of identities after the other.
+	 */
+	private void notifyAffectedSubscribersByEmail() {
+		long start = System.currentTimeMillis();
+		List<Long> identityKeys = getIdentityKeysWithNews(getDefaultCompareDate());
+		dbInstance.commitAndCloseSession();
 		
-		// done, purge last entry
-		WorkThreadInformations.unsetLongRunningTask("sendNotifications");
-		log.info(Tracing.M_AUDIT, "end notification cronjob to send email");
+		AtomicInteger mails = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		ExecutorService mailExecutor = Executors.newFixedThreadPool(Math.max(1, mailWorkers), new CustomizableThreadFactory("oo-notifications-mail-"));
+		try {
+			int numOfIdentities = identityKeys.size();
+			for(int i=0; i<numOfIdentities; i+=BATCH_SIZE) {
+				List<Long> batchKeys = identityKeys.subList(i, Math.min(numOfIdentities, i + BATCH_SIZE));
+				Map<Long,List<Subscriber>> subscribersMap = getEnabledSubscribersByIdentity(batchKeys);
+				List<Identity> identities = subscribersMap.values().stream()
+						.map(subscribers -> subscribers.get(0).getIdentity())
+						.collect(Collectors.toList());
+				Map<Long,Property> latestEmailProperties = new HashMap<>();
+				for(Property p:propertyManager.findProperties(identities, null, null, LATEST_EMAIL_USER_PROP)) {
+					latestEmailProperties.put(p.getIdentity().getKey(), p);
+				}
+				dbInstance.commitAndCloseSession();
+				
+				List<Future<?>> futures = new ArrayList<>(identities.size());
+				for(Identity identity:identities) {
+					List<Subscriber> subscribers = subscribersMap.get(identity.getKey());
+					futures.add(mailExecutor.submit(() -> {
+						try {
+							if(!securityManager.getRoles(identity).isGuestOnly()
+									&& processSubscribersByEmail(identity, subscribers, latestEmailProperties)) {
+								mails.incrementAndGet();
+							}
+							dbInstance.commitAndCloseSession();
+						} catch (Exception e) {
+							errors.incrementAndGet();
+							dbInstance.rollbackAndCloseSession();
+							log.error("Cannot send notification email to: " + identity.getKey(), e);
+						}
+					}));
+				}
+				// wait the batch to bound the memory
+				for(Future<?> future:futures) {
+					future.get();
+				}
+			}
+			logMailStatistics(numOfIdentities, mails.get(), errors.get(), start);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.error("Notification email job interrupted", e);
+		} catch (ExecutionException e) {
+			log.error("", e);
+		} finally {
+			mailExecutor.shutdown();
+		}
+	}
+	
+	private void logMailStatistics(int identities, int mails, int errors, long start) {
+		long duration = Math.max(1l, System.currentTimeMillis() - start);
+		log.info(Tracing.M_AUDIT, "Notification emails: {} identities processed, {} emails sent, {} errors in {}ms ({} identities/s, {} emails/s)",
+				identities, mails, errors, duration, (identities * 1000l) / duration, (mails * 1000l) / duration);
+	}
+	
+	/**
+	 * @param from The oldest news reported by a notification mail
+	 * @return The keys of the active identities with an enabled subscriber on a publisher with news
+	 */
+	private List<Long> getIdentityKeysWithNews(Date from) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select distinct ident.key from notisub sub")
+		  .append(" inner join sub.publisher as pub")
+		  .append(" inner join sub.identity as ident")
+		  .append(" where sub.enabled=true and pub.state=").append(PUB_STATE_OK)
+		  .append(" and pub.latestNewsDate>=:from")
+		  .append(" and (sub.latestEmailed is null or sub.latestEmailed<pub.latestNewsDate)")
+		  .append(" and ident.status<").append(Identity.STATUS_VISIBLE_LIMIT)
+		  .append(" order by ident.key");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class)
+				.setParameter("from", from)
+				.getResultList();
+	}
+	
+	/**
+	 * @param identityKeys A list of identity keys
+	 * @return The enabled subscribers with their publisher, identity and user grouped by identity
+	 */
+	private Map<Long,List<Subscriber>> getEnabledSubscribersByIdentity(List<Long> identityKeys) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select sub from notisub as sub")
+		  .append(" inner join fetch sub.publisher as publisher")
+		  .append(" inner join fetch sub.identity as ident")
+		  .append(" inner join fetch ident.user as identUser")
+		  .append(" where ident.key in (:identityKeys) and sub.enabled=true");
+		List<Subscriber> subscribers = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Subscriber.class)
+				.setParameter("identityKeys", identityKeys)
+				.getResultList();
+		
+		Map<Long,List<Subscriber>> subscribersMap = new HashMap<>();
+		for(Subscriber subscriber:subscribers) {
+			subscribersMap.computeIfAbsent(subscriber.getIdentity().getKey(), key -> new ArrayList<>()).add(subscriber);
+		}
+		return subscribersMap;
 	}
 	
-	private void processSubscribersByEmail(Identity ident) {
+	/**
+	 * Collect the news of the subscribers of the identity and send them in one email.
+	 * 
+	 * @param ident The identity
+	 * @param prefetchedSubscribers The enabled subscribers of the identity or null to load them
+	 * @param prefetchedProperties The properties with the date of the latest email or null to load it
+	 * @return true if an email was sent
+	 */
+	private boolean processSubscribersByEmail(Identity ident, List<Subscriber> prefetchedSubscribers, Map<Long,Property> prefetchedProperties) {
 		if(ident.getStatus().compareTo(Identity.STATUS_VISIBLE_LIMIT) >= 0) {
-			return;//send only to active user
+			return false;//send only to active user
 		}
 		
 		String userInterval = getUserIntervalOrDefault(ident);
 		if("never".equals(userInterval)) {
-			return;
+			return false;
 		}
 
 		long start = System.currentTimeMillis();
 		Date compareDate = getCompareDateFromInterval(userInterval);
-		Property p = propertyManager.findProperty(ident, null, null, null, LATEST_EMAIL_USER_PROP);
+		Property p = prefetchedProperties == null
+				? propertyManager.findProperty(ident, null, null, null, LATEST_EMAIL_USER_PROP)
+				: prefetchedProperties.get(ident.getKey());
 		if(p != null) {
 		  	Date latestEmail = new Date(p.getLongValue());
 		  	if(latestEmail.after(compareDate)) {
-		  		return;//nothing to do
+		  		return false;//nothing to do
 		  	}
 		}
 
 		Date defaultCompareDate = getDefaultCompareDate();
-		List<Subscriber> subscribers = getSubscribers(ident, true);
+		List<Subscriber> subscribers = prefetchedSubscribers == null
+				? getSubscribers(ident, true) : prefetchedSubscribers;
 		if(subscribers.isEmpty()) {
-			return;
+			return false;
 		}
 		
 		String langPrefs = null;
@@ -423,10 +650,11 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		}
 		
 		Translator translator = Util.createPackageTranslator(NotificationSubscriptionController.class, locale);
-		notifySubscribersByEmail(latestSub, items, subsToUpdate, translator, start, veto);
+		return notifySubscribersByEmail(latestSub, items, subsToUpdate, translator, start, veto);
 	}
 	
-	private void notifySubscribersByEmail(Subscriber latestSub, List<SubscriptionItem> items, List<Subscriber> subsToUpdate, Translator translator, long start, boolean veto) {
+	private boolean notifySubscribersByEmail(Subscriber latestSub, List<SubscriptionItem> items, List<Subscriber> subsToUpdate, Translator translator, long start, boolean veto) {
+		boolean sent = false;
 		if(veto) {
 			if(latestSub != null) {
 				log.info(Tracing.M_AUDIT, latestSub.getIdentity().getKey() + " already received notification email within prefs interval");
@@ -435,6 +663,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 			Identity curIdent = latestSub.getIdentity();
 			boolean sentOk = sendMailToUserAndUpdateSubscriber(curIdent, items, translator, subsToUpdate);
 			if (sentOk) {
+				sent = true;
 				Property p = propertyManager.findProperty(curIdent, null, null, null, LATEST_EMAIL_USER_PROP);
 				if(p == null) {
 					p = propertyManager.createUserPropertyInstance(curIdent, null, LATEST_EMAIL_USER_PROP, null, null, null, null);
@@ -454,6 +683,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		}
 		//collecting the SubscriptionItem can potentially make a lot of DB calls
 		dbInstance.intermediateCommit();
+		return sent;
 	}
 
 	@Override
@@ -850,13 +1080,15 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		if (notificationHandlers == null) {
 			synchronized(lockObject) {
 				if (notificationHandlers == null) { // check again in synchronized-block, only one may create list
-					notificationHandlers = new HashMap<>();
+					Map<String, NotificationsHandler> handlers = new HashMap<>();
 					Map<String, NotificationsHandler> notificationsHandlerMap = CoreSpringFactory.getBeansOfType(NotificationsHandler.class);
 					Collection<NotificationsHandler> notificationsHandlerValues = notificationsHandlerMap.values();
 					for (NotificationsHandler notificationsHandler : notificationsHandlerValues) {
 						log.debug("initNotificationUpgrades notificationsHandler=" + notificationsHandler);
-						notificationHandlers.put(notificationsHandler.getType(), notificationsHandler);
+						handlers.put(notificationsHandler.getType(), notificationsHandler);
 					}
+					// publish the map only when complete, the mail workers read it concurrently
+					notificationHandlers = handlers;
 				}
 			}	
 		}
@@ -867,6 +1099,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	 * @param subscriber
 	 */
 	private void deleteSubscriber(Subscriber subscriber) {
+		newsBuffer.invalidateSubscriberKeys(subscriber.getPublisher().getKey());
 		dbInstance.deleteObject(subscriber);
 	}
 
@@ -932,6 +1165,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 			dbInstance.getCurrentEntityManager().merge(s);
 		}
 		dbInstance.commit();
+		newsBuffer.invalidateSubscriberKeys(toUpdate.getKey());
 	}
 	
 	@Override
@@ -981,7 +1215,8 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 				dbInstance.getCurrentEntityManager().merge(s);
 			}
 		}
-		dbInstance.commit();	
+		dbInstance.commit();
+		newsBuffer.invalidateSubscriberKeys(toUpdate.getKey());
 	}
 
 	/**
@@ -996,98 +1231,130 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		// to make sure: ignore if no subscriptionContext
 		if (subscriptionContext == null) return;
 
-		Publisher toUpdate = getPublisherForUpdate(subscriptionContext);
-		if(toUpdate == null) {
+		Publisher publisher = getPublisher(subscriptionContext);
+		if(publisher == null) {
 			return;
 		}
-		toUpdate.setLatestNewsDate(new Date());
-		Publisher publisher = dbInstance.getCurrentEntityManager().merge(toUpdate);
-		dbInstance.commit();//commit the select for update
+		publishNews(publisher.getKey(), new Date(), sendEvents);
 
 		// no need to sync, since there is only one gui thread at a time from one
 		// user
 		if (ignoreNewsFor != null) {
 			markSubscriberRead(ignoreNewsFor, publisher);
 		}
-		
-		if(sendEvents) {
-			//commit all things on the database
-			dbInstance.commit();
-			
-			// channel-notify all interested listeners (e.g. the pnotificationsportletruncontroller)
-			// 1. find all subscribers which can be affected
-			List<Subscriber> subscribers = getValidSubscribersOf(publisher);
-			
-			Set<Long> subsKeys = new HashSet<>();
-			// 2. collect all keys of the affected subscribers
-			for (Subscriber subscriber:subscribers) {
-				subsKeys.add(subscriber.getKey());
-			}
-			// fire the event
-			MultiUserEvent mue = EventFactory.createAffectedEvent(subsKeys);
-			CoordinatorManager.getInstance().getCoordinator().getEventBus().fireEventToListenersOf(mue, oresMyself);
-		}
 	}
 	
-	
-	
 	@Override
 	public void markPublisherNews(String publisherType, String data, Identity ignoreNewsFor, boolean sendEvents) {
 		// to make sure: ignore if no subscriptionContext
 		if (!StringHelper.containsNonWhitespace(publisherType) ||  !StringHelper.containsNonWhitespace(data)) return;
 
-		List<Publisher> publisherToUpdates = getPublishers(publisherType, data);
-		if(publisherToUpdates == null || publisherToUpdates.isEmpty()) {
+		List<Publisher> publishers = getPublishers(publisherType, data);
+		if(publishers == null || publishers.isEmpty()) {
 			return;
 		}
 		
-		List<Publisher> updatedPublishers = new ArrayList<>(publisherToUpdates.size());
-		for(Publisher toUpdate:publisherToUpdates) {
-			toUpdate = getPublisherForUpdate(toUpdate);
-			toUpdate.setLatestNewsDate(new Date());
-			Publisher publisher = dbInstance.getCurrentEntityManager().merge(toUpdate);
-			dbInstance.commit();//commit the select for update
-			updatedPublishers.add(publisher);
+		Date newsDate = new Date();
+		for(Publisher publisher:publishers) {
+			publishNews(publisher.getKey(), newsDate, sendEvents);
 		}
 
 		// no need to sync, since there is only one gui thread at a time from one
 		// user
 		if (ignoreNewsFor != null) {
-			for(Publisher publisher: updatedPublishers) {
+			for(Publisher publisher: publishers) {
 				markSubscriberRead(ignoreNewsFor, publisher);
 			}
 		}
-		
-		if(sendEvents) {
-			//commit all things on the database
+	}
+	
+	/**
+	 * The date of the news is collected and the publisher updated by the
+	 * next flush, the events are sent after the update. Without flush interval,
+	 * the publisher is updated and the events sent immediately.
+	 * 
+	 * @param publisherKey The primary key of the publisher
+	 * @param newsDate The date of the news
+	 * @param sendEvents Inform the subscribers
+	 */
+	private void publishNews(Long publisherKey, Date newsDate, boolean sendEvents) {
+		if(newsFlushScheduler == null) {
+			updateLatestNewsDate(publisherKey, newsDate);
 			dbInstance.commit();
-			
-			// channel-notify all interested listeners (e.g. the pnotificationsportletruncontroller)
-			// 1. find all subscribers which can be affected
-			List<Subscriber> subscribers = getValidSubscribersOf(publisherType, data);
-			
-			Set<Long> subsKeys = new HashSet<>();
-			// 2. collect all keys of the affected subscribers
-			for (Subscriber subscriber:subscribers) {
-				subsKeys.add(subscriber.getKey());
+			if(sendEvents) {
+				fireSubscribersAffected(publisherKey);
 			}
-			// fire the event
-			MultiUserEvent mue = EventFactory.createAffectedEvent(subsKeys);
-			CoordinatorManager.getInstance().getCoordinator().getEventBus().fireEventToListenersOf(mue, oresMyself);
+		} else {
+			newsBuffer.add(publisherKey, newsDate, sendEvents);
 		}
 	}
 	
-	private List<Subscriber> getValidSubscribersOf(String publisherType, String data) {
+	private void flushPublisherNews() {
+		List<PendingNews> news = newsBuffer.drain();
+		if(news.isEmpty()) return;
+		
+		try {
+			for(PendingNews pending:news) {
+				updateLatestNewsDate(pending.getPublisherKey(), pending.getNewsDate());
+			}
+			dbInstance.commitAndCloseSession();
+		} catch (Exception e) {
+			log.error("Cannot update the news of publishers", e);
+			dbInstance.rollbackAndCloseSession();
+			// try again with the next flush
+			for(PendingNews pending:news) {
+				newsBuffer.add(pending.getPublisherKey(), pending.getNewsDate(), pending.isSendEvents());
+			}
+			return;
+		}
+		
+		try {
+			for(PendingNews pending:news) {
+				if(pending.isSendEvents()) {
+					fireSubscribersAffected(pending.getPublisherKey());
+				}
+			}
+		} catch (Exception e) {
+			log.error("", e);
+		} finally {
+			dbInstance.commitAndCloseSession();
+		}
+	}
+	
+	/**
+	 * Update the date without locking the publisher, the date is
+	 * only moved forward.
+	 */
+	private int updateLatestNewsDate(Long publisherKey, Date newsDate) {
+		String q = "update notipublisher pub set pub.latestNewsDate=:newsDate where pub.key=:publisherKey and pub.latestNewsDate<:newsDate";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(q)
+				.setParameter("newsDate", newsDate)
+				.setParameter("publisherKey", publisherKey)
+				.executeUpdate();
+	}
+	
+	private void fireSubscribersAffected(Long publisherKey) {
+		// channel-notify all interested listeners (e.g. the pnotificationsportletruncontroller)
+		// with the keys of all subscribers which can be affected
+		Set<Long> subsKeys = newsBuffer.getSubscriberKeys(publisherKey);
+		if(subsKeys == null) {
+			subsKeys = new HashSet<>(getValidSubscriberKeysOf(publisherKey));
+			newsBuffer.putSubscriberKeys(publisherKey, subsKeys);
+		}
+		MultiUserEvent mue = EventFactory.createAffectedEvent(subsKeys);
+		CoordinatorManager.getInstance().getCoordinator().getEventBus().fireEventToListenersOf(mue, oresMyself);
+	}
+	
+	private List<Long> getValidSubscriberKeysOf(Long publisherKey) {
 		StringBuilder q = new StringBuilder(256);
-		q.append("select sub from notisub sub ")
-		 .append(" inner join fetch sub.identity as ident")
-		 .append(" inner join fetch sub.publisher as pub")
-		 .append(" where pub.publisherType=:publisherType and pub.data=:data and sub.enabled=true and sub.publisher.state=").append(PUB_STATE_OK);
+		q.append("select sub.key from notisub sub ")
+		 .append(" inner join sub.publisher as pub")
+		 .append(" where pub.key=:publisherKey and sub.enabled=true and pub.state=").append(PUB_STATE_OK);
 		
 		return dbInstance.getCurrentEntityManager()
-				.createQuery(q.toString(), Subscriber.class)
-				.setParameter("publisherType", publisherType)
-				.setParameter("data", data)
+				.createQuery(q.toString(), Long.class)
+				.setParameter("publisherKey", publisherKey)
 				.getResultList();
 	}
 
@@ -1116,6 +1383,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 			} else {
 				log.warn("could not unsubscribe {} from publisher:{},{},{}", identity.getKey(), p.getResName(), p.getResId(), p.getSubidentifier());
 			}
+			newsBuffer.invalidateSubscriberKeys(p.getKey());
 		}
 		dbInstance.commit();
 	}
@@ -1135,6 +1403,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 					log.warn("could not unsubscribe {} from publisher:{},{},{}", identity.getKey(), p.getResName(), p.getResId(), p.getSubidentifier());
 				}
 			}
+			newsBuffer.invalidateSubscriberKeys(p.getKey());
 		}
 		dbInstance.commit();
 	}
@@ -0,0 +1,170 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.notifications.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collapses the news of the publishers between two flushes: the publisher
+ * is updated once with the date of its latest news and the event to the
+ * affected subscribers is fired once. It holds too the keys of the valid
+ * subscribers of the publishers for a short time to live, to fire the
+ * events without a query every time.<br>
+ * The keys of the subscribers are only invalidated on the node where the
+ * subscription changed. In a cluster, the other nodes can send the events
+ * to an outdated list of subscribers until the time to live expires (60
+ * seconds per default), the events only refresh the views of the users.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class PublisherNewsBuffer {
+	
+	private final long subscriberKeysTimeToLive;
+	private final ConcurrentMap<Long,PendingNews> pendingNews = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Long,CachedSubscriberKeys> subscriberKeys = new ConcurrentHashMap<>();
+	
+	public PublisherNewsBuffer(long subscriberKeysTimeToLive) {
+		this.subscriberKeysTimeToLive = subscriberKeysTimeToLive;
+	}
+	
+	/**
+	 * @param publisherKey The primary key of the publisher
+	 * @param newsDate The date of the news
+	 * @param sendEvents If the subscribers need to be informed
+	 */
+	public void add(Long publisherKey, Date newsDate, boolean sendEvents) {
+		pendingNews.merge(publisherKey, new PendingNews(publisherKey, newsDate, sendEvents), PendingNews::merge);
+	}
+	
+	/**
+	 * Remove and return all the news collected since the last call.
+	 * 
+	 * @return A list of news, one per publisher
+	 */
+	public List<PendingNews> drain() {
+		List<PendingNews> news = new ArrayList<>(pendingNews.size());
+		for(Long publisherKey:pendingNews.keySet()) {
+			PendingNews pending = pendingNews.remove(publisherKey);
+			if(pending != null) {
+				news.add(pending);
+			}
+		}
+		return news;
+	}
+	
+	public int size() {
+		return pendingNews.size();
+	}
+	
+	/**
+	 * @param publisherKey The primary key of the publisher
+	 * @return The keys of the valid subscribers or null if they are not cached or expired
+	 */
+	public Set<Long> getSubscriberKeys(Long publisherKey) {
+		CachedSubscriberKeys keys = subscriberKeys.get(publisherKey);
+		if(keys == null) {
+			return null;
+		}
+		if(keys.isExpired()) {
+			subscriberKeys.remove(publisherKey, keys);
+			return null;
+		}
+		return keys.getKeys();
+	}
+	
+	public void putSubscriberKeys(Long publisherKey, Set<Long> keys) {
+		if(subscriberKeysTimeToLive > 0) {
+			long expiration = System.currentTimeMillis() + subscriberKeysTimeToLive;
+			subscriberKeys.put(publisherKey, new CachedSubscriberKeys(keys, expiration));
+		}
+	}
+	
+	/**
+	 * The subscribers of the publisher have changed.
+	 * 
+	 * @param publisherKey The primary key of the publisher
+	 */
+	public void invalidateSubscriberKeys(Long publisherKey) {
+		if(publisherKey != null) {
+			subscriberKeys.remove(publisherKey);
+		}
+	}
+	
+	public void clear() {
+		pendingNews.clear();
+		subscriberKeys.clear();
+	}
+	
+	public static class PendingNews {
+		
+		private final Long publisherKey;
+		private final Date newsDate;
+		private final boolean sendEvents;
+		
+		public PendingNews(Long publisherKey, Date newsDate, boolean sendEvents) {
+			this.publisherKey = publisherKey;
+			this.newsDate = newsDate;
+			this.sendEvents = sendEvents;
+		}
+		
+		public Long getPublisherKey() {
+			return publisherKey;
+		}
+
+		public Date getNewsDate() {
+			return newsDate;
+		}
+
+		public boolean isSendEvents() {
+			return sendEvents;
+		}
+
+		private static PendingNews merge(PendingNews news1, PendingNews news2) {
+			Date latestDate = news1.newsDate.after(news2.newsDate) ? news1.newsDate : news2.newsDate;
+			return new PendingNews(news1.publisherKey, latestDate, news1.sendEvents || news2.sendEvents);
+		}
+	}
+	
+	private static class CachedSubscriberKeys {
+		
+		private final Set<Long> keys;
+		private final long expiration;
+		
+		public CachedSubscriberKeys(Set<Long> keys, long expiration) {
+			this.keys = Collections.unmodifiableSet(keys);
+			this.expiration = expiration;
+		}
+		
+		public Set<Long> getKeys() {
+			return keys;
+		}
+		
+		public boolean isExpired() {
+			return expiration < System.currentTimeMillis();
+		}
+	}
+}
@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.olat.core.commons.services.license.License;
 import org.olat.core.id.Identity;
@@ -42,6 +43,16 @@ public interface VFSRepositoryService {
 	
 	public VFSMetadata getMetadataFor(File file);
 	
+	/**
+	 * Load the metadata of all the children of the container with one query
+	 * and create the missing ones in one transaction. The metadata are cached
+	 * for the current request.
+	 * 
+	 * @param container The container
+	 * @return A map filename to metadata (never null)
+	 */
+	public Map<String,VFSMetadata> getChildrenMetadataFor(VFSContainer container);
+	
 	public VFSMetadata getMetadata(VFSMetadataRef ref);
 	
 	public VFSMetadata getMetadataByUUID(String uuid);
@@ -161,6 +172,30 @@ public interface VFSRepositoryService {
 	 */
 	public VFSLeaf getThumbnail(VFSLeaf file, VFSMetadata metadata, int maxWidth, int maxHeight, boolean fill);
 	
+	/**
+	 * Return the thumbnail if it is already generated. If not, the generation
+	 * is queued and the method returns null without waiting. The listener is
+	 * called by the worker when the thumbnail is ready.
+	 * 
+	 * @param file The file
+	 * @param maxWidth
+	 * @param maxHeight
+	 * @param fill
+	 * @param listener An optional listener (refresh of a component...)
+	 * @return The thumbnail or null if not available now
+	 */
+	public VFSLeaf getThumbnailIfAvailable(VFSLeaf file, int maxWidth, int maxHeight, boolean fill, Runnable listener);
+	
+	/**
+	 * Queue the generation of the missing thumbnails of the files
+	 * of the specified container (not recursive) with a low priority.
+	 * The number of thumbnails queued per container is limited.
+	 * 
+	 * @param container The container
+	 * @return The number of queued thumbnails
+	 */
+	public int warmUpThumbnails(VFSContainer container, int maxWidth, int maxHeight, boolean fill);
+	
 	public void resetThumbnails(VFSLeaf file);
 	
 	/**
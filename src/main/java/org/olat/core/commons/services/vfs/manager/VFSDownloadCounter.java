@@ -0,0 +1,206 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Accumulates the downloads of the files in memory and writes the sums
+ * in the database every few seconds. Every node of a cluster flushes its
+ * own deltas, the update adds them to the persisted count. The pending
+ * downloads are flushed at shutdown.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+@Service
+public class VFSDownloadCounter implements InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(VFSDownloadCounter.class);
+	
+	private static final int BATCH_SIZE = 100;
+	
+	@Value("${vfs.download.count.flush.interval:5000}")
+	private long flushInterval;
+	
+	private final ConcurrentMap<FileKey,LongAdder> counters = new ConcurrentHashMap<>();
+	private ScheduledExecutorService flushScheduler;
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private VFSMetadataDAO metadataDao;
+	
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if(flushInterval > 0) {
+			flushScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("oo-vfs-downloads-"));
+			flushScheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if(flushScheduler != null) {
+			flushScheduler.shutdown();
+			flushScheduler.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		flush();
+	}
+	
+	/**
+	 * Count a download, the count is written directly if the
+	 * flush is disabled.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 * @param filename The name of the file
+	 */
+	public void increment(String relativePath, String filename) {
+		if(flushInterval <= 0) {
+			metadataDao.increaseDownloadCount(relativePath, filename, 1);
+			dbInstance.commit();
+		} else {
+			counters.computeIfAbsent(new FileKey(relativePath, filename), k -> new LongAdder()).increment();
+		}
+	}
+	
+	/**
+	 * @return The number of files with pending downloads
+	 */
+	public int getPendingFiles() {
+		return counters.size();
+	}
+	
+	/**
+	 * Write the sums of the downloads in the database.
+	 */
+	public synchronized void flush() {
+		List<FileDelta> deltas = drain();
+		if(deltas.isEmpty()) return;
+		
+		for(int i=0; i<deltas.size(); i += BATCH_SIZE) {
+			List<FileDelta> batch = deltas.subList(i, Math.min(deltas.size(), i + BATCH_SIZE));
+			try {
+				for(FileDelta delta:batch) {
+					metadataDao.increaseDownloadCount(delta.getKey().getRelativePath(), delta.getKey().getFilename(), delta.getCount());
+				}
+				dbInstance.commitAndCloseSession();
+			} catch (Exception e) {
+				log.error("Cannot update the download counts, try again later", e);
+				dbInstance.rollbackAndCloseSession();
+				for(FileDelta delta:batch) {
+					counters.computeIfAbsent(delta.getKey(), k -> new LongAdder()).add(delta.getCount());
+				}
+			}
+		}
+		log.debug("Download counts of {} files updated", deltas.size());
+	}
+	
+	private List<FileDelta> drain() {
+		List<FileDelta> deltas = new ArrayList<>(counters.size());
+		for(Map.Entry<FileKey,LongAdder> entry:counters.entrySet()) {
+			LongAdder adder = entry.getValue();
+			long count = adder.sumThenReset();
+			if(count == 0) {
+				// idle since the last flush, remove it and catch the increments done in between
+				counters.remove(entry.getKey(), adder);
+				count = adder.sumThenReset();
+			}
+			if(count > 0) {
+				deltas.add(new FileDelta(entry.getKey(), (int)Math.min(count, Integer.MAX_VALUE)));
+			}
+		}
+		return deltas;
+	}
+	
+	private static class FileDelta {
+		
+		private final FileKey key;
+		private final int count;
+		
+		public FileDelta(FileKey key, int count) {
+			this.key = key;
+			this.count = count;
+		}
+
+		public FileKey getKey() {
+			return key;
+		}
+
+		public int getCount() {
+			return count;
+		}
+	}
+	
+	private static class FileKey {
+		
+		private final String relativePath;
+		private final String filename;
+		
+		public FileKey(String relativePath, String filename) {
+			this.relativePath = relativePath;
+			this.filename = filename;
+		}
+
+		public String getRelativePath() {
+			return relativePath;
+		}
+
+		public String getFilename() {
+			return filename;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(relativePath) * 31 + Objects.hashCode(filename);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof FileKey) {
+				FileKey key = (FileKey)obj;
+				return Objects.equals(relativePath, key.relativePath) && Objects.equals(filename, key.filename);
+			}
+			return false;
+		}
+	}
+}
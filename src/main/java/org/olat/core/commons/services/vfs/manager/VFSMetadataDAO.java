@@ -271,9 +271,21 @@ public class VFSMetadataDAO {
 	}
 	
 	public void increaseDownloadCount(String relativePath, String filename) {
-		String updateQuery = "update vfsmetadatadownloadcount set downloadCount=downloadCount+1 where filename=:filename and relativePath=:relativePath";
+		increaseDownloadCount(relativePath, filename, 1);
+	}
+	
+	/**
+	 * Add the specified number of downloads to the count of the file.
+	 * 
+	 * @param relativePath The relative path of the directory
+	 * @param filename The name of the file
+	 * @param delta The number of downloads
+	 */
+	public void increaseDownloadCount(String relativePath, String filename, int delta) {
+		String updateQuery = "update vfsmetadatadownloadcount set downloadCount=downloadCount+:delta where filename=:filename and relativePath=:relativePath";
 		dbInstance.getCurrentEntityManager()
 			.createQuery(updateQuery)
+			.setParameter("delta", delta)
 			.setParameter("filename", filename)
 			.setParameter("relativePath", relativePath)
 			.setHint("javax.persistence.query.timeout", 1000)
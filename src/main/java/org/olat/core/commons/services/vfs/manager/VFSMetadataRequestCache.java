@@ -0,0 +1,78 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.olat.core.commons.services.vfs.VFSMetadata;
+
+/**
+ * Cache of the metadata loaded for the HTTP request processed by the
+ * current thread. A folder listing, its comparators and its renderer ask the
+ * metadata of the same files several times, only the first lookup hits the
+ * database. The cache is only active between {@link #start()} and
+ * {@link #end()} and cleared by every change of metadata in the thread.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class VFSMetadataRequestCache {
+	
+	private static final ThreadLocal<Map<File,VFSMetadata>> currentCache = new ThreadLocal<>();
+	
+	private VFSMetadataRequestCache() {
+		//
+	}
+	
+	/**
+	 * Start to cache the metadata loaded by the current thread.
+	 */
+	public static void start() {
+		currentCache.set(new HashMap<>());
+	}
+	
+	public static void end() {
+		currentCache.remove();
+	}
+	
+	static VFSMetadata get(File file) {
+		Map<File,VFSMetadata> cache = currentCache.get();
+		return cache == null ? null : cache.get(file);
+	}
+	
+	static void put(File file, VFSMetadata metadata) {
+		Map<File,VFSMetadata> cache = currentCache.get();
+		if(cache != null && metadata != null) {
+			cache.put(file, metadata);
+		}
+	}
+	
+	/**
+	 * Forget the metadata of the current thread, the cache stays active.
+	 */
+	static void clear() {
+		Map<File,VFSMetadata> cache = currentCache.get();
+		if(cache != null) {
+			cache.clear();
+		}
+	}
+}
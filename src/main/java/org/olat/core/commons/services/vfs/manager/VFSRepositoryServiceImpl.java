@@ -38,10 +38,12 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.Adler32;
@@ -90,10 +92,13 @@ import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSItem;
 import org.olat.core.util.vfs.VFSLeaf;
 import org.olat.core.util.vfs.VFSManager;
+import org.olat.core.util.vfs.filters.VFSSystemItemFilter;
 import org.olat.core.util.vfs.version.RevisionFileImpl;
 import org.olat.core.util.vfs.version.VersionsFileImpl;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
@@ -103,13 +108,20 @@ import org.springframework.stereotype.Service;
  *
  */
 @Service
-public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEventListener, InitializingBean {
+public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEventListener, InitializingBean, DisposableBean {
 	
 	private static final Logger log = Tracing.createLoggerFor(VFSRepositoryServiceImpl.class);
 	private final OLATResourceable fileSizeSubscription = OresHelper.createOLATResourceableType("UpdateFileSizeAsync");
-	private final OLATResourceable incrementFileDownload = OresHelper.createOLATResourceableType("IncrementFileDownloadAsync");
 	private static final String CANONICAL_ROOT_REL_PATH = "/";
 	
+	@Value("${vfs.thumbnails.workers:2}")
+	private int thumbnailWorkers;
+	@Value("${vfs.thumbnails.queue.size:1000}")
+	private int thumbnailQueueSize;
+	@Value("${vfs.thumbnails.warmup.max:50}")
+	private int thumbnailWarmUpMax;
+	private VFSThumbnailQueue thumbnailQueue;
+	
 	@Autowired
 	private DB dbInstance;
 	@Autowired
@@ -123,6 +135,8 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	@Autowired
 	private VFSStatsDAO statsDao;
 	@Autowired
+	private VFSDownloadCounter downloadCounter;
+	@Autowired
 	private VFSThumbnailDAO thumbnailDao;
 	@Autowired
 	private VFSRepositoryModule vfsModule;
@@ -142,15 +156,20 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, fileSizeSubscription);
-		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, incrementFileDownload);
+		thumbnailQueue = new VFSThumbnailQueue(thumbnailWorkers, thumbnailQueueSize, this::generateQueuedThumbnail);
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		if(thumbnailQueue != null) {
+			thumbnailQueue.shutdown();
+		}
 	}
 
 	@Override
 	public void event(Event event) {
 		if(event instanceof AsyncFileSizeUpdateEvent) {
 			processFileSizeUpdateEvent((AsyncFileSizeUpdateEvent)event);
-		} else if(event instanceof AsyncIncrementFileDownloadEvent) {
-			processIncrementFileDownnload((AsyncIncrementFileDownloadEvent)event);
 		}
 	}
 	
@@ -167,15 +186,6 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		}
 	}
 	
-	private void processIncrementFileDownnload(AsyncIncrementFileDownloadEvent event) {
-		try {
-			metadataDao.increaseDownloadCount(event.getRelativePath(), event.getFilename());
-			dbInstance.commit();
-		} catch (Exception e) {
-			log.error("Cannot increment file downloads of: " + event.getRelativePath() + " " + event.getFilename(), e);
-		}
-	}
-	
 	@Override
 	public VFSMetadata getMetadataByUUID(String uuid) {
 		if(StringHelper.containsNonWhitespace(uuid)) {
@@ -205,8 +215,13 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 			relativePath = CANONICAL_ROOT_REL_PATH;
 		}
 		
+		VFSMetadata metadata = VFSMetadataRequestCache.get(file);
+		if(metadata != null) {
+			return metadata;
+		}
+		
 		String filename = file.getName();
-		VFSMetadata metadata = metadataDao.getMetadata(relativePath, filename, file.isDirectory());
+		metadata = metadataDao.getMetadata(relativePath, filename, file.isDirectory());
 		if(metadata == null) {
 			String uuid = UUID.randomUUID().toString();
 			String uri = file.toURI().toString();
@@ -220,9 +235,69 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, fileSizeSubscription);
 		}
 		dbInstance.commit();
+		VFSMetadataRequestCache.put(file, metadata);
 		return metadata;
 	}
 	
+	@Override
+	public Map<String,VFSMetadata> getChildrenMetadataFor(VFSContainer container) {
+		Map<String,VFSMetadata> childrenMetadata = new HashMap<>();
+		File directory = container == null ? null : toFile(container);
+		if(directory == null || !directory.isDirectory() || VFSRepositoryModule.canMeta(directory) != VFSConstants.YES) {
+			return childrenMetadata;
+		}
+		File[] files = directory.listFiles();
+		if(files == null || files.length == 0) {
+			return childrenMetadata;
+		}
+		
+		String relativePath = getRelativePath(directory);
+		if(relativePath.equals("")) {
+			relativePath = CANONICAL_ROOT_REL_PATH;
+		}
+		
+		// a file and a directory can have the same name in the database
+		Map<String,VFSMetadata> filesMetadata = new HashMap<>();
+		Map<String,VFSMetadata> directoriesMetadata = new HashMap<>();
+		for(VFSMetadata metadata:metadataDao.getMetadatas(relativePath)) {
+			if(metadata.isDirectory()) {
+				directoriesMetadata.putIfAbsent(metadata.getFilename(), metadata);
+			} else {
+				filesMetadata.putIfAbsent(metadata.getFilename(), metadata);
+			}
+		}
+		
+		int created = 0;
+		VFSMetadata parent = null;
+		for(File file:files) {
+			if(VFSRepositoryModule.canMeta(file) != VFSConstants.YES) continue;
+			
+			String filename = file.getName();
+			boolean isDirectory = file.isDirectory();
+			VFSMetadata metadata = isDirectory ? directoriesMetadata.get(filename) : filesMetadata.get(filename);
+			if(metadata == null) {
+				if(parent == null) {
+					parent = getMetadataFor(directory);
+				}
+				long size = isDirectory ? 0l : file.length();
+				metadata = metadataDao.createMetadata(UUID.randomUUID().toString(), relativePath, filename, new Date(),
+						size, isDirectory, file.toURI().toString(), "file", parent);
+				created++;
+			} else if(!isDirectory && (file.length() != metadata.getFileSize() || metadata.isDeleted())) {
+				AsyncFileSizeUpdateEvent event = new AsyncFileSizeUpdateEvent(relativePath, filename);
+				coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, fileSizeSubscription);
+			}
+			childrenMetadata.put(filename, metadata);
+			VFSMetadataRequestCache.put(file, metadata);
+		}
+		
+		if(created > 0) {
+			dbInstance.commit();
+			log.debug("Create {} missing metadata in: {}", created, relativePath);
+		}
+		return childrenMetadata;
+	}
+	
 	@Override
 	public VFSItem getItemFor(VFSMetadata metadata) {
 		if(metadata == null) return null;
@@ -355,6 +430,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	
 	@Override
 	public VFSMetadata updateMetadata(VFSMetadata data) {
+		VFSMetadataRequestCache.clear();
 		return metadataDao.updateMetadata(data);
 	}
 
@@ -362,6 +438,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	public void itemSaved(VFSLeaf leaf) {
 		if(leaf == null || leaf.canMeta() != VFSConstants.YES) return; // nothing to do
 		
+		VFSMetadataRequestCache.clear();
 		String relativePath = getContainerRelativePath(leaf);
 		Date lastModified = new Date(leaf.getLastModified());
 		metadataDao.updateMetadata(leaf.getSize(), lastModified, relativePath, leaf.getName());
@@ -371,6 +448,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	public void deleteMetadata(VFSMetadata data) {
 		if(data == null) return; // nothing to do
 		
+		VFSMetadataRequestCache.clear();
 		List<VFSThumbnailMetadata> thumbnails = thumbnailDao.loadByMetadata(data);
 		for(VFSThumbnailMetadata thumbnail:thumbnails) {
 			VFSItem item = VFSManager.olatRootLeaf("/" + data.getRelativePath(), thumbnail.getFilename());
@@ -425,6 +503,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 				}
 			}
 			metadataDao.updateMetadata(metadata);
+			VFSMetadataRequestCache.clear();
 		}
 	}
 
@@ -440,6 +519,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	public void copyTo(VFSLeaf source, VFSLeaf target, VFSContainer parentTarget) {
 		if(source.canMeta() != VFSConstants.YES || target.canMeta() != VFSConstants.YES) return;
 		
+		VFSMetadataRequestCache.clear();
 		VFSMetadataImpl sourceMetadata = (VFSMetadataImpl)loadMetadata(toFile(source));
 		if(sourceMetadata != null) {
 			File targetFile = toFile(target);
@@ -481,6 +561,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	@Override
 	public VFSMetadata rename(VFSItem item, String newName) {
 		VFSMetadata metadata = getMetadataFor(item);
+		VFSMetadataRequestCache.clear();
 
 		((VFSMetadataImpl)metadata).setFilename(newName);
 		Path newFile = Paths.get(folderModule.getCanonicalRoot(), metadata.getRelativePath(), newName);
@@ -508,13 +589,14 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	public void increaseDownloadCount(VFSLeaf item) {
 		String relPath = getContainerRelativePath(item);
 		if(StringHelper.containsNonWhitespace(relPath)) {
-			AsyncIncrementFileDownloadEvent event = new AsyncIncrementFileDownloadEvent(relPath, item.getName());
-			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, incrementFileDownload);
+			downloadCounter.increment(relPath, item.getName());
 		}
 	}
 	
 	@Override
 	public VFSLeaf getThumbnail(VFSLeaf file, VFSMetadata metadata, int maxWidth, int maxHeight, boolean fill) {
+		awaitQueuedThumbnail(file, maxWidth, maxHeight, fill);
+		
 		VFSLeaf thumbnailLeaf = null;
 		
 		VFSContainer parentContainer = getSecureParentContainer(file);
@@ -535,6 +617,78 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 
 	@Override
 	public VFSLeaf getThumbnail(VFSLeaf file, int maxWidth, int maxHeight, boolean fill) {
+		awaitQueuedThumbnail(file, maxWidth, maxHeight, fill);
+		return loadOrGenerateThumbnail(file, maxWidth, maxHeight, fill);
+	}
+	
+	/**
+	 * Don't generate the same thumbnail as a worker of the queue, but
+	 * don't wait long if the queue is busy, generate it in the request.
+	 */
+	private void awaitQueuedThumbnail(VFSLeaf file, int maxWidth, int maxHeight, boolean fill) {
+		String relativePath = getContainerRelativePath(file);
+		if(relativePath != null) {
+			thumbnailQueue.await(relativePath, file.getName(), maxWidth, maxHeight, fill, 2000);
+		}
+	}
+	
+	@Override
+	public VFSLeaf getThumbnailIfAvailable(VFSLeaf file, int maxWidth, int maxHeight, boolean fill, Runnable listener) {
+		String relativePath = getContainerRelativePath(file);
+		if(relativePath == null) return null;
+		
+		VFSThumbnailMetadata thumbnail = thumbnailDao.findThumbnail(relativePath, file.getName(), fill, maxWidth, maxHeight);
+		if(thumbnail != null) {
+			VFSItem item = getSecureParentContainer(file).resolve(thumbnail.getFilename());
+			if(item instanceof VFSLeaf) {
+				return (VFSLeaf)item;
+			}
+		}
+		if(isThumbnailAvailable(file)) {
+			thumbnailQueue.enqueue(file, relativePath, maxWidth, maxHeight, fill, listener);
+		}
+		return null;
+	}
+	
+	@Override
+	public int warmUpThumbnails(VFSContainer container, int maxWidth, int maxHeight, boolean fill) {
+		if(container == null || container.canMeta() != VFSConstants.YES) return 0;
+		
+		File directory = toFile(container);
+		if(directory == null) return 0;
+		String relativePath = getRelativePath(directory);
+		
+		Map<String,VFSMetadata> childrenMetadata = getChildrenMetadataFor(container);
+		Set<String> withThumbnails = new HashSet<>(thumbnailDao.findFilenamesWithThumbnail(relativePath, fill, maxWidth, maxHeight));
+		int queued = 0;
+		for(VFSItem item:container.getItems(new VFSSystemItemFilter())) {
+			if(queued >= thumbnailWarmUpMax) {
+				break;
+			}
+			if(item instanceof VFSLeaf && !withThumbnails.contains(item.getName())) {
+				VFSMetadata metadata = childrenMetadata.get(item.getName());
+				if(isThumbnailAvailable(item, metadata)
+						&& thumbnailQueue.warmUp((VFSLeaf)item, relativePath, maxWidth, maxHeight, fill)) {
+					queued++;
+				}
+			}
+		}
+		return queued;
+	}
+	
+	private boolean generateQueuedThumbnail(VFSLeaf file, int maxWidth, int maxHeight, boolean fill) {
+		try {
+			VFSLeaf thumbnail = loadOrGenerateThumbnail(file, maxWidth, maxHeight, fill);
+			dbInstance.commitAndCloseSession();
+			return thumbnail != null;
+		} catch (Exception e) {
+			log.error("Cannot generate thumbnail of: {}", file.getName(), e);
+			dbInstance.rollbackAndCloseSession();
+			return false;
+		}
+	}
+	
+	private VFSLeaf loadOrGenerateThumbnail(VFSLeaf file, int maxWidth, int maxHeight, boolean fill) {
 		VFSLeaf thumbnailLeaf = null;
 		
 		VFSContainer parentContainer = getSecureParentContainer(file);
@@ -723,6 +877,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 
 	@Override
 	public boolean restoreRevision(Identity identity, VFSRevision revision, String comment) {
+		VFSMetadataRequestCache.clear();
 		VFSMetadata metadata = ((VFSRevisionImpl)revision).getMetadata();
 
 		boolean allOk = false;
@@ -792,6 +947,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	}
 	
 	public boolean addToRevisions(VFSLeaf currentLeaf, VFSMetadata metadata, Identity identity, String comment, boolean pruneRevision) {
+		VFSMetadataRequestCache.clear();
 		int maxNumOfVersions = versionModule.getMaxNumberOfVersions();
 		if(maxNumOfVersions == 0) {
 			return true;//deactivated, return all ok
@@ -870,6 +1026,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	public boolean deleteRevisions(Identity identity, List<VFSRevision> revisions) {
 		if(revisions == null || revisions.isEmpty()) return true;// ok, nothing to do
 		
+		VFSMetadataRequestCache.clear();
 		VFSMetadata metadata = ((VFSRevisionImpl)revisions.get(0)).getMetadata();
 		List<VFSRevision> allRevisions = revisionDao.getRevisions(metadata);
 		return deleteRevisions(metadata, allRevisions, revisions);
@@ -991,6 +1148,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	@Override
 	public VFSMetadata move(VFSLeaf currentLeaf, VFSLeaf targetLeaf,  Identity author) {
 		VFSMetadata metadata = getMetadataFor(currentLeaf);
+		VFSMetadataRequestCache.clear();
 
 		File currentFile = toFile(currentLeaf);
 		String currentRelativePath = getRelativePath(currentFile.getParentFile());
@@ -110,6 +110,26 @@ public class VFSThumbnailDAO {
 				.getResultList();
 	}
 	
+	/**
+	 * @param relativePath The relative path of the directory
+	 * @return The name of the files of the directory which have a thumbnail of the specified size
+	 */
+	public List<String> findFilenamesWithThumbnail(String relativePath, boolean fill, int maxWidth, int maxHeight) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select meta.filename from vfsthumbnail thumb")
+		  .append(" inner join thumb.owner as meta")
+		  .append(" where meta.relativePath=:relativePath")
+		  .append(" and thumb.maxWidth=:maxWidth and thumb.maxHeight=:maxHeight and thumb.fill=:fill");
+
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), String.class)
+				.setParameter("relativePath", relativePath)
+				.setParameter("maxWidth", Integer.valueOf(maxWidth))
+				.setParameter("maxHeight", Integer.valueOf(maxHeight))
+				.setParameter("fill", Boolean.valueOf(fill))
+				.getResultList();
+	}
+	
 	public VFSThumbnailMetadata findThumbnail(VFSMetadata owner, boolean fill, int maxWidth, int maxHeight) {
 		StringBuilder sb = new StringBuilder();
 		sb.append("select thumb from vfsthumbnail thumb")
@@ -0,0 +1,338 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Generates the thumbnails on a bounded pool of workers. The requests for
+ * the same file and the same size are merged, the listeners are called
+ * when the thumbnail is ready (or cannot be generated).<br>
+ * The requests of the users are generated before the warm-up requests.
+ * The warm-ups use at most the half of the queue and are dropped first
+ * if the queue is full. If the queue is full of user requests, the request
+ * is dropped and will be done by the next request.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class VFSThumbnailQueue {
+	
+	private static final Logger log = Tracing.createLoggerFor(VFSThumbnailQueue.class);
+	
+	private final ThreadPoolExecutor executor;
+	private final int maxQueueSize;
+	private final int maxWarmUpQueueSize;
+	private final ThumbnailGenerator generator;
+	private final ConcurrentMap<ThumbnailKey,PendingThumbnail> pendingThumbnails = new ConcurrentHashMap<>();
+	private long sequence = 0;
+	
+	public VFSThumbnailQueue(int workers, int queueSize, ThumbnailGenerator generator) {
+		this.generator = generator;
+		maxQueueSize = Math.max(1, queueSize);
+		maxWarmUpQueueSize = Math.max(1, maxQueueSize / 2);
+		int numOfWorkers = Math.max(1, workers);
+		// the priority queue is not bounded, the size is checked by enqueue
+		executor = new ThreadPoolExecutor(numOfWorkers, numOfWorkers, 60, TimeUnit.SECONDS,
+				new PriorityBlockingQueue<>(), new CustomizableThreadFactory("oo-thumbnails-"));
+		executor.allowCoreThreadTimeOut(true);
+	}
+	
+	/**
+	 * Queue the request of a user, it will be generated before the warm-ups.
+	 * 
+	 * @param file The file
+	 * @param relativePath The relative path of the directory of the file
+	 * @param listener An optional listener called when the thumbnail is ready
+	 * @return true if the thumbnail is queued or already in the queue
+	 */
+	public boolean enqueue(VFSLeaf file, String relativePath, int maxWidth, int maxHeight, boolean fill, Runnable listener) {
+		return enqueue(file, relativePath, maxWidth, maxHeight, fill, false, listener);
+	}
+	
+	/**
+	 * Queue a thumbnail which will be probably needed later with a low priority.
+	 * 
+	 * @param file The file
+	 * @param relativePath The relative path of the directory of the file
+	 * @return true if the thumbnail is queued or already in the queue
+	 */
+	public boolean warmUp(VFSLeaf file, String relativePath, int maxWidth, int maxHeight, boolean fill) {
+		return enqueue(file, relativePath, maxWidth, maxHeight, fill, true, null);
+	}
+	
+	private synchronized boolean enqueue(VFSLeaf file, String relativePath, int maxWidth, int maxHeight, boolean fill,
+			boolean warmUp, Runnable listener) {
+		ThumbnailKey key = new ThumbnailKey(relativePath, file.getName(), maxWidth, maxHeight, fill);
+		PendingThumbnail currentPending = pendingThumbnails.get(key);
+		if(currentPending != null) {
+			currentPending.addListener(listener);
+			if(!warmUp) {
+				prioritize(currentPending);
+			}
+			return true;
+		}
+		
+		int queueSize = executor.getQueue().size();
+		if((warmUp && queueSize >= maxWarmUpQueueSize)
+				|| (!warmUp && queueSize >= maxQueueSize && !dropWarmUp())) {
+			log.debug("Thumbnails queue full, drop: {}", file.getName());
+			return false;
+		}
+		
+		PendingThumbnail pending = new PendingThumbnail();
+		pending.addListener(listener);
+		pendingThumbnails.put(key, pending);
+		return submit(new ThumbnailTask(key, file, pending, warmUp, sequence++));
+	}
+	
+	private boolean submit(ThumbnailTask task) {
+		task.pending.task = task;
+		try {
+			executor.execute(task);
+			return true;
+		} catch (RejectedExecutionException e) {
+			log.debug("Thumbnails queue shutdown, drop: {}", task.file.getName());
+			cancel(task);
+			return false;
+		}
+	}
+	
+	/**
+	 * A user waits for a thumbnail which is queued as warm-up: move it
+	 * before the other warm-ups.
+	 */
+	private synchronized void prioritize(PendingThumbnail pending) {
+		ThumbnailTask task = pending.task;
+		if(task != null && task.warmUp && executor.remove(task)) {
+			submit(new ThumbnailTask(task.key, task.file, pending, false, sequence++));
+		}
+	}
+	
+	/**
+	 * Remove the last queued warm-up to make place for a request of a user.
+	 * 
+	 * @return true if a warm-up was removed from the queue
+	 */
+	private boolean dropWarmUp() {
+		ThumbnailTask lastWarmUp = null;
+		for(Runnable runnable:executor.getQueue()) {
+			ThumbnailTask task = (ThumbnailTask)runnable;
+			if(task.warmUp && (lastWarmUp == null || task.compareTo(lastWarmUp) > 0)) {
+				lastWarmUp = task;
+			}
+		}
+		if(lastWarmUp != null && executor.remove(lastWarmUp)) {
+			cancel(lastWarmUp);
+			return true;
+		}
+		return false;
+	}
+	
+	private void cancel(ThumbnailTask task) {
+		pendingThumbnails.remove(task.key, task.pending);
+		task.pending.done(false);
+	}
+	
+	/**
+	 * Wait until the thumbnail of the specified file, if queued, is generated.
+	 * A queued warm-up of the thumbnail gets the priority of a user request.
+	 * 
+	 * @param timeout The max. time to wait in milliseconds
+	 */
+	public void await(String relativePath, String filename, int maxWidth, int maxHeight, boolean fill, long timeout) {
+		PendingThumbnail pending = pendingThumbnails.get(new ThumbnailKey(relativePath, filename, maxWidth, maxHeight, fill));
+		if(pending != null) {
+			prioritize(pending);
+			try {
+				pending.await(timeout);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	private void generate(ThumbnailKey key, VFSLeaf file, PendingThumbnail pending) {
+		boolean generated = false;
+		try {
+			generated = generator.generate(file, key.maxWidth, key.maxHeight, key.fill);
+		} catch (Exception e) {
+			log.error("Cannot generate thumbnail of: {}", file, e);
+		} finally {
+			pendingThumbnails.remove(key, pending);
+			pending.done(generated);
+		}
+	}
+	
+	/**
+	 * @return The number of thumbnails waiting to be generated
+	 */
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+	
+	public int getPendingThumbnails() {
+		return pendingThumbnails.size();
+	}
+	
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+	
+	@FunctionalInterface
+	public interface ThumbnailGenerator {
+		
+		/**
+		 * @return true if the thumbnail was generated
+		 */
+		public boolean generate(VFSLeaf file, int maxWidth, int maxHeight, boolean fill);
+		
+	}
+	
+	private class ThumbnailTask implements Runnable, Comparable<ThumbnailTask> {
+		
+		private final ThumbnailKey key;
+		private final VFSLeaf file;
+		private final PendingThumbnail pending;
+		private final boolean warmUp;
+		private final long order;
+		
+		public ThumbnailTask(ThumbnailKey key, VFSLeaf file, PendingThumbnail pending, boolean warmUp, long order) {
+			this.key = key;
+			this.file = file;
+			this.pending = pending;
+			this.warmUp = warmUp;
+			this.order = order;
+		}
+
+		@Override
+		public void run() {
+			generate(key, file, pending);
+		}
+
+		@Override
+		public int compareTo(ThumbnailTask task) {
+			if(warmUp != task.warmUp) {
+				return warmUp ? 1 : -1;
+			}
+			return Long.compare(order, task.order);
+		}
+	}
+	
+	private static class PendingThumbnail {
+		
+		private boolean done;
+		private volatile ThumbnailTask task;
+		private final List<Runnable> listeners = new ArrayList<>(2);
+		private final CountDownLatch latch = new CountDownLatch(1);
+		
+		public void addListener(Runnable listener) {
+			if(listener == null) return;
+			
+			boolean notify;
+			synchronized(this) {
+				notify = done;
+				if(!done) {
+					listeners.add(listener);
+				}
+			}
+			if(notify) {
+				notify(listener);
+			}
+		}
+		
+		public void await(long timeout) throws InterruptedException {
+			latch.await(timeout, TimeUnit.MILLISECONDS);
+		}
+		
+		public void done(boolean generated) {
+			List<Runnable> toNotify;
+			synchronized(this) {
+				done = true;
+				toNotify = new ArrayList<>(listeners);
+				listeners.clear();
+			}
+			latch.countDown();
+			if(generated) {
+				for(Runnable listener:toNotify) {
+					notify(listener);
+				}
+			}
+		}
+		
+		private void notify(Runnable listener) {
+			try {
+				listener.run();
+			} catch (Exception e) {
+				log.error("", e);
+			}
+		}
+	}
+	
+	private static class ThumbnailKey {
+		
+		private final String relativePath;
+		private final String filename;
+		private final int maxWidth;
+		private final int maxHeight;
+		private final boolean fill;
+		
+		public ThumbnailKey(String relativePath, String filename, int maxWidth, int maxHeight, boolean fill) {
+			this.relativePath = relativePath;
+			this.filename = filename;
+			this.maxWidth = maxWidth;
+			this.maxHeight = maxHeight;
+			this.fill = fill;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(relativePath, filename, maxWidth, maxHeight, fill);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof ThumbnailKey) {
+				ThumbnailKey key = (ThumbnailKey)obj;
+				return maxWidth == key.maxWidth && maxHeight == key.maxHeight && fill == key.fill
+						&& Objects.equals(relativePath, key.relativePath)
+						&& Objects.equals(filename, key.filename);
+			}
+			return false;
+		}
+	}
+}
@@ -19,6 +19,7 @@
  */
 package org.olat.core.commons.services.webdav.manager;
 
+import java.io.File;
 import java.io.InputStream;
 
 import org.olat.core.commons.services.webdav.servlets.WebResource;
@@ -98,6 +99,11 @@ public class EmptyWebResource implements WebResource {
 		return null;
 	}
 
+	@Override
+	public File getLocalFile() {
+		return null;
+	}
+
 	@Override
 	public long getCreation() {
 		return 0;
@@ -19,6 +19,7 @@
  */
 package org.olat.core.commons.services.webdav.manager;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -32,6 +33,7 @@ import org.olat.core.commons.services.webdav.servlets.WebResource;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.vfs.JavaIOItem;
+import org.olat.core.util.vfs.LocalFileImpl;
 import org.olat.core.util.vfs.VFSConstants;
 import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSItem;
@@ -102,6 +104,9 @@ public class VFSResource implements WebResource {
 
 	@Override
 	public String getETag() {
+	       if (weakETag == null && item instanceof VFSContainer) {
+	    	   return CoreSpringFactory.getImpl(WebDAVCollectionETags.class).getETag((VFSContainer)item);
+	       }
 	       if (weakETag == null) {
 	            synchronized (this) {
 	                if (weakETag == null) {
@@ -127,6 +132,14 @@ public class VFSResource implements WebResource {
 		return mimeType;
 	}
 
+	@Override
+	public File getLocalFile() {
+		if(item instanceof LocalFileImpl) {
+			return ((LocalFileImpl)item).getBasefile();
+		}
+		return null;
+	}
+
 	@Override
 	public InputStream getInputStream() {
 		return (item instanceof VFSLeaf ? ((VFSLeaf)item).getInputStream() : null);
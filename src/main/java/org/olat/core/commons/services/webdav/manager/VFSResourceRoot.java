@@ -22,8 +22,10 @@ package org.olat.core.commons.services.webdav.manager;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.modules.bc.FolderLicenseHandler;
@@ -129,13 +131,39 @@ public class VFSResourceRoot implements WebResourceRoot  {
 	public Collection<VFSItem> list(String path) {
 		VFSItem file = resolveFile(path);
 		if(file instanceof VFSContainer) {
-			VFSContainer container = (VFSContainer)file;
-			return container.getItems(new WebDAVFileSystemFilter());
+			return listItems((VFSContainer)file);
 		} else {
 			return Collections.emptyList();
 		}
 	}
 
+	@Override
+	public List<WebResource> listResources(WebResource directory) {
+		if(!(directory instanceof VFSResource) || !(((VFSResource)directory).getItem() instanceof VFSContainer)) {
+			return Collections.emptyList();
+		}
+		
+		String path = directory.getPath();
+		if(!path.endsWith("/")) {
+			path += "/";
+		}
+		
+		List<VFSItem> items = listItems((VFSContainer)((VFSResource)directory).getItem());
+		List<WebResource> resources = new ArrayList<>(items.size());
+		for(VFSItem item:items) {
+			resources.add(new VFSResource(item, path + item.getName()));
+		}
+		return resources;
+	}
+	
+	private List<VFSItem> listItems(VFSContainer container) {
+		if(container.canMeta() == VFSConstants.YES) {
+			// the lock checks of the children use the metadata
+			CoreSpringFactory.getImpl(VFSRepositoryService.class).getChildrenMetadataFor(container);
+		}
+		return container.getItems(new WebDAVFileSystemFilter());
+	}
+
 	@Override
 	public boolean mkdir(String path) {
 		//remove trailing /
@@ -0,0 +1,147 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.webdav.manager;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.olat.core.util.vfs.JavaIOItem;
+import org.olat.core.util.vfs.VFSContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The ETags of the collections. The synchronization clients poll the
+ * ETag of their folders with PROPFIND, the ETag is calculated with the
+ * number, the size and the last modification of the files in the folder
+ * and held for a short time to live, as long as the modification date of
+ * the folder itself doesn't change.<br>
+ * Only the folders of the local file system have an ETag.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+@Service
+public class WebDAVCollectionETags {
+
+	@Value("${webdav.collection.etag.ttl:10000}")
+	private long timeToLive;
+	@Value("${webdav.collection.etag.cache.size:5000}")
+	private int maxSize;
+
+	private final Map<String,CachedETag> etags = new LinkedHashMap<String,CachedETag>(256, 0.75f, true) {
+		private static final long serialVersionUID = -4581934076520329125L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String,CachedETag> eldest) {
+			return size() > maxSize;
+		}
+	};
+
+	/**
+	 * @param container The collection
+	 * @return The weak ETag of the collection or null if the collection is not
+	 * 		a folder of the local file system
+	 */
+	public String getETag(VFSContainer container) {
+		if(!(container instanceof JavaIOItem)) {
+			return null;
+		}
+
+		File directory = ((JavaIOItem)container).getBasefile();
+		if(directory == null || !directory.isDirectory()) {
+			return null;
+		}
+
+		String key = directory.getAbsolutePath();
+		long directoryLastModified = directory.lastModified();
+		if(timeToLive > 0) {
+			synchronized(etags) {
+				CachedETag cachedETag = etags.get(key);
+				if(cachedETag != null) {
+					if(cachedETag.isValid(directoryLastModified)) {
+						return cachedETag.getETag();
+					}
+					etags.remove(key);
+				}
+			}
+		}
+
+		String etag = calculateETag(directory, directoryLastModified);
+		if(timeToLive > 0) {
+			CachedETag cachedETag = new CachedETag(etag, directoryLastModified, System.currentTimeMillis() + timeToLive);
+			synchronized(etags) {
+				etags.put(key, cachedETag);
+			}
+		}
+		return etag;
+	}
+
+	private String calculateETag(File directory, long directoryLastModified) {
+		int numOfFiles = 0;
+		long size = 0l;
+		long lastModified = directoryLastModified;
+
+		File[] files = directory.listFiles();
+		if(files != null) {
+			for(File file:files) {
+				numOfFiles++;
+				size += file.length();
+				lastModified = Math.max(lastModified, file.lastModified());
+			}
+		}
+		return "W/\"" + numOfFiles + "-" + size + "-" + lastModified + "\"";
+	}
+
+	public void clear() {
+		synchronized(etags) {
+			etags.clear();
+		}
+	}
+
+	public int size() {
+		synchronized(etags) {
+			return etags.size();
+		}
+	}
+
+	private static class CachedETag {
+
+		private final String etag;
+		private final long directoryLastModified;
+		private final long expiration;
+
+		public CachedETag(String etag, long directoryLastModified, long expiration) {
+			this.etag = etag;
+			this.directoryLastModified = directoryLastModified;
+			this.expiration = expiration;
+		}
+
+		public String getETag() {
+			return etag;
+		}
+
+		public boolean isValid(long currentDirectoryLastModified) {
+			return directoryLastModified == currentDirectoryLastModified
+					&& expiration >= System.currentTimeMillis();
+		}
+	}
+}
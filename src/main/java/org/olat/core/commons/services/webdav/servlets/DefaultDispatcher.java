@@ -17,6 +17,7 @@
 package org.olat.core.commons.services.webdav.servlets;
 
 import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -129,6 +130,13 @@ public abstract class DefaultDispatcher implements Serializable {
      */
     private boolean useAcceptRanges = true;
 
+    /**
+     * Minimum size for sendfile usage in bytes. The files are transferred
+     * by the connector from the file channel to the socket without copy
+     * in the JVM.
+     */
+    private int sendfileSize = 48 * 1024;
+
     /**
      * Full range marker.
      */
@@ -163,6 +171,15 @@ public abstract class DefaultDispatcher implements Serializable {
     protected static final int BUFFER_SIZE = 4096;
 
 
+    /**
+     * The request attributes of the sendfile support of Tomcat
+     */
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+
     // --------------------------------------------------------- Public Methods
 
 
@@ -515,7 +532,8 @@ public abstract class DefaultDispatcher implements Serializable {
                     copy(resource, renderResult, writer, encoding);
                 } else {
                     // Output is via an InputStream
-                    if (resource.isDirectory()) {
+                    if (resource.isDirectory()
+                            || checkSendfile(request, response, resource, contentLength, null)) {
                         renderResult = null;
                     } else {
                         renderResult = resource.getInputStream();
@@ -563,7 +581,9 @@ public abstract class DefaultDispatcher implements Serializable {
                         // Silent catch
                     }
                     if (ostream != null) {
-                        copy(resource, ostream, range);
+                        if (!checkSendfile(request, response, resource, length, range)) {
+                            copy(resource, ostream, range);
+                        }
                     } else {
                         // we should not get here
                         throw new IllegalStateException();
@@ -968,6 +988,42 @@ public abstract class DefaultDispatcher implements Serializable {
     }
 
 
+    /**
+     * Check if sendfile can be used: the connector transfers the file
+     * with zero-copy from the file channel to the socket after the request.
+     *
+     * @param request The servlet request
+     * @param response The servlet response
+     * @param resource The resource to send
+     * @param length The number of bytes to send
+     * @param range The range or null for the whole file
+     * @return true if the file is sent by the connector
+     */
+    private boolean checkSendfile(HttpServletRequest request, HttpServletResponse response,
+            WebResource resource, long length, Range range) {
+        if (sendfileSize > 0 && length > sendfileSize
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))
+                // a wrapper can change the content
+                && request.getClass().getName().equals("org.apache.catalina.connector.RequestFacade")
+                && response.getClass().getName().equals("org.apache.catalina.connector.ResponseFacade")
+                && resource.isFile()) {
+            File file = resource.getLocalFile();
+            if (file != null && file.isFile()) {
+                request.setAttribute(SENDFILE_FILENAME_ATTR, file.getAbsolutePath());
+                if (range == null) {
+                    request.setAttribute(SENDFILE_FILE_START_ATTR, Long.valueOf(0L));
+                    request.setAttribute(SENDFILE_FILE_END_ATTR, Long.valueOf(length));
+                } else {
+                    request.setAttribute(SENDFILE_FILE_START_ATTR, Long.valueOf(range.start));
+                    request.setAttribute(SENDFILE_FILE_END_ATTR, Long.valueOf(range.end + 1));
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+
     /**
      * Copy the contents of the specified input stream to the specified
      * output stream, and ensure that both streams are closed before returning
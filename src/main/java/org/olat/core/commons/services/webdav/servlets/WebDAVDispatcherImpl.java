@@ -597,41 +597,32 @@ public class WebDAVDispatcherImpl
         generatedXML.writeElement("D", DEFAULT_NAMESPACE, "multistatus", XMLWriter.OPENING);
 
         if (depth == 0) {
-            parseProperties(req, generatedXML, path, type,
+            parseProperties(req, generatedXML, resource, type,
                             properties);
         } else {
             // The stack always contains the object of the current level
-            Stack<String> stack = new Stack<>();
-            stack.push(path);
+            Stack<WebResource> stack = new Stack<>();
+            stack.push(resource);
 
             // Stack of the objects one level below
-            Stack<String> stackBelow = new Stack<>();
+            Stack<WebResource> stackBelow = new Stack<>();
 
             while ((!stack.isEmpty()) && (depth >= 0)) {
 
-                final String currentPath = stack.pop();
-                parseProperties(req, generatedXML, currentPath, type, properties);
-
-                resource = resources.getResource(currentPath);
+                resource = stack.pop();
+                parseProperties(req, generatedXML, resource, type, properties);
 
                 if (resource.isDirectory() && (depth > 0)) {
 
-                    Collection<VFSItem> entries = resources.list(currentPath);
-                    for (VFSItem entry : entries) {
-                        String newPath = currentPath;
-                        if (!(newPath.endsWith("/")))
-                                newPath += "/";
-                        newPath += entry.getName();
-                        stackBelow.push(newPath);
+                    // The children are resolved from their directory and
+                    // their metadata loaded with one query for the lock discovery
+                    List<WebResource> entries = resources.listResources(resource);
+                    for (WebResource entry : entries) {
+                        stackBelow.push(entry);
                     }
 
                     // Displaying the lock-null resources present in that
                     // collection
-                    String lockPath = currentPath;
-                    if (lockPath.endsWith("/")) {
-                        lockPath = lockPath.substring(0, lockPath.length() - 1);
-                    }
-                    
                     List<String> currentLockNullResources = lockManager.getLockNullResource(resource);
                     if (currentLockNullResources != null) {
                         for(String lockNullPath : currentLockNullResources) {
@@ -646,6 +637,7 @@ public class WebDAVDispatcherImpl
                     stackBelow = new Stack<>();
                 }
 
+                // stream the response, resource by resource
                 generatedXML.sendData();
 
             }
@@ -1968,7 +1960,29 @@ public class WebDAVDispatcherImpl
             return;
 
         final WebResourceRoot resources = getResources(req);
-        final WebResource resource = resources.getResource(path);
+        parseProperties(req, generatedXML, resources.getResource(path), type, propertiesVector);
+    }
+
+    /**
+     * Propfind helper method.
+     *
+     * @param req The servlet request
+     * @param generatedXML XML response to the Propfind request
+     * @param resource The resource already resolved
+     * @param type Propfind type
+     * @param propertiesVector If the propfind type is find properties by
+     * name, then this Vector contains those properties
+     */
+    private void parseProperties(HttpServletRequest req,
+                                 XMLWriter generatedXML,
+                                 final WebResource resource, int type,
+                                 Vector<String> propertiesVector) {
+
+        final String path = resource.getPath();
+        // Exclude any resource in the /WEB-INF and /META-INF subdirectories
+        if (isSpecialPath(path))
+            return;
+
         if (!resource.exists()) {
             // File is in directory listing but doesn't appear to exist
             // Broken symlink or odd permission settings?
@@ -2132,11 +2146,12 @@ public class WebDAVDispatcherImpl
                              (resource.getName()));
                     }
                 } else if (property.equals("getetag")) {
-                    if (resource.isDirectory()) {
+                    String etag = resource.getETag();
+                    if (etag == null) {
                         propertiesNotFound.addElement(property);
                     } else {
                         generatedXML.writeProperty
-                            ("D", "getetag", resource.getETag());
+                            ("D", "getetag", etag);
                     }
                 } else if (property.equals("getlastmodified")) {
                     if (resource.isDirectory()) {
@@ -2472,13 +2487,6 @@ public class WebDAVDispatcherImpl
             wroteStart = true;
             generatedXML.writeElement("D", "lockdiscovery", XMLWriter.OPENING);
             resourceLock.toXML(generatedXML);
-        } else {
-        	LockInfo ooLock = lockManager.getLock(resource);
-        	if(ooLock != null) {
-        		wroteStart = true;
-        		generatedXML.writeElement("D", "lockdiscovery", XMLWriter.OPENING);
-        		ooLock.toXML(generatedXML);
-        	}
         }
 
         while (collectionLocksList.hasNext()) {
@@ -16,6 +16,7 @@
  */
 package org.olat.core.commons.services.webdav.servlets;
 
+import java.io.File;
 import java.io.InputStream;
 
 /**
@@ -93,6 +94,12 @@ public interface WebResource {
      *          represent a file
      */
     InputStream getInputStream();
+
+    /**
+     * @return The file on the local file system or null if the resource
+     * 		is not a plain local file
+     */
+    File getLocalFile();
     
     /**
      * The time the file was created. If not available, the result of
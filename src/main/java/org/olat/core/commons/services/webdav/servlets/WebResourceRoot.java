@@ -18,6 +18,7 @@ package org.olat.core.commons.services.webdav.servlets;
 
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.List;
 
 import org.olat.core.util.vfs.QuotaExceededException;
 import org.olat.core.util.vfs.VFSItem;
@@ -57,6 +58,18 @@ public interface WebResourceRoot {
      */
     Collection<VFSItem> list(String path);
 
+    /**
+     * Obtain the resources of all the files and directories located in the
+     * specified directory, without resolving them again from the root. The
+     * metadata of the whole directory are loaded in one go.
+     *
+     * @param directory The directory
+     *
+     * @return The list of resources. If the resource is not a directory
+     *          then an empty list will be returned.
+     */
+    List<WebResource> listResources(WebResource directory);
+
     /**
      * Create a new directory at the given path.
      *
@@ -110,6 +110,10 @@ public class MapperDispatcher implements Dispatcher {
 		}
 		// /bla/blu.html
 		MediaResource mr = m.handle(mod, hreq);
+		if(hreq.isAsyncStarted()) {
+			// parked by the mapper, it will complete or dispatch the request again
+			return;
+		}
 		if(mr != null) {
 			ServletUtil.serveResource(hreq, hres, mr);
 		} else {
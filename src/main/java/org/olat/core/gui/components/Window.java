@@ -54,6 +54,8 @@ import org.olat.core.gui.components.form.flexible.impl.InvalidRequestParameterEx
 import org.olat.core.gui.components.htmlheader.jscss.CustomCSS;
 import org.olat.core.gui.components.htmlheader.jscss.CustomCSSDelegate;
 import org.olat.core.gui.components.panel.Panel;
+import org.olat.core.gui.components.velocity.VelocityRenderStatistics;
+import org.olat.core.gui.components.velocity.VelocityRenderStatistics.RequestStatistics;
 import org.olat.core.gui.control.ChiefController;
 import org.olat.core.gui.control.Controller;
 import org.olat.core.gui.control.Event;
@@ -186,6 +188,8 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 	// the analytics service
 	private final AnalyticsSPI analyticsSPI;
 	
+	private RequestStatistics lastRenderStatistics;
+	
 	/**
 	 * @param name
 	 * @param chiefController
@@ -289,6 +293,22 @@ public class Window extends AbstractComponent implements CustomCSSDelegate {
 	 * @param renderOnly
 	 */
 	public void dispatchRequest(UserRequest ureq, boolean renderOnly) {
+		VelocityRenderStatistics.getInstance().startRequest();
+		try {
+			dispatchWindowRequest(ureq, renderOnly);
+		} finally {
+			lastRenderStatistics = VelocityRenderStatistics.getInstance().endRequest();
+		}
+	}
+	
+	/**
+	 * @return The render time of the templates in the last request of this window
+	 */
+	public RequestStatistics getLastRenderStatistics() {
+		return lastRenderStatistics;
+	}
+	
+	private void dispatchWindowRequest(UserRequest ureq, boolean renderOnly) {
 		final HttpServletRequest request = ureq.getHttpReq();
 		final HttpServletResponse response = ureq.getHttpResp();
 		final String timestampID = ureq.getTimestampID() == null ? "1" : ureq.getTimestampID();
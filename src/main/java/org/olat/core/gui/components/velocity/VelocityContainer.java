@@ -26,13 +26,20 @@
 
 package org.olat.core.gui.components.velocity;
 
+import java.util.Objects;
+
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.context.Context;
+import org.olat.core.gui.GlobalSettings;
 import org.olat.core.gui.UserRequest;
+import org.olat.core.gui.components.Component;
+import org.olat.core.gui.components.ComponentCollection;
 import org.olat.core.gui.components.ComponentEventListener;
 import org.olat.core.gui.components.ComponentRenderer;
 import org.olat.core.gui.components.Container;
 import org.olat.core.gui.control.Event;
+import org.olat.core.gui.render.URLBuilder;
+import org.olat.core.gui.render.ValidationResult;
 import org.olat.core.gui.render.velocity.VelocityComponent;
 import org.olat.core.gui.translator.Translator;
 import org.olat.core.util.Util;
@@ -52,6 +59,11 @@ public class VelocityContainer extends Container implements VelocityComponent {
 
 	private String page;
 	private Context context = new VelocityContext();
+	
+	private boolean renderCacheEnabled;
+	private Long renderedContextFingerprint;
+	private String renderedKey;
+	private String renderedOutput;
 
 	/**
 	 * Constructor to create a VC container from a given file path
@@ -168,6 +180,146 @@ public class VelocityContainer extends Container implements VelocityComponent {
 		setDirty(true);
 	}
 
+	public boolean isRenderCacheEnabled() {
+		return renderCacheEnabled;
+	}
+
+	/**
+	 * Enable the memoization of the rendering. If the page, the translator,
+	 * the child components and the values of the context are the same as
+	 * by the last rendering, a dirty container is not rendered again and
+	 * the output of the last rendering is reused when the parent is rendered.<br>
+	 * The values are compared with their hash code: only enable it if the
+	 * values are immutable or implement hashCode() with their state.
+	 * 
+	 * @param enabled true to enable the render cache
+	 */
+	public void setRenderCacheEnabled(boolean enabled) {
+		this.renderCacheEnabled = enabled;
+		clearRenderCache();
+	}
+	
+	public void clearRenderCache() {
+		renderedContextFingerprint = null;
+		renderedKey = null;
+		renderedOutput = null;
+	}
+
+	@Override
+	public void setVisible(boolean visible) {
+		if(!visible) {
+			// the browser only has the placeholder
+			clearRenderCache();
+		}
+		super.setVisible(visible);
+	}
+
+	@Override
+	public void validate(UserRequest ureq, ValidationResult vr) {
+		if(renderCacheEnabled && isDirty() && renderedContextFingerprint != null
+				&& renderedContextFingerprint.equals(getContextFingerprint())) {
+			// nothing changed since the last rendering, the browser is up to date
+			// and the timestamp stays the same
+			setDirty(false);
+		}
+		super.validate(ureq, vr);
+	}
+	
+	/**
+	 * @param renderKey The key of the current rendering
+	 * @return The output of the last rendering if it's the same render key or null
+	 */
+	String getCachedOutput(String renderKey) {
+		if(renderKey != null && renderKey.equals(renderedKey)) {
+			return renderedOutput;
+		}
+		return null;
+	}
+	
+	void setCachedOutput(Long contextFingerprint, String renderKey, String output) {
+		renderedContextFingerprint = contextFingerprint;
+		renderedKey = renderKey;
+		renderedOutput = output;
+	}
+	
+	/**
+	 * The key contains the fingerprint of the context and the URL parameters
+	 * (window, timestamps) and the timestamps of all the components rendered
+	 * within the container.
+	 * 
+	 * @param contextFingerprint The fingerprint of the context
+	 * @param ubu The URL builder of the container
+	 * @param settings The global settings of the rendering
+	 * @return A key or null if the rendering cannot be cached (dirty child)
+	 */
+	String getRenderKey(Long contextFingerprint, URLBuilder ubu, GlobalSettings settings) {
+		if(contextFingerprint == null) {
+			return null;
+		}
+		
+		long[] subtree = new long[] { 17l };
+		for(Component cmp:getComponents()) {
+			if(!appendSubtreeFingerprint(cmp, subtree)) {
+				return null;
+			}
+		}
+		
+		StringBuilder sb = new StringBuilder(128);
+		sb.append(ubu.getJavascriptURI())
+		  .append(':').append(contextFingerprint)
+		  .append(':').append(subtree[0])
+		  .append(':').append(settings.getAjaxFlags().isIframePostEnabled())
+		  .append(':').append(settings.isIdDivsForced());
+		return sb.toString();
+	}
+	
+	private boolean appendSubtreeFingerprint(Component cmp, long[] fingerprint) {
+		if(cmp.isDirty()) {
+			return false;
+		}
+		fingerprint[0] = 31l * fingerprint[0] + cmp.getDispatchID().hashCode();
+		fingerprint[0] = 31l * fingerprint[0] + Objects.hashCode(cmp.getTimestamp());
+		fingerprint[0] = 31l * fingerprint[0] + (cmp.isVisible() ? 1 : 0);
+		if(cmp instanceof ComponentCollection) {
+			for(Component child:((ComponentCollection)cmp).getComponents()) {
+				if(child != null && !appendSubtreeFingerprint(child, fingerprint)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return A fingerprint of the page, translator, child components and context
+	 * 		values or null if it cannot be calculated
+	 */
+	Long getContextFingerprint() {
+		try {
+			long fingerprint = page.hashCode();
+			Translator translator = getTranslator();
+			if(translator != null && translator.getLocale() != null) {
+				fingerprint = 31l * fingerprint + translator.getLocale().hashCode();
+			}
+			// the order of the keys is not relevant
+			long values = 0l;
+			for(String key:context.getKeys()) {
+				if(!"r".equals(key)) {
+					long entry = ((long)key.hashCode() << 32) ^ (Objects.hashCode(context.get(key)) & 0xffffffffl);
+					values += entry * 0x9e3779b97f4a7c15l;
+				}
+			}
+			long components = 0l;
+			for(Component cmp:getComponents()) {
+				components += 31l * cmp.getComponentName().hashCode() + System.identityHashCode(cmp);
+			}
+			return Long.valueOf(31l * (31l * fingerprint + values) + components);
+		} catch (RuntimeException e) {
+			// hashCode of a value can fail, lazy loading...
+			return null;
+		}
+	}
+
 	/**
 	 * @see org.olat.core.gui.components.Component#getExtendedDebugInfo()
 	 */
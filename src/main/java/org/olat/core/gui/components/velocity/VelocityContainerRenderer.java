@@ -29,6 +29,7 @@ package org.olat.core.gui.components.velocity;
 import org.apache.velocity.context.Context;
 import org.olat.core.gui.components.Component;
 import org.olat.core.gui.components.ComponentRenderer;
+import org.olat.core.gui.media.AsyncMediaResponsible;
 import org.olat.core.gui.render.RenderResult;
 import org.olat.core.gui.render.Renderer;
 import org.olat.core.gui.render.RenderingState;
@@ -54,6 +55,23 @@ public class VelocityContainerRenderer implements ComponentRenderer {
 			RenderResult renderResult, String[] args) {
 		VelocityContainer vc = (VelocityContainer) source;
 		String pagePath = vc.getPage();
+		long start = System.nanoTime();
+		
+		Long contextFingerprint = null;
+		String renderKey = null;
+		if(vc.isRenderCacheEnabled() && renderResult.getInterceptHandlerInstance() == null) {
+			contextFingerprint = vc.getContextFingerprint();
+			renderKey = vc.getRenderKey(contextFingerprint, ubu, renderer.getGlobalSettings());
+			String cachedOutput = vc.getCachedOutput(renderKey);
+			if(cachedOutput != null) {
+				target.append(cachedOutput);
+				VelocityRenderStatistics.getInstance().record(pagePath, System.nanoTime() - start, true);
+				return;
+			}
+		}
+		
+		int startLength = target.length();
+		AsyncMediaResponsible asyncMediaResponsible = renderResult.getAsyncMediaResponsible();
 		Context ctx = vc.getContext();
 		
 		// the component id of the urlbuilder  will be overwritten by the recursive render call for
@@ -72,9 +90,21 @@ public class VelocityContainerRenderer implements ComponentRenderer {
 					cmp.setDirty(false);
 				}
 			}
+			
+			if(contextFingerprint != null) {
+				if(renderKey != null && renderResult.getRenderException() == null
+						&& asyncMediaResponsible == renderResult.getAsyncMediaResponsible()) {
+					vc.setCachedOutput(contextFingerprint, renderKey, target.getBuffer().substring(startLength));
+				} else {
+					// the browser is up to date, but the output cannot be reused
+					vc.setCachedOutput(contextFingerprint, null, null);
+				}
+			}
 		} catch(Exception e) {
+			vc.clearRenderCache();
 			log.error("", e);
 		}
+		VelocityRenderStatistics.getInstance().record(pagePath, System.nanoTime() - start, false);
 	}
 
 	@Override
@@ -0,0 +1,236 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components.velocity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the render time and the render cache hits of the velocity
+ * templates, for the whole VM and for the request processed by the
+ * current thread.<br>
+ * The times are inclusive: the time of a template contains the time of
+ * the components rendered within it.<br>
+ * The statistics are only collected if enabled, by the development tool.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class VelocityRenderStatistics {
+
+	private static final VelocityRenderStatistics INSTANCE = new VelocityRenderStatistics();
+
+	private final ConcurrentMap<String,TemplateStatistics> templates = new ConcurrentHashMap<>();
+	private final ThreadLocal<RequestStatistics> currentRequest = new ThreadLocal<>();
+	private volatile boolean enabled;
+
+	private VelocityRenderStatistics() {
+		//
+	}
+
+	public static VelocityRenderStatistics getInstance() {
+		return INSTANCE;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Start to collect the templates rendered by the current thread.
+	 */
+	public void startRequest() {
+		if(enabled) {
+			currentRequest.set(new RequestStatistics());
+		}
+	}
+
+	/**
+	 * @return The templates rendered by the current thread since the start of the request
+	 */
+	public RequestStatistics endRequest() {
+		RequestStatistics request = currentRequest.get();
+		currentRequest.remove();
+		return request;
+	}
+
+	/**
+	 * @param page The velocity template
+	 * @param nanos The time used to render it
+	 * @param cached true if the output was reused from the render cache
+	 */
+	public void record(String page, long nanos, boolean cached) {
+		if(!enabled) return;
+
+		templates.computeIfAbsent(page, TemplateStatistics::new).record(nanos, cached);
+		RequestStatistics request = currentRequest.get();
+		if(request != null) {
+			request.record(page, nanos, cached);
+		}
+	}
+
+	/**
+	 * @param maxResults The max. number of templates
+	 * @return The templates which used the most render time since the start of the VM
+	 */
+	public List<TemplateStatistics> getMostExpensiveTemplates(int maxResults) {
+		List<TemplateStatistics> statistics = new ArrayList<>(templates.values());
+		Collections.sort(statistics, Comparator.comparingLong(TemplateStatistics::getTotalTime).reversed());
+		return statistics.size() > maxResults ? statistics.subList(0, maxResults) : statistics;
+	}
+
+	public TemplateStatistics getStatistics(String page) {
+		return templates.get(page);
+	}
+
+	public void reset() {
+		templates.clear();
+	}
+
+	public static class TemplateStatistics {
+
+		private final String page;
+		private final LongAdder renders = new LongAdder();
+		private final LongAdder cacheHits = new LongAdder();
+		private final LongAdder totalTime = new LongAdder();
+		private final AtomicLong maxTime = new AtomicLong();
+
+		public TemplateStatistics(String page) {
+			this.page = page;
+		}
+
+		private void record(long nanos, boolean cached) {
+			renders.increment();
+			if(cached) {
+				cacheHits.increment();
+			}
+			totalTime.add(nanos);
+			maxTime.accumulateAndGet(nanos, Math::max);
+		}
+
+		public String getPage() {
+			return page;
+		}
+
+		public long getRenders() {
+			return renders.sum();
+		}
+
+		public long getCacheHits() {
+			return cacheHits.sum();
+		}
+
+		/**
+		 * @return The total render time in nanoseconds
+		 */
+		public long getTotalTime() {
+			return totalTime.sum();
+		}
+
+		/**
+		 * @return The average render time in microseconds
+		 */
+		public long getAverageTime() {
+			long count = renders.sum();
+			return count == 0 ? 0 : totalTime.sum() / count / 1000l;
+		}
+
+		/**
+		 * @return The max. render time in microseconds
+		 */
+		public long getMaxTime() {
+			return maxTime.get() / 1000l;
+		}
+	}
+
+	/**
+	 * The templates rendered within one request, only used by the thread
+	 * which processes the request.
+	 */
+	public static class RequestStatistics {
+
+		private final Map<String,RequestTemplate> templates = new HashMap<>();
+
+		private void record(String page, long nanos, boolean cached) {
+			templates.computeIfAbsent(page, RequestTemplate::new).record(nanos, cached);
+		}
+
+		/**
+		 * @param maxResults The max. number of templates
+		 * @return The templates which used the most render time in the request
+		 */
+		public List<RequestTemplate> getMostExpensiveTemplates(int maxResults) {
+			List<RequestTemplate> statistics = new ArrayList<>(templates.values());
+			Collections.sort(statistics, Comparator.comparingLong(RequestTemplate::getTime).reversed());
+			return statistics.size() > maxResults ? statistics.subList(0, maxResults) : statistics;
+		}
+	}
+
+	public static class RequestTemplate {
+
+		private final String page;
+		private int renders;
+		private int cacheHits;
+		private long time;
+
+		public RequestTemplate(String page) {
+			this.page = page;
+		}
+
+		private void record(long nanos, boolean cached) {
+			renders++;
+			if(cached) {
+				cacheHits++;
+			}
+			time += nanos;
+		}
+
+		public String getPage() {
+			return page;
+		}
+
+		public int getRenders() {
+			return renders;
+		}
+
+		public int getCacheHits() {
+			return cacheHits;
+		}
+
+		/**
+		 * @return The render time in nanoseconds
+		 */
+		public long getTime() {
+			return time;
+		}
+	}
+}
@@ -114,6 +114,12 @@ public interface WindowBackOffice extends Disposable{
 	 */
 	public void sendCommandTo(Command wco);
 	
+	/**
+	 * Wake up the poll request of the window parked on the server (if any)
+	 * because some components may be dirty or some commands are waiting.
+	 */
+	public void signalChanges();
+	
 	/**
 	 * gets the data
 	 * @see putData(String key, Object value)
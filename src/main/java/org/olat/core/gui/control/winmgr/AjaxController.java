@@ -29,9 +29,15 @@ package org.olat.core.gui.control.winmgr;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -66,6 +72,7 @@ import org.olat.core.gui.media.StringMediaResource;
 import org.olat.core.gui.render.StringOutput;
 import org.olat.core.gui.render.URLBuilder;
 import org.olat.core.gui.translator.Translator;
+import org.olat.core.helpers.GUISettings;
 import org.olat.core.helpers.Settings;
 import org.olat.core.id.context.BusinessControlFactory;
 import org.olat.core.id.context.ContextEntry;
@@ -105,7 +112,13 @@ public class AjaxController extends DefaultController {
 	private long creationTime = System.currentTimeMillis();
 	private boolean ajaxEnabled;
 	
-	private WindowBackOffice wboImpl;
+	private final WindowBackOfficeImpl wboImpl;
+	
+	private static final String PUSH_DEADLINE_ATTR = "o_push_deadline";
+	private static final AtomicInteger parkedRequests = new AtomicInteger();
+	private final Object pushMonitor = new Object();
+	private final List<AsyncContext> parkedContexts = new ArrayList<>(2);
+	private long pushVersion = 0;
 	
 	@Autowired
 	private SessionStatsManager statsManager;
@@ -121,13 +134,19 @@ public class AjaxController extends DefaultController {
 		myContent = new VelocityContainer("jsserverpart", VELOCITY_ROOT + "/serverpart.html", null, this);
 		myContent.contextPut("pollperiod", Integer.valueOf(pollperiod));
 		
+		GUISettings guiSettings = CoreSpringFactory.getImpl(GUISettings.class);
+		myContent.contextPut("serverpush", Boolean.valueOf(guiSettings.isServerPushEnabled()));
+		myContent.contextPut("serverpushtimeout", Long.valueOf(guiSettings.getServerPushMaxWait() + 30000l));
+		
 		// create a mapper to not block main traffic when polling (or vica versa)
-		final Window window = wboImpl.getWindow();
 		m = new Mapper() {
 			@Override
 			public MediaResource handle(String relPath, HttpServletRequest request) {
-				pollCount++;
-				statsManager.incrementAuthenticatedPollerClick();
+				// a parked poll request is dispatched again, count it only once
+				if(request.getDispatcherType() != DispatcherType.ASYNC) {
+					pollCount++;
+					statsManager.incrementAuthenticatedPollerClick();
+				}
 
 				String uriPrefix = DispatcherModule.getLegacyUriPrefix(request);
 				UserRequest uureq = new UserRequestImpl(uriPrefix, request, null);
@@ -138,37 +157,13 @@ public class AjaxController extends DefaultController {
 					reload = cc.wishAsyncReload(uureq, false);
 				}
 				
-				MediaResource resource;
-				
-				try {
-					// check for dirty components now.
-					wboImpl.fireCycleEvent(Window.BEFORE_INLINE_RENDERING);
-					Command updateDirtyCom = window.handleDirties();
-					wboImpl.fireCycleEvent(Window.AFTER_INLINE_RENDERING);
-					
-					if (updateDirtyCom != null) {
-						synchronized (windowcommands) { //o_clusterOK by:fj
-							windowcommands.add(new WindowCommand(wboImpl, updateDirtyCom));
-							if(reload) {
-								String timestampID = uureq.getTimestampID();
-								String reRenderUri = window.buildURIFor(window, timestampID, null);
-								Command rmrcom = CommandFactory.createParentRedirectTo(reRenderUri);
-								windowcommands.add(new WindowCommand(wboImpl, rmrcom));
-							}
-						}
-						resource = extractMediaResource(false);
-					} else {
-						resource = new NothingChangedMediaResource();
-					}
-				} catch (CannotReplaceDOMFragmentException e) {
-					log.error("", e);
-					String timestampID = uureq.getTimestampID();
-					String reRenderUri = window.buildURIFor(window, timestampID, null);
-					Command rmrcom = CommandFactory.createParentRedirectTo(reRenderUri);
-					windowcommands.add(new WindowCommand(wboImpl, rmrcom));
-					resource = extractMediaResource(false);
+				long version = getPushVersion();
+				MediaResource resource = handleDirties(uureq, reload);
+				if(resource == null && "true".equals(request.getParameter("push")) && park(request, version)) {
+					// the mapper dispatcher doesn't answer the parked request
+					return null;
 				}
-				return resource;
+				return resource == null ? new NothingChangedMediaResource() : resource;
 			}
 		};
 
@@ -234,6 +229,169 @@ public class AjaxController extends DefaultController {
 		//
 	}
 	
+	/**
+	 * Check the dirty components and the waiting commands.
+	 * 
+	 * @param ureq The poll request
+	 * @param reload If the chief controller wish a reload of the window
+	 * @return The commands or null if nothing changed
+	 */
+	private MediaResource handleDirties(UserRequest ureq, boolean reload) {
+		final Window window = wboImpl.getWindow();
+		MediaResource resource;
+		try {
+			// check for dirty components now.
+			wboImpl.fireCycleEvent(Window.BEFORE_INLINE_RENDERING);
+			Command updateDirtyCom = window.handleDirties();
+			wboImpl.fireCycleEvent(Window.AFTER_INLINE_RENDERING);
+			
+			if (updateDirtyCom != null) {
+				synchronized (windowcommands) { //o_clusterOK by:fj
+					windowcommands.add(new WindowCommand(wboImpl, updateDirtyCom));
+					if(reload) {
+						String timestampID = ureq.getTimestampID();
+						String reRenderUri = window.buildURIFor(window, timestampID, null);
+						Command rmrcom = CommandFactory.createParentRedirectTo(reRenderUri);
+						windowcommands.add(new WindowCommand(wboImpl, rmrcom));
+					}
+				}
+				resource = extractMediaResource(false);
+			} else if (hasWindowCommands()) {
+				// commands sent without dirty components
+				resource = extractMediaResource(false);
+			} else {
+				resource = null;
+			}
+		} catch (CannotReplaceDOMFragmentException e) {
+			log.error("", e);
+			String timestampID = ureq.getTimestampID();
+			String reRenderUri = window.buildURIFor(window, timestampID, null);
+			Command rmrcom = CommandFactory.createParentRedirectTo(reRenderUri);
+			windowcommands.add(new WindowCommand(wboImpl, rmrcom));
+			resource = extractMediaResource(false);
+		}
+		return resource;
+	}
+	
+	/**
+	 * Park the poll request asynchronously, it doesn't hold a thread of the
+	 * servlet container while it waits. The request is dispatched again as
+	 * soon as the window is signaled as changed, or after the poll period to
+	 * check the dirty components (some changes are not signaled), until the
+	 * max. wait is reached. If the request cannot be parked, it's answered
+	 * immediately as a normal poll.
+	 * 
+	 * @param request The poll request
+	 * @param version The version of the changes before the dirty components were checked
+	 * @return true if the request is parked
+	 */
+	private boolean park(HttpServletRequest request, long version) {
+		GUISettings guiSettings = CoreSpringFactory.getImpl(GUISettings.class);
+		if(!guiSettings.isServerPushEnabled() || !request.isAsyncSupported() || isDisposed()) {
+			return false;
+		}
+		
+		long now = System.currentTimeMillis();
+		long deadline;
+		Object deadlineAttr = request.getAttribute(PUSH_DEADLINE_ATTR);
+		if(deadlineAttr instanceof Long) {
+			deadline = ((Long)deadlineAttr).longValue();
+		} else if(parkedRequests.get() >= guiSettings.getServerPushMaxParkedRequests()) {
+			return false;
+		} else {
+			deadline = now + guiSettings.getServerPushMaxWait();
+			request.setAttribute(PUSH_DEADLINE_ATTR, Long.valueOf(deadline));
+		}
+		
+		long remaining = deadline - now;
+		if(remaining <= 0) {
+			return false;
+		}
+		
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.setTimeout(Math.min(remaining, pollperiod));
+		asyncContext.addListener(new ParkedRequestListener());
+		synchronized(pushMonitor) {
+			if(pushVersion == version) {
+				parkedContexts.add(asyncContext);
+				parkedRequests.incrementAndGet();
+				return true;
+			}
+		}
+		// signaled while the dirty components were checked
+		dispatch(asyncContext);
+		return true;
+	}
+	
+	private boolean unpark(AsyncContext asyncContext) {
+		boolean removed;
+		synchronized(pushMonitor) {
+			removed = parkedContexts.remove(asyncContext);
+		}
+		if(removed) {
+			parkedRequests.decrementAndGet();
+		}
+		return removed;
+	}
+	
+	private List<AsyncContext> unparkAll() {
+		List<AsyncContext> contexts;
+		synchronized(pushMonitor) {
+			pushVersion++;
+			if(parkedContexts.isEmpty()) {
+				return Collections.emptyList();
+			}
+			contexts = new ArrayList<>(parkedContexts);
+			parkedContexts.clear();
+		}
+		parkedRequests.addAndGet(-contexts.size());
+		return contexts;
+	}
+	
+	private void dispatch(AsyncContext asyncContext) {
+		try {
+			asyncContext.dispatch();
+		} catch (IllegalStateException e) {
+			log.debug("Parked poll request already completed", e);
+		}
+	}
+	
+	private long getPushVersion() {
+		synchronized(pushMonitor) {
+			return pushVersion;
+		}
+	}
+	
+	/**
+	 * Dispatch again the parked poll requests of the window.
+	 */
+	public void signalChanges() {
+		for(AsyncContext asyncContext:unparkAll()) {
+			dispatch(asyncContext);
+		}
+	}
+	
+	/**
+	 * Answer the parked poll requests with nothing changed, the mapper
+	 * is not available to dispatch them again.
+	 */
+	private void releaseParkedRequests() {
+		for(AsyncContext asyncContext:unparkAll()) {
+			try {
+				((HttpServletResponse)asyncContext.getResponse()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				asyncContext.complete();
+			} catch (IllegalStateException e) {
+				log.debug("Parked poll request already completed", e);
+			}
+		}
+	}
+	
+	private boolean hasWindowCommands() {
+		synchronized (windowcommands) { //o_clusterOK by:fj
+			return !windowcommands.isEmpty();
+		}
+	}
+	
 	public void pushResource(UserRequest ureq, Writer sb, boolean wrapHTML) throws IOException {
 		if (wrapHTML) {
 			// most ajax responses are a lot smaller than 16k
@@ -406,6 +564,8 @@ public class AjaxController extends DefaultController {
 		mappers.add(mKey);
 		mappers.add(sbmKey);
 		CoreSpringFactory.getImpl(MapperService.class).cleanUp(mappers);
+		// release the parked poll requests
+		releaseParkedRequests();
 		if (ajaxEnabled && pollCount == 0) {
 			//the controller should be older than 40s otherwise poll may not started yet
 			if ((System.currentTimeMillis() - creationTime) > 40000) log.warn("Client did not send a single polling request though ajax is enabled!");
@@ -419,6 +579,7 @@ public class AjaxController extends DefaultController {
 		synchronized (windowcommands) { //o_clusterOK by:fj
 			windowcommands.add(wco);
 		}
+		signalChanges();
 	}
 
 	/**
@@ -444,6 +605,33 @@ public class AjaxController extends DefaultController {
 		} // else no need to change anything
 	}
 	
+	private final class ParkedRequestListener implements AsyncListener {
+
+		@Override
+		public void onTimeout(AsyncEvent event) throws IOException {
+			AsyncContext asyncContext = event.getAsyncContext();
+			// check the dirty components or answer after the max. wait
+			if(unpark(asyncContext)) {
+				dispatch(asyncContext);
+			}
+		}
+
+		@Override
+		public void onError(AsyncEvent event) throws IOException {
+			unpark(event.getAsyncContext());
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) throws IOException {
+			unpark(event.getAsyncContext());
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) throws IOException {
+			//
+		}
+	}
+	
 	private final class NothingChangedMediaResource extends DefaultMediaResource {
 		
 		@Override
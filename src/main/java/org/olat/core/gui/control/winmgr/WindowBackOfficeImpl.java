@@ -177,6 +177,11 @@ public class WindowBackOfficeImpl implements WindowBackOffice {
 	public void sendCommandTo(Command wco) {
 		if (ajaxC != null) ajaxC.sendCommandTo(new WindowCommand(this,wco));
 	}
+
+	@Override
+	public void signalChanges() {
+		if (ajaxC != null) ajaxC.signalChanges();
+	}
 	
 	public void pushCommands(UserRequest ureq, HttpServletRequest request, HttpServletResponse response) {
 		try {
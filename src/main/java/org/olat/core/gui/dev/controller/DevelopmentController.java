@@ -44,6 +44,10 @@ import org.olat.core.gui.components.link.LinkFactory;
 import org.olat.core.gui.components.panel.Panel;
 import org.olat.core.gui.components.util.ComponentUtil;
 import org.olat.core.gui.components.velocity.VelocityContainer;
+import org.olat.core.gui.components.velocity.VelocityRenderStatistics;
+import org.olat.core.gui.components.velocity.VelocityRenderStatistics.RequestStatistics;
+import org.olat.core.gui.components.velocity.VelocityRenderStatistics.RequestTemplate;
+import org.olat.core.gui.components.velocity.VelocityRenderStatistics.TemplateStatistics;
 import org.olat.core.gui.control.Controller;
 import org.olat.core.gui.control.DefaultController;
 import org.olat.core.gui.control.Event;
@@ -57,6 +61,7 @@ import org.olat.core.gui.render.Renderer;
 import org.olat.core.gui.render.StringOutput;
 import org.olat.core.gui.render.intercept.DebugHelper;
 import org.olat.core.gui.util.bandwidth.SlowBandWidthSimulator;
+import org.olat.core.util.StringHelper;
 
 /**
  * 
@@ -78,6 +83,7 @@ public class DevelopmentController extends BasicController {
 	private Link web10Link;
 	private Link web20Link;
 	private Link showComponentTree;
+	private Link showRenderStatistics;
 	
 	private List<Link> modes = new ArrayList<>();
 	
@@ -85,6 +91,7 @@ public class DevelopmentController extends BasicController {
 	private WindowManagerImpl winMgrImpl;
 	private Link debugLink;
 	private boolean treeShown = false;
+	private boolean renderStatisticsShown = false;
 
 	private int pageCnt =0; // only for visual indication
 	
@@ -133,6 +140,8 @@ public class DevelopmentController extends BasicController {
 		showComponentTree = LinkFactory.createButton("showComponentTree", myContent, this);
 		showComponentTree.setAjaxEnabled(false);
 		myContent.contextPut("compdump", "");
+		showRenderStatistics = LinkFactory.createButton("showRenderStatistics", myContent, this);
+		myContent.contextPut("renderstats", "");
 		myContent.contextPut("sys", this);
 		
 		toggleAutorefresh = LinkFactory.createButtonSmall("toggleAutorefresh", myContent, this);
@@ -221,6 +230,15 @@ public class DevelopmentController extends BasicController {
 				updateComponentTree();				
 			}
 			treeShown = !treeShown;
+		} else if (source == showRenderStatistics) {
+			renderStatisticsShown = !renderStatisticsShown;
+			// the statistics are only collected while someone looks at them
+			VelocityRenderStatistics.getInstance().setEnabled(renderStatisticsShown);
+			if (renderStatisticsShown) {
+				updateRenderStatistics();
+			} else {
+				myContent.contextPut("renderstats", "");
+			}
 		} else if (source == toggleAutorefresh) {
 			autorefresh = !autorefresh;
 			if (autorefresh) {
@@ -233,6 +251,9 @@ public class DevelopmentController extends BasicController {
 			if (treeShown) {
 				updateComponentTree();
 			}
+			if (renderStatisticsShown) {
+				updateRenderStatistics();
+			}
 		}
 	}
 	
@@ -252,6 +273,34 @@ public class DevelopmentController extends BasicController {
 		myContent.contextPut("compdump", sb.toString());
 	}
 	
+	private void updateRenderStatistics() {
+		StringOutput sb = new StringOutput();
+		sb.append("<div><strong>Velocity templates of the last request</strong> (render time inclusive of the nested templates)</div>")
+		  .append("<table class='table table-condensed'><tr><th>Template</th><th>Renders</th><th>Cache hits</th><th>Time (&micro;s)</th></tr>");
+		RequestStatistics lastRequest = wboImpl.getWindow().getLastRenderStatistics();
+		if (lastRequest != null) {
+			for (RequestTemplate template : lastRequest.getMostExpensiveTemplates(15)) {
+				sb.append("<tr><td>").append(StringHelper.escapeHtml(template.getPage())).append("</td><td>")
+				  .append(template.getRenders()).append("</td><td>")
+				  .append(template.getCacheHits()).append("</td><td>")
+				  .append(template.getTime() / 1000l).append("</td></tr>");
+			}
+		}
+		sb.append("</table>");
+		
+		sb.append("<div><strong>Most expensive velocity templates</strong> (since the start of the VM)</div>")
+		  .append("<table class='table table-condensed'><tr><th>Template</th><th>Renders</th><th>Cache hits</th><th>Average (&micro;s)</th><th>Max. (&micro;s)</th></tr>");
+		for (TemplateStatistics template : VelocityRenderStatistics.getInstance().getMostExpensiveTemplates(15)) {
+			sb.append("<tr><td>").append(StringHelper.escapeHtml(template.getPage())).append("</td><td>")
+			  .append(template.getRenders()).append("</td><td>")
+			  .append(template.getCacheHits()).append("</td><td>")
+			  .append(template.getAverageTime()).append("</td><td>")
+			  .append(template.getMaxTime()).append("</td></tr>");
+		}
+		sb.append("</table>");
+		myContent.contextPut("renderstats", sb.toString());
+	}
+	
 	private void updateUI() {
 		// update mode.
 		for (Link li : modes) {
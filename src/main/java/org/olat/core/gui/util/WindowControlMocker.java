@@ -232,6 +232,11 @@ public class WindowControlMocker implements WindowControl{
 			//
 		}
 
+		@Override
+		public void signalChanges() {
+			//
+		}
+
 		@Override
 		public List<ZIndexWrapper> getGuiMessages() {
 			return Collections.emptyList();
@@ -48,6 +48,17 @@ public class GUISettings extends AbstractSpringModule {
 	@Value("${layout.theme:light}")
 	private String guiThemeIdentifyer;
 	
+	/**
+	 * The poll requests wait on the server until something changed (long polling),
+	 * the waiting requests are asynchronous and don't hold a thread of the servlet container.
+	 */
+	@Value("${server.push.enabled:true}")
+	private boolean serverPushEnabled;
+	@Value("${server.push.max.wait:25000}")
+	private long serverPushMaxWait;
+	@Value("${server.push.max.parked.requests:1000}")
+	private int serverPushMaxParkedRequests;
+	
 	@Autowired
 	public GUISettings(CoordinatorManager coordinatorManager) {
 		super(coordinatorManager, "org.olat.core.helpers.Settings", false);
@@ -74,6 +85,25 @@ public class GUISettings extends AbstractSpringModule {
 		return guiThemeIdentifyer;
 	}
 	
+	public boolean isServerPushEnabled() {
+		return serverPushEnabled && serverPushMaxWait > 0 && serverPushMaxParkedRequests > 0;
+	}
+
+	/**
+	 * @return The max. time in milliseconds a poll request waits on the server
+	 */
+	public long getServerPushMaxWait() {
+		return serverPushMaxWait;
+	}
+
+	/**
+	 * @return The max. number of poll requests waiting at the same time on this node,
+	 * 		the following ones are answered immediately as normal poll requests
+	 */
+	public int getServerPushMaxParkedRequests() {
+		return serverPushMaxParkedRequests;
+	}
+	
 	public synchronized Theme getGuiTheme() {
 		if(guiTheme == null) {
 			guiTheme = new Theme(getGuiThemeIdentifyer());
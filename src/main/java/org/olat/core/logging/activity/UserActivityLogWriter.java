@@ -0,0 +1,277 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.logging.activity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityManager;
+
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.persistence.DBFactory;
+import org.olat.core.logging.Tracing;
+
+/**
+ * Writes the user activity logs outside of the request transaction. The
+ * logging objects are queued in a bounded queue and a background thread
+ * inserts them with JDBC batches of the configured flush size, at the
+ * latest after the flush interval.<br>
+ * If the queue is full, the logging object is dropped (and counted) or
+ * the caller waits, depending of the configured policy. The queue is
+ * flushed at shutdown.<br>
+ * If the asynchronous mode is disabled, the logging objects are saved
+ * within the current transaction as before.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class UserActivityLogWriter {
+
+	private static final Logger log = Tracing.createLoggerFor(UserActivityLogWriter.class);
+
+	public static final String POLICY_BLOCK = "block";
+	public static final String POLICY_DROP = "drop";
+
+	private boolean asyncEnabled = true;
+	private int queueSize = 10000;
+	private int flushSize = 100;
+	private long flushInterval = 1000l;
+	private String queueFullPolicy = POLICY_DROP;
+
+	private BlockingQueue<LoggingObject> queue;
+	private volatile Thread flusher;
+	private volatile boolean running;
+
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong blocked = new AtomicLong();
+
+	/**
+	 * [used by Spring]
+	 */
+	public void setAsyncEnabled(boolean asyncEnabled) {
+		this.asyncEnabled = asyncEnabled;
+	}
+
+	/**
+	 * [used by Spring]
+	 */
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	/**
+	 * [used by Spring]
+	 */
+	public void setFlushSize(int flushSize) {
+		this.flushSize = flushSize;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param flushInterval The max. time in milliseconds a log waits in the queue
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param queueFullPolicy block or drop
+	 */
+	public void setQueueFullPolicy(String queueFullPolicy) {
+		this.queueFullPolicy = queueFullPolicy;
+	}
+
+	public boolean isAsyncEnabled() {
+		return asyncEnabled;
+	}
+
+	public int getQueueDepth() {
+		return queue == null ? 0 : queue.size();
+	}
+
+	public long getWritten() {
+		return written.get();
+	}
+
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+
+	public long getBlocked() {
+		return blocked.get();
+	}
+
+	public void init() {
+		if(!asyncEnabled) {
+			log.info("User activity logging writes synchronously");
+			return;
+		}
+
+		if(flushSize < 1) {
+			flushSize = 1;
+		}
+		if(queueSize < flushSize) {
+			queueSize = flushSize;
+		}
+		queue = new ArrayBlockingQueue<>(queueSize);
+		running = true;
+		flusher = new Thread(this::flushLoop, "oo-activity-log-writer");
+		flusher.setDaemon(true);
+		flusher.start();
+		log.info("User activity logging writes asynchronously (queue: {}, flush size: {}, interval: {}ms, policy: {})",
+				queueSize, flushSize, flushInterval, queueFullPolicy);
+	}
+
+	public void destroy() {
+		if(!running) return;
+
+		running = false;
+		Thread thread = flusher;
+		if(thread != null) {
+			// the flusher ends its loop after the current batch
+			try {
+				thread.join(30000l);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		// write what the flusher has not written
+		List<LoggingObject> remaining = new ArrayList<>(queue.size());
+		queue.drainTo(remaining);
+		while(!remaining.isEmpty()) {
+			int toIndex = Math.min(flushSize, remaining.size());
+			List<LoggingObject> batch = remaining.subList(0, toIndex);
+			writeBatch(new ArrayList<>(batch));
+			batch.clear();
+		}
+		log.info("User activity log writer stopped (written: {}, dropped: {}, failed: {})",
+				written.get(), dropped.get(), failed.get());
+	}
+
+	/**
+	 * Queue the logging object or save it within the current transaction
+	 * if the asynchronous mode is not enabled or is already stopped.
+	 *
+	 * @param logObj The logging object to write
+	 */
+	public void write(LoggingObject logObj) {
+		if(!running) {
+			DBFactory.getInstance().saveObject(logObj);
+			return;
+		}
+
+		if(queue.offer(logObj)) {
+			return;
+		}
+
+		if(POLICY_BLOCK.equals(queueFullPolicy)) {
+			blocked.incrementAndGet();
+			try {
+				queue.put(logObj);
+			} catch (InterruptedException e) {
+				dropped.incrementAndGet();
+				Thread.currentThread().interrupt();
+			}
+		} else {
+			long count = dropped.incrementAndGet();
+			if(count % 1000 == 1) {
+				log.warn("User activity log queue full, {} logging objects dropped until now", count);
+			}
+		}
+	}
+
+	private void flushLoop() {
+		List<LoggingObject> batch = new ArrayList<>(flushSize);
+		while(running) {
+			try {
+				LoggingObject first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+				if(first == null) {
+					continue;
+				}
+
+				batch.add(first);
+				long deadline = System.currentTimeMillis() + flushInterval;
+				while(batch.size() < flushSize) {
+					queue.drainTo(batch, flushSize - batch.size());
+					long wait = deadline - System.currentTimeMillis();
+					if(batch.size() >= flushSize || wait <= 0) {
+						break;
+					}
+					LoggingObject next = queue.poll(wait, TimeUnit.MILLISECONDS);
+					if(next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				writeBatch(batch);
+			} catch (InterruptedException e) {
+				if(running) {
+					log.warn("User activity log writer interrupted", e);
+				}
+			} catch (Exception e) {
+				log.error("", e);
+			} finally {
+				if(!batch.isEmpty()) {
+					// interrupted during the assembly of the batch
+					for(LoggingObject logObj:batch) {
+						if(!queue.offer(logObj)) {
+							dropped.incrementAndGet();
+						}
+					}
+					batch.clear();
+				}
+			}
+		}
+	}
+
+	private void writeBatch(List<LoggingObject> batch) {
+		if(batch.isEmpty()) return;
+
+		DB db = DBFactory.getInstance();
+		try {
+			EntityManager em = db.getCurrentEntityManager();
+			em.unwrap(Session.class).setJdbcBatchSize(flushSize);
+			for(LoggingObject logObj:batch) {
+				em.persist(logObj);
+			}
+			db.commitAndCloseSession();
+			written.addAndGet(batch.size());
+		} catch (Exception e) {
+			failed.addAndGet(batch.size());
+			log.error("Cannot write {} user activity logs", batch.size(), e);
+			db.rollbackAndCloseSession();
+		} finally {
+			batch.clear();
+		}
+	}
+}
@@ -36,6 +36,7 @@ import org.olat.admin.sysinfo.manager.SessionStatsManager;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.persistence.DBFactory;
 import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
+import org.olat.core.commons.services.vfs.manager.VFSMetadataRequestCache;
 import org.olat.core.commons.services.webdav.WebDAVDispatcher;
 import org.olat.core.configuration.AbstractSpringModule;
 import org.olat.core.configuration.PreWarm;
@@ -134,6 +135,7 @@ public class OpenOLATServlet extends HttpServlet {
 		Tracing.setHttpRequest(req);
 		ThreadLocalUserActivityLoggerInstaller.initUserActivityLogger(req);
 		WorkThreadInformations.set("Serve request: ".concat(req.getRequestURI()));
+		VFSMetadataRequestCache.start();
 		if(sessionStatsManager != null) {
 			sessionStatsManager.incrementRequest();
 			sessionStatsManager.incrementConcurrentCounter();
@@ -165,6 +167,7 @@ public class OpenOLATServlet extends HttpServlet {
 				sessionStatsManager.decrementConcurrentCounter();
 			}
 			WorkThreadInformations.unset();
+			VFSMetadataRequestCache.end();
 			ThreadLocalUserActivityLoggerInstaller.resetUserActivityLogger();
 			I18nManager.remove18nInfoFromThread();
 			Tracing.clearHttpRequest();
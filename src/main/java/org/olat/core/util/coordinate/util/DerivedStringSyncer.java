@@ -25,9 +25,6 @@
 */ 
 package org.olat.core.util.coordinate.util;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-
 import org.olat.core.id.OLATResourceable;
 
 /**
@@ -36,7 +33,7 @@ import org.olat.core.id.OLATResourceable;
  * @see org.olat.core.util.coordinate.Syncer
  * to synchronized on resources.
  * 
- * synchronized on a olatresourceable keeps that olatresourceable in the vm until vm restart.
+ * the lock object of an olatresourceable is only kept in the vm as long as it is used.
  * per olatresourceable about the following space is needed: (1 Object, 1 String (around 15-70 chars), and 1 place in a HashMap = 1 
  * Entry with 3 references and 1 int for the hash.) -> (3+1)*8 + 70*2+ object overhead cluster::: make that guess more exact. = 200 bytes per ores.
  * -> 5000 need 1MByte which is fine (current olat having a couple of thousands of olatresourceables)
@@ -50,8 +47,8 @@ import org.olat.core.id.OLATResourceable;
 public class DerivedStringSyncer {
 	public static final DerivedStringSyncer INSTANCE = new DerivedStringSyncer();
 	
-	// keys: OLATResource-Type:ResourceId ;values: Objects
-	private ConcurrentMap<String, Object> synchLockHashmap = new ConcurrentHashMap<>();
+	// keys: OLATResource-Type:ResourceId ;values: Objects, only as long as they are used
+	private final WeakLockTable synchLocks = new WeakLockTable();
 
 	public static DerivedStringSyncer getInstance() {
 		return INSTANCE;
@@ -67,15 +64,7 @@ public class DerivedStringSyncer {
 	 */
 	public Object getSynchLockFor(OLATResourceable ores) {
 		String key = ores.getResourceableTypeName() + ":" + ores.getResourceableId();
-		Object synchLock = synchLockHashmap.get(key);
-		if(synchLock == null) {
-			Object newSynchLock = new Object();
-			synchLock = synchLockHashmap.putIfAbsent(key, newSynchLock);
-			if(synchLock == null) {
-				synchLock = newSynchLock;
-			}
-		}
-		return synchLock;
+		return synchLocks.getLockFor(key);
 	}
 }
 
@@ -0,0 +1,95 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.coordinate.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A table of lock objects which only holds the locks weakly. A lock object
+ * stays in the table as long as a thread waits for it or holds it, after
+ * that the garbage collector can reclaim it and its entry is removed. The
+ * table is bounded by the number of locks in use and doesn't grow with
+ * every resource ever synchronized.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class WeakLockTable {
+	
+	private final ConcurrentMap<String,LockReference> locks = new ConcurrentHashMap<>();
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+	
+	/**
+	 * The caller must hold the returned object as long as it uses it
+	 * to synchronize.
+	 * 
+	 * @param key The key of the lock
+	 * @return The lock object, the same for all the callers which hold it at the same time
+	 */
+	public Object getLockFor(String key) {
+		purge();
+		
+		for(;;) {
+			LockReference ref = locks.get(key);
+			Object lock = ref == null ? null : ref.get();
+			if(lock != null) {
+				return lock;
+			}
+			
+			Object newLock = new Object();
+			LockReference newRef = new LockReference(key, newLock, queue);
+			if(ref == null) {
+				if(locks.putIfAbsent(key, newRef) == null) {
+					return newLock;
+				}
+			} else if(locks.replace(key, ref, newRef)) {
+				return newLock;
+			}
+		}
+	}
+	
+	/**
+	 * @return The number of entries, including the locks reclaimed but not yet purged
+	 */
+	public int size() {
+		purge();
+		return locks.size();
+	}
+	
+	private void purge() {
+		LockReference ref;
+		while((ref = (LockReference)queue.poll()) != null) {
+			locks.remove(ref.key, ref);
+		}
+	}
+	
+	private static class LockReference extends WeakReference<Object> {
+		
+		private final String key;
+		
+		public LockReference(String key, Object lock, ReferenceQueue<Object> queue) {
+			super(lock, queue);
+			this.key = key;
+		}
+	}
+}
@@ -24,14 +24,15 @@
 */
 package org.olat.core.util.event;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.gui.control.Controller;
+import org.olat.core.gui.control.WindowBackOffice;
+import org.olat.core.gui.control.WindowControl;
 import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.Tracing;
@@ -45,68 +46,55 @@ import org.olat.core.util.event.businfo.BusListenerInfo;
  */
 public abstract class AbstractEventBus implements EventBus {
 
-	private final Map<String, EventAgency> infocenter;
-	private final Map<String, EventAgency> typeInfocenter;
+	private final ConcurrentMap<String, EventAgency> infocenter;
+	private final ConcurrentMap<String, EventAgency> typeInfocenter;
 	private final Logger log = Tracing.createLoggerFor(this.getClass());
 
 	public AbstractEventBus() {
-		infocenter = new HashMap<>();
-		typeInfocenter = new HashMap<>();
+		infocenter = new ConcurrentHashMap<>();
+		typeInfocenter = new ConcurrentHashMap<>();
 	}
 
 	@Override
 	public void registerFor(GenericEventListener gel, Identity identity, OLATResourceable ores) {
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) {
-			EventAgency ea = null;
-			if (oresId == null) {
-				// return the eventagency which listens to all events with the type of
-				// the ores
-				ea = typeInfocenter.get(typeName);
-				if (ea == null) { // we are the first listener -> create an agency
-					ea = new EventAgency();
-					typeInfocenter.put(typeName, ea);
-				}
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				ea = infocenter.get(oresStr);
-				if (ea == null) { // we are the first listener
-					ea = new EventAgency();
-					infocenter.put(oresStr, ea);
-				}
-			}
-			ea.addListener(gel, identity);
+		// compute() locks only the entry of the resourceable, and the agency is
+		// never removed while a listener is added
+		if (oresId == null) {
+			// the eventagency which listens to all events with the type of the ores
+			typeInfocenter.compute(typeName, (key, ea) -> addListener(ea, gel, identity));
+		} else {
+			// type and id
+			infocenter.compute(typeName + "::" + oresId, (key, ea) -> addListener(ea, gel, identity));
+		}
+	}
+	
+	private static EventAgency addListener(EventAgency ea, GenericEventListener gel, Identity identity) {
+		if (ea == null) { // we are the first listener -> create an agency
+			ea = new EventAgency();
 		}
+		ea.addListener(gel, identity);
+		return ea;
 	}
 
 	@Override
 	public void deregisterFor(GenericEventListener gel, OLATResourceable ores) {
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) {
-			if (oresId == null) {
-				EventAgency ea = typeInfocenter.get(typeName);
-				if (ea != null) {
-					ea.removeListener(gel);
-					if(ea.getListenerCount() == 0) {
-						typeInfocenter.remove(typeName);
-					}
-				}
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				EventAgency ea = infocenter.get(oresStr);
-				if (ea != null) {
-					ea.removeListener(gel);
-					if(ea.getListenerCount() == 0) {
-						infocenter.remove(typeName);
-					}
-				}
-			}
+		if (oresId == null) {
+			typeInfocenter.computeIfPresent(typeName, (key, ea) -> removeListener(ea, gel));
+		} else {
+			// type and id
+			infocenter.computeIfPresent(typeName + "::" + oresId, (key, ea) -> removeListener(ea, gel));
 		}
 	}
+	
+	private static EventAgency removeListener(EventAgency ea, GenericEventListener gel) {
+		ea.removeListener(gel);
+		// returning null removes the empty agency
+		return ea.getListenerCount() == 0 ? null : ea;
+	}
 
 	public abstract int getListeningIdentityCntFor(OLATResourceable ores);
 	
@@ -123,20 +111,17 @@ public abstract class AbstractEventBus implements EventBus {
 		final String typeName = ores.getResourceableTypeName();
 
 		GenericEventListener[] listenersArr = null;
-		GenericEventListener[] listenersTypeArr = null;
-		synchronized (infocenter) {  
-			if (oresId != null) {
-				String oresStr = typeName + "::" + oresId;
-				EventAgency ea = infocenter.get(oresStr);
-				if (ea != null) {
-					listenersArr = ea.getListeners();
-				}
-			}
-			EventAgency ea = typeInfocenter.get(typeName);
+		if (oresId != null) {
+			EventAgency ea = infocenter.get(typeName + "::" + oresId);
 			if (ea != null) {
-				listenersTypeArr = ea.getListeners();
+				listenersArr = ea.getListeners();
 			}
 		}
+		GenericEventListener[] listenersTypeArr = null;
+		EventAgency typeEa = typeInfocenter.get(typeName);
+		if (typeEa != null) {
+			listenersTypeArr = typeEa.getListeners();
+		}
 
 		doFire(event, listenersArr);
 		doFire(event, listenersTypeArr);
@@ -159,6 +144,7 @@ public abstract class AbstractEventBus implements EventBus {
 								listener.event(event);
 							}
 						}, UserActivityLoggerImpl.newLoggerForEventBus(dCtrl));
+						signalChanges(dCtrl);
 					}
 				} else if(listener != null) {
 					if(log.isDebugEnabled()){
@@ -178,75 +164,79 @@ public abstract class AbstractEventBus implements EventBus {
 		}
 	}
 	
+	/**
+	 * The controller has probably changed some components, wake up the poll
+	 * request of its window.
+	 * 
+	 * @param ctrl The controller which received an event
+	 */
+	private void signalChanges(Controller ctrl) {
+		try {
+			WindowControl wControl = ctrl.getWindowControlForDebug();
+			WindowBackOffice wbo = wControl == null ? null : wControl.getWindowBackOffice();
+			if (wbo != null) {
+				wbo.signalChanges();
+			}
+		} catch (RuntimeException e) {
+			// controller without window control
+			log.debug("Cannot signal changes of: {}", ctrl, e);
+		}
+	}
+	
 	protected final BusListenerInfo createBusListenerInfo() {
 		BusListenerInfo bii = new BusListenerInfo();
-		synchronized(infocenter) { // o_clusterOK by:fj: extract quickly so that we can later serialize and send across the wire. data affects only one vm.
-			// for all types: the name of the type + "::"+ the id (integer) is used as key
-			List<String> infocenterKeys = new ArrayList<>(infocenter.keySet());
-			for (String derivedOres: infocenterKeys) {
-				EventAgency ea = infocenter.get(derivedOres);
-				int cnt = ea.getListenerCount();
-				// only add those with at least one current listener. Telling that a resource has no listeners is unneeded since we update 
-				// the whole table on each clusterInfoEvent (cluster:: could be improved by only sending the delta of listeners)
-				if (cnt > 0) {
-					bii.addEntry(derivedOres, cnt);
-				} else {
-					infocenter.remove(derivedOres);
-				}
-			}
-			infocenterKeys = null;
-			
-			// for all types: the name of the type is used as key
-			List<String> typeInfocenterKeys = new ArrayList<>(typeInfocenter.keySet());
-			for (String derivedOres: typeInfocenterKeys) {
-				EventAgency ea = typeInfocenter.get(derivedOres);
-				int cnt = ea.getListenerCount();
-				if (cnt > 0) {
-					bii.addEntry(derivedOres, cnt);
-				} else {
-					typeInfocenter.remove(derivedOres);
-				}
+		// o_clusterOK by:fj: extract quickly so that we can later serialize and send across the wire. data affects only one vm.
+		// for all types: the name of the type + "::"+ the id (integer) is used as key
+		collectListenerCounts(infocenter, bii);
+		// for all types: the name of the type is used as key
+		collectListenerCounts(typeInfocenter, bii);
+		return bii;
+	}
+	
+	private void collectListenerCounts(ConcurrentMap<String, EventAgency> agencies, BusListenerInfo bii) {
+		for (Map.Entry<String, EventAgency> entry: agencies.entrySet()) {
+			String derivedOres = entry.getKey();
+			int cnt = entry.getValue().getListenerCount();
+			// only add those with at least one current listener. Telling that a resource has no listeners is unneeded since we update 
+			// the whole table on each clusterInfoEvent (cluster:: could be improved by only sending the delta of listeners)
+			if (cnt > 0) {
+				bii.addEntry(derivedOres, cnt);
+			} else {
+				// the weak references were cleared, check again under the lock of the entry
+				agencies.computeIfPresent(derivedOres, (key, ea) -> ea.getListenerCount() == 0 ? null : ea);
 			}
 		}
-		return bii;
 	}
 	
 	protected final int getLocalListeningIdentityCntFor(OLATResourceable ores) {
-		int cnt = 0;
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) { 
-			EventAgency ea = null;
-			if (oresId == null) {
-				ea = typeInfocenter.get(typeName);	
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				ea = infocenter.get(oresStr);
-			}
-			if (ea != null) {
-				cnt = ea.getListenerCount();
-			}
+		EventAgency ea;
+		if (oresId == null) {
+			ea = typeInfocenter.get(typeName);	
+		} else {
+			// type and id
+			ea = infocenter.get(typeName + "::" + oresId);
 		}
-		return cnt;
+		return ea == null ? 0 : ea.getListenerCount();
 	}
 	
 	/**
 	 * Description: <br>
-	 * The listeners map is not synchronized, but need to be. The synchronization
-	 * is done by the infocenter map. Make sure that you always access instances of
-	 * this class in a synchronized(infocenter).
+	 * The listeners of one resourceable. Every agency has its own lock, firing
+	 * an event to the listeners of a resourceable never waits for the
+	 * registration of listeners of an other one.
 	 * 
 	 * @author Felix Jost
 	 * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
 	 */
 	private static class EventAgency {
-		private WeakHashMap<GenericEventListener, Long> listeners = new WeakHashMap<>();
+		private final WeakHashMap<GenericEventListener, Long> listeners = new WeakHashMap<>();
 		
 		/**
 		 * @param event
 		 */
-		GenericEventListener[] getListeners() {
+		synchronized GenericEventListener[] getListeners() {
 			return listeners.keySet().toArray(new GenericEventListener[listeners.size()]);
 		}
 
@@ -259,7 +249,7 @@ public abstract class AbstractEventBus implements EventBus {
 		 * @param identity the identity belonging to the listener, or null if there is
 		 *          none (e.g. the LockManager = the 'System')
 		 */
-		void addListener(GenericEventListener gel, Identity identity) {
+		synchronized void addListener(GenericEventListener gel, Identity identity) {
 			if (!listeners.containsKey(gel)) {
 				Long identityKey = (identity != null? identity.getKey() : null);
 				listeners.put(gel, identityKey);
@@ -269,7 +259,7 @@ public abstract class AbstractEventBus implements EventBus {
 		/**
 		 * @param gel
 		 */
-		void removeListener(GenericEventListener gel) {
+		synchronized void removeListener(GenericEventListener gel) {
 			listeners.remove(gel);
 		}
 		
@@ -277,7 +267,7 @@ public abstract class AbstractEventBus implements EventBus {
 		 * 
 		 * @return the current number of listeners listening to this channel/eventagency 
 		 */
-		int getListenerCount() {
+		synchronized int getListenerCount() {
 			return listeners.size();	
 		}
 	}
@@ -0,0 +1,40 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.event;
+
+/**
+ * Marks the multi-user events which are idempotent: firing the event a
+ * second time on the same resource has no other effect than the first time.
+ * The cluster event bus drops such an event if an event of the same class,
+ * with the same command and the same coalescing key is still waiting to be
+ * sent on the same resource.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public interface CoalescableEvent {
+	
+	/**
+	 * @return An additional key to differentiate the events of the same
+	 * 		class and command, or null
+	 */
+	public String getCoalescingKey();
+
+}
@@ -0,0 +1,117 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.i18n;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The translations of one bundle for one locale with all the fallbacks
+ * (overlay, country, language, default and fallback locale) and the
+ * references to other keys already resolved. The messages with arguments
+ * are parsed once, lazily on the first format call, the messages without
+ * placeholder are never parsed. The table is immutable and thrown away as a whole if
+ * a translation changes or the caches are flushed.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class CompiledMessageTable {
+
+	private final Map<String,CompiledMessage> messages;
+
+	CompiledMessageTable(Map<String,String> resolvedMessages) {
+		Map<String,CompiledMessage> compiled = new HashMap<>((int)(resolvedMessages.size() / 0.75f) + 1);
+		for(Map.Entry<String,String> entry:resolvedMessages.entrySet()) {
+			compiled.put(entry.getKey(), new CompiledMessage(entry.getValue()));
+		}
+		messages = Collections.unmodifiableMap(compiled);
+	}
+
+	public int size() {
+		return messages.size();
+	}
+
+	/**
+	 * @param key The key
+	 * @param args The arguments or null
+	 * @return The formatted message or null if the key doesn't exist
+	 */
+	public String getMessage(String key, Object[] args) {
+		CompiledMessage message = messages.get(key);
+		if(message == null) {
+			return null;
+		}
+		return args == null ? message.getMessage() : message.format(args);
+	}
+
+	private static class CompiledMessage {
+
+		private final String message;
+		private volatile MessageFormat format;
+		private volatile boolean invalidFormat;
+
+		public CompiledMessage(String message) {
+			this.message = message;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public String format(Object[] args) {
+			if(message.indexOf('{') < 0) {
+				// no placeholder, the quotes are escaped: MessageFormat returns the message
+				return message;
+			}
+			
+			MessageFormat parsedFormat = getFormat();
+			if(parsedFormat == null) {
+				return MessageFormat.format(escape(message), args);
+			}
+			// MessageFormat is not thread safe, a clone is cheaper than parsing the pattern
+			return ((MessageFormat)parsedFormat.clone()).format(args);
+		}
+		
+		private MessageFormat getFormat() {
+			MessageFormat parsedFormat = format;
+			if(parsedFormat == null && !invalidFormat) {
+				try {
+					// parsed twice in the worst case by concurrent calls, no harm
+					parsedFormat = new MessageFormat(escape(message));
+					format = parsedFormat;
+				} catch (IllegalArgumentException e) {
+					// the error will be thrown by MessageFormat.format below
+					invalidFormat = true;
+				}
+			}
+			return parsedFormat;
+		}
+		
+		/**
+		 * Escape single quotes with single quotes, same as I18nManager
+		 */
+		private static String escape(String msg) {
+			return msg.indexOf('\'') > -1 ? msg.replace("'", "''") : msg;
+		}
+	}
+}
@@ -45,6 +45,7 @@ import java.util.Comparator;
 import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -139,6 +140,9 @@ public class I18nManager {
 	private ConcurrentMap<String, Properties> cachedBundles = new ConcurrentHashMap<>();
 	private ConcurrentMap<String, String> cachedJSTranslatorData = new ConcurrentHashMap<>();
 	private ConcurrentMap<String, Deque<String>> referencingBundlesIndex = new ConcurrentHashMap<>();
+	// keys: bundlename ":" locale.toString() ":" overlay ":" fallback to default
+	// values: the translations with all fallbacks resolved, replaced as a whole
+	private volatile ConcurrentMap<String, CompiledMessageTable> compiledTables = new ConcurrentHashMap<>();
 	private boolean cachingEnabled = true;
 	
 	private final I18nModule i18nModule;
@@ -200,8 +204,76 @@ public class I18nManager {
 	 *         possible and not found
 	 */
 	public String getLocalizedString(String bundleName, String key, Object[] args, Locale locale, boolean overlayEnabled, boolean fallBackToDefaultLocale) {
+		if (cachingEnabled && locale != null && !isCurrentThreadMarkLocalizedStringsEnabled()) {
+			CompiledMessageTable table = getCompiledMessageTable(bundleName, locale, overlayEnabled, fallBackToDefaultLocale);
+			return table.getMessage(key, args);
+		}
 		return getLocalizedString(bundleName, key, args, locale, overlayEnabled, fallBackToDefaultLocale, true, true, true, 0);
 	}
+	
+	/**
+	 * Get the translations of a bundle with all the fallbacks of
+	 * getLocalizedString() already applied. The table is compiled on
+	 * first demand and reused until a translation changes or the caches
+	 * are flushed.
+	 * 
+	 * @param bundleName The bundle
+	 * @param locale The locale
+	 * @param overlayEnabled true: lookup first in overlay
+	 * @param fallBackToDefaultLocale true: fallback to the default locale
+	 * @return The compiled table, never null
+	 */
+	public CompiledMessageTable getCompiledMessageTable(String bundleName, Locale locale, boolean overlayEnabled, boolean fallBackToDefaultLocale) {
+		// the map is replaced by clearCaches(), a table compiled with the old
+		// translations lands in the old map and is forgotten
+		ConcurrentMap<String, CompiledMessageTable> tables = compiledTables;
+		String tableKey = bundleName + ":" + locale.toString() + ":" + overlayEnabled + ":" + fallBackToDefaultLocale;
+		CompiledMessageTable table = tables.get(tableKey);
+		if (table == null) {
+			table = compileMessageTable(bundleName, locale, overlayEnabled, fallBackToDefaultLocale);
+			CompiledMessageTable currentTable = tables.putIfAbsent(tableKey, table);
+			if (currentTable != null) {
+				table = currentTable;
+			}
+		}
+		return table;
+	}
+	
+	private CompiledMessageTable compileMessageTable(String bundleName, Locale locale, boolean overlayEnabled, boolean fallBackToDefaultLocale) {
+		// collect the keys of every properties file along the fallbacks
+		List<Locale> fallbackLocales = new ArrayList<>(5);
+		fallbackLocales.add(locale);
+		if (!locale.getVariant().equals("")) {
+			fallbackLocales.add(i18nModule.getAllLocales().get(locale.getLanguage() + "_" + locale.getCountry()));
+		}
+		if (!locale.getCountry().equals("")) {
+			fallbackLocales.add(i18nModule.getAllLocales().get(locale.getLanguage()));
+		}
+		if (fallBackToDefaultLocale) {
+			fallbackLocales.add(I18nModule.getDefaultLocale());
+		}
+		fallbackLocales.add(i18nModule.getFallbackLocale());
+
+		Set<String> keys = new HashSet<>();
+		for (Locale fallbackLocale : fallbackLocales) {
+			if (fallbackLocale == null) continue;
+			keys.addAll(getResolvedProperties(fallbackLocale, bundleName).stringPropertyNames());
+			Locale overlayLocale = overlayEnabled ? i18nModule.getOverlayLocales().get(fallbackLocale) : null;
+			if (overlayLocale != null) {
+				keys.addAll(getResolvedProperties(overlayLocale, bundleName).stringPropertyNames());
+			}
+		}
+
+		// resolve every key once with the regular lookup
+		Map<String,String> messages = new HashMap<>();
+		for (String key : keys) {
+			String msg = getLocalizedString(bundleName, key, null, locale, overlayEnabled, fallBackToDefaultLocale, true, true, false, 0);
+			if (msg != null) {
+				messages.put(key, msg);
+			}
+		}
+		return new CompiledMessageTable(messages);
+	}
 
 	public String getLocalizedString(String bundleName, String key, Object[] args, Locale locale, boolean overlayEnabled, boolean fallBackToDefaultLocale,
 			boolean fallBackToFallbackLocale, boolean resolveRecursively, int recursionLevel) {
@@ -713,6 +785,7 @@ public class I18nManager {
 					cachedBundles.remove(bundleName);
 				}
 			}
+			compiledTables = new ConcurrentHashMap<>();
 		}
 
 	}
@@ -1029,6 +1102,11 @@ public class I18nManager {
 				getResolvedProperties(locale, bundleName);
 			}
 		}
+		// the compiled tables can reference every bundle, rebuild them lazy
+		// after the new properties are in the cache
+		if (cachingEnabled) {
+			compiledTables = new ConcurrentHashMap<>();
+		}
 	}
 
 	/**
@@ -1049,6 +1127,9 @@ public class I18nManager {
 				// initialization will happen lazy
 				if (cachedJSTranslatorData.containsKey(key)) cachedJSTranslatorData.remove(key);
 			}
+			if (cachingEnabled) {
+				compiledTables = new ConcurrentHashMap<>();
+			}
 		}
 		// 2) Remove from filesystem
 		File baseDir = i18nModule.getPropertyFilesBaseDir(locale, bundleName);
@@ -1579,6 +1660,7 @@ public class I18nManager {
 		cachedBundles.clear();
 		cachedJSTranslatorData.clear();
 		referencingBundlesIndex.clear();
+		compiledTables = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -1598,6 +1680,7 @@ public class I18nManager {
 			cachedJSTranslatorData = new AlwaysEmptyMap<>();
 			referencingBundlesIndex = new AlwaysEmptyMap<>();
 		}
+		compiledTables = new ConcurrentHashMap<>();
 		cachingEnabled = useCache;
 	}
 
@@ -24,6 +24,7 @@
 */
 package org.olat.core.util.i18n;
 
+import org.olat.core.util.event.CoalescableEvent;
 import org.olat.core.util.event.MultiUserEvent;
 
 /**
@@ -34,7 +35,7 @@ import org.olat.core.util.event.MultiUserEvent;
  * Initial Date:  16.09.2009 <br>
  * @author gnaegi
  */
-class I18nReInitializeCachesEvent extends MultiUserEvent {
+class I18nReInitializeCachesEvent extends MultiUserEvent implements CoalescableEvent {
 
 	private static final long serialVersionUID = -5665993313792697411L;
 
@@ -45,4 +46,8 @@ class I18nReInitializeCachesEvent extends MultiUserEvent {
 		super("reInitializeCachesEvent");
 	}
 
+	@Override
+	public String getCoalescingKey() {
+		return null;
+	}
 }
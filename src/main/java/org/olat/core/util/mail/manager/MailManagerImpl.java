@@ -146,6 +146,8 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 	private ExecutorService asyncExecutor;
 	@Autowired
 	private NotificationsManager notificationsManager;
+	@Autowired
+	private MailOutboxSender mailOutbox;
 	private final MailModule mailModule;
 	@Autowired
 	private GUISettings guiSettings;
@@ -681,7 +683,9 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 			DBSecureRunnable command = new DBSecureRunnable(sendMail);
 			asyncExecutor.execute(command);
 		} catch (RejectedExecutionException e) {
-			log.error("Queue full, email lost", e);
+			// don't lose the mails, send them in the current thread
+			log.warn("Queue full, send email synchronously");
+			sendMessage(bundles);
 		} catch (Exception e) {
 			log.error("", e);
 		}
@@ -1578,6 +1582,25 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 	 */
 	private MimeMessage createMessage(String subject, Address from)
 	throws AddressException, MessagingException, UnsupportedEncodingException {
+		Session mailSession = createMailSession();
+		MimeMessage msg = new MimeMessage(mailSession);
+		
+		String platformFrom = WebappHelper.getMailConfig("mailFrom");
+		String platformName = WebappHelper.getMailConfig("mailFromName");
+		Address viewableFrom = createAddressWithName(platformFrom, platformName);
+		msg.setFrom(viewableFrom);
+		msg.setSubject(subject, "utf-8");
+		// reply to can only be an address without name (at least for postfix!), see FXOLAT-312
+		Address convertedFrom = getRawEmailFromAddress(from); 
+		msg.setReplyTo(new Address[] { convertedFrom });
+		
+		return msg;
+	}
+	
+	/**
+	 * @return A mail session configured for the SMTP server of the platform
+	 */
+	static Session createMailSession() {
 		String mailhost = WebappHelper.getMailConfig("mailhost");
 		String mailport = WebappHelper.getMailConfig("mailport");
 		String mailhostTimeout = WebappHelper.getMailConfig("mailTimeout");
@@ -1621,18 +1644,7 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 			// enable mail session debugging on console
 			mailSession.setDebug(true);
 		}
-		MimeMessage msg = new MimeMessage(mailSession);
-		
-		String platformFrom = WebappHelper.getMailConfig("mailFrom");
-		String platformName = WebappHelper.getMailConfig("mailFromName");
-		Address viewableFrom = createAddressWithName(platformFrom, platformName);
-		msg.setFrom(viewableFrom);
-		msg.setSubject(subject, "utf-8");
-		// reply to can only be an address without name (at least for postfix!), see FXOLAT-312
-		Address convertedFrom = getRawEmailFromAddress(from); 
-		msg.setReplyTo(new Address[] { convertedFrom });
-		
-		return msg;
+		return mailSession;
 	}
 	
 	// converts an address "bla bli <bla@bli.ch>" => "bla@bli.ch"
@@ -1783,7 +1795,11 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 				if(Settings.isDebuging()) {
 					logMessage(msg);
 				}
-				Transport.send(msg);
+				if(mailOutbox.isEnabled()) {
+					mailOutbox.enqueue(msg);
+				} else {
+					Transport.send(msg);
+				}
 			} else if(Settings.isDebuging() && result.getReturnCode() == MailerResult.OK) {
 				logMessage(msg);
 			} else {
@@ -1799,6 +1815,10 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 			result.setReturnCode(MailerResult.SEND_GENERAL_ERROR);
 			result.setErrorMessage(e.getMessage());
 			log.warn("Could not send mail: {}", e.getMessage());
+		} catch (IOException e) {
+			result.setReturnCode(MailerResult.SEND_GENERAL_ERROR);
+			result.setErrorMessage(e.getMessage());
+			log.error("Could not save mail in outbox", e);
 		}
 	}
 	
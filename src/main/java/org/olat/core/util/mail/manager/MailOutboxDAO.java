@@ -0,0 +1,188 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.util.mail.model.MailOutboxEntry;
+import org.olat.core.util.mail.model.MailOutboxStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+@Service
+public class MailOutboxDAO {
+	
+	@Autowired
+	private DB dbInstance;
+	
+	public MailOutboxEntry createEntry(String storage) {
+		MailOutboxEntry entry = new MailOutboxEntry();
+		entry.setCreationDate(new Date());
+		entry.setLastModified(entry.getCreationDate());
+		entry.setNextAttempt(entry.getCreationDate());
+		entry.setStatus(MailOutboxStatus.pending);
+		entry.setAttempts(0);
+		entry.setStorage(storage);
+		dbInstance.getCurrentEntityManager().persist(entry);
+		return entry;
+	}
+	
+	public MailOutboxEntry loadByKey(Long key) {
+		List<MailOutboxEntry> entries = dbInstance.getCurrentEntityManager()
+				.createQuery("select entry from mailoutbox entry where entry.key=:key", MailOutboxEntry.class)
+				.setParameter("key", key)
+				.getResultList();
+		return entries.isEmpty() ? null : entries.get(0);
+	}
+	
+	/**
+	 * @param now The date of reference
+	 * @param maxResults The max. number of keys
+	 * @return The keys of the pending messages to send now, the oldest first
+	 */
+	public List<Long> getDueEntryKeys(Date now, int maxResults) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("select entry.key from mailoutbox entry")
+		  .append(" where entry.status=:status and entry.nextAttempt<=:now")
+		  .append(" order by entry.key");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class)
+				.setParameter("status", MailOutboxStatus.pending)
+				.setParameter("now", now)
+				.setFirstResult(0)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+	
+	/**
+	 * Claim a pending message for the specified node. Only one node
+	 * can claim a message.
+	 * 
+	 * @param key The primary key of the entry
+	 * @param nodeId The node which will send the message
+	 * @return true if the message was claimed
+	 */
+	public boolean claim(Long key, Integer nodeId) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("update mailoutbox entry set entry.status=:sending, entry.nodeId=:nodeId, entry.lastModified=:now")
+		  .append(" where entry.key=:key and entry.status=:pending");
+		int rows = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString())
+				.setParameter("sending", MailOutboxStatus.sending)
+				.setParameter("pending", MailOutboxStatus.pending)
+				.setParameter("nodeId", nodeId)
+				.setParameter("now", new Date())
+				.setParameter("key", key)
+				.executeUpdate();
+		return rows == 1;
+	}
+	
+	public void reschedule(Long key, int attempts, Date nextAttempt, String error) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("update mailoutbox entry set entry.status=:pending, entry.attempts=:attempts,")
+		  .append(" entry.nextAttempt=:nextAttempt, entry.error=:error, entry.nodeId=null, entry.lastModified=:now")
+		  .append(" where entry.key=:key");
+		dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString())
+				.setParameter("pending", MailOutboxStatus.pending)
+				.setParameter("attempts", attempts)
+				.setParameter("nextAttempt", nextAttempt)
+				.setParameter("error", error)
+				.setParameter("now", new Date())
+				.setParameter("key", key)
+				.executeUpdate();
+	}
+	
+	public void markFailed(Long key, int attempts, String error) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("update mailoutbox entry set entry.status=:failed, entry.attempts=:attempts,")
+		  .append(" entry.error=:error, entry.lastModified=:now")
+		  .append(" where entry.key=:key");
+		dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString())
+				.setParameter("failed", MailOutboxStatus.failed)
+				.setParameter("attempts", attempts)
+				.setParameter("error", error)
+				.setParameter("now", new Date())
+				.setParameter("key", key)
+				.executeUpdate();
+	}
+	
+	public void deleteEntry(Long key) {
+		dbInstance.getCurrentEntityManager()
+				.createQuery("delete from mailoutbox entry where entry.key=:key")
+				.setParameter("key", key)
+				.executeUpdate();
+	}
+	
+	/**
+	 * Release the messages claimed by a node which stopped before sending them.
+	 * 
+	 * @param before The messages claimed before this date are released
+	 * @return The number of released messages
+	 */
+	public int releaseStaleEntries(Date before) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append("update mailoutbox entry set entry.status=:pending, entry.nodeId=null, entry.lastModified=:now")
+		  .append(" where entry.status=:sending and entry.lastModified<:before");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString())
+				.setParameter("pending", MailOutboxStatus.pending)
+				.setParameter("sending", MailOutboxStatus.sending)
+				.setParameter("now", new Date())
+				.setParameter("before", before)
+				.executeUpdate();
+	}
+	
+	/**
+	 * @param before The failed messages older than this date are deleted
+	 * @return The number of deleted messages
+	 */
+	public int deleteFailedEntries(Date before) {
+		return dbInstance.getCurrentEntityManager()
+				.createQuery("delete from mailoutbox entry where entry.status=:failed and entry.lastModified<:before")
+				.setParameter("failed", MailOutboxStatus.failed)
+				.setParameter("before", before)
+				.executeUpdate();
+	}
+	
+	public Map<MailOutboxStatus,Long> countByStatus() {
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery("select entry.status, count(entry.key) from mailoutbox entry group by entry.status", Object[].class)
+				.getResultList();
+		Map<MailOutboxStatus,Long> counts = new EnumMap<>(MailOutboxStatus.class);
+		for(MailOutboxStatus status:MailOutboxStatus.values()) {
+			counts.put(status, Long.valueOf(0));
+		}
+		for(Object[] rawObject:rawObjects) {
+			counts.put((MailOutboxStatus)rawObject[0], ((Number)rawObject[1]).longValue());
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,449 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.modules.bc.FolderConfig;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.StringHelper;
+import org.olat.core.util.WebappHelper;
+import org.olat.core.util.mail.model.MailOutboxEntry;
+import org.olat.core.util.mail.model.MailOutboxStatus;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.sun.mail.smtp.SMTPMessage;
+
+/**
+ * The outbox saves the messages in the file system and an entry in the
+ * database in the transaction of the sender. The outbox is drained by every
+ * node of the cluster: a message is claimed by one node and sent through
+ * a small pool of SMTP connections which stay open as long as there are
+ * messages to send. A message which cannot be sent because of the server is
+ * retried with an exponential backoff, a message rejected by the server
+ * is marked as failed.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+@Service
+public class MailOutboxSender implements InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(MailOutboxSender.class);
+	
+	private static final String OUTBOX_FOLDER = "mail_outbox";
+	private static final long MAX_RETRY_DELAY = 6l * 60l * 60l * 1000l;
+	private static final long STALE_CLAIM = 15l * 60l * 1000l;
+	private static final long FAILED_RETENTION = 30l * 24l * 60l * 60l * 1000l;
+	
+	@Value("${mail.outbox.enabled:false}")
+	private boolean enabled;
+	@Value("${mail.outbox.connections:4}")
+	private int maxConnections;
+	@Value("${mail.outbox.poll.interval:2000}")
+	private long pollInterval;
+	@Value("${mail.outbox.batch.size:200}")
+	private int batchSize;
+	@Value("${mail.outbox.max.attempts:8}")
+	private int maxAttempts;
+	@Value("${mail.outbox.retry.delay:60000}")
+	private long retryDelay;
+	
+	private final AtomicLong sentMessages = new AtomicLong();
+	private final AtomicLong retriedMessages = new AtomicLong();
+	private final AtomicLong failedMessages = new AtomicLong();
+	private final SendRate sendRate = new SendRate();
+	
+	private ScheduledExecutorService drainScheduler;
+	private ExecutorService connectionExecutor;
+	private BlockingQueue<PooledTransport> transports;
+	private List<PooledTransport> allTransports;
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private MailOutboxDAO outboxDao;
+	
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if(enabled) {
+			maxConnections = Math.max(1, maxConnections);
+			transports = new ArrayBlockingQueue<>(maxConnections);
+			allTransports = new ArrayList<>(maxConnections);
+			for(int i=0; i<maxConnections; i++) {
+				PooledTransport transport = new PooledTransport();
+				transports.add(transport);
+				allTransports.add(transport);
+			}
+			connectionExecutor = Executors.newFixedThreadPool(maxConnections, new CustomizableThreadFactory("oo-mail-outbox-"));
+			drainScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("oo-mail-outbox-drain-"));
+			drainScheduler.scheduleWithFixedDelay(this::drain, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		if(drainScheduler != null) {
+			drainScheduler.shutdown();
+			drainScheduler.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		if(connectionExecutor != null) {
+			connectionExecutor.shutdown();
+		}
+		if(transports != null) {
+			for(PooledTransport transport:transports) {
+				transport.close();
+			}
+		}
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * Save the message in the outbox. The message is sent after the commit
+	 * of the current transaction.
+	 * 
+	 * @param msg The message
+	 * @throws MessagingException
+	 * @throws IOException
+	 */
+	public void enqueue(MimeMessage msg) throws MessagingException, IOException {
+		String storage = UUID.randomUUID().toString().replace("-", "") + ".eml";
+		File file = getMessageFile(storage);
+		file.getParentFile().mkdirs();
+		try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+			msg.writeTo(out);
+		}
+		outboxDao.createEntry(storage);
+	}
+	
+	private File getMessageFile(String storage) {
+		File root = new File(FolderConfig.getCanonicalRoot(), OUTBOX_FOLDER);
+		// spread the messages in 256 directories
+		return new File(new File(root, storage.substring(0, 2)), storage);
+	}
+	
+	/**
+	 * Send the messages waiting in the outbox, the method returns when the
+	 * batch is done.
+	 */
+	protected void drain() {
+		try {
+			Date now = new Date();
+			outboxDao.releaseStaleEntries(new Date(now.getTime() - STALE_CLAIM));
+			outboxDao.deleteFailedEntries(new Date(now.getTime() - FAILED_RETENTION));
+			List<Long> keys = outboxDao.getDueEntryKeys(now, batchSize);
+			dbInstance.commitAndCloseSession();
+			
+			if(keys.isEmpty()) {
+				// nothing to do, close the idle connections
+				for(PooledTransport transport:transports) {
+					transport.close();
+				}
+				return;
+			}
+			
+			Queue<Long> queue = new ConcurrentLinkedQueue<>(keys);
+			int numOfWorkers = Math.min(maxConnections, keys.size());
+			List<Future<?>> futures = new ArrayList<>(numOfWorkers);
+			for(int i=0; i<numOfWorkers; i++) {
+				futures.add(connectionExecutor.submit(() -> sendQueue(queue)));
+			}
+			for(Future<?> future:futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			log.error("", e);
+		} catch (Exception e) {
+			log.error("", e);
+			dbInstance.rollbackAndCloseSession();
+		}
+	}
+	
+	private void sendQueue(Queue<Long> queue) {
+		PooledTransport transport = transports.poll();
+		if(transport == null) return;
+		
+		try {
+			Integer nodeId = Integer.valueOf(WebappHelper.getNodeId());
+			for(Long key = queue.poll(); key != null; key = queue.poll()) {
+				try {
+					if(outboxDao.claim(key, nodeId)) {
+						MailOutboxEntry entry = outboxDao.loadByKey(key);
+						dbInstance.commit();
+						send(entry, transport);
+					}
+					dbInstance.commitAndCloseSession();
+				} catch (Exception e) {
+					log.error("Cannot send message from outbox: {}", key, e);
+					dbInstance.rollbackAndCloseSession();
+				}
+			}
+		} finally {
+			transports.offer(transport);
+		}
+	}
+	
+	private void send(MailOutboxEntry entry, PooledTransport transport) {
+		File file = getMessageFile(entry.getStorage());
+		if(!file.exists()) {
+			failed(entry, file, "Message file not found: " + entry.getStorage());
+			return;
+		}
+		
+		try {
+			transport.send(file);
+			outboxDao.deleteEntry(entry.getKey());
+			FileUtils.deleteFile(file);
+			sentMessages.incrementAndGet();
+			sendRate.increment();
+		} catch (SendFailedException e) {
+			// the server rejected the recipients, don't retry
+			log.warn("Could not send mail: {} ({})", entry.getKey(), e.getMessage());
+			failed(entry, file, e.getMessage());
+		} catch (MessagingException e) {
+			// connection or server error, try again later
+			transport.close();
+			retryLater(entry, file, e.getMessage());
+		} catch (IOException e) {
+			log.error("Cannot read message: {}", entry.getKey(), e);
+			failed(entry, file, e.getMessage());
+		}
+	}
+	
+	/**
+	 * Reschedule the message with an exponential backoff or mark it as
+	 * failed if the max. number of attempts is reached.
+	 * 
+	 * @param entry The entry in the outbox
+	 * @param file The file of the message
+	 * @param error The error of the server
+	 */
+	void retryLater(MailOutboxEntry entry, File file, String error) {
+		int attempts = entry.getAttempts() + 1;
+		if(attempts >= maxAttempts) {
+			log.warn("Could not send mail after {} attempts: {} ({})", attempts, entry.getKey(), error);
+			failed(entry, file, error);
+		} else {
+			Date nextAttempt = new Date(System.currentTimeMillis() + getRetryDelay(attempts));
+			outboxDao.reschedule(entry.getKey(), attempts, nextAttempt, truncate(error));
+			retriedMessages.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * @param attempts The number of attempts already done
+	 * @return The delay in milliseconds before the next attempt
+	 */
+	long getRetryDelay(int attempts) {
+		if(attempts >= 32) {
+			return MAX_RETRY_DELAY;
+		}
+		return Math.min(MAX_RETRY_DELAY, retryDelay * (1l << (attempts - 1)));
+	}
+	
+	private void failed(MailOutboxEntry entry, File file, String error) {
+		outboxDao.markFailed(entry.getKey(), entry.getAttempts() + 1, truncate(error));
+		FileUtils.deleteFile(file);
+		failedMessages.incrementAndGet();
+	}
+	
+	private String truncate(String error) {
+		return error == null || error.length() <= 2000 ? error : error.substring(0, 2000);
+	}
+	
+	/**
+	 * @return The number of messages in the outbox by status
+	 */
+	public Map<MailOutboxStatus,Long> getQueueDepth() {
+		return outboxDao.countByStatus();
+	}
+	
+	/**
+	 * @return The number of messages sent by this node since the start
+	 */
+	public long getSentMessages() {
+		return sentMessages.get();
+	}
+	
+	public long getRetriedMessages() {
+		return retriedMessages.get();
+	}
+	
+	public long getFailedMessages() {
+		return failedMessages.get();
+	}
+	
+	/**
+	 * @return The number of messages sent by this node the last minute
+	 */
+	public long getSentLastMinute() {
+		return sendRate.getLastMinute();
+	}
+	
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+	
+	/**
+	 * @return The number of open connections, idle or used to send messages
+	 */
+	public int getOpenConnections() {
+		int open = 0;
+		if(allTransports != null) {
+			for(PooledTransport transport:allTransports) {
+				if(transport.isOpen()) {
+					open++;
+				}
+			}
+		}
+		return open;
+	}
+	
+	/**
+	 * A SMTP connection which stays open between the messages. Only used by
+	 * one thread at a time.
+	 */
+	private static class PooledTransport {
+		
+		private Session session;
+		private volatile Transport transport;
+		
+		public void send(File file) throws MessagingException, IOException {
+			if(transport == null || !transport.isConnected()) {
+				connect();
+			}
+			
+			SMTPMessage msg;
+			try(InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+				msg = new SMTPMessage(session, in);
+			}
+			String smtpFrom = WebappHelper.getMailConfig("smtpFrom");
+			if(StringHelper.containsNonWhitespace(smtpFrom)) {
+				msg.setEnvelopeFrom(smtpFrom);
+			}
+			transport.sendMessage(msg, msg.getAllRecipients());
+		}
+		
+		private void connect() throws MessagingException {
+			close();
+			session = MailManagerImpl.createMailSession();
+			Transport newTransport = session.getTransport("smtp");
+			if (WebappHelper.isMailHostAuthenticationEnabled()) {
+				newTransport.connect(WebappHelper.getMailConfig("smtpUser"), WebappHelper.getMailConfig("smtpPwd"));
+			} else {
+				newTransport.connect();
+			}
+			transport = newTransport;
+		}
+		
+		/**
+		 * The transport is not asked, it can be used by an other thread
+		 * and checks the connection with a command to the server.
+		 * 
+		 * @return true if the connection was opened and not closed
+		 */
+		public boolean isOpen() {
+			return transport != null;
+		}
+		
+		public void close() {
+			Transport t = transport;
+			transport = null;
+			if(t != null) {
+				try {
+					t.close();
+				} catch (MessagingException e) {
+					log.debug("Error while closing SMTP connection", e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Count the messages sent per second for the last minute.
+	 */
+	private static class SendRate {
+		
+		private final long[] seconds = new long[60];
+		private final long[] counts = new long[60];
+		
+		public synchronized void increment() {
+			long second = System.currentTimeMillis() / 1000l;
+			int index = (int)(second % 60);
+			if(seconds[index] != second) {
+				seconds[index] = second;
+				counts[index] = 0;
+			}
+			counts[index]++;
+		}
+		
+		public synchronized long getLastMinute() {
+			long now = System.currentTimeMillis() / 1000l;
+			long total = 0;
+			for(int i=0; i<60; i++) {
+				if(now - seconds[i] < 60) {
+					total += counts[i];
+				}
+			}
+			return total;
+		}
+	}
+}
@@ -94,8 +94,8 @@ import org.olat.core.util.vfs.VFSConstants;
 import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSManager;
 import org.olat.core.util.vfs.VFSStatus;
-import org.olat.core.util.xml.XStreamHelper;
 import org.olat.course.archiver.ScoreAccountingHelper;
+import org.olat.course.condition.interpreter.ConditionExpressionCache;
 import org.olat.course.config.CourseConfig;
 import org.olat.course.config.CourseConfigManager;
 import org.olat.course.config.ui.courselayout.CourseLayoutHelper;
@@ -308,6 +308,7 @@ public class CourseFactory {
 	 */
 	private static void removeFromCache(Long resourceableId) { //o_clusterOK by: ld
 		loadedCourses.remove(resourceableId);
+		CoreSpringFactory.getImpl(ConditionExpressionCache.class).invalidate(resourceableId);
 		log.debug("removeFromCache");
 	}
 
@@ -318,6 +319,7 @@ public class CourseFactory {
 	 */
 	private static void updateCourseInCache(Long resourceableId, PersistingCourseImpl course) { //o_clusterOK by:ld
 		loadedCourses.update(resourceableId, course);
+		CoreSpringFactory.getImpl(ConditionExpressionCache.class).invalidate(resourceableId);
 		log.debug("updateCourseInCache");
 	}
 
@@ -451,9 +453,9 @@ public class CourseFactory {
 			CourseConfig courseConf = CoreSpringFactory.getImpl(CourseConfigManager.class).copyConfigOf(sourceCourse);
 			targetCourse.setCourseConfig(courseConf);
 			// save structures
-			targetCourse.setRunStructure((Structure) XStreamHelper.xstreamClone(sourceCourse.getRunStructure()));
+			targetCourse.setRunStructure(CourseStructureSnapshot.copy(sourceCourse.getRunStructure()));
 			targetCourse.saveRunStructure();
-			targetCourse.setEditorTreeModel((CourseEditorTreeModel) XStreamHelper.xstreamClone(sourceCourse.getEditorTreeModel()));
+			targetCourse.setEditorTreeModel(CourseStructureSnapshot.copy(sourceCourse.getEditorTreeModel()));
 			targetCourse.saveEditorTreeModel();
 
 			// copy course folder
@@ -519,6 +521,9 @@ public class CourseFactory {
 		LocalFolderImpl courseBaseContainer = newCourse.getCourseBaseContainer();
 		File fCanonicalCourseBasePath = courseBaseContainer.getBasefile();
 		if (ZipUtil.unzip(zipFile, fCanonicalCourseBasePath)) {
+			// never trust a binary snapshot from outside
+			CourseStructureSnapshot.delete(new File(fCanonicalCourseBasePath, PersistingCourseImpl.RUNSTRUCTURE_XML));
+			CourseStructureSnapshot.delete(new File(fCanonicalCourseBasePath, PersistingCourseImpl.EDITORTREEMODEL_XML));
 			// Load course structure now
 			try {
 				newCourse.load();
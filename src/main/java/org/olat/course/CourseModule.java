@@ -67,6 +67,8 @@ public class CourseModule extends AbstractSpringModule {
 	private boolean displayInfoBox;
 	@Value("${course.display.changelog}")
 	private boolean displayChangeLog;
+	@Value("${course.structure.snapshot.enabled:true}")
+	private boolean structureSnapshotEnabled;
 	
 	// Repository types
 	public static final String ORES_TYPE_COURSE = OresHelper.calculateTypeName(CourseModule.class);
@@ -207,5 +209,12 @@ public class CourseModule extends AbstractSpringModule {
 		setStringProperty(COURSE_DISPLAY_CHANGELOG, Boolean.toString(enabled), true);
 	}
 	
+	/**
+	 * @return true if the course structures are read from the binary snapshots
+	 */
+	public boolean isStructureSnapshotEnabled() {
+		return structureSnapshotEnabled;
+	}
+	
 	
 }
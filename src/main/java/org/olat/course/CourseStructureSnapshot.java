@@ -0,0 +1,221 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+
+/**
+ * Binary snapshot of the run structure and the editor tree model of a course,
+ * written next to the XML files. The XML stays the portable format (export,
+ * import, REST) and the reference: the snapshot holds the length and the
+ * checksum of the XML file it was written with and is only used if they
+ * still match, else the XML is read and the snapshot written again.<br>
+ * The snapshots are Java serialized and restricted to the classes of OpenOLAT
+ * and of the JDK. They are never exported and must be deleted if a course is
+ * imported.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class CourseStructureSnapshot {
+
+	private static final Logger log = Tracing.createLoggerFor(CourseStructureSnapshot.class);
+
+	public static final String SNAPSHOT_SUFFIX = ".ser";
+
+	private static final int MAGIC = 0x4f4f4353;// OOCS
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String[] ALLOWED_PACKAGES = new String[] {
+			"java.lang.", "java.util.", "java.math.", "java.time.", "java.sql.", "org.olat.", "de.bps.", "de.tuchemnitz."
+	};
+
+	private CourseStructureSnapshot() {
+		//
+	}
+
+	/**
+	 * @param xmlFile The XML file
+	 * @return The snapshot file of the specified XML file
+	 */
+	public static File getSnapshotFile(File xmlFile) {
+		String name = xmlFile.getName();
+		if(name.endsWith(".xml")) {
+			name = name.substring(0, name.length() - 4);
+		}
+		return new File(xmlFile.getParentFile(), name + SNAPSHOT_SUFFIX);
+	}
+
+	/**
+	 * Read the snapshot of the specified XML file.
+	 *
+	 * @param xmlFile The XML file
+	 * @return The structure or null if the snapshot doesn't exist, is outdated or unreadable
+	 */
+	public static Object read(File xmlFile) {
+		File snapshotFile = getSnapshotFile(xmlFile);
+		if(!snapshotFile.exists() || !xmlFile.exists()) {
+			return null;
+		}
+
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile.toPath())))) {
+			if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				log.info("Discard course structure snapshot with unknown format: {}", snapshotFile);
+				return null;
+			}
+			long xmlLength = in.readLong();
+			long xmlChecksum = in.readLong();
+			if(xmlLength != xmlFile.length() || xmlChecksum != checksum(xmlFile)) {
+				log.debug("Outdated course structure snapshot: {}", snapshotFile);
+				return null;
+			}
+			try(ObjectInputStream oin = new RestrictedObjectInputStream(in)) {
+				return oin.readObject();
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			// class changes after an upgrade, the XML is read and the snapshot written again
+			log.info("Cannot read course structure snapshot: {} ({})", snapshotFile, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Write the snapshot of the XML file which was just written. The
+	 * snapshot is first written in a temporary file and moved.
+	 *
+	 * @param xmlFile The XML file
+	 * @param obj The structure saved in the XML file
+	 */
+	public static void write(File xmlFile, Serializable obj) {
+		File snapshotFile = getSnapshotFile(xmlFile);
+		File tmpFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+		try {
+			long xmlLength = xmlFile.length();
+			long xmlChecksum = checksum(xmlFile);
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeLong(xmlLength);
+				out.writeLong(xmlChecksum);
+				try(ObjectOutputStream oout = new ObjectOutputStream(out)) {
+					oout.writeObject(obj);
+				}
+			}
+			Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (Exception e) {
+			log.warn("Cannot write course structure snapshot: {}", snapshotFile, e);
+			FileUtils.deleteFile(tmpFile);
+			delete(xmlFile);
+		}
+	}
+
+	/**
+	 * Delete the snapshot of the specified XML file.
+	 *
+	 * @param xmlFile The XML file
+	 */
+	public static void delete(File xmlFile) {
+		File snapshotFile = getSnapshotFile(xmlFile);
+		if(snapshotFile.exists()) {
+			FileUtils.deleteFile(snapshotFile);
+		}
+	}
+
+	/**
+	 * Make a deep copy of the structure in memory without XML.
+	 *
+	 * @param obj The structure to copy
+	 * @return A copy of the structure
+	 */
+	@SuppressWarnings("unchecked")
+	public static <U extends Serializable> U copy(U obj) {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(65536);
+			try(ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+				out.writeObject(obj);
+			}
+			try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+				return (U)in.readObject();
+			}
+		} catch (IOException | ClassNotFoundException e) {
+			throw new CorruptedCourseException("Cannot copy the course structure", e);
+		}
+	}
+
+	private static long checksum(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[16384];
+		try(InputStream in = Files.newInputStream(file.toPath())) {
+			int read;
+			while((read = in.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+		}
+		return crc.getValue();
+	}
+
+	private static class RestrictedObjectInputStream extends ObjectInputStream {
+
+		public RestrictedObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			String name = desc.getName();
+			int index = name.lastIndexOf('[');
+			if(index >= 0) {
+				// arrays: [Ljava.lang.String; or [I
+				name = name.length() > index + 2 ? name.substring(index + 2) : "java.lang.";
+			}
+			for(String allowedPackage:ALLOWED_PACKAGES) {
+				if(name.startsWith(allowedPackage)) {
+					return super.resolveClass(desc);
+				}
+			}
+			throw new InvalidClassException(desc.getName(), "Not allowed in a course structure snapshot");
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			throw new InvalidClassException("Proxy", "Not allowed in a course structure snapshot");
+		}
+	}
+}
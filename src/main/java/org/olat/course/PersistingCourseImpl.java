@@ -349,29 +349,54 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		}
 		XStream xstream = CourseXStreamAliases.getWriteCourseXStream();
 		XStreamHelper.writeObject(xstream, vfsItem, obj);
+		
+		File xmlFile = new File(getCourseBaseContainer().getBasefile(), fileName);
+		if(isStructureSnapshotEnabled() && obj instanceof Serializable) {
+			CourseStructureSnapshot.write(xmlFile, (Serializable)obj);
+		} else {
+			CourseStructureSnapshot.delete(xmlFile);
+		}
 	}
 
 	/**
-	 * Read a structure from XML file within the course base path folder.
+	 * Read a structure from the binary snapshot if it's up to date or
+	 * from the XML file within the course base path folder.
 	 * 
 	 * @param fileName
 	 * @return de-serialized object
 	 * @throws OLATRuntimeException if de-serialization fails.
 	 */
 	private Object readObject(String fileName) {
+		boolean snapshotEnabled = isStructureSnapshotEnabled();
+		File xmlFile = new File(getCourseBaseContainer().getBasefile(), fileName);
+		if(snapshotEnabled) {
+			Object obj = CourseStructureSnapshot.read(xmlFile);
+			if(obj != null) {
+				return obj;
+			}
+		}
+		
 		VFSItem vfsItem = getCourseBaseContainer().resolve(fileName);
 		if (!(vfsItem instanceof VFSLeaf)) {
 			throw new CorruptedCourseException("Cannot resolve file: " + fileName + " course=" + toString());
 		}
 		try {
 			XStream xstream = CourseXStreamAliases.getReadCourseXStream();
-			return XStreamHelper.readObject(xstream, (VFSLeaf)vfsItem);
+			Object obj = XStreamHelper.readObject(xstream, (VFSLeaf)vfsItem);
+			if(snapshotEnabled && obj instanceof Serializable) {
+				CourseStructureSnapshot.write(xmlFile, (Serializable)obj);
+			}
+			return obj;
 		} catch (Exception e) {
 			log.error("Cannot read course tree file: " + fileName, e);
 			throw new CorruptedCourseException("Cannot resolve file: " + fileName + " course=" + toString(), e);
 		}
 	}
 
+	private boolean isStructureSnapshotEnabled() {
+		return CoreSpringFactory.getImpl(CourseModule.class).isStructureSnapshotEnabled();
+	}
+
 	@Override
 	public String getResourceableTypeName() {
 		return ORES_TYPE_NAME;
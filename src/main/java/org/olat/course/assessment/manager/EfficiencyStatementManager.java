@@ -29,16 +29,22 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.olat.basesecurity.GroupRoles;
 import org.olat.basesecurity.IdentityRef;
 import org.olat.core.commons.persistence.DB;
-import org.olat.core.commons.persistence.DBFactory;
 import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.Tracing;
@@ -65,6 +71,8 @@ import org.olat.course.config.CourseConfig;
 import org.olat.course.run.environment.CourseEnvironment;
 import org.olat.course.run.userview.UserCourseEnvironment;
 import org.olat.group.BusinessGroup;
+import org.olat.modules.assessment.AssessmentEntry;
+import org.olat.modules.assessment.AssessmentService;
 import org.olat.repository.RepositoryEntry;
 import org.olat.repository.RepositoryEntryRef;
 import org.olat.repository.model.RepositoryEntryRefImpl;
@@ -74,6 +82,8 @@ import org.olat.user.UserDataExportable;
 import org.olat.user.UserManager;
 import org.olat.user.manager.ManifestBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import com.thoughtworks.xstream.XStream;
@@ -95,11 +105,24 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 	public static final String KEY_ASSESSMENT_NODES = "assessmentNodes";
 	public static final String KEY_COURSE_TITLE = "courseTitle";
 	public static final String PROPERTY_CATEGORY = "efficiencyStatement";
+	
+	private static final String[] COMPACT_KEYS = new String[] {
+		AssessmentHelper.KEY_IDENTIFYER, AssessmentHelper.KEY_TYPE, AssessmentHelper.KEY_INDENT,
+		AssessmentHelper.KEY_TITLE_SHORT, AssessmentHelper.KEY_TITLE_LONG, AssessmentHelper.KEY_DETAILS,
+		AssessmentHelper.KEY_SCORE_F, AssessmentHelper.KEY_MIN, AssessmentHelper.KEY_MAX,
+		AssessmentHelper.KEY_PASSED, AssessmentHelper.KEY_ATTEMPTS, AssessmentHelper.KEY_SELECTABLE,
+		AssessmentHelper.KEY_LAST_USER_MODIFIED, AssessmentHelper.KEY_LAST_COACH_MODIFIED
+	};
 
 	@Autowired
 	private DB dbInstance;
 	@Autowired
 	private UserManager userManager;
+	@Autowired
+	private AssessmentService assessmentService;
+	
+	@Value("${efficiency.statement.recalculation.threads:4}")
+	private int recalculationThreads;
 	
 	private final XStream xstream = XStreamHelper.createXStreamInstance();
 
@@ -187,6 +210,17 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 	
 	public void updateUserEfficiencyStatement(Identity assessedIdentity, final CourseEnvironment courseEnv,
 			List<AssessmentNodeData> assessmentNodeList, AssessmentNodesLastModified lastModifications, final RepositoryEntry repoEntry) {
+		updateUserEfficiencyStatement(assessedIdentity, courseEnv, assessmentNodeList, lastModifications, repoEntry, null);
+	}
+	
+	/**
+	 * @param currentCompactStatement The compact form of the statement saved in the database,
+	 * 		if the new statement has the same, nothing is written. Null to write the statement anyway.
+	 * @return true if the statement was written
+	 */
+	private boolean updateUserEfficiencyStatement(Identity assessedIdentity, final CourseEnvironment courseEnv,
+			List<AssessmentNodeData> assessmentNodeList, AssessmentNodesLastModified lastModifications, final RepositoryEntry repoEntry,
+			String currentCompactStatement) {
 		List<Map<String,Object>> assessmentNodes = AssessmentHelper.assessmentNodeDataListToMap(assessmentNodeList);
 			
 		EfficiencyStatement efficiencyStatement = new EfficiencyStatement();
@@ -205,6 +239,10 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 			}
 		}
 		
+		if(currentCompactStatement != null && currentCompactStatement.equals(toCompactStatement(efficiencyStatement))) {
+			return false;
+		}
+		
 		boolean debug = log.isDebugEnabled();
 		UserEfficiencyStatementImpl efficiencyProperty = getUserEfficiencyStatementFull(repoEntry, assessedIdentity);
 		if (assessmentNodes != null) {				
@@ -250,6 +288,7 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 		AssessmentChangedEvent ace = new AssessmentChangedEvent(AssessmentChangedEvent.TYPE_EFFICIENCY_STATEMENT_CHANGED, assessedIdentity);
 		OLATResourceable courseOres = OresHelper.createOLATResourceableInstance(CourseModule.class, courseEnv.getCourseResourceableId());
 		CoordinatorManager.getInstance().getCoordinator().getEventBus().fireEventToListenersOf(ace, courseOres);
+		return true;
 	}
 	
 	public void fillEfficiencyStatement(EfficiencyStatement efficiencyStatement, AssessmentNodesLastModified lastModifications, UserEfficiencyStatementImpl efficiencyProperty) {
@@ -320,6 +359,45 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 
 		efficiencyProperty.setLastModified(new Date());
 		efficiencyProperty.setStatementXml(xstream.toXML(efficiencyStatement));
+		efficiencyProperty.setStatementCompact(toCompactStatement(efficiencyStatement));
+	}
+	
+	/**
+	 * The compact form holds the titles, the user infos and the data of all
+	 * the nodes, but not the time of the last update. Two statements with the
+	 * same compact form show the same results.
+	 * 
+	 * @param efficiencyStatement The efficiency statement
+	 * @return A JSON array
+	 */
+	public String toCompactStatement(EfficiencyStatement efficiencyStatement) {
+		JSONArray compact = new JSONArray();
+		compact.put(toCompactValue(efficiencyStatement.getCourseTitle()));
+		compact.put(toCompactValue(efficiencyStatement.getDisplayableUserInfo()));
+		List<Map<String,Object>> assessmentNodes = efficiencyStatement.getAssessmentNodes();
+		if(assessmentNodes != null) {
+			for(Map<String,Object> nodeData:assessmentNodes) {
+				JSONArray node = new JSONArray();
+				for(String key:COMPACT_KEYS) {
+					node.put(toCompactValue(nodeData.get(key)));
+				}
+				compact.put(node);
+			}
+		}
+		return compact.toString();
+	}
+	
+	private Object toCompactValue(Object value) {
+		if(value == null) {
+			return JSONObject.NULL;
+		}
+		if(value instanceof Date) {
+			return Long.valueOf(((Date)value).getTime());
+		}
+		if(value instanceof Float) {
+			return value.toString();
+		}
+		return value;
 	}
 	
 	/**
@@ -722,39 +800,118 @@ public class EfficiencyStatementManager implements UserDataDeletable, UserDataEx
 	/**
 	 * Create or update all efficiency statment lists for the given list of identities and this course
 	 * This is called from only one thread, since the course is locked at editing (either CourseEdit or CourseDetails edit).
+	 * The assessment entries of the course and the compact form of the current statements are loaded
+	 * at once, the users are evaluated in parallel and only the statements which changed are written.
+	 * The entries of a user are reloaded within the lock of its efficiency statement only if
+	 * the recalculation wants to update an entry which was modified since the bulk load.
 	 * 
 	 * @param ores The resource to load the course
 	 * @param identities List of identities
 	 * false: always create new one (be careful with this one!)
 	 */	
 	public void updateEfficiencyStatements(final RepositoryEntry courseEntry, List<Identity> identities) {
-		if (identities.size() > 0) {
-			final ICourse course = CourseFactory.loadCourse(courseEntry);
-			log.info(Tracing.M_AUDIT, "Updating efficiency statements for course::" + course.getResourceableId() + ", this might produce temporary heavy load on the CPU");
-
-			// preload cache to speed up things
-			AssessmentManager am = course.getCourseEnvironment().getAssessmentManager();		
-			int count = 0;
-			for (Identity identity : identities) {			
-				//o_clusterOK: by ld
-				OLATResourceable efficiencyStatementResourceable = am.createOLATResourceableForLocking(identity);
-				CoordinatorManager.getInstance().getCoordinator().getSyncer().doInSync(efficiencyStatementResourceable, new SyncerExecutor() {
-					@Override
-					public void execute() {					
-						// create temporary user course env
-						UserCourseEnvironment uce = AssessmentHelper.createInitAndUpdateUserCourseEnvironment(identity, course);
-						updateUserEfficiencyStatement(uce, courseEntry);
-					}
-				});
+		if (identities.isEmpty()) return;
+		
+		long start = System.currentTimeMillis();
+		final ICourse course = CourseFactory.loadCourse(courseEntry);
+		log.info(Tracing.M_AUDIT, "Updating efficiency statements for course::" + course.getResourceableId() + ", this might produce temporary heavy load on the CPU");
+
+		// bulk load the data of all users
+		Map<Long,List<AssessmentEntry>> identityKeyToEntries = new HashMap<>();
+		for(AssessmentEntry entry:assessmentService.loadAssessmentEntriesByRepositoryEntry(courseEntry)) {
+			identityKeyToEntries
+				.computeIfAbsent(entry.getIdentity().getKey(), key -> new ArrayList<>())
+				.add(entry);
+		}
+		Map<Long,String> identityKeyToCompactStatements = getCompactStatements(courseEntry);
+		dbInstance.commitAndCloseSession();
+		
+		AtomicInteger changed = new AtomicInteger();
+		AssessmentManager am = course.getCourseEnvironment().getAssessmentManager();
+		int numOfThreads = Math.max(1, Math.min(recalculationThreads, identities.size()));
+		if(numOfThreads == 1) {
+			for (Identity identity : identities) {
+				List<AssessmentEntry> entries = identityKeyToEntries.getOrDefault(identity.getKey(), Collections.emptyList());
+				updateEfficiencyStatement(identity, course, courseEntry, am, entries, identityKeyToCompactStatements.get(identity.getKey()), changed);
 				if (Thread.interrupted()) {
 					break;
 				}
-				
-				if(++count % 10 == 0) {
-					DBFactory.getInstance().commitAndCloseSession();
+			}
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(numOfThreads, new CustomizableThreadFactory("oo-eff-statement-"));
+			try {
+				for (Identity identity : identities) {
+					List<AssessmentEntry> entries = identityKeyToEntries.getOrDefault(identity.getKey(), Collections.emptyList());
+					String currentCompactStatement = identityKeyToCompactStatements.get(identity.getKey());
+					executor.execute(() -> updateEfficiencyStatement(identity, course, courseEntry, am, entries, currentCompactStatement, changed));
+				}
+				executor.shutdown();
+				if(!executor.awaitTermination(2, TimeUnit.HOURS)) {
+					log.warn("Updating efficiency statements for course::" + course.getResourceableId() + " timed out");
+					executor.shutdownNow();
+				}
+			} catch (InterruptedException e) {
+				log.warn("Updating efficiency statements for course::" + course.getResourceableId() + " interrupted");
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+		log.info(Tracing.M_AUDIT, "Efficiency statements for course::" + course.getResourceableId() + " updated: " + changed.get()
+				+ " of " + identities.size() + " changed in (ms): " + (System.currentTimeMillis() - start));
+	}
+	
+	private void updateEfficiencyStatement(Identity identity, ICourse course, RepositoryEntry courseEntry, AssessmentManager am,
+			List<AssessmentEntry> entries, String currentCompactStatement, AtomicInteger changed) {
+		try {
+			//o_clusterOK: by ld
+			OLATResourceable efficiencyStatementResourceable = am.createOLATResourceableForLocking(identity);
+			CoordinatorManager.getInstance().getCoordinator().getSyncer().doInSync(efficiencyStatementResourceable, new SyncerExecutor() {
+				@Override
+				public void execute() {
+					// create temporary user course env, only the entries not modified since the bulk load are updated
+					UserCourseEnvironment uce = AssessmentHelper.createInitAndUpdateUserCourseEnvironment(identity, course, entries);
+					if(uce.getScoreAccounting().hasStaleEntries()) {
+						// the entries of the user were modified in the meantime, evaluate again with the current ones
+						uce = AssessmentHelper.createInitAndUpdateUserCourseEnvironment(identity, course);
+					}
+					CourseConfig cc = uce.getCourseEnvironment().getCourseConfig();
+					if (cc.isEfficencyStatementEnabled()) {
+						AssessmentNodesLastModified lastModifications = new AssessmentNodesLastModified();
+						List<AssessmentNodeData> assessmentNodeList = AssessmentHelper.getAssessmentNodeDataList(uce, lastModifications, true, true, true);
+						// without compact form (new statement...), the statement is written
+						if(updateUserEfficiencyStatement(identity, uce.getCourseEnvironment(), assessmentNodeList, lastModifications, courseEntry, currentCompactStatement)) {
+							changed.incrementAndGet();
+						}
+					}
 				}
+			});
+		} catch (Exception e) {
+			log.error("Cannot update efficiency statement of identity::" + identity.getKey() + " in course::" + courseEntry.getKey(), e);
+		} finally {
+			dbInstance.commitAndCloseSession();
+		}
+	}
+	
+	/**
+	 * @param courseEntry The course
+	 * @return A map identity key to the compact form of the efficiency statement
+	 */
+	private Map<Long,String> getCompactStatements(RepositoryEntryRef courseEntry) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select statement.identity.key, statement.statementCompact from effstatement as statement")
+		  .append(" where statement.courseRepoKey=:repoKey");
+
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("repoKey", courseEntry.getKey())
+				.getResultList();
+		Map<Long,String> compactStatements = new HashMap<>();
+		for(Object[] rawObject:rawObjects) {
+			if(rawObject[1] instanceof String) {
+				compactStatements.put((Long)rawObject[0], (String)rawObject[1]);
 			}
 		}
+		return compactStatements;
 	}
 
 	@Override
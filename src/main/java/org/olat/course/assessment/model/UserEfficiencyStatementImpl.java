@@ -97,6 +97,8 @@ public class UserEfficiencyStatementImpl implements Persistable, UserEfficiencyS
 
 	@Column(name="statement_xml", nullable=true, insertable=true, updatable=true)
 	private String statementXml;
+	@Column(name="statement_compact", nullable=true, insertable=true, updatable=true)
+	private String statementCompact;
 
 	@Temporal(TemporalType.TIMESTAMP)
 	@Column(name="lastusermodified", nullable=true, insertable=true, updatable=true)
@@ -214,6 +216,17 @@ public class UserEfficiencyStatementImpl implements Persistable, UserEfficiencyS
 		this.statementXml = statementXml;
 	}
 
+	/**
+	 * @return A compact JSON form of the statement without the time of the update
+	 */
+	public String getStatementCompact() {
+		return statementCompact;
+	}
+
+	public void setStatementCompact(String statementCompact) {
+		this.statementCompact = statementCompact;
+	}
+
 	@Override
 	public Identity getIdentity() {
 		return identity;
@@ -0,0 +1,348 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.condition.interpreter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.neemsoft.jmep.Environment;
+import com.neemsoft.jmep.Expression;
+import com.neemsoft.jmep.FunctionCB;
+import com.neemsoft.jmep.UnitCB;
+import com.neemsoft.jmep.VariableCB;
+import com.neemsoft.jmep.XExpression;
+
+/**
+ * Node wide cache of parsed condition and score expressions. The jmep
+ * expressions are parsed against a shared environment whose functions,
+ * variables and units only delegate to the interpreter bound to the
+ * current thread, so the same parsed tree can be evaluated for every
+ * user without parsing the text again.<br>
+ * A jmep expression is not thread safe, every cache entry holds a small
+ * pool of parsed instances which are borrowed for the time of an
+ * evaluation.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+@Service
+public class ConditionExpressionCache {
+
+	private static final Logger log = Tracing.createLoggerFor(ConditionExpressionCache.class);
+
+	private static final ThreadLocal<ConditionInterpreter> currentInterpreter = new ThreadLocal<>();
+
+	@Value("${course.condition.cache.size:5000}")
+	private int maxSize;
+	@Value("${course.condition.cache.pool.size:8}")
+	private int maxPoolSize;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	private final ConcurrentMap<String,SharedEnvironment> environments = new ConcurrentHashMap<>();
+	private final Map<ExpressionKey,CachedExpression> expressions = new LinkedHashMap<ExpressionKey,CachedExpression>(256, 0.75f, true) {
+		private static final long serialVersionUID = -4806404227462924718L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ExpressionKey,CachedExpression> eldest) {
+			boolean remove = size() > maxSize;
+			if(remove) {
+				evictions.incrementAndGet();
+			}
+			return remove;
+		}
+	};
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public int size() {
+		synchronized(expressions) {
+			return expressions.size();
+		}
+	}
+
+	/**
+	 * Evaluate the expression with the functions, variables and units of
+	 * the specified interpreter. The expression is only parsed if no parsed
+	 * instance is available.
+	 *
+	 * @param expression The expression as text
+	 * @param interpreter The interpreter which holds the environment of the user
+	 * @return The result of the evaluation
+	 * @throws XExpression If the expression cannot be parsed or evaluated
+	 */
+	public Object evaluate(String expression, ConditionInterpreter interpreter) throws XExpression {
+		ConditionInterpreter previousInterpreter = currentInterpreter.get();
+		currentInterpreter.set(interpreter);
+		try {
+			CachedExpression cachedExpression = getCachedExpression(expression, interpreter);
+			Expression exp = cachedExpression.borrow();
+			try {
+				return exp.evaluate();
+			} finally {
+				cachedExpression.release(exp);
+			}
+		} finally {
+			if(previousInterpreter == null) {
+				currentInterpreter.remove();
+			} else {
+				currentInterpreter.set(previousInterpreter);
+			}
+		}
+	}
+
+	private CachedExpression getCachedExpression(String expression, ConditionInterpreter interpreter) throws XExpression {
+		String signature = interpreter.getEnvironmentSignature();
+		ExpressionKey key = new ExpressionKey(signature, expression);
+
+		CachedExpression cachedExpression;
+		synchronized(expressions) {
+			cachedExpression = expressions.get(key);
+		}
+
+		if(cachedExpression == null) {
+			misses.incrementAndGet();
+			SharedEnvironment sharedEnv = environments
+					.computeIfAbsent(signature, s -> new SharedEnvironment(interpreter));
+			// parse outside of the lock, an invalid expression throws here and is never cached
+			Expression parsed = new Expression(expression, sharedEnv.getEnvironment());
+			cachedExpression = new CachedExpression(expression, sharedEnv);
+			cachedExpression.release(parsed);
+			synchronized(expressions) {
+				CachedExpression concurrentExpression = expressions.putIfAbsent(key, cachedExpression);
+				if(concurrentExpression != null) {
+					cachedExpression = concurrentExpression;
+				}
+			}
+		} else {
+			hits.incrementAndGet();
+		}
+
+		Long courseResourceableId = interpreter.getCourseResourceableId();
+		if(courseResourceableId != null) {
+			cachedExpression.usedBy(courseResourceableId);
+		}
+		return cachedExpression;
+	}
+
+	/**
+	 * Remove all the expressions used by the specified course.
+	 *
+	 * @param courseResourceableId The course resourceable id
+	 */
+	public void invalidate(Long courseResourceableId) {
+		if(courseResourceableId == null) return;
+
+		int count = 0;
+		synchronized(expressions) {
+			for(Iterator<CachedExpression> it=expressions.values().iterator(); it.hasNext(); ) {
+				if(it.next().isUsedBy(courseResourceableId)) {
+					it.remove();
+					count++;
+				}
+			}
+		}
+		log.debug("Invalidate {} condition expressions of course: {}", count, courseResourceableId);
+	}
+
+	public void invalidateAll() {
+		synchronized(expressions) {
+			expressions.clear();
+		}
+	}
+
+	private class CachedExpression {
+
+		private final String expression;
+		private final SharedEnvironment sharedEnv;
+		private final AtomicInteger poolSize = new AtomicInteger();
+		private final ConcurrentLinkedQueue<Expression> pool = new ConcurrentLinkedQueue<>();
+		private final Set<Long> courseResourceableIds = ConcurrentHashMap.newKeySet();
+
+		public CachedExpression(String expression, SharedEnvironment sharedEnv) {
+			this.expression = expression;
+			this.sharedEnv = sharedEnv;
+		}
+
+		public boolean isUsedBy(Long courseResourceableId) {
+			return courseResourceableIds.contains(courseResourceableId);
+		}
+
+		public void usedBy(Long courseResourceableId) {
+			courseResourceableIds.add(courseResourceableId);
+		}
+
+		/**
+		 * @return An instance of the parsed expression used exclusively by the caller
+		 * @throws XExpression
+		 */
+		public Expression borrow() throws XExpression {
+			Expression exp = pool.poll();
+			if(exp == null) {
+				// all instances are used, nested or concurrent evaluations
+				exp = new Expression(expression, sharedEnv.getEnvironment());
+			} else {
+				poolSize.decrementAndGet();
+			}
+			return exp;
+		}
+
+		public void release(Expression exp) {
+			if(poolSize.incrementAndGet() <= maxPoolSize) {
+				pool.offer(exp);
+			} else {
+				poolSize.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * The jmep environment shared by all the interpreters with the same
+	 * signature. Its callbacks only resolve the real implementation
+	 * of the interpreter bound to the current thread.
+	 */
+	private static class SharedEnvironment {
+
+		private final Environment environment = new Environment();
+
+		public SharedEnvironment(ConditionInterpreter interpreter) {
+			for(Map.Entry<String,Integer> constant:interpreter.getConstants().entrySet()) {
+				environment.addConstant(constant.getKey(), constant.getValue().intValue());
+			}
+			for(String name:interpreter.getFunctions().keySet()) {
+				environment.addFunction(name, new DelegatingFunction(name));
+			}
+			for(String name:interpreter.getVariables().keySet()) {
+				environment.addVariable(name, new DelegatingVariable(name));
+			}
+			for(String name:interpreter.getUnits().keySet()) {
+				environment.addUnit(name, new DelegatingUnit(name));
+			}
+		}
+
+		public Environment getEnvironment() {
+			return environment;
+		}
+	}
+
+	private static ConditionInterpreter getCurrentInterpreter() {
+		ConditionInterpreter interpreter = currentInterpreter.get();
+		if(interpreter == null) {
+			throw new IllegalStateException("Condition expression evaluated without interpreter");
+		}
+		return interpreter;
+	}
+
+	private static class DelegatingFunction extends FunctionCB {
+
+		private final String name;
+
+		public DelegatingFunction(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Object call(Object[] inStack) {
+			return getCurrentInterpreter().getFunctions().get(name).call(inStack);
+		}
+	}
+
+	private static class DelegatingVariable extends VariableCB {
+
+		private final String name;
+
+		public DelegatingVariable(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Object getValue() {
+			return getCurrentInterpreter().getVariables().get(name).getValue();
+		}
+	}
+
+	private static class DelegatingUnit extends UnitCB {
+
+		private final String name;
+
+		public DelegatingUnit(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Object apply(Object arg) {
+			return getCurrentInterpreter().getUnits().get(name).apply(arg);
+		}
+	}
+
+	private static class ExpressionKey {
+
+		private final String signature;
+		private final String expression;
+		private final int hashCode;
+
+		public ExpressionKey(String signature, String expression) {
+			this.signature = signature;
+			this.expression = expression;
+			hashCode = signature.hashCode() * 31 + expression.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof ExpressionKey) {
+				ExpressionKey key = (ExpressionKey)obj;
+				return expression.equals(key.expression) && signature.equals(key.signature);
+			}
+			return false;
+		}
+	}
+}
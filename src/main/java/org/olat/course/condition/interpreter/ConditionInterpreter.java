@@ -26,8 +26,13 @@
 package org.olat.course.condition.interpreter;
 
 import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import org.apache.logging.log4j.Logger;
+import org.olat.core.CoreSpringFactory;
 import org.olat.core.gui.translator.Translator;
 import org.olat.core.logging.AssertException;
 import org.olat.core.logging.OLATRuntimeException;
@@ -41,10 +46,12 @@ import org.olat.course.condition.interpreter.score.GetScoreFunction;
 import org.olat.course.condition.interpreter.score.GetScoreWithCourseIdFunction;
 import org.olat.course.db.interpreter.GetUserCourseDBFunction;
 import org.olat.course.editor.CourseEditorEnv;
+import org.olat.course.run.environment.CourseEnvironment;
 import org.olat.course.run.userview.UserCourseEnvironment;
 
-import com.neemsoft.jmep.Environment;
-import com.neemsoft.jmep.Expression;
+import com.neemsoft.jmep.FunctionCB;
+import com.neemsoft.jmep.UnitCB;
+import com.neemsoft.jmep.VariableCB;
 import com.neemsoft.jmep.XExpression;
 import com.neemsoft.jmep.XIllegalOperation;
 import com.neemsoft.jmep.XIllegalStatus;
@@ -67,10 +74,16 @@ public class ConditionInterpreter {
 	public static final Integer INT_TRUE = Integer.valueOf(1);
 	/** static Integer(0) object */
 	public static final Integer INT_FALSE = Integer.valueOf(0);
-	protected Environment env;
 	protected Translator translator;
 	protected UserCourseEnvironment uce;
 
+	private final Map<String,Integer> constants = new HashMap<>();
+	private final Map<String,FunctionCB> functions = new HashMap<>();
+	private final Map<String,VariableCB> variables = new HashMap<>();
+	private final Map<String,UnitCB> units = new HashMap<>();
+	private String environmentSignature;
+	private ConditionExpressionCache expressionCache;
+
 	/**
 	 * ConditionInterpreter interpretes course conditions.
 	 *
@@ -84,101 +97,189 @@ public class ConditionInterpreter {
 			translator = Util.createPackageTranslator(ConditionInterpreter.class, cev.getEditorEnvLocale());
 		}
 
-		env = new Environment();
-
 		// constants: add for user convenience
-		env.addConstant("true", 1);
-		env.addConstant("false", 0);
+		addConstant("true", 1);
+		addConstant("false", 0);
 
 		// variables
-		env.addVariable(NowVariable.name, new NowVariable(userCourseEnv));
-		env.addVariable(TodayVariable.name, new TodayVariable(userCourseEnv));
-		env.addVariable(NeverVariable.name, new NeverVariable(userCourseEnv));
-		env.addVariable(AnyCourseVariable.name, new AnyCourseVariable());
+		addVariable(NowVariable.name, new NowVariable(userCourseEnv));
+		addVariable(TodayVariable.name, new TodayVariable(userCourseEnv));
+		addVariable(NeverVariable.name, new NeverVariable(userCourseEnv));
+		addVariable(AnyCourseVariable.name, new AnyCourseVariable());
 
 		// functions
-		env.addFunction(DateFunction.name, new DateFunction(userCourseEnv));
-		env.addFunction("inGroup", new InLearningGroupFunction(userCourseEnv, "inGroup")); // legacy
-		env.addFunction("inLearningGroup", new InLearningGroupFunction(userCourseEnv, "inLearningGroup"));
-		env.addFunction("isLearningGroupFull", new IsLearningGroupFullFunction(userCourseEnv));
-		env.addFunction(InRightGroupFunction.name, new InRightGroupFunction(userCourseEnv));
-		env.addFunction(InLearningAreaFunction.name, new InLearningAreaFunction(userCourseEnv));
-		env.addFunction(IsUserFunction.name, new IsUserFunction(userCourseEnv));
-		env.addFunction(IsGuestFunction.name, new IsGuestFunction(userCourseEnv));
-		env.addFunction(IsGlobalAuthorFunction.name, new IsGlobalAuthorFunction(userCourseEnv));
-		env.addFunction(Sleep.name, new Sleep(userCourseEnv));
+		addFunction(DateFunction.name, new DateFunction(userCourseEnv));
+		addFunction("inGroup", new InLearningGroupFunction(userCourseEnv, "inGroup")); // legacy
+		addFunction("inLearningGroup", new InLearningGroupFunction(userCourseEnv, "inLearningGroup"));
+		addFunction("isLearningGroupFull", new IsLearningGroupFullFunction(userCourseEnv));
+		addFunction(InRightGroupFunction.name, new InRightGroupFunction(userCourseEnv));
+		addFunction(InLearningAreaFunction.name, new InLearningAreaFunction(userCourseEnv));
+		addFunction(IsUserFunction.name, new IsUserFunction(userCourseEnv));
+		addFunction(IsGuestFunction.name, new IsGuestFunction(userCourseEnv));
+		addFunction(IsGlobalAuthorFunction.name, new IsGlobalAuthorFunction(userCourseEnv));
+		addFunction(Sleep.name, new Sleep(userCourseEnv));
 		EvalAttributeFunction eaf;
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_HAS_ATTRIBUTE);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_IS_IN_ATTRIBUTE);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_HAS_NOT_ATTRIBUTE);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_IS_NOT_IN_ATTRIBUTE);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_ATTRIBUTE_ENDS_WITH);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_ATTRIBUTE_STARTS_WITH);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		EvalUserPropertyFunction eupf;
 		eupf = new EvalUserPropertyFunction(userCourseEnv, EvalUserPropertyFunction.FUNCTION_TYPE_HAS_NOT_PROPERTY);
-		env.addFunction(EvalUserPropertyFunction.FUNCTION_NAME_HAS_NOT_PROPERTY, eupf);
+		addFunction(EvalUserPropertyFunction.FUNCTION_NAME_HAS_NOT_PROPERTY, eupf);
 		eupf = new EvalUserPropertyFunction(userCourseEnv, EvalUserPropertyFunction.FUNCTION_TYPE_HAS_PROPERTY);
-		env.addFunction(EvalUserPropertyFunction.FUNCTION_NAME_HAS_PROPERTY, eupf);
+		addFunction(EvalUserPropertyFunction.FUNCTION_NAME_HAS_PROPERTY, eupf);
 		eupf = new EvalUserPropertyFunction(userCourseEnv, EvalUserPropertyFunction.FUNCTION_TYPE_IS_IN_PROPERTY);
-		env.addFunction(EvalUserPropertyFunction.FUNCTION_NAME_IS_IN_PROPERTY, eupf);
+		addFunction(EvalUserPropertyFunction.FUNCTION_NAME_IS_IN_PROPERTY, eupf);
 		eupf = new EvalUserPropertyFunction(userCourseEnv, EvalUserPropertyFunction.FUNCTION_TYPE_IS_NOT_IN_PROPERTY);
-		env.addFunction(EvalUserPropertyFunction.FUNCTION_NAME_IS_NOT_IN_PROPERTY, eupf);
+		addFunction(EvalUserPropertyFunction.FUNCTION_NAME_IS_NOT_IN_PROPERTY, eupf);
 		eupf = new EvalUserPropertyFunction(userCourseEnv, EvalUserPropertyFunction.FUNCTION_TYPE_PROPERTY_ENDS_WITH);
-		env.addFunction(EvalUserPropertyFunction.FUNCTION_NAME_PROPERTY_ENDS_WITH, eupf);
+		addFunction(EvalUserPropertyFunction.FUNCTION_NAME_PROPERTY_ENDS_WITH, eupf);
 		eupf = new EvalUserPropertyFunction(userCourseEnv, EvalUserPropertyFunction.FUNCTION_TYPE_PROPERTY_STARTS_WITH);
-		env.addFunction(EvalUserPropertyFunction.FUNCTION_NAME_PROPERTY_STARTS_WITH, eupf);
-		env.addFunction(GetUserPropertyFunction.name, new GetUserPropertyFunction(userCourseEnv));
-		env.addFunction(GetUserCourseDBFunction.name, new GetUserCourseDBFunction(userCourseEnv));
-		env.addFunction(HasLanguageFunction.name, new HasLanguageFunction(userCourseEnv));
-		env.addFunction(InInstitutionFunction.name, new InInstitutionFunction(userCourseEnv));
-		env.addFunction(IsCourseCoachFunction.name, new IsCourseCoachFunction(userCourseEnv));
-		env.addFunction(IsCourseParticipantFunction.name, new IsCourseParticipantFunction(userCourseEnv));
-		env.addFunction(IsCourseAdministratorFunction.name, new IsCourseAdministratorFunction(userCourseEnv));
-		env.addFunction(IsInOrganisationFunction.name, new IsInOrganisationFunction(userCourseEnv));
+		addFunction(EvalUserPropertyFunction.FUNCTION_NAME_PROPERTY_STARTS_WITH, eupf);
+		addFunction(GetUserPropertyFunction.name, new GetUserPropertyFunction(userCourseEnv));
+		addFunction(GetUserCourseDBFunction.name, new GetUserCourseDBFunction(userCourseEnv));
+		addFunction(HasLanguageFunction.name, new HasLanguageFunction(userCourseEnv));
+		addFunction(InInstitutionFunction.name, new InInstitutionFunction(userCourseEnv));
+		addFunction(IsCourseCoachFunction.name, new IsCourseCoachFunction(userCourseEnv));
+		addFunction(IsCourseParticipantFunction.name, new IsCourseParticipantFunction(userCourseEnv));
+		addFunction(IsCourseAdministratorFunction.name, new IsCourseAdministratorFunction(userCourseEnv));
+		addFunction(IsInOrganisationFunction.name, new IsInOrganisationFunction(userCourseEnv));
 		
-		env.addFunction(IsAssessmentModeFunction.name, new IsAssessmentModeFunction(userCourseEnv));
-		env.addFunction(GetCourseBeginDateFunction.name, new GetCourseBeginDateFunction(userCourseEnv));
-		env.addFunction(GetCourseEndDateFunction.name, new GetCourseEndDateFunction(userCourseEnv));
-		env.addFunction(GetInitialCourseLaunchDateFunction.name, new GetInitialCourseLaunchDateFunction(userCourseEnv));
-		env.addFunction(GetRecentCourseLaunchDateFunction.name, new GetRecentCourseLaunchDateFunction(userCourseEnv));
+		addFunction(IsAssessmentModeFunction.name, new IsAssessmentModeFunction(userCourseEnv));
+		addFunction(GetCourseBeginDateFunction.name, new GetCourseBeginDateFunction(userCourseEnv));
+		addFunction(GetCourseEndDateFunction.name, new GetCourseEndDateFunction(userCourseEnv));
+		addFunction(GetInitialCourseLaunchDateFunction.name, new GetInitialCourseLaunchDateFunction(userCourseEnv));
+		addFunction(GetRecentCourseLaunchDateFunction.name, new GetRecentCourseLaunchDateFunction(userCourseEnv));
 
-		env.addFunction(GetAttemptsFunction.name, new GetAttemptsFunction(userCourseEnv));
-		env.addFunction(GetLastAttemptDateFunction.name, new GetLastAttemptDateFunction(userCourseEnv));
+		addFunction(GetAttemptsFunction.name, new GetAttemptsFunction(userCourseEnv));
+		addFunction(GetLastAttemptDateFunction.name, new GetLastAttemptDateFunction(userCourseEnv));
 
 		// enrollment building block specific functions
-		env.addFunction(GetInitialEnrollmentDateFunction.name, new GetInitialEnrollmentDateFunction(userCourseEnv));
-		env.addFunction(GetRecentEnrollmentDateFunction.name, new GetRecentEnrollmentDateFunction(userCourseEnv));
+		addFunction(GetInitialEnrollmentDateFunction.name, new GetInitialEnrollmentDateFunction(userCourseEnv));
+		addFunction(GetRecentEnrollmentDateFunction.name, new GetRecentEnrollmentDateFunction(userCourseEnv));
 
 		// functions to calculate score
-		env.addFunction(GetPassedFunction.name, new GetPassedFunction(userCourseEnv));
-		env.addFunction(GetScoreFunction.name, new GetScoreFunction(userCourseEnv));
-		env.addFunction(GetAverageScoreFunction.NAME, new GetAverageScoreFunction(userCourseEnv));
-		env.addFunction(GetPassedWithCourseIdFunction.name, new GetPassedWithCourseIdFunction(userCourseEnv));
-		env.addFunction(GetScoreWithCourseIdFunction.name, new GetScoreWithCourseIdFunction(userCourseEnv));
+		addFunction(GetPassedFunction.name, new GetPassedFunction(userCourseEnv));
+		addFunction(GetScoreFunction.name, new GetScoreFunction(userCourseEnv));
+		addFunction(GetAverageScoreFunction.NAME, new GetAverageScoreFunction(userCourseEnv));
+		addFunction(GetPassedWithCourseIdFunction.name, new GetPassedWithCourseIdFunction(userCourseEnv));
+		addFunction(GetScoreWithCourseIdFunction.name, new GetScoreWithCourseIdFunction(userCourseEnv));
 
 	  
-		env.addFunction(GetOnyxTestOutcomeNumFunction.name, new GetOnyxTestOutcomeNumFunction(userCourseEnv));
-		env.addFunction(GetOnyxTestOutcomeAnumFunction.name, new GetOnyxTestOutcomeAnumFunction(userCourseEnv));
+		addFunction(GetOnyxTestOutcomeNumFunction.name, new GetOnyxTestOutcomeNumFunction(userCourseEnv));
+		addFunction(GetOnyxTestOutcomeAnumFunction.name, new GetOnyxTestOutcomeAnumFunction(userCourseEnv));
 		
 
 		// units
-		env.addUnit("min", new MinuteUnit());
-		env.addUnit("h", new HourUnit());
-		env.addUnit("d", new DayUnit());
-		env.addUnit("w", new WeekUnit());
-		env.addUnit("m", new MonthUnit());
+		addUnit("min", new MinuteUnit());
+		addUnit("h", new HourUnit());
+		addUnit("d", new DayUnit());
+		addUnit("w", new WeekUnit());
+		addUnit("m", new MonthUnit());
 	}
 	
 
 	public UserCourseEnvironment getUserCourseEnvironment() {
 		return uce;
 	}
+	
+	/**
+	 * Remove all constants, functions, variables and units.
+	 */
+	protected void resetEnvironment() {
+		constants.clear();
+		functions.clear();
+		variables.clear();
+		units.clear();
+		environmentSignature = null;
+	}
+	
+	protected void addConstant(String name, int value) {
+		constants.put(name, Integer.valueOf(value));
+		environmentSignature = null;
+	}
+	
+	protected void addFunction(String name, FunctionCB function) {
+		functions.put(name, function);
+		environmentSignature = null;
+	}
+	
+	protected void addVariable(String name, VariableCB variable) {
+		variables.put(name, variable);
+		environmentSignature = null;
+	}
+	
+	protected void addUnit(String name, UnitCB unit) {
+		units.put(name, unit);
+		environmentSignature = null;
+	}
+	
+	Map<String,Integer> getConstants() {
+		return constants;
+	}
+	
+	Map<String,FunctionCB> getFunctions() {
+		return functions;
+	}
+	
+	Map<String,VariableCB> getVariables() {
+		return variables;
+	}
+	
+	Map<String,UnitCB> getUnits() {
+		return units;
+	}
+	
+	/**
+	 * The signature is the same for all the interpreters which define the same
+	 * constants, functions, variables and units. They can share the parsed
+	 * expressions.
+	 * 
+	 * @return A string which identifies the names available to the expressions
+	 */
+	String getEnvironmentSignature() {
+		if(environmentSignature == null) {
+			StringBuilder sb = new StringBuilder(1024);
+			for(Map.Entry<String,Integer> constant:new TreeMap<>(constants).entrySet()) {
+				sb.append("c:").append(constant.getKey()).append('=').append(constant.getValue()).append(';');
+			}
+			for(String name:new TreeSet<>(functions.keySet())) {
+				sb.append("f:").append(name).append(';');
+			}
+			for(String name:new TreeSet<>(variables.keySet())) {
+				sb.append("v:").append(name).append(';');
+			}
+			for(String name:new TreeSet<>(units.keySet())) {
+				sb.append("u:").append(name).append(';');
+			}
+			environmentSignature = sb.toString();
+		}
+		return environmentSignature;
+	}
+	
+	Long getCourseResourceableId() {
+		if(uce.getCourseEditorEnv() != null) {
+			// the editor environment has no course environment
+			return null;
+		}
+		CourseEnvironment courseEnv = uce.getCourseEnvironment();
+		return courseEnv == null ? null : courseEnv.getCourseResourceableId();
+	}
+	
+	private Object evaluateExpression(String expression) throws XExpression {
+		if(expressionCache == null) {
+			expressionCache = CoreSpringFactory.getImpl(ConditionExpressionCache.class);
+		}
+		return expressionCache.evaluate(expression, this);
+	}
 
 	/**
 	 * @param expression
@@ -196,8 +297,7 @@ public class ConditionInterpreter {
 			 * environment.
 			 */
 			String conditionString = condExpr.getExptressionString();
-			Expression exp = new Expression(conditionString, env);
-			exp.evaluate();
+			evaluateExpression(conditionString);
 			Exception[] condExceptions = condExpr.getExceptions();
 			ConditionErrorMessage[] cems = null;
 			if (condExceptions != null && condExceptions.length > 0) {
@@ -322,8 +422,7 @@ public class ConditionInterpreter {
 
 	private float doEvaluateCalculation(String calculation) throws ParseException {
 		try {
-			Expression exp = new Expression(calculation, env);
-			Object result = exp.evaluate();
+			Object result = evaluateExpression(calculation);
 			if (result instanceof Double) {
 				return ((Double) result).floatValue();
 			} else if (result instanceof Integer) {
@@ -343,8 +442,7 @@ public class ConditionInterpreter {
 	 */
 	private boolean doEvaluateCondition(String condition) throws ParseException {
 		try {
-			Expression exp = new Expression(condition, env);
-			Object result = exp.evaluate();
+			Object result = evaluateExpression(condition);
 			if (result instanceof Double) {
 				return (((Double) result).doubleValue() == 1.0);
 			} else if (result instanceof Integer) {
@@ -33,8 +33,6 @@ import org.olat.course.condition.interpreter.score.GetScoreWithCourseIdFunction;
 import org.olat.course.db.interpreter.GetUserCourseDBFunction;
 import org.olat.course.run.userview.UserCourseEnvironment;
 
-import com.neemsoft.jmep.Environment;
-
 /**
  * Special condition-interpreter for assessment tool group- / course-structure-selection.
  * This condition-interpreter evalute only group conditions and insert dummy function for all 
@@ -52,76 +50,76 @@ public class OnlyGroupConditionInterpreter extends ConditionInterpreter{
 	public OnlyGroupConditionInterpreter(UserCourseEnvironment userCourseEnv) {
 		super(userCourseEnv);
 
-		env = new Environment();
+		resetEnvironment();
 
 		// constants: add for user convenience
-		env.addConstant("true", 1);
-		env.addConstant("false", 0);
+		addConstant("true", 1);
+		addConstant("false", 0);
 
 		// variables
-		env.addVariable(NowVariable.name, new DummyVariable(userCourseEnv));
-		env.addVariable(NeverVariable.name, new NeverVariable(userCourseEnv));
+		addVariable(NowVariable.name, new DummyVariable(userCourseEnv));
+		addVariable(NeverVariable.name, new NeverVariable(userCourseEnv));
 
 		// functions
-		env.addFunction(DateFunction.name, new DummyDateFunction(userCourseEnv));
-		env.addFunction("inGroup", new InLearningGroupFunction(userCourseEnv, "inGroup")); // legacy
-		env.addFunction("inLearningGroup", new InLearningGroupFunction(userCourseEnv, "inLearningGroup"));
-		env.addFunction(InRightGroupFunction.name, new InRightGroupFunction(userCourseEnv));
-		env.addFunction(InLearningAreaFunction.name, new InLearningAreaFunction(userCourseEnv));
-		env.addFunction(IsUserFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(IsGuestFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(IsGlobalAuthorFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(Sleep.name, new Sleep(userCourseEnv));
-		env.addFunction("hasAttribute", new DummyBooleanFunction(userCourseEnv));
-		env.addFunction("isInAttribute", new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(GetUserPropertyFunction.name, new DummyStringFunction(userCourseEnv));
-		env.addFunction(GetUserCourseDBFunction.name, new DummyStringFunction(userCourseEnv));
-		env.addFunction(HasLanguageFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(InInstitutionFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(IsCourseCoachFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(IsCourseParticipantFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(IsCourseAdministratorFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(IsInOrganisationFunction.name, new IsInOrganisationFunction(userCourseEnv));
-		env.addFunction(IsAssessmentModeFunction.name, new DummyBooleanFunction(userCourseEnv));
-
-		env.addFunction(GetAttemptsFunction.name, new DummyIntegerFunction(userCourseEnv));
-
-		env.addFunction(GetCourseBeginDateFunction.name, new GetCourseBeginDateFunction(userCourseEnv));
-		env.addFunction(GetCourseEndDateFunction.name, new GetCourseEndDateFunction(userCourseEnv));
-		env.addFunction(GetInitialCourseLaunchDateFunction.name, new GetInitialCourseLaunchDateFunction(userCourseEnv));
-		env.addFunction(GetRecentCourseLaunchDateFunction.name, new GetRecentCourseLaunchDateFunction(userCourseEnv));
+		addFunction(DateFunction.name, new DummyDateFunction(userCourseEnv));
+		addFunction("inGroup", new InLearningGroupFunction(userCourseEnv, "inGroup")); // legacy
+		addFunction("inLearningGroup", new InLearningGroupFunction(userCourseEnv, "inLearningGroup"));
+		addFunction(InRightGroupFunction.name, new InRightGroupFunction(userCourseEnv));
+		addFunction(InLearningAreaFunction.name, new InLearningAreaFunction(userCourseEnv));
+		addFunction(IsUserFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(IsGuestFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(IsGlobalAuthorFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(Sleep.name, new Sleep(userCourseEnv));
+		addFunction("hasAttribute", new DummyBooleanFunction(userCourseEnv));
+		addFunction("isInAttribute", new DummyBooleanFunction(userCourseEnv));
+		addFunction(GetUserPropertyFunction.name, new DummyStringFunction(userCourseEnv));
+		addFunction(GetUserCourseDBFunction.name, new DummyStringFunction(userCourseEnv));
+		addFunction(HasLanguageFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(InInstitutionFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(IsCourseCoachFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(IsCourseParticipantFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(IsCourseAdministratorFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(IsInOrganisationFunction.name, new IsInOrganisationFunction(userCourseEnv));
+		addFunction(IsAssessmentModeFunction.name, new DummyBooleanFunction(userCourseEnv));
+
+		addFunction(GetAttemptsFunction.name, new DummyIntegerFunction(userCourseEnv));
+
+		addFunction(GetCourseBeginDateFunction.name, new GetCourseBeginDateFunction(userCourseEnv));
+		addFunction(GetCourseEndDateFunction.name, new GetCourseEndDateFunction(userCourseEnv));
+		addFunction(GetInitialCourseLaunchDateFunction.name, new GetInitialCourseLaunchDateFunction(userCourseEnv));
+		addFunction(GetRecentCourseLaunchDateFunction.name, new GetRecentCourseLaunchDateFunction(userCourseEnv));
 
 		EvalAttributeFunction eaf;
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_HAS_ATTRIBUTE);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_IS_IN_ATTRIBUTE);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_HAS_NOT_ATTRIBUTE);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_IS_NOT_IN_ATTRIBUTE);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_ATTRIBUTE_ENDS_WITH);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		eaf = new EvalAttributeFunction(userCourseEnv, EvalAttributeFunction.FUNCTION_TYPE_ATTRIBUTE_STARTS_WITH);
-		env.addFunction(eaf.name, eaf);
+		addFunction(eaf.name, eaf);
 		
 		// enrollment building block specific functions
-		env.addFunction(GetInitialEnrollmentDateFunction.name, new DummyDateFunction(userCourseEnv));
-		env.addFunction(GetRecentEnrollmentDateFunction.name, new DummyDateFunction(userCourseEnv));
+		addFunction(GetInitialEnrollmentDateFunction.name, new DummyDateFunction(userCourseEnv));
+		addFunction(GetRecentEnrollmentDateFunction.name, new DummyDateFunction(userCourseEnv));
 
 		// functions to calculate score
-		env.addFunction(GetPassedFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(GetScoreFunction.name, new DummyDoubleFunction(userCourseEnv));
-		env.addFunction(GetAverageScoreFunction.NAME, new DummyDoubleFunction(userCourseEnv));
-		env.addFunction(GetPassedWithCourseIdFunction.name, new DummyBooleanFunction(userCourseEnv));
-		env.addFunction(GetScoreWithCourseIdFunction.name, new DummyDoubleFunction(userCourseEnv));
+		addFunction(GetPassedFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(GetScoreFunction.name, new DummyDoubleFunction(userCourseEnv));
+		addFunction(GetAverageScoreFunction.NAME, new DummyDoubleFunction(userCourseEnv));
+		addFunction(GetPassedWithCourseIdFunction.name, new DummyBooleanFunction(userCourseEnv));
+		addFunction(GetScoreWithCourseIdFunction.name, new DummyDoubleFunction(userCourseEnv));
 
 		// units
-		env.addUnit("min", new MinuteUnit());
-		env.addUnit("h", new HourUnit());
-		env.addUnit("d", new DayUnit());
-		env.addUnit("w", new WeekUnit());
-		env.addUnit("m", new MonthUnit());
+		addUnit("min", new MinuteUnit());
+		addUnit("h", new HourUnit());
+		addUnit("d", new DayUnit());
+		addUnit("w", new WeekUnit());
+		addUnit("m", new MonthUnit());
 	}
 
 }
@@ -24,6 +24,7 @@
 */
 package org.olat.course.config;
 
+import org.olat.core.util.event.CoalescableEvent;
 import org.olat.core.util.event.MultiUserEvent;
 
 /**
@@ -35,7 +36,7 @@ import org.olat.core.util.event.MultiUserEvent;
  * Initial Date:  09.12.2008 <br>
  * @author Lavinia Dumitrescu
  */
-public class CourseConfigEvent extends MultiUserEvent {
+public class CourseConfigEvent extends MultiUserEvent implements CoalescableEvent {
 
 	private static final long serialVersionUID = 7362131099407009869L;
 
@@ -56,6 +57,11 @@ public class CourseConfigEvent extends MultiUserEvent {
 		return type;
 	}
 	
+	@Override
+	public String getCoalescingKey() {
+		return resourceableId == null ? null : resourceableId.toString();
+	}
+
 	public enum CourseConfigType {
 		efficiencyStatement,
 		calendar,
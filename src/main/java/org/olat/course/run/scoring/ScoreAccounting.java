@@ -67,6 +67,7 @@ public class ScoreAccounting {
 	private static final Logger log = Tracing.createLoggerFor(ScoreAccounting.class);
 
 	private boolean error;
+	private boolean staleEntries;
 	private final UserCourseEnvironment userCourseEnvironment;
 	private final Map<AssessableCourseNode, AssessmentEvaluation> cachedScoreEvals = new HashMap<>();
 
@@ -89,8 +90,34 @@ public class ScoreAccounting {
 		Identity identity = userCourseEnvironment.getIdentityEnvironment().getIdentity();
 		List<AssessmentEntry> entries = userCourseEnvironment.getCourseEnvironment()
 				.getAssessmentManager().getAssessmentEntries(identity);
-
-		AssessableTreeVisitor visitor = new AssessableTreeVisitor(entries, update);
+		return evaluateAll(update, entries, false);
+	}
+	
+	/**
+	 * Evaluate all the course nodes with assessment entries already loaded,
+	 * used by the batch which recalculate the efficiency statements. The entries
+	 * can be stale, an entry of a calculated node is only written if it wasn't
+	 * modified since it was loaded. If not, nothing is written for this node
+	 * and hasStaleEntries() returns true.
+	 * 
+	 * @param update true to update the calculated nodes
+	 * @param entries All the assessment entries of the user in the course
+	 * @return true if some assessment entries were changed
+	 */
+	public boolean evaluateAll(boolean update, List<AssessmentEntry> entries) {
+		return evaluateAll(update, entries, true);
+	}
+	
+	/**
+	 * @return true if the last evaluation found an entry which was modified
+	 * 		since it was loaded and didn't update it
+	 */
+	public boolean hasStaleEntries() {
+		return staleEntries;
+	}
+	
+	private boolean evaluateAll(boolean update, List<AssessmentEntry> entries, boolean checkStaleness) {
+		AssessableTreeVisitor visitor = new AssessableTreeVisitor(entries, update, checkStaleness);
 		// collect all assessable nodes and eval 'em
 		CourseNode root = userCourseEnvironment.getCourseEnvironment().getRunStructure().getRootNode();
 		// breadth first traversal gives an easier order of evaluation for debugging
@@ -100,6 +127,7 @@ public class ScoreAccounting {
 		// 10 time performance differences) 
 
 		cachedScoreEvals.clear();
+		staleEntries = false;
 		for(AssessmentEntry entry:entries) {
 			String nodeIdent = entry.getSubIdent();
 			CourseNode courseNode = userCourseEnvironment.getCourseEnvironment().getRunStructure().getNode(nodeIdent);
@@ -118,12 +146,14 @@ public class ScoreAccounting {
 	private class AssessableTreeVisitor implements Visitor {
 		
 		private final boolean update;
+		private final boolean checkStaleness;
 		private boolean changes = false;
 		private int recursionLevel = 0;
 		private final Map<String,AssessmentEntry> identToEntries = new HashMap<>();
 		
-		public AssessableTreeVisitor(List<AssessmentEntry> entries, boolean update) {
+		public AssessableTreeVisitor(List<AssessmentEntry> entries, boolean update, boolean checkStaleness) {
 			this.update = update;
+			this.checkStaleness = checkStaleness;
 			for(AssessmentEntry entry:entries) {
 				String ident = entry.getSubIdent();
 				if(identToEntries.containsKey(ident)) {
@@ -140,6 +170,36 @@ public class ScoreAccounting {
 		public boolean hasChanges() {
 			return changes;
 		}
+		
+		/**
+		 * Check against the database that the entry was not created or modified
+		 * since it was loaded.
+		 * 
+		 * @param entry The loaded entry or null if the user hasn't one
+		 * @param cNode The course node
+		 * @return true if the entry can be created or updated
+		 */
+		private boolean isUpToDate(AssessmentEntry entry, CourseNode cNode) {
+			if(!checkStaleness) {
+				return true;
+			}
+			
+			Identity assessedIdentity = userCourseEnvironment.getIdentityEnvironment().getIdentity();
+			AssessmentEntry currentEntry = userCourseEnvironment.getCourseEnvironment().getAssessmentManager()
+					.getAssessmentEntry(cNode, assessedIdentity);
+			boolean upToDate;
+			if(entry == null) {
+				upToDate = currentEntry == null;
+			} else {
+				upToDate = currentEntry != null && currentEntry.getLastModified() != null && entry.getLastModified() != null
+						&& currentEntry.getLastModified().compareTo(entry.getLastModified()) == 0;
+			}
+			if(!upToDate) {
+				staleEntries = true;
+				log.debug("Stale assessment entry of identity::{} at node::{}", assessedIdentity.getKey(), cNode.getIdent());
+			}
+			return upToDate;
+		}
 
 		@Override
 		public void visit(INode node) {
@@ -247,11 +307,13 @@ public class ScoreAccounting {
 						lastModified, lastModifications.getLastUserModified(), lastModifications.getLastCoachModified());
 				
 				if(entry == null) {
-					Identity assessedIdentity = userCourseEnvironment.getIdentityEnvironment().getIdentity();
-					userCourseEnvironment.getCourseEnvironment().getAssessmentManager()
-						.createAssessmentEntry(cNode, assessedIdentity, se);
-					changes = true;
-				} else if(!same(se, entry)) {
+					if(isUpToDate(entry, cNode)) {
+						Identity assessedIdentity = userCourseEnvironment.getIdentityEnvironment().getIdentity();
+						userCourseEnvironment.getCourseEnvironment().getAssessmentManager()
+							.createAssessmentEntry(cNode, assessedIdentity, se);
+						changes = true;
+					}
+				} else if(!same(se, entry) && isUpToDate(entry, cNode)) {
 					if(score != null) {
 						entry.setScore(new BigDecimal(score));
 					} else {
@@ -275,7 +337,8 @@ public class ScoreAccounting {
 				LastModifications lastModifications = new LastModifications();
 				updateLastModified(cNode, lastModifications);
 				if(entry == null) {
-					if(lastModifications.getLastCoachModified() != null || lastModifications.getLastUserModified() != null) {
+					if((lastModifications.getLastCoachModified() != null || lastModifications.getLastUserModified() != null)
+							&& isUpToDate(entry, cNode)) {
 						se = new AssessmentEvaluation(new Date(), lastModifications.getLastUserModified(), lastModifications.getLastCoachModified());
 						Identity assessedIdentity = userCourseEnvironment.getIdentityEnvironment().getIdentity();
 						userCourseEnvironment.getCourseEnvironment().getAssessmentManager()
@@ -294,7 +357,7 @@ public class ScoreAccounting {
 						entry.setLastUserModified(lastModifications.getLastUserModified());
 						updated = true;
 					}
-					if(updated) {
+					if(updated && isUpToDate(entry, cNode)) {
 						entry = userCourseEnvironment.getCourseEnvironment().getAssessmentManager().updateAssessmentEntry(entry);
 						identToEntries.put(cNode.getIdent(), entry);
 						changes = true;
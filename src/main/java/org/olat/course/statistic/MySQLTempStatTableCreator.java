@@ -25,8 +25,10 @@
 package org.olat.course.statistic;
 
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
@@ -81,12 +83,33 @@ public class MySQLTempStatTableCreator implements IStatisticUpdater {
 			long fromSeconds = from.getTime() / 1000l;
 			long untilSeconds = until.getTime() / 1000l;
 
-			long numLoggingActions = jdbcTemplate.update(
-					"insert into o_stat_temptable (creationdate,businesspath) " +
-						"select creationdate,businesspath" +
-						" from o_loggingtable" + 
-						" where actionverb='launch' and actionobject='node' and creationdate>from_unixtime(?) and creationdate<=from_unixtime(?);",
-						new SqlParameterValue(Types.VARCHAR, Long.toString(fromSeconds)), new SqlParameterValue(Types.VARCHAR, Long.toString(untilSeconds)));
+			Long fromLogKey = statisticUpdateManager.getUpdateFromLogKey();
+			Long untilLogKey = statisticUpdateManager.getUpdateUntilLogKey();
+			StringBuilder sb = new StringBuilder(256);
+			sb.append("insert into o_stat_temptable (creationdate,businesspath) ")
+			  .append("select creationdate,businesspath")
+			  .append(" from o_loggingtable")
+			  .append(" where actionverb='launch' and actionobject='node'");
+			List<SqlParameterValue> params = new ArrayList<>(2);
+			if(fromLogKey == null) {
+				sb.append(" and creationdate>from_unixtime(?)");
+				params.add(new SqlParameterValue(Types.VARCHAR, Long.toString(fromSeconds)));
+			} else {
+				log.info("updateStatistic: inserting logging actions with key greater than {}", fromLogKey);
+				sb.append(" and log_id>?");
+				params.add(new SqlParameterValue(Types.BIGINT, fromLogKey));
+			}
+			if(untilLogKey == null) {
+				sb.append(" and creationdate<=from_unixtime(?)");
+				params.add(new SqlParameterValue(Types.VARCHAR, Long.toString(untilSeconds)));
+			} else {
+				log.info("updateStatistic: inserting logging actions until key {}", untilLogKey);
+				sb.append(" and log_id<=?");
+				params.add(new SqlParameterValue(Types.BIGINT, untilLogKey));
+			}
+			sb.append(";");
+
+			long numLoggingActions = jdbcTemplate.update(sb.toString(), params.toArray());
 			log.info("updateStatistic: insert done. number of logging actions: {}", numLoggingActions);
 		} catch(Exception e) {
 			log.warn("updateStatistic: ran into a RuntimeException: ", e);
@@ -20,11 +20,14 @@
 package org.olat.course.statistic;
 
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
 
 /**
  * Drop and create the temporary table, copy the needed data.
@@ -70,12 +73,33 @@ public class PostgreSQLTempStatTableCreator implements IStatisticUpdater {
 			
 			log_.info("updateStatistic: inserting logging actions from "+from+" until "+until);
 			
-			int numLoggingActions = jdbcTemplate.update(
-					"insert into o_stat_temptable (creationdate,businesspath) " +
-						"select creationdate,businesspath" +
-						" from o_loggingtable" + 
-						 " where actionverb='launch' and actionobject='node' and creationdate>? and creationdate<=?;",
-						new Object[]{ from, until }, new int[]{ Types.TIMESTAMP, Types.TIMESTAMP});
+			Long fromLogKey = statisticUpdateManager.getUpdateFromLogKey();
+			Long untilLogKey = statisticUpdateManager.getUpdateUntilLogKey();
+			StringBuilder sb = new StringBuilder(256);
+			sb.append("insert into o_stat_temptable (creationdate,businesspath) ")
+			  .append("select creationdate,businesspath")
+			  .append(" from o_loggingtable")
+			  .append(" where actionverb='launch' and actionobject='node'");
+			List<SqlParameterValue> params = new ArrayList<>(2);
+			if(fromLogKey == null) {
+				sb.append(" and creationdate>?");
+				params.add(new SqlParameterValue(Types.TIMESTAMP, from));
+			} else {
+				log_.info("updateStatistic: inserting logging actions with key greater than " + fromLogKey);
+				sb.append(" and log_id>?");
+				params.add(new SqlParameterValue(Types.BIGINT, fromLogKey));
+			}
+			if(untilLogKey == null) {
+				sb.append(" and creationdate<=?");
+				params.add(new SqlParameterValue(Types.TIMESTAMP, until));
+			} else {
+				log_.info("updateStatistic: inserting logging actions until key " + untilLogKey);
+				sb.append(" and log_id<=?");
+				params.add(new SqlParameterValue(Types.BIGINT, untilLogKey));
+			}
+			sb.append(";");
+
+			int numLoggingActions = jdbcTemplate.update(sb.toString(), params.toArray());
 
 			log_.info("updateStatistic: insert done. number of logging actions: " + numLoggingActions);
 		} catch(RuntimeException e) {
@@ -57,6 +57,29 @@ public interface StatisticUpdateManager {
 	 */
 	public long getLastUpdated();
 	
+	/**
+	 * Returns the key of the last logging object folded into the statistics
+	 * (the high-water mark) - or -1 if it's not set
+	 * @return the existing LAST_UPDATED_LOG_KEY property's value - or -1 if it's not set
+	 */
+	public long getLastUpdatedLogKey();
+	
+	/**
+	 * The lower bound (exclusive) of the keys of the logging objects to process
+	 * by the update currently ongoing.
+	 * 
+	 * @return A key or null if the update ongoing is based on the creation date
+	 */
+	public Long getUpdateFromLogKey();
+	
+	/**
+	 * The upper bound (inclusive) of the keys of the logging objects to process
+	 * by the update currently ongoing.
+	 * 
+	 * @return A key or null if the update ongoing is based on the creation date
+	 */
+	public Long getUpdateUntilLogKey();
+	
 	/**
 	 * Update all statistics - that is, all that registered itself via addStatisticUpdater
 	 * @return whether or not the update could be started (returns false when this manager
@@ -59,6 +59,9 @@ class StatisticUpdateManagerImpl implements StatisticUpdateManager, GenericEvent
 	
 	/** the name used for last_updated property (in the o_properties table) **/
 	private static final String LAST_UPDATED_PROPERTY_NAME = "LAST_UPDATED";
+	
+	/** the name used for the high-water mark, the key of the last processed logging object (in the o_properties table) **/
+	private static final String LAST_UPDATED_LOG_KEY_PROPERTY_NAME = "LAST_UPDATED_LOG_KEY";
 
 	/** the event string used to ensure that only one StatisticUpdateManagerImpl is active in a cluster **/
 	private static final String STARTUP_EVENT = "startupEvent";
@@ -73,6 +76,13 @@ class StatisticUpdateManagerImpl implements StatisticUpdateManager, GenericEvent
 	
 	boolean updateOngoing_ = false;
 	
+	/** the bounds of the keys of the logging objects processed by the ongoing update **/
+	private volatile Long updateFromLogKey_;
+	private volatile Long updateUntilLogKey_;
+	
+	/** SingleVM or Cluster **/
+	private String clusterMode_;
+	
 	private TaskExecutorManager taskExecutorManager;
 	
 	/** spring **/
@@ -95,6 +105,26 @@ class StatisticUpdateManagerImpl implements StatisticUpdateManager, GenericEvent
 		enabled_ = enabled;
 	}
 	
+	/**
+	 * [used by Spring]
+	 * @param clusterMode SingleVM or Cluster
+	 */
+	public void setClusterMode(String clusterMode) {
+		clusterMode_ = clusterMode;
+	}
+	
+	/**
+	 * The keys of the logging objects are generated with a hi/lo algorithm. On
+	 * a single node they are monotonic, in a cluster every node allocates its
+	 * own blocks of keys and a key based high-water mark would skip the logs
+	 * of the nodes with a lower block. Clusters update by creation date.
+	 * 
+	 * @return true if the high-water mark is the key of the logging objects
+	 */
+	boolean isLogKeyWatermark() {
+		return !"Cluster".equalsIgnoreCase(clusterMode_);
+	}
+	
 	/**
 	 * [used by Spring]
 	 * @param taskExecutorManager
@@ -152,6 +182,15 @@ class StatisticUpdateManagerImpl implements StatisticUpdateManager, GenericEvent
 					Date lastUpdatedDate = new Date(lastUpdatedInMilliseconds);
 					Date nowDate = new Date(nowInMilliseconds);
 
+					if(isLogKeyWatermark()) {
+						// the statistics are folded by keys up to this one, the dates are only a fallback for the lower bound
+						long maxLogKey = getMaxLogKey();
+						long lastUpdatedLogKey = getAndUpdateLastUpdatedLogKey(maxLogKey);
+						updateFromLogKey_ = (fullRecalculation || lastUpdatedLogKey == -1) ? null : Long.valueOf(lastUpdatedLogKey);
+						updateUntilLogKey_ = Long.valueOf(maxLogKey);
+						log_.info("updateStatistics: logging objects with key from " + updateFromLogKey_ + " until " + updateUntilLogKey_);
+					}
+
 					log_.info("updateStatistics: starting the update");
 					DBFactory.getInstance().intermediateCommit();
 					for (Iterator<IStatisticUpdater> it = updaters_.iterator(); it.hasNext();) {
@@ -162,6 +201,8 @@ class StatisticUpdateManagerImpl implements StatisticUpdateManager, GenericEvent
 						DBFactory.getInstance().intermediateCommit();
 					}
 				} finally {
+					updateFromLogKey_ = null;
+					updateUntilLogKey_ = null;
 					synchronized(StatisticUpdateManagerImpl.this) {
 						updateOngoing_ = false;
 					}
@@ -216,6 +257,54 @@ class StatisticUpdateManagerImpl implements StatisticUpdateManager, GenericEvent
 		}
 	}
 	
+	@Override
+	public long getLastUpdatedLogKey() {
+		PropertyManager pm = PropertyManager.getInstance();
+		Property p = pm.findProperty(null, null, null, STATISTICS_PROPERTIES_CATEGORY, LAST_UPDATED_LOG_KEY_PROPERTY_NAME);
+		if (p==null || p.getLongValue()==null) {
+			return -1;
+		} else {
+			return p.getLongValue();
+		}
+	}
+	
+	/**
+	 * Sets the LAST_UPDATED_LOG_KEY property to the given value
+	 * @param lastLogKey the key of the last logging object processed
+	 * @return the previous value or -1 if it's not set
+	 */
+	private long getAndUpdateLastUpdatedLogKey(long lastLogKey) {
+		PropertyManager pm = PropertyManager.getInstance();
+		Property p = pm.findProperty(null, null, null, STATISTICS_PROPERTIES_CATEGORY, LAST_UPDATED_LOG_KEY_PROPERTY_NAME);
+		if (p==null) {
+			Property newp = pm.createPropertyInstance(null, null, null, STATISTICS_PROPERTIES_CATEGORY, LAST_UPDATED_LOG_KEY_PROPERTY_NAME, null, lastLogKey, null, null);
+			pm.saveProperty(newp);
+			return -1;
+		} else {
+			final long result = p.getLongValue() == null ? -1 : p.getLongValue();
+			p.setLongValue(lastLogKey);
+			pm.saveProperty(p);
+			return result;
+		}
+	}
+	
+	private long getMaxLogKey() {
+		List<Long> maxKeys = DBFactory.getInstance().getCurrentEntityManager()
+				.createQuery("select max(log.key) from loggingobject log", Long.class)
+				.getResultList();
+		return maxKeys.isEmpty() || maxKeys.get(0) == null ? -1 : maxKeys.get(0).longValue();
+	}
+	
+	@Override
+	public Long getUpdateFromLogKey() {
+		return updateFromLogKey_;
+	}
+	
+	@Override
+	public Long getUpdateUntilLogKey() {
+		return updateUntilLogKey_;
+	}
+	
 	@Override
 	public void event(Event event) {
 		// event from EventBus
@@ -23,7 +23,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.TypedQuery;
 
@@ -366,6 +370,30 @@ public class BusinessGroupRelationDAO {
 				.getResultList();
 	}
 	
+	/**
+	 * @param group The business group
+	 * @return The roles of every member of the business group (identity key -> roles)
+	 */
+	public Map<Long,Set<String>> getMemberRoles(BusinessGroupRef group) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select membership.identity.key, membership.role from businessgroup as bgroup ")
+		  .append(" inner join bgroup.baseGroup as baseGroup")
+		  .append(" inner join baseGroup.members as membership")
+		  .append(" where bgroup.key=:businessGroupKey");
+		
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Object[].class)
+				.setParameter("businessGroupKey", group.getKey())
+				.getResultList();
+		Map<Long,Set<String>> memberRoles = new HashMap<>();
+		for(Object[] rawObject:rawObjects) {
+			Long identityKey = (Long)rawObject[0];
+			String role = (String)rawObject[1];
+			memberRoles.computeIfAbsent(identityKey, key -> new HashSet<>(4)).add(role);
+		}
+		return memberRoles;
+	}
+	
 	public List<Long> getMemberKeysOrderByDate(BusinessGroupRef group, String... roles) {
 		StringBuilder sb = new StringBuilder();
 		sb.append("select membership.identity.key from businessgroup as bgroup ")
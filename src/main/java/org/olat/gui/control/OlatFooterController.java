@@ -89,6 +89,8 @@ public class OlatFooterController extends BasicController implements LockableCon
 		setTranslator(Util.createPackageTranslator(BaseFullWebappController.class, getLocale(), Util.createPackageTranslator(OlatFooterController.class,getLocale())));
 
 		olatFootervc = createVelocityContainer("olatFooter");
+		// the context only holds strings and configuration wrappers
+		olatFootervc.setRenderCacheEnabled(true);
 
 		Identity identity = ureq.getIdentity();
 		UserSession usess = ureq.getUserSession();
@@ -19,6 +19,7 @@
  */
 package org.olat.ims.qti21.manager;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -84,6 +85,27 @@ public class AssessmentResponseDAO {
 				.getResultList();
 	}
 	
+	/**
+	 * Load the responses of a window of test sessions with their item sessions.
+	 * 
+	 * @param testSessionKeys The primary keys of the test sessions
+	 * @return The responses ordered by the test session key
+	 */
+	public List<AssessmentResponse> getResponses(Collection<Long> testSessionKeys) {
+		if(testSessionKeys == null || testSessionKeys.isEmpty()) return new ArrayList<>();
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append("select response from qtiassessmentresponse response")
+		  .append(" inner join fetch response.assessmentItemSession itemSession")
+		  .append(" inner join itemSession.assessmentTestSession testSession")
+		  .append(" where testSession.key in (:assessmentTestSessionKeys)")
+		  .append(" order by testSession.key, response.key");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), AssessmentResponse.class)
+				.setParameter("assessmentTestSessionKeys", testSessionKeys)
+				.getResultList();
+	}
+	
 	public void save(Collection<AssessmentResponse> responses) {
 		if(responses != null && responses.isEmpty()) return;
 		
@@ -0,0 +1,392 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.OLATRuntimeException;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Storage of the states of the test and item sessions. By default, the states
+ * are written as XML files in the storage of the session after every
+ * interaction of the candidate.<br>
+ * If the journal is enabled, the states are appended deflated to a journal
+ * per session (one sequential write instead of rewriting the XML files) and
+ * hold in memory. The XML files are written behind: at the end of the test,
+ * when the session is idle or when the journal is too long. The journal is
+ * the reference as long as it exists, the XML files are up to date once it is
+ * deleted.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+@Service
+public class AssessmentSessionStateStore implements InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(AssessmentSessionStateStore.class);
+	
+	public static final String JOURNAL_FILENAME = "sessionState.journal";
+	private static final int RECORD_MAGIC = 0x514a524e;// QJRN
+	
+	@Value("${qti21.session.state.journal.enabled:false}")
+	private boolean journalEnabled;
+	@Value("${qti21.session.state.journal.sync:false}")
+	private boolean journalSync;
+	@Value("${qti21.session.state.journal.max.size:1048576}")
+	private long maxJournalSize;
+	@Value("${qti21.session.state.idle.flush:300000}")
+	private long idleFlush;
+	
+	private final ConcurrentMap<String,SessionJournal> journals = new ConcurrentHashMap<>();
+	private ScheduledExecutorService flushScheduler;
+	
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if(journalEnabled) {
+			flushScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("oo-qti-state-flush-"));
+			long period = Math.max(10000l, idleFlush / 5);
+			flushScheduler.scheduleWithFixedDelay(this::flushIdleSessions, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if(flushScheduler != null) {
+			flushScheduler.shutdownNow();
+		}
+		for(String directory:journals.keySet()) {
+			journals.computeIfPresent(directory, (key, journal) -> journal.materialize() ? null : journal);
+		}
+	}
+	
+	public boolean isJournalEnabled() {
+		return journalEnabled;
+	}
+	
+	/**
+	 * Append the state to the journal of the session.
+	 * 
+	 * @param stateFile The XML file of the state
+	 * @param xml The state serialized as XML
+	 */
+	public void store(File stateFile, byte[] xml) {
+		SessionJournal journal = getJournal(stateFile.getParentFile());
+		try {
+			journal.append(stateFile.getName(), xml);
+		} catch (IOException e) {
+			throw new OLATRuntimeException("Cannot write the journal of the assessment session: " + stateFile.getParent(), e);
+		}
+	}
+	
+	/**
+	 * @param stateFile The XML file of the state
+	 * @return The state as XML if it's in the journal, or null if the XML file is up to date
+	 */
+	public byte[] load(File stateFile) {
+		File directory = stateFile.getParentFile();
+		SessionJournal journal = journals.get(directory.getAbsolutePath());
+		if(journal == null) {
+			if(!new File(directory, JOURNAL_FILENAME).exists()) {
+				return null;
+			}
+			journal = getJournal(directory);
+		}
+		return journal.get(stateFile.getName());
+	}
+	
+	/**
+	 * @param stateFile The XML file of the state
+	 * @return true if the state exists in the journal or as XML file
+	 */
+	public boolean exists(File stateFile) {
+		return stateFile.exists() || load(stateFile) != null;
+	}
+	
+	/**
+	 * Write the XML files of all the states in the journal of the session
+	 * and delete the journal.
+	 * 
+	 * @param directory The storage of the session
+	 */
+	public void materialize(File directory) {
+		SessionJournal journal = journals.remove(directory.getAbsolutePath());
+		if(journal == null && new File(directory, JOURNAL_FILENAME).exists()) {
+			journal = new SessionJournal(directory);
+		}
+		if(journal != null) {
+			journal.materialize();
+		}
+	}
+	
+	/**
+	 * Forget the journal of the session, the session is deleted.
+	 * 
+	 * @param directory The storage of the session
+	 */
+	public void discard(File directory) {
+		journals.remove(directory.getAbsolutePath());
+		FileUtils.deleteFile(new File(directory, JOURNAL_FILENAME));
+	}
+	
+	private SessionJournal getJournal(File directory) {
+		return journals.computeIfAbsent(directory.getAbsolutePath(), path -> new SessionJournal(directory));
+	}
+	
+	private void flushIdleSessions() {
+		try {
+			long limit = System.currentTimeMillis() - idleFlush;
+			for(String directory:journals.keySet()) {
+				journals.computeIfPresent(directory, (key, journal) -> {
+					if(journal.getLastAccess() < limit) {
+						return journal.materialize() ? null : journal;
+					}
+					return journal;
+				});
+			}
+		} catch (Exception e) {
+			log.error("", e);
+		}
+	}
+	
+	private static byte[] deflate(byte[] data) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(256, data.length / 4));
+			byte[] buffer = new byte[8192];
+			while(!deflater.finished()) {
+				int count = deflater.deflate(buffer);
+				out.write(buffer, 0, count);
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+	
+	private static byte[] inflate(byte[] data) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+			byte[] buffer = new byte[8192];
+			while(!inflater.finished()) {
+				int count = inflater.inflate(buffer);
+				if(count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new DataFormatException("Truncated state");
+				}
+				out.write(buffer, 0, count);
+			}
+			return out.toByteArray();
+		} catch (DataFormatException e) {
+			throw new OLATRuntimeException("Cannot read the state of the assessment session", e);
+		} finally {
+			inflater.end();
+		}
+	}
+	
+	private static long checksum(byte[] data) {
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		return crc.getValue();
+	}
+	
+	/**
+	 * The journal of one session: the last state of every file, deflated, and
+	 * the length of the journal file written by this node. If the journal
+	 * file was changed by an other node, it's read again.
+	 */
+	private class SessionJournal {
+		
+		private final File directory;
+		private final File journalFile;
+		private final Map<String,byte[]> states = new HashMap<>();
+		private long journalLength;
+		private volatile long lastAccess;
+		
+		SessionJournal(File directory) {
+			this.directory = directory;
+			journalFile = new File(directory, JOURNAL_FILENAME);
+			lastAccess = System.currentTimeMillis();
+			replay();
+		}
+		
+		long getLastAccess() {
+			return lastAccess;
+		}
+		
+		synchronized void append(String name, byte[] xml) throws IOException {
+			lastAccess = System.currentTimeMillis();
+			if(journalFile.length() != journalLength) {
+				replay();
+			}
+			
+			byte[] data = deflate(xml);
+			ByteArrayOutputStream record = new ByteArrayOutputStream(data.length + name.length() + 32);
+			try(DataOutputStream out = new DataOutputStream(record)) {
+				out.writeInt(RECORD_MAGIC);
+				out.writeUTF(name);
+				out.writeLong(lastAccess);
+				out.writeInt(data.length);
+				out.write(data);
+				out.writeLong(checksum(data));
+			}
+			
+			try(FileChannel channel = FileChannel.open(journalFile.toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				ByteBuffer buffer = ByteBuffer.wrap(record.toByteArray());
+				while(buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				if(journalSync) {
+					channel.force(false);
+				}
+				journalLength = channel.size();
+			}
+			states.put(name, data);
+			
+			if(journalLength > maxJournalSize) {
+				materialize();
+			}
+		}
+		
+		synchronized byte[] get(String name) {
+			lastAccess = System.currentTimeMillis();
+			if(journalFile.length() != journalLength) {
+				replay();
+			}
+			byte[] data = states.get(name);
+			return data == null ? null : inflate(data);
+		}
+		
+		/**
+		 * Read the journal file, the last complete record of a file wins.
+		 * A partially written record at the end is truncated.
+		 */
+		private void replay() {
+			states.clear();
+			journalLength = 0l;
+			if(!journalFile.exists()) {
+				return;
+			}
+			
+			long validLength = 0l;
+			try(InputStream in = Files.newInputStream(journalFile.toPath());
+					DataInputStream din = new DataInputStream(new BufferedInputStream(in))) {
+				while(true) {
+					if(din.readInt() != RECORD_MAGIC) {
+						break;
+					}
+					String name = din.readUTF();
+					din.readLong();// timestamp
+					int length = din.readInt();
+					if(length < 0 || length > journalFile.length()) {
+						break;
+					}
+					byte[] data = new byte[length];
+					din.readFully(data);
+					if(din.readLong() != checksum(data)) {
+						break;
+					}
+					states.put(name, data);
+					validLength += 4 + 2 + name.getBytes(StandardCharsets.UTF_8).length + 8 + 4 + data.length + 8;
+				}
+			} catch (EOFException e) {
+				// end of the journal
+			} catch (IOException e) {
+				log.error("Cannot read the journal of the assessment session: {}", journalFile, e);
+			}
+			
+			if(validLength < journalFile.length()) {
+				log.warn("Truncate the journal of the assessment session: {} at {}", journalFile, validLength);
+				try(FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+					channel.truncate(validLength);
+				} catch (IOException e) {
+					log.error("Cannot truncate the journal of the assessment session: {}", journalFile, e);
+				}
+			}
+			journalLength = validLength;
+		}
+		
+		/**
+		 * Write the XML files and delete the journal.
+		 * 
+		 * @return true if the XML files are up to date
+		 */
+		synchronized boolean materialize() {
+			if(!directory.exists()) {
+				// the session was deleted
+				states.clear();
+				return true;
+			}
+			if(journalFile.length() != journalLength) {
+				replay();
+			}
+			
+			try {
+				for(Map.Entry<String,byte[]> state:states.entrySet()) {
+					File stateFile = new File(directory, state.getKey());
+					File tmpFile = new File(directory, state.getKey() + ".tmp");
+					Files.write(tmpFile.toPath(), inflate(state.getValue()));
+					Files.move(tmpFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				Files.deleteIfExists(journalFile.toPath());
+				journalLength = 0l;
+				return true;
+			} catch (IOException | OLATRuntimeException e) {
+				log.error("Cannot write the states of the assessment session: {}", directory, e);
+				return false;
+			}
+		}
+	}
+}
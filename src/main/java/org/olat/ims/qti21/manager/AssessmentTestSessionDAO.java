@@ -26,6 +26,8 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import javax.persistence.TypedQuery;
@@ -650,26 +652,57 @@ public class AssessmentTestSessionDAO {
 	}
 	
 	/**
-	 * @param searchParams
-	 * @return The returned list is order by user name and test session key
+	 * The keys of the test sessions with responses ordered by the user name
+	 * and the test session key. The sessions can then be loaded by windows
+	 * with {@link #loadTestSessionsWithUsers(List)}.
+	 * 
+	 * @param searchParams The search parameters
+	 * @return A list of primary keys of test sessions
 	 */
-	public List<AssessmentTestSession> getTestSessionsOfResponse(QTI21StatisticSearchParams searchParams) {
+	public List<Long> getTestSessionKeysOfResponse(QTI21StatisticSearchParams searchParams) {
 		StringBuilder sb = new StringBuilder();
-		sb.append("select testSession from qtiassessmenttestsession testSession ")
-		  .append(" inner join fetch testSession.assessmentEntry assessmentEntry")
+		sb.append("select testSession.key from qtiassessmenttestsession testSession ")
+		  .append(" inner join testSession.assessmentEntry assessmentEntry")
 		  .append(" left join assessmentEntry.identity as ident")
 		  .append(" left join ident.user as usr");
 		
 		decorateTestSessionPermission(sb, searchParams);
-		//need to be anonymized
 		sb.append(" order by usr.lastName, testSession.key");
 		
-		TypedQuery<AssessmentTestSession> query = dbInstance.getCurrentEntityManager()
-				.createQuery(sb.toString(), AssessmentTestSession.class);
+		TypedQuery<Long> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class);
 		decorateTestSessionPermission(query, searchParams) ;
 		return query.getResultList();
 	}
 	
+	/**
+	 * Load the test sessions with their assessment entry, identity and user.
+	 * 
+	 * @param testSessionKeys The primary keys of the test sessions
+	 * @return The test sessions in the order of the specified keys
+	 */
+	public List<AssessmentTestSession> loadTestSessionsWithUsers(List<Long> testSessionKeys) {
+		if(testSessionKeys == null || testSessionKeys.isEmpty()) return new ArrayList<>();
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append("select testSession from qtiassessmenttestsession testSession ")
+		  .append(" inner join fetch testSession.assessmentEntry assessmentEntry")
+		  .append(" left join fetch assessmentEntry.identity as ident")
+		  .append(" left join fetch ident.user as usr")
+		  .append(" where testSession.key in (:testSessionKeys)");
+		
+		List<AssessmentTestSession> sessions = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), AssessmentTestSession.class)
+				.setParameter("testSessionKeys", testSessionKeys)
+				.getResultList();
+		Map<Long,AssessmentTestSession> sessionMap = sessions.stream()
+				.collect(Collectors.toMap(AssessmentTestSession::getKey, s -> s, (u, v) -> u));
+		return testSessionKeys.stream()
+				.map(sessionMap::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+	}
+	
 	/**
 	 * Decorate a testSession query with the permissions of the specified search parameters.
 	 * 
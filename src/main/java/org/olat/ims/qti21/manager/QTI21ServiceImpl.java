@@ -19,6 +19,8 @@
  */
 package org.olat.ims.qti21.manager;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -28,6 +30,7 @@ import java.io.OutputStream;
 import java.io.StringReader;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -211,6 +214,8 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	private CoordinatorManager coordinatorManager;
 	@Autowired
 	private MailManager mailManager;
+	@Autowired
+	private AssessmentSessionStateStore sessionStateStore;
 	
 
 	private JqtiExtensionManager jqtiExtensionManager;
@@ -447,6 +452,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 				}
 				File fileStorage = testSessionDao.getSessionStorage(session);
 				testSessionDao.deleteTestSession(session);
+				sessionStateStore.discard(fileStorage);
 				FileUtils.deleteDirsAndFiles(fileStorage, true, true);
 			}
 		}
@@ -464,6 +470,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		for(AssessmentTestSession session:sessions) {
 			File fileStorage = testSessionDao.getSessionStorage(session);
 			testSessionDao.deleteTestSession(session);
+			sessionStateStore.discard(fileStorage);
 			FileUtils.deleteDirsAndFiles(fileStorage, true, true);
 		}
 		dbInstance.commit();// make sure it's flushed on the database 
@@ -475,6 +482,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		log.info(Tracing.M_AUDIT, "Delete author assessment sessions for test: {}", testEntry);
 		File fileStorage = testSessionDao.getSessionStorage(session);
 		testSessionDao.deleteTestSession(session);
+		sessionStateStore.discard(fileStorage);
 		FileUtils.deleteDirsAndFiles(fileStorage, true, true);
 		dbInstance.commit();// make sure it's flushed on the database 
 		return true;
@@ -534,7 +542,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 			session = null;
 		} else {
 			File sessionFile = getTestSessionStateFile(session);
-			if(!sessionFile.exists()) {
+			if(!sessionStateStore.exists(sessionFile)) {
 				session = null;
 			}
 		}
@@ -642,6 +650,15 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
     }
     
     private Document loadStateDocument(File sessionFile) {
+    	byte[] journaledState = sessionStateStore.load(sessionFile);
+    	if(journaledState != null) {
+    		try {
+    			DocumentBuilder documentBuilder = XmlFactories.newDocumentBuilder();
+    			return documentBuilder.parse(new ByteArrayInputStream(journaledState));
+    		} catch (final Exception e) {
+    			return loadFilteredStateDocument(new String(journaledState, StandardCharsets.UTF_8));
+    		}
+    	}
         if(sessionFile.exists()) {
 	        try {
 		        DocumentBuilder documentBuilder = XmlFactories.newDocumentBuilder();
@@ -655,7 +672,14 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 
 	private Document loadFilteredStateDocument(File sessionFile) {
     		try(InputStream in = new FileInputStream(sessionFile)) {
-    			String xmlContent = IOUtils.toString(in, "UTF-8");
+    			return loadFilteredStateDocument(IOUtils.toString(in, "UTF-8"));
+        } catch (final IOException e) {
+        		throw new OLATRuntimeException("Could not parse serialized state XML. This is an internal error as we currently don't expose this data to clients", e);
+        }
+    }
+
+	private Document loadFilteredStateDocument(String xmlContent) {
+    		try {
     			String filteredContent = FilterFactory.getXMLValidEntityFilter().filter(xmlContent);
 	        DocumentBuilder documentBuilder = XmlFactories.newDocumentBuilder();
             return documentBuilder.parse(new InputSource(new StringReader(filteredContent)));
@@ -1164,6 +1188,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		}
 		
 		storeAssessmentResultFile(candidateSession, assessmentResult);
+		sessionStateStore.materialize(testSessionDao.getSessionStorage(candidateSession));
 		if(qtiModule.isDigitalSignatureEnabled() && digitalSignature.isDigitalSignature()) {
     		signAssessmentResult(candidateSession, digitalSignature, assessedIdentity);
     	}
@@ -1184,6 +1209,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
         final File sessionState = new File(myStore, "testSessionState.xml");
         final File resultFile = getAssessmentResultFile(candidateSession);
 
+		sessionStateStore.discard(myStore);
 		testSessionDao.deleteTestSession(candidateSession);
 		if(sessionState != null && sessionState.exists()) {
 			sessionState.delete();
@@ -1205,6 +1231,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		}
 		session.setTerminationTime(new Date());
 		session = updateAssessmentTestSession(session);
+		sessionStateStore.materialize(testSessionDao.getSessionStorage(session));
 		dbInstance.commit();//make sure that the changes committed before sending the event
 		
 		AssessmentSessionAuditLogger candidateAuditLogger = getAssessmentSessionAuditLogger(session, false);
@@ -1389,10 +1416,22 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
     
 	private void storeStateDocument(Document stateXml, File sessionFile) {
         XsltSerializationOptions xsltSerializationOptions = new XsltSerializationOptions();
-        xsltSerializationOptions.setIndenting(true);
+        xsltSerializationOptions.setIndenting(!sessionStateStore.isJournalEnabled());
         xsltSerializationOptions.setIncludingXMLDeclaration(false);
         
         Transformer serializer = XsltStylesheetManager.createSerializer(xsltSerializationOptions);
+        if(sessionStateStore.isJournalEnabled()) {
+        	// compact, written behind
+        	ByteArrayOutputStream resultStream = new ByteArrayOutputStream(8192);
+        	try {
+        		serializer.transform(new DOMSource(stateXml), new StreamResult(resultStream));
+        	} catch (TransformerException e) {
+        		throw new OLATRuntimeException("Unexpected Exception serializing state DOM", e);
+        	}
+        	sessionStateStore.store(sessionFile, resultStream.toByteArray());
+        	return;
+        }
+        
         try(OutputStream resultStream = new FileOutputStream(sessionFile)) {
             serializer.transform(new DOMSource(stateXml), new StreamResult(resultStream));
         } catch (TransformerException | IOException e) {
@@ -49,6 +49,7 @@ import org.olat.core.util.Formatter;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.Util;
 import org.olat.core.util.ZipUtil;
+import org.olat.core.util.async.ProgressDelegate;
 import org.olat.core.util.io.ShieldOutputStream;
 import org.olat.core.util.openxml.OpenXMLWorkbook;
 import org.olat.core.util.openxml.OpenXMLWorkbookResource;
@@ -140,6 +141,8 @@ public class QTI21ArchiveFormat {
 	
 	private static final Logger log = Tracing.createLoggerFor(QTI21ArchiveFormat.class);
 	
+	private static final int BATCH_SIZE = 100;
+	
 	private Translator translator;
 	
 	private ResolvedAssessmentTest resolvedAssessmentTest;
@@ -153,6 +156,9 @@ public class QTI21ArchiveFormat {
 	private CourseNode courseNode;
 	private List<AbstractInfos> elementInfos;
 	private final Map<String, InteractionArchive> interactionArchiveMap = new HashMap<>();
+	private List<Long> sessionKeys;
+	private int progressOffset;
+	private ProgressDelegate progressDelegate;
 	
 	private final QTI21Service qtiService;
 	private final UserManager userManager;
@@ -206,9 +212,36 @@ public class QTI21ArchiveFormat {
 		interactionArchiveMap.put(TextEntryInteraction.QTI_CLASS_NAME, new TextEntryInteractionArchive());					//ok
 	}
 	
+	/**
+	 * The delegate receives the number of sessions written plus the offset. The
+	 * max. is set by the caller which can add the sessions of several tests,
+	 * see {@link #getNumOfSessions()}.
+	 * 
+	 * @param progressDelegate An optional delegate
+	 * @param progressOffset The number of sessions already written by the caller
+	 */
+	public void setProgressDelegate(ProgressDelegate progressDelegate, int progressOffset) {
+		this.progressDelegate = progressDelegate;
+		this.progressOffset = progressOffset;
+	}
+	
 	public boolean hasResults() {
 		return responseDao.hasResponses(searchParams);
 	}
+	
+	/**
+	 * @return The number of test sessions which will be exported
+	 */
+	public int getNumOfSessions() {
+		return getSessionKeys().size();
+	}
+	
+	private List<Long> getSessionKeys() {
+		if(sessionKeys == null) {
+			sessionKeys = testSessionDao.getTestSessionKeysOfResponse(searchParams);
+		}
+		return sessionKeys;
+	}
 
 	/**
 	 * 
@@ -257,14 +290,13 @@ public class QTI21ArchiveFormat {
 		resolvedAssessmentTest = qtiService.loadAndResolveAssessmentTest(unzippedDirRoot, false, false);
 		
 		//content
-		final List<AssessmentTestSession> sessions = testSessionDao.getTestSessionsOfResponse(searchParams);
 		try(OpenXMLWorkbook workbook = new OpenXMLWorkbook(exportStream, 1)) {
 			//headers
 			OpenXMLWorksheet exportSheet = workbook.nextWorksheet();
 			exportSheet.setHeaderRows(2);
 			writeHeaders_1(exportSheet, workbook);
 			writeHeaders_2(exportSheet, workbook);
-			writeData(sessions, exportSheet, workbook);
+			writeData(getSessionKeys(), exportSheet, workbook);
 		} catch(Exception e) {
 			log.error("", e);
 		}
@@ -290,14 +322,13 @@ public class QTI21ArchiveFormat {
 		return new OpenXMLWorkbookResource(label) {
 			@Override
 			protected void generate(OutputStream out) {
-				final List<AssessmentTestSession> sessions = testSessionDao.getTestSessionsOfResponse(searchParams);
 				try(OpenXMLWorkbook workbook = new OpenXMLWorkbook(out, 1)) {
 					//headers
 					OpenXMLWorksheet exportSheet = workbook.nextWorksheet();
 					exportSheet.setHeaderRows(2);
 					writeHeaders_1(exportSheet, workbook);
 					writeHeaders_2(exportSheet, workbook);
-					writeData(sessions, exportSheet, workbook);
+					writeData(getSessionKeys(), exportSheet, workbook);
 				} catch (Exception e) {
 					log.error("", e);
 				}
@@ -457,27 +488,42 @@ public class QTI21ArchiveFormat {
 	}
 	
 	/**
-	 * The 2 lists, sessions and responses are order by the user name and the test session key.
-	 * @param sessions A list of test sessions ordered by test session key
-	 * @param responses A list of responses ordered by test session key
+	 * The sessions are loaded by windows of {@link #BATCH_SIZE} with all their
+	 * responses in one query, the rows are written and the hibernate session
+	 * is cleared before the next window. The memory used doesn't depend on the
+	 * number of sessions.
+	 * 
+	 * @param sessionKeys The keys of the test sessions ordered by the user name and the test session key
 	 * @param exportSheet
 	 * @param workbook
 	 */
-	private void writeData(List<AssessmentTestSession> sessions, OpenXMLWorksheet exportSheet, OpenXMLWorkbook workbook) {
-		int numOfSessions = sessions.size();
-		for(int i=0; i<numOfSessions; i++) {
-			AssessmentTestSession testSession = sessions.get(i);
-			SessionResponses sessionResponses = new SessionResponses(testSession);
-			List<AssessmentResponse> responses = responseDao.getResponses(testSession);
+	private void writeData(List<Long> keys, OpenXMLWorksheet exportSheet, OpenXMLWorkbook workbook) {
+		int numOfSessions = keys.size();
+		int num = 0;
+		for(int i=0; i<numOfSessions; i+=BATCH_SIZE) {
+			List<Long> batchKeys = keys.subList(i, Math.min(numOfSessions, i + BATCH_SIZE));
+			List<AssessmentTestSession> sessions = testSessionDao.loadTestSessionsWithUsers(batchKeys);
+			List<AssessmentResponse> responses = responseDao.getResponses(batchKeys);
 			
+			Map<Long,SessionResponses> sessionResponsesMap = new HashMap<>();
+			for(AssessmentTestSession testSession:sessions) {
+				sessionResponsesMap.put(testSession.getKey(), new SessionResponses(testSession));
+			}
 			for(AssessmentResponse response:responses) {
 				AssessmentItemSession itemSession = response.getAssessmentItemSession();
-				sessionResponses.addResponse(itemSession, response);
+				SessionResponses sessionResponses = sessionResponsesMap.get(itemSession.getAssessmentTestSession().getKey());
+				if(sessionResponses != null) {
+					sessionResponses.addResponse(itemSession, response);
+				}
+			}
+			
+			for(AssessmentTestSession testSession:sessions) {
+				writeDataRow(++num, sessionResponsesMap.get(testSession.getKey()), exportSheet, workbook);
 			}
-			writeDataRow(i + 1, sessionResponses, exportSheet, workbook);
+			DBFactory.getInstance().commitAndCloseSession();
 			
-			if(i % 25 == 0) {
-				DBFactory.getInstance().commitAndCloseSession();
+			if(progressDelegate != null) {
+				progressDelegate.setActual(progressOffset + (float)Math.min(numOfSessions, i + BATCH_SIZE));
 			}
 		}
 	}
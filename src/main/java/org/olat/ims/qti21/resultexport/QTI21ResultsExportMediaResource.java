@@ -71,6 +71,7 @@ import org.olat.core.util.UserSession;
 import org.olat.core.util.Util;
 import org.olat.core.util.WebappHelper;
 import org.olat.core.util.ZipUtil;
+import org.olat.core.util.async.ProgressDelegate;
 import org.olat.course.assessment.AssessmentManager;
 import org.olat.course.nodes.ArchiveOptions;
 import org.olat.course.nodes.QTICourseNode;
@@ -107,6 +108,7 @@ public class QTI21ResultsExportMediaResource implements MediaResource {
 	private RepositoryEntry entry;
 	private final CourseEnvironment courseEnv;
 	private UserRequest ureq;
+	private ProgressDelegate progressDelegate;
 	
 	private final Set<RepositoryEntry> testEntries = new HashSet<>();
 	
@@ -130,6 +132,14 @@ public class QTI21ResultsExportMediaResource implements MediaResource {
 		exportFolderName = ZipUtil.concat(archivePath, translator.translate("export.folder.name"));
 	}
 
+	/**
+	 * @param progressDelegate An optional delegate which follows the number of
+	 * 		test sessions written in the Excel exports of all the tests
+	 */
+	public void setProgressDelegate(ProgressDelegate progressDelegate) {
+		this.progressDelegate = progressDelegate;
+	}
+
 	@Override
 	public long getCacheControlDuration() {
 		return 0;
@@ -172,11 +182,13 @@ public class QTI21ResultsExportMediaResource implements MediaResource {
 		try(ZipOutputStream zout = new ZipOutputStream(hres.getOutputStream())) {
 			zout.setLevel(9);
 			exportTestResults(zout);
-			for(RepositoryEntry testEntry:testEntries) {
-				exportExcelResults(testEntry, zout);
-			}
+			exportExcelResults(zout);
 		} catch (Exception e) {
 			log.error("Unknown error while assessment result resource export", e);
+		} finally {
+			if(progressDelegate != null) {
+				progressDelegate.finished();
+			}
 		}
 	}
 	
@@ -208,12 +220,44 @@ public class QTI21ResultsExportMediaResource implements MediaResource {
 		}
 	}
 	
-	private void exportExcelResults(RepositoryEntry testEntry, ZipOutputStream zout) {
+	/**
+	 * The progress adds up the sessions of all the tests, the max. is set
+	 * once with the sum before the first export.
+	 */
+	private void exportExcelResults(ZipOutputStream zout) {
+		Map<RepositoryEntry,QTI21ArchiveFormat> archiveFormats = new HashMap<>();
+		int numOfSessions = 0;
+		for(RepositoryEntry testEntry:testEntries) {
+			QTI21ArchiveFormat qaf = createArchiveFormat(testEntry);
+			archiveFormats.put(testEntry, qaf);
+			if(progressDelegate != null) {
+				numOfSessions += qaf.getNumOfSessions();
+			}
+		}
+		if(progressDelegate != null) {
+			progressDelegate.setMax(numOfSessions);
+		}
+		
+		int progressOffset = 0;
+		for(Map.Entry<RepositoryEntry,QTI21ArchiveFormat> archiveFormat:archiveFormats.entrySet()) {
+			QTI21ArchiveFormat qaf = archiveFormat.getValue();
+			if(progressDelegate != null) {
+				qaf.setProgressDelegate(progressDelegate, progressOffset);
+				progressOffset += qaf.getNumOfSessions();
+			}
+			exportExcelResults(archiveFormat.getKey(), qaf, zout);
+		}
+	}
+	
+	private QTI21ArchiveFormat createArchiveFormat(RepositoryEntry testEntry) {
 		ArchiveOptions options = new ArchiveOptions();
 		options.setIdentities(identities);
 		QTI21StatisticSearchParams searchParams = new QTI21StatisticSearchParams(options, testEntry, entry, courseNode.getIdent());
 		searchParams.setLimitToIdentities(identities);
-		QTI21ArchiveFormat qaf = new QTI21ArchiveFormat(translator.getLocale(), searchParams);
+		return new QTI21ArchiveFormat(translator.getLocale(), searchParams);
+	}
+	
+	private void exportExcelResults(RepositoryEntry testEntry, QTI21ArchiveFormat qaf, ZipOutputStream zout) {
 		String label = StringHelper.transformDisplayNameToFileSystemName(courseNode.getShortName() + "_" + testEntry.getDisplayname())
 				+ "_" + Formatter.formatDatetimeWithMinutes(new Date())
 				+ ".xlsx";
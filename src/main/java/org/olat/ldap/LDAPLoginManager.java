@@ -31,6 +31,7 @@ import org.olat.basesecurity.IdentityRef;
 import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.util.resource.OresHelper;
+import org.olat.ldap.model.LDAPSyncStatistics;
 
 public interface LDAPLoginManager {
 
@@ -65,6 +66,11 @@ public interface LDAPLoginManager {
 	
 	public Date getLastSyncDate();
 	
+	/**
+	 * @return The counters of the last batch synchronization or null
+	 */
+	public LDAPSyncStatistics getLastSyncStatistics();
+	
 	public boolean acquireSyncLock();
 	
 	public void freeSyncLock();
@@ -277,6 +277,24 @@ public class LDAPDAO {
 	 */
 
 	public List<LDAPUser> getUserAttributesModifiedSince(Date syncTime, LdapContext ctx) {
+		LDAPUserVisitor userVisitor = new LDAPUserVisitor(syncConfiguration);
+		searchUsersModifiedSince(syncTime, userVisitor, ctx);
+		List<LDAPUser> ldapUserList = userVisitor.getLdapUserList();
+		if(log.isDebugEnabled()) {
+			log.debug("attrib search returned " + ldapUserList.size() + " results");
+		}
+		return ldapUserList;
+	}
+	
+	/**
+	 * Search the users created or changed since the specified time and give
+	 * them page by page to the visitor, the users are not collected.
+	 * 
+	 * @param syncTime The time to search in LDAP for changes since this time or null for all users
+	 * @param visitor The visitor
+	 * @param ctx The LDAP system connection
+	 */
+	public void searchUsersModifiedSince(Date syncTime, LDAPVisitor visitor, LdapContext ctx) {
 		final boolean debug = log.isDebugEnabled();
 		String userFilter = syncConfiguration.getLdapUserFilter();
 		StringBuilder filter = new StringBuilder();
@@ -306,13 +324,7 @@ public class LDAPDAO {
 		}
 
 		String[] userAttrs = getEnhancedUserAttributes();
-		LDAPUserVisitor userVisitor = new LDAPUserVisitor(syncConfiguration);
-		searchInLdap(userVisitor, filter.toString(), userAttrs, ctx);
-		List<LDAPUser> ldapUserList = userVisitor.getLdapUserList();
-		if(debug) {
-			log.debug("attrib search returned " + ldapUserList.size() + " results");
-		}
-		return ldapUserList;
+		searchInLdap(visitor, filter.toString(), userAttrs, ctx);
 	}
 	
 	public String[] getEnhancedUserAttributes() {
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
@@ -32,6 +33,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.naming.AuthenticationException;
 import javax.naming.Context;
@@ -55,6 +63,7 @@ import org.olat.basesecurity.BaseSecurity;
 import org.olat.basesecurity.BaseSecurityModule;
 import org.olat.basesecurity.GroupRoles;
 import org.olat.basesecurity.IdentityRef;
+import org.olat.basesecurity.IdentityShort;
 import org.olat.basesecurity.OrganisationRoles;
 import org.olat.basesecurity.OrganisationService;
 import org.olat.basesecurity.manager.AuthenticationDAO;
@@ -72,6 +81,7 @@ import org.olat.core.id.User;
 import org.olat.core.id.UserConstants;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.Encoder;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.WorkThreadInformations;
 import org.olat.core.util.coordinate.Coordinator;
@@ -92,11 +102,14 @@ import org.olat.ldap.LDAPLoginManager;
 import org.olat.ldap.LDAPLoginModule;
 import org.olat.ldap.LDAPSyncConfiguration;
 import org.olat.ldap.model.LDAPGroup;
+import org.olat.ldap.model.LDAPSyncStatistics;
 import org.olat.ldap.model.LDAPUser;
 import org.olat.ldap.ui.LDAPAuthenticationController;
 import org.olat.login.auth.OLATAuthManager;
 import org.olat.user.UserManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 /**
@@ -141,6 +154,17 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 	private BusinessGroupService businessGroupService;
 	@Autowired
 	private BusinessGroupRelationDAO businessGroupRelationDao;
+	
+	@Value("${ldap.sync.chunk.size:500}")
+	private int syncChunkSize;
+	@Value("${ldap.sync.threads:2}")
+	private int syncThreads;
+	@Value("${ldap.sync.fingerprint.ttl:86400}")
+	private long fingerprintTimeToLive;
+	
+	// keys: DN of the LDAP users synchronized by the batch
+	private final ConcurrentMap<String,SyncFingerprint> fingerprints = new ConcurrentHashMap<>();
+	private volatile LDAPSyncStatistics lastSyncStatistics;
 
 	@Autowired
 	public LDAPLoginManagerImpl(CoordinatorManager coordinatorManager, TaskExecutorManager taskExecutorManager) {
@@ -442,6 +466,7 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 			}
 			
 			userDeletionManager.deleteIdentity(identity, doer);
+			fingerprints.values().removeIf(fingerprint -> identity.getKey().equals(fingerprint.getIdentityKey()));
 		}
 	}
 
@@ -919,7 +944,7 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 			// bind again to use an initial unmodified context. lookup of server-properties might fail otherwise!
 			ctx.close();
 			ctx = bindSystem();
-			Map<String,LDAPUser> dnToIdentityKeyMap = new HashMap<>();
+			Map<String,LDAPUser> dnToIdentityKeyMap = new ConcurrentHashMap<>();
 			List<LDAPUser> ldapUsers = doBatchSyncNewAndModifiedUsers(ctx, sinceSentence, dnToIdentityKeyMap, errors);
 			ctx.close();
 			ctx = bindSystem();
@@ -966,36 +991,38 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 		
 		List<Organisation> organisations = organisationDao.loadDefaultOrganisation();
 		Organisation organisation = organisations.get(0);
+		// role -> keys of the identities which have already the role
+		Map<OrganisationRoles,Set<Long>> currentRoles = new EnumMap<>(OrganisationRoles.class);
 		
 		//authors
 		if(syncConfiguration.getAuthorsGroupBase() != null && !syncConfiguration.getAuthorsGroupBase().isEmpty()) {
 			List<LDAPGroup> authorGroups = ldapDao.searchGroups(ctx, syncConfiguration.getAuthorsGroupBase());
-			syncRole(ctx, authorGroups, organisation, OrganisationRoles.author, dnToIdentityKeyMap, errors);
+			syncRole(ctx, authorGroups, organisation, OrganisationRoles.author, currentRoles, dnToIdentityKeyMap, errors);
 		}
 		//user managers
 		if(syncConfiguration.getUserManagersGroupBase() != null && !syncConfiguration.getUserManagersGroupBase().isEmpty()) {
 			List<LDAPGroup> userManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getUserManagersGroupBase());
-			syncRole(ctx, userManagerGroups, organisation, OrganisationRoles.usermanager, dnToIdentityKeyMap, errors);
+			syncRole(ctx, userManagerGroups, organisation, OrganisationRoles.usermanager, currentRoles, dnToIdentityKeyMap, errors);
 		}
 		//group managers
 		if(syncConfiguration.getGroupManagersGroupBase() != null && !syncConfiguration.getGroupManagersGroupBase().isEmpty()) {
 			List<LDAPGroup> groupManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getGroupManagersGroupBase());
-			syncRole(ctx, groupManagerGroups, organisation, OrganisationRoles.groupmanager, dnToIdentityKeyMap, errors);
+			syncRole(ctx, groupManagerGroups, organisation, OrganisationRoles.groupmanager, currentRoles, dnToIdentityKeyMap, errors);
 		}
 		//question pool managers
 		if(syncConfiguration.getQpoolManagersGroupBase() != null && !syncConfiguration.getQpoolManagersGroupBase().isEmpty()) {
 			List<LDAPGroup> qpoolManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getQpoolManagersGroupBase());
-			syncRole(ctx, qpoolManagerGroups, organisation, OrganisationRoles.poolmanager, dnToIdentityKeyMap, errors);
+			syncRole(ctx, qpoolManagerGroups, organisation, OrganisationRoles.poolmanager, currentRoles, dnToIdentityKeyMap, errors);
 		}
 		//curriculum managers
 		if(syncConfiguration.getCurriculumManagersGroupBase() != null && !syncConfiguration.getCurriculumManagersGroupBase().isEmpty()) {
 			List<LDAPGroup> curriculumManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getCurriculumManagersGroupBase());
-			syncRole(ctx, curriculumManagerGroups, organisation, OrganisationRoles.curriculummanager, dnToIdentityKeyMap, errors);
+			syncRole(ctx, curriculumManagerGroups, organisation, OrganisationRoles.curriculummanager, currentRoles, dnToIdentityKeyMap, errors);
 		}
 		//learning resource manager
 		if(syncConfiguration.getLearningResourceManagersGroupBase() != null && !syncConfiguration.getLearningResourceManagersGroupBase().isEmpty()) {
 			List<LDAPGroup> resourceManagerGroups = ldapDao.searchGroups(ctx, syncConfiguration.getLearningResourceManagersGroupBase());
-			syncRole(ctx, resourceManagerGroups, organisation, OrganisationRoles.learnresourcemanager, dnToIdentityKeyMap, errors);
+			syncRole(ctx, resourceManagerGroups, organisation, OrganisationRoles.learnresourcemanager, currentRoles, dnToIdentityKeyMap, errors);
 		}
 
 		int count = 0;
@@ -1014,27 +1041,27 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 
 		for(LDAPUser ldapUser:ldapUsers) {
 			if(syncAuthor && ldapUser.isAuthor()) {
-				syncRole(ldapUser, organisation, OrganisationRoles.author);
+				syncRole(ldapUser, organisation, OrganisationRoles.author, currentRoles);
 				count++;
 			}
 			if(syncUserManager && ldapUser.isUserManager()) {
-				syncRole(ldapUser, organisation, OrganisationRoles.usermanager);
+				syncRole(ldapUser, organisation, OrganisationRoles.usermanager, currentRoles);
 				count++;
 			}
 			if(syncGroupManager && ldapUser.isGroupManager()) {
-				syncRole(ldapUser, organisation, OrganisationRoles.groupmanager);
+				syncRole(ldapUser, organisation, OrganisationRoles.groupmanager, currentRoles);
 				count++;
 			}
 			if(syncQpoolManager && ldapUser.isQpoolManager()) {
-				syncRole(ldapUser,organisation,  OrganisationRoles.poolmanager);
+				syncRole(ldapUser, organisation, OrganisationRoles.poolmanager, currentRoles);
 				count++;
 			}
 			if(syncCurriculumManager && ldapUser.isCurriculumManager()) {
-				syncRole(ldapUser, organisation, OrganisationRoles.curriculummanager);
+				syncRole(ldapUser, organisation, OrganisationRoles.curriculummanager, currentRoles);
 				count++;
 			}
 			if(syncLearningResourceManager && ldapUser.isLearningResourceManager()) {
-				syncRole(ldapUser, organisation, OrganisationRoles.learnresourcemanager);
+				syncRole(ldapUser, organisation, OrganisationRoles.learnresourcemanager, currentRoles);
 				count++;
 			}
 
@@ -1048,7 +1075,7 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 	}
 	
 	private void syncRole(LdapContext ctx, List<LDAPGroup> groups, Organisation organisation, OrganisationRoles role,
-			Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors) {
+			Map<OrganisationRoles,Set<Long>> currentRoles, Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors) {
 		if(groups == null || groups.isEmpty()) return;
 		
 		for(LDAPGroup group:groups) {
@@ -1057,7 +1084,7 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 				for(String member:members) {
 					LDAPUser ldapUser = getLDAPUser(ctx, member, dnToIdentityKeyMap, errors);
 					if(ldapUser != null && ldapUser.getCachedIdentity() != null) {
-						syncRole(ldapUser, organisation, role);
+						syncRole(ldapUser, organisation, role, currentRoles);
 					}
 				}
 			}
@@ -1065,10 +1092,14 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 		}	
 	}
 
-	private void syncRole(LDAPUser ldapUser, Organisation organisation, OrganisationRoles role) {
+	private void syncRole(LDAPUser ldapUser, Organisation organisation, OrganisationRoles role, Map<OrganisationRoles,Set<Long>> currentRoles) {
 		IdentityRef identityRef = ldapUser.getCachedIdentity();
-		List<String> roleList = securityManager.getRolesAsString(identityRef);
-		if(!roleList.contains(role.name())) {
+		if(identityRef == null) return;
+		
+		// the identities which have already the role are loaded once per role
+		Set<Long> identityKeysWithRole = currentRoles
+				.computeIfAbsent(role, r -> new HashSet<>(organisationDao.getIdentityKeys(r.name())));
+		if(identityKeysWithRole.add(identityRef.getKey())) {
 			Identity identity = securityManager.loadIdentityByKey(identityRef.getKey());
 			Roles roles = securityManager.getRoles(identity);
 			switch(role) {
@@ -1167,81 +1198,61 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 		dbInstance.commitAndCloseSession();
 	}
 	
+	/**
+	 * The users are read page by page from LDAP and synchronized in chunks. The
+	 * chunks are processed in parallel while the search goes on. Users which
+	 * attributes didn't change since the last synchronization (same fingerprint)
+	 * are not loaded, the others are resolved in bulk. The new users are created
+	 * at the end, one after the other.
+	 * 
+	 * @return The list of all users found in LDAP, without their attributes
+	 */
 	private List<LDAPUser> doBatchSyncNewAndModifiedUsers(LdapContext ctx, String sinceSentence, Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors) {
-		// Get new and modified users from LDAP
-		int count = 0;
-		List<LDAPUser> ldapUserList = ldapDao.getUserAttributesModifiedSince(lastSyncDate, ctx);
+		long startTime = System.currentTimeMillis();
+		LDAPSyncStatistics statistics = new LDAPSyncStatistics();
+		List<LDAPUser> ldapUserList = Collections.synchronizedList(new ArrayList<>());
+		List<LDAPUser> newLdapUserList = Collections.synchronizedList(new ArrayList<>());
 		
-		// Check for new and modified users
-		List<LDAPUser> newLdapUserList = new ArrayList<>();
-		Map<IdentityRef, Map<String, String>> changedMapIdentityMap = new HashMap<>();
-		for (LDAPUser ldapUser: ldapUserList) {
-			String user = null;
-			try {
-				Attributes userAttrs = ldapUser.getAttributes();
-				String uidProp = syncConfiguration.getOlatPropertyToLdapAttribute(LDAPConstants.LDAP_USER_IDENTIFYER);
-				user = getAttributeValue(userAttrs.get(uidProp));
-				Identity identity = findIdentityByLdapAuthentication(userAttrs, errors);
-				if (identity != null) {
-					Map<String, String> changedAttrMap = prepareUserPropertyForSync(userAttrs, identity);
-					if (changedAttrMap != null) {
-						changedMapIdentityMap.put(identity, changedAttrMap);
-					}
-					if(StringHelper.containsNonWhitespace(ldapUser.getDn())) {
-						dnToIdentityKeyMap.put(ldapUser.getDn(), ldapUser);
-						ldapUser.setCachedIdentity(new IdentityRefImpl(identity.getKey()));
-					}
-				} else if (errors.isEmpty()) {
-					String[] reqAttrs = syncConfiguration.checkRequestAttributes(userAttrs);
-					if (reqAttrs == null) {
-						newLdapUserList.add(ldapUser);
-					} else {
-						log.warn("LDAP batch sync: can't create user with username::" + user + " : missing required attributes::"
-							+ ArrayUtils.toString(reqAttrs));
+		int numOfThreads = Math.max(1, syncThreads);
+		ExecutorService executor = numOfThreads > 1
+				? Executors.newFixedThreadPool(numOfThreads, new CustomizableThreadFactory("oo-ldap-sync-"))
+				: null;
+		// limit the number of chunks in memory
+		Semaphore pendingChunks = new Semaphore(numOfThreads * 2);
+		LDAPUserChunkVisitor visitor = new LDAPUserChunkVisitor(syncConfiguration, syncChunkSize, chunk -> {
+			ldapUserList.addAll(chunk);
+			if(executor == null) {
+				syncChunk(chunk, dnToIdentityKeyMap, newLdapUserList, statistics, errors);
+			} else {
+				pendingChunks.acquireUninterruptibly();
+				executor.execute(() -> {
+					try {
+						syncChunk(chunk, dnToIdentityKeyMap, newLdapUserList, statistics, errors);
+					} finally {
+						pendingChunks.release();
 					}
-				} else {
-					log.warn(errors.get());
-				}
-			} catch (Exception e) {
-				// catch here to go on with other users on exeptions!
-				log.error("some error occured in looping over set of changed user-attributes, actual user " + user + ". Will still continue with others.", e);
-				errors.insert("Cannot sync user: " + user);
-			} finally {
-				dbInstance.commit();
-				if(count % 10 == 0) {
-					dbInstance.closeSession();
-				}
-			}
-			if(count % 1000 == 0) {
-				log.info("Retrieve " + count + "/" + ldapUserList.size() + " users in LDAP server");
+				});
 			}
-			count++;
-		}
+		});
 		
-		// sync existing users
-		if (changedMapIdentityMap == null || changedMapIdentityMap.isEmpty()) {
-			log.info("LDAP batch sync: no users to sync" + sinceSentence);
-		} else {
-			int syncCount = 0;
-			for (IdentityRef ident : changedMapIdentityMap.keySet()) {
-				// sync user is exception save, no try/catch needed
+		try {
+			ldapDao.searchUsersModifiedSince(lastSyncDate, visitor, ctx);
+			visitor.flush();
+		} finally {
+			if(executor != null) {
+				executor.shutdown();
 				try {
-					syncCount++;
-					syncUser(changedMapIdentityMap.get(ident), ident);
-				} catch (Exception e) {
-					errors.insert("Cannot sync user: " + ident);
-				} finally {
-					dbInstance.commit();
-					if(syncCount % 20 == 0) {
-						dbInstance.closeSession();
+					if(!executor.awaitTermination(12, TimeUnit.HOURS)) {
+						log.error("LDAP batch sync: synchronization of the users doesn't terminate");
 					}
-				}
-				if(syncCount % 1000 == 0) {
-					log.info("Update " + syncCount + "/" + changedMapIdentityMap.size() + " LDAP users");
+				} catch (InterruptedException e) {
+					log.error("LDAP batch sync: interrupted", e);
+					Thread.currentThread().interrupt();
 				}
 			}
-			log.info("LDAP batch sync: " + changedMapIdentityMap.size() + " users synced" + sinceSentence);
 		}
+		log.info("LDAP batch sync: " + statistics.getUsers() + " users retrieved in " + statistics.getChunks() + " chunks, "
+				+ statistics.getUnchangedUsers() + " unchanged, " + statistics.getUpdatedUsers() + " users synced" + sinceSentence);
 		
 		// create new users
 		if (newLdapUserList.isEmpty()) {
@@ -1253,9 +1264,11 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 				try {
 					newCount++;
 					Identity identity = createAndPersistUser(userAttrs);
-					if(identity != null && StringHelper.containsNonWhitespace(ldapUser.getDn())) {
-						dnToIdentityKeyMap.put(ldapUser.getDn(), ldapUser);
-						ldapUser.setCachedIdentity(new IdentityRefImpl(identity.getKey()));
+					if(identity != null) {
+						cacheIdentity(ldapUser, identity.getKey(), dnToIdentityKeyMap);
+						rememberFingerprint(ldapUser, identity.getKey());
+						ldapUser.setAttributes(null);
+						statistics.incrementCreatedUsers();
 					}
 				} catch (Exception e) {
 					// catch here to go on with other users on exeptions!
@@ -1268,16 +1281,211 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 				}
 				
 				if(newCount % 1000 == 0) {
-					log.info("Create " + count + "/" + newLdapUserList.size() + " LDAP users");
+					log.info("Create " + newCount + "/" + newLdapUserList.size() + " LDAP users");
 				}
 			}
 			log.info("LDAP batch sync: " + newLdapUserList.size() + " users created" + sinceSentence);
 		}
 
 		dbInstance.commitAndCloseSession();
+		statistics.setDuration(System.currentTimeMillis() - startTime);
+		lastSyncStatistics = statistics;
 		return ldapUserList;
 	}
 	
+	private void syncChunk(List<LDAPUser> chunk, Map<String,LDAPUser> dnToIdentityKeyMap, List<LDAPUser> newLdapUserList,
+			LDAPSyncStatistics statistics, LDAPError errors) {
+		statistics.addUsers(chunk.size());
+		try {
+			// users already synchronized with the same attributes
+			long now = System.currentTimeMillis();
+			Map<Long,LDAPUser> unchangedUsers = new HashMap<>();
+			List<LDAPUser> changedUsers = new ArrayList<>(chunk.size());
+			for(LDAPUser ldapUser:chunk) {
+				ldapUser.setFingerprint(getFingerprint(ldapUser.getAttributes()));
+				SyncFingerprint knownFingerprint = ldapUser.getDn() == null ? null : fingerprints.get(ldapUser.getDn());
+				if(knownFingerprint != null && knownFingerprint.isValid(ldapUser.getFingerprint(), now)) {
+					unchangedUsers.put(knownFingerprint.getIdentityKey(), ldapUser);
+				} else {
+					changedUsers.add(ldapUser);
+				}
+			}
+			
+			if(!unchangedUsers.isEmpty()) {
+				List<IdentityShort> identities = securityManager.findShortIdentitiesByKey(unchangedUsers.keySet());
+				for(IdentityShort identity:identities) {
+					if(identity.getStatus() < Identity.STATUS_DELETED.intValue()) {
+						LDAPUser ldapUser = unchangedUsers.remove(identity.getKey());
+						cacheIdentity(ldapUser, identity.getKey(), dnToIdentityKeyMap);
+						statistics.incrementUnchangedUsers();
+					}
+				}
+				// deleted in OpenOLAT in the meantime, resolve them again
+				changedUsers.addAll(unchangedUsers.values());
+			}
+			
+			if(!changedUsers.isEmpty()) {
+				syncChangedUsers(changedUsers, dnToIdentityKeyMap, newLdapUserList, statistics, errors);
+			}
+		} catch (Exception e) {
+			// catch here to go on with the other chunks
+			log.error("some error occured while synchronizing " + chunk.size() + " LDAP users. Will still continue with others.", e);
+			addError(errors, "Cannot sync " + chunk.size() + " users");
+		} finally {
+			dbInstance.commitAndCloseSession();
+		}
+		
+		// the attributes are only needed to create the new users
+		for(LDAPUser ldapUser:chunk) {
+			if(ldapUser.getCachedIdentity() != null) {
+				ldapUser.setAttributes(null);
+			}
+		}
+	}
+	
+	private void syncChangedUsers(List<LDAPUser> ldapUsers, Map<String,LDAPUser> dnToIdentityKeyMap, List<LDAPUser> newLdapUserList,
+			LDAPSyncStatistics statistics, LDAPError errors) {
+		String uidAttribute = syncConfiguration.getOlatPropertyToLdapAttribute(LDAPConstants.LDAP_USER_IDENTIFYER);
+		Map<String,LDAPUser> uidToLdapUsers = new HashMap<>();
+		for(LDAPUser ldapUser:ldapUsers) {
+			Attribute uidAttr = ldapUser.getAttributes().get(uidAttribute);
+			String uid = uidAttr == null ? null : getAttributeValue(uidAttr);
+			if(StringHelper.containsNonWhitespace(uid)) {
+				uidToLdapUsers.put(uid.toLowerCase(), ldapUser);
+			} else {
+				log.warn("LDAP batch sync: user without identifier::" + ldapUser.getDn());
+			}
+		}
+		
+		// resolve the identities and their LDAP authentications in bulk
+		List<Identity> identities = securityManager.findIdentitiesByNameCaseInsensitive(uidToLdapUsers.keySet());
+		Map<Long,Authentication> ldapAuthentications = authenticationDao
+				.getAuthentications(identities, LDAPAuthenticationController.PROVIDER_LDAP).stream()
+				.collect(Collectors.toMap(auth -> auth.getIdentity().getKey(), auth -> auth, (auth1, auth2) -> auth1));
+		for(Identity identity:identities) {
+			LDAPUser ldapUser = uidToLdapUsers.remove(identity.getName().toLowerCase());
+			if(ldapUser == null) continue;
+			
+			try {
+				Attributes userAttrs = ldapUser.getAttributes();
+				if(isManagedByLdap(identity, ldapAuthentications.get(identity.getKey()), userAttrs, errors)) {
+					Map<String, String> changedAttrMap = prepareUserPropertyForSync(userAttrs, identity);
+					if (changedAttrMap != null) {
+						syncUser(changedAttrMap, identity);
+						statistics.incrementUpdatedUsers();
+					}
+					cacheIdentity(ldapUser, identity.getKey(), dnToIdentityKeyMap);
+					rememberFingerprint(ldapUser, identity.getKey());
+				}
+			} catch (Exception e) {
+				// catch here to go on with other users on exeptions!
+				log.error("some error occured in looping over set of changed user-attributes, actual user " + identity.getName() + ". Will still continue with others.", e);
+				addError(errors, "Cannot sync user: " + identity.getName());
+			} finally {
+				dbInstance.commit();
+			}
+		}
+		
+		// the users not found are new, but an error stops the creation of new users
+		for(Map.Entry<String,LDAPUser> uidToLdapUser:uidToLdapUsers.entrySet()) {
+			if(hasErrors(errors)) {
+				break;
+			}
+			String[] reqAttrs = syncConfiguration.checkRequestAttributes(uidToLdapUser.getValue().getAttributes());
+			if (reqAttrs == null) {
+				newLdapUserList.add(uidToLdapUser.getValue());
+			} else {
+				log.warn("LDAP batch sync: can't create user with username::" + uidToLdapUser.getKey() + " : missing required attributes::"
+					+ ArrayUtils.toString(reqAttrs));
+			}
+		}
+	}
+	
+	/**
+	 * Same as findIdentityByLdapAuthentication() with the identity and
+	 * the authentication already loaded.
+	 */
+	private boolean isManagedByLdap(Identity identity, Authentication ldapAuth, Attributes attrs, LDAPError errors) {
+		Attribute tokenAttr = attrs.get(syncConfiguration.getLdapUserLoginAttribute());
+		String token = tokenAttr == null ? null : getAttributeValue(tokenAttr);
+		if (ldapAuth != null) {
+			if(StringHelper.containsNonWhitespace(token) && !token.equals(ldapAuth.getAuthusername())) {
+				ldapAuth.setAuthusername(token);
+				securityManager.updateAuthentication(ldapAuth);
+			}
+			return true;
+		}
+		if (ldapLoginModule.isConvertExistingLocalUsersToLDAPUsers()) {
+			// Add user to LDAP security group and add the ldap provider
+			securityManager.createAndPersistAuthentication(identity, LDAPAuthenticationController.PROVIDER_LDAP, token, null, null);
+			log.info("Found identity by LDAP username that was not yet in LDAP security group. Converted user::" + identity.getName()
+					+ " to be an LDAP managed user");
+			return true;
+		}
+		addError(errors, "findIdentyByLdapAuthentication: User with username::" + identity.getName() + " exist but not Managed by LDAP");
+		return false;
+	}
+	
+	private void cacheIdentity(LDAPUser ldapUser, Long identityKey, Map<String,LDAPUser> dnToIdentityKeyMap) {
+		ldapUser.setCachedIdentity(new IdentityRefImpl(identityKey));
+		if(StringHelper.containsNonWhitespace(ldapUser.getDn())) {
+			dnToIdentityKeyMap.put(ldapUser.getDn(), ldapUser);
+		}
+	}
+	
+	/**
+	 * The fingerprint is only set after a successful synchronization and
+	 * not renewed if the user is skipped, a local change of the properties
+	 * is overwritten at the latest after the time to live.
+	 */
+	private void rememberFingerprint(LDAPUser ldapUser, Long identityKey) {
+		if(fingerprintTimeToLive > 0 && ldapUser.getFingerprint() != null
+				&& StringHelper.containsNonWhitespace(ldapUser.getDn())) {
+			long expiration = System.currentTimeMillis() + (fingerprintTimeToLive * 1000l);
+			fingerprints.put(ldapUser.getDn(), new SyncFingerprint(identityKey, ldapUser.getFingerprint(), expiration));
+		}
+	}
+	
+	/**
+	 * @param attributes The LDAP attributes of a user
+	 * @return A hash of the attributes mapped to user properties, the login
+	 * 		attribute and the static properties or null
+	 */
+	private String getFingerprint(Attributes attributes) {
+		if(attributes == null) return null;
+		
+		List<String> values = new ArrayList<>();
+		try {
+			for(NamingEnumeration<? extends Attribute> neAttrs = attributes.getAll(); neAttrs.hasMore(); ) {
+				Attribute attr = neAttrs.next();
+				String olatProperty = mapLdapAttributeToOlatProperty(attr.getID());
+				if(olatProperty != null) {
+					values.add(olatProperty + "=" + getAttributeValue(attr));
+				}
+			}
+		} catch (NamingException e) {
+			log.error("NamingException when trying to calculate the fingerprint of LDAP attributes", e);
+			return null;
+		}
+		Collections.sort(values);
+		Attribute loginAttr = attributes.get(syncConfiguration.getLdapUserLoginAttribute());
+		values.add("login=" + (loginAttr == null ? null : getAttributeValue(loginAttr)));
+		values.add("static=" + syncConfiguration.getStaticUserProperties());
+		return Encoder.md5hash(String.join("\n", values));
+	}
+	
+	private void addError(LDAPError errors, String error) {
+		synchronized(errors) {
+			errors.insert(error);
+		}
+	}
+	
+	private boolean hasErrors(LDAPError errors) {
+		synchronized(errors) {
+			return !errors.isEmpty();
+		}
+	}
+	
 	private void doBatchSyncGroups(LdapContext ctx, List<LDAPUser> ldapUsers, Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors)
 	throws NamingException {
 		ctx.close();
@@ -1346,19 +1554,15 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 	}
 	
 	private void syncBusinessGroup(LdapContext ctx, BusinessGroup businessGroup, LDAPGroup ldapGroup, Map<String,LDAPUser> dnToIdentityKeyMap, LDAPError errors) {
-		List<Identity> currentMembers = businessGroupRelationDao
-				.getMembers(businessGroup, GroupRoles.coach.name(), GroupRoles.participant.name());
-		Set<Long> currentMemberKeys = new HashSet<>();
-		for(Identity currentMember:currentMembers) {
-			currentMemberKeys.add(currentMember.getKey());
-		}
+		// identity key -> roles of all current members
+		Map<Long,Set<String>> currentMemberRoles = businessGroupRelationDao.getMemberRoles(businessGroup);
 
 		List<LDAPUser> coaches = new ArrayList<>(ldapGroup.getCoaches());
 		List<LDAPUser> participants = new ArrayList<>(ldapGroup.getParticipants());
 		// transfer member cn's to the participants list
 		for(String member:ldapGroup.getMembers()) {
 			try {
-				LDAPUser ldapUser = getLDAPUser(ctx, member, dnToIdentityKeyMap, errors); dnToIdentityKeyMap.get(member);
+				LDAPUser ldapUser = getLDAPUser(ctx, member, dnToIdentityKeyMap, errors);
 				if(ldapUser != null && !participants.contains(ldapUser)) {
 					participants.add(ldapUser);
 				}
@@ -1377,78 +1581,64 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 			}
 		}
 		
-		int count = 0;
+		// identity key -> the only role the member should have, coach wins
+		Map<Long,String> memberships = new HashMap<>();
 		for(LDAPUser participant:participants) {
 			IdentityRef memberIdentity = participant.getCachedIdentity();
 			if(memberIdentity != null && memberIdentity.getKey() != null) {
-				syncMembership(businessGroup, memberIdentity, false);
-				currentMemberKeys.remove(memberIdentity.getKey());
-			}
-			if(count % 20 == 0) {
-				dbInstance.commitAndCloseSession();
+				memberships.put(memberIdentity.getKey(), GroupRoles.participant.name());
 			}
-			count++;
 		}
-		
 		for(LDAPUser coach:coaches) {
 			IdentityRef memberIdentity = coach.getCachedIdentity();
 			if(memberIdentity != null && memberIdentity.getKey() != null) {
-				syncMembership(businessGroup, memberIdentity, true);
-				currentMemberKeys.remove(memberIdentity.getKey());
+				memberships.put(memberIdentity.getKey(), GroupRoles.coach.name());
 			}
-			
-			if(count % 20 == 0) {
-				dbInstance.commitAndCloseSession();
-			}
-			count++;
 		}
 		
-		for(Long currentMemberKey:currentMemberKeys) {
-			Identity currentMember = securityManager.loadIdentityByKey(currentMemberKey);
-			List<String> roles = businessGroupRelationDao.getRoles(currentMember, businessGroup);
-			for(String role:roles) {
-				businessGroupRelationDao.removeRole(currentMember, businessGroup, role);
+		// apply only the differences
+		int count = 0;
+		for(Map.Entry<Long,String> membership:memberships.entrySet()) {
+			String mainRole = membership.getValue();
+			Set<String> currentRoles = currentMemberRoles.remove(membership.getKey());
+			if(currentRoles == null || currentRoles.size() != 1 || !currentRoles.contains(mainRole)) {
+				syncMembership(businessGroup, membership.getKey(), mainRole, currentRoles);
+				if(++count % 20 == 0) {
+					dbInstance.commitAndCloseSession();
+				}
 			}
-			
-			if(count % 20 == 0) {
-				dbInstance.commitAndCloseSession();
+		}
+		
+		for(Map.Entry<Long,Set<String>> currentMember:currentMemberRoles.entrySet()) {
+			Set<String> roles = currentMember.getValue();
+			if(roles.contains(GroupRoles.coach.name()) || roles.contains(GroupRoles.participant.name())) {
+				Identity identity = securityManager.loadIdentityByKey(currentMember.getKey());
+				for(String role:roles) {
+					businessGroupRelationDao.removeRole(identity, businessGroup, role);
+				}
+				if(++count % 20 == 0) {
+					dbInstance.commitAndCloseSession();
+				}
 			}
-			count++;
 		}
 		dbInstance.commitAndCloseSession();
 	}
 	
-	private void syncMembership(BusinessGroup businessGroup, IdentityRef identityRef, boolean coach) {
-		if(identityRef != null) {
-			List<String> roles = businessGroupRelationDao.getRoles(identityRef, businessGroup);
-			if(roles.isEmpty()) {
-				Identity identity = securityManager.loadIdentityByKey(identityRef.getKey());
-				if(coach) {
-					businessGroupRelationDao.addRole(identity, businessGroup, GroupRoles.coach.name());
+	private void syncMembership(BusinessGroup businessGroup, Long identityKey, String mainRole, Set<String> currentRoles) {
+		Identity identity = securityManager.loadIdentityByKey(identityKey);
+		boolean already = false;
+		if(currentRoles != null) {
+			for(String role:currentRoles) {
+				if(mainRole.equals(role)) {
+					already = true;
 				} else {
-					businessGroupRelationDao.addRole(identity, businessGroup, GroupRoles.participant.name());
-				}
-			} else if(coach && roles.size() == 1 && roles.contains(GroupRoles.coach.name())) {
-				//coach and only coach, do nothing
-			} else if(!coach && roles.size() == 1 && roles.contains(GroupRoles.participant.name())) {
-				//participant and only participant, do nothing
-			} else {
-				boolean already = false;
-				Identity identity = securityManager.loadIdentityByKey(identityRef.getKey());
-				String mainRole = coach ? GroupRoles.coach.name() : GroupRoles.participant.name();
-				for(String role:roles) {
-					if(mainRole.equals(role)) {
-						already = true;
-					} else {
-						businessGroupRelationDao.removeRole(identity, businessGroup, role);
-					}
-				}
-				
-				if(!already) {
-					businessGroupRelationDao.addRole(identity, businessGroup, mainRole);
+					businessGroupRelationDao.removeRole(identity, businessGroup, role);
 				}
 			}
 		}
+		if(!already) {
+			businessGroupRelationDao.addRole(identity, businessGroup, mainRole);
+		}
 	}
 	
 	private BusinessGroup getManagerBusinessGroup(String externalId) {
@@ -1557,6 +1747,11 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 		return lastSyncDate;
 	}
 
+	@Override
+	public LDAPSyncStatistics getLastSyncStatistics() {
+		return lastSyncStatistics;
+	}
+
 	/**
 	 * Internal helper to add the SSL protocol to the environment
 	 * 
@@ -1619,4 +1814,25 @@ public class LDAPLoginManagerImpl implements LDAPLoginManager, GenericEventListe
 	public boolean isIdentityInLDAPSecGroup(Identity ident) {
 		return authenticationDao.hasAuthentication(ident, LDAPAuthenticationController.PROVIDER_LDAP);
 	}
-}
\ No newline at end of file
+	
+	private static class SyncFingerprint {
+		
+		private final Long identityKey;
+		private final String fingerprint;
+		private final long expiration;
+		
+		public SyncFingerprint(Long identityKey, String fingerprint, long expiration) {
+			this.identityKey = identityKey;
+			this.fingerprint = fingerprint;
+			this.expiration = expiration;
+		}
+		
+		public Long getIdentityKey() {
+			return identityKey;
+		}
+		
+		public boolean isValid(String currentFingerprint, long now) {
+			return fingerprint.equals(currentFingerprint) && expiration >= now;
+		}
+	}
+}
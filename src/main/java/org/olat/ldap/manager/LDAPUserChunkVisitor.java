@@ -0,0 +1,80 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ldap.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.naming.NamingException;
+import javax.naming.directory.SearchResult;
+
+import org.olat.ldap.LDAPSyncConfiguration;
+import org.olat.ldap.model.LDAPUser;
+
+/**
+ * Collects the users found in LDAP in chunks of a fixed size and hands
+ * every full chunk to a processor while the search goes on. The visitor
+ * doesn't hold the users, only the current chunk.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class LDAPUserChunkVisitor extends LDAPUserVisitor {
+	
+	private final int chunkSize;
+	private final Consumer<List<LDAPUser>> processor;
+	private List<LDAPUser> chunk;
+	private int count = 0;
+	
+	public LDAPUserChunkVisitor(LDAPSyncConfiguration syncConfiguration, int chunkSize, Consumer<List<LDAPUser>> processor) {
+		super(syncConfiguration);
+		this.chunkSize = Math.max(1, chunkSize);
+		this.processor = processor;
+		chunk = new ArrayList<>(this.chunkSize);
+	}
+	
+	/**
+	 * @return The number of users visited
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	@Override
+	public void visit(SearchResult searchResult) throws NamingException {
+		chunk.add(toLDAPUser(searchResult));
+		count++;
+		if(chunk.size() >= chunkSize) {
+			flush();
+		}
+	}
+	
+	/**
+	 * Hand the last, incomplete chunk to the processor.
+	 */
+	public void flush() {
+		if(!chunk.isEmpty()) {
+			List<LDAPUser> fullChunk = chunk;
+			chunk = new ArrayList<>(chunkSize);
+			processor.accept(fullChunk);
+		}
+	}
+}
@@ -58,6 +58,10 @@ public class LDAPUserVisitor implements LDAPVisitor {
 
 	@Override
 	public void visit(SearchResult searchResult) throws NamingException {
+		ldapUserList.add(toLDAPUser(searchResult));
+	}
+	
+	protected LDAPUser toLDAPUser(SearchResult searchResult) throws NamingException {
 		Attributes resAttribs = searchResult.getAttributes();
 		String dn = searchResult.getNameInNamespace();
 		
@@ -76,8 +80,7 @@ public class LDAPUserVisitor implements LDAPVisitor {
 		ldapUser.setGroupIds(groupList);
 		List<String> coachedGroupList = parseGroupList(resAttribs, syncConfiguration.getCoachedGroupAttribute(), syncConfiguration.getCoachedGroupAttributeSeparator());
 		ldapUser.setCoachedGroupIds(coachedGroupList);
-		
-		ldapUserList.add(ldapUser);
+		return ldapUser;
 	}
 	
 	private List<String> parseGroupList(Attributes resAttribs, String attributeName, String attributeSeparator) {
@@ -0,0 +1,98 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ldap.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The counters of one batch synchronization of the LDAP users.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class LDAPSyncStatistics {
+	
+	private final AtomicInteger users = new AtomicInteger();
+	private final AtomicInteger unchangedUsers = new AtomicInteger();
+	private final AtomicInteger updatedUsers = new AtomicInteger();
+	private final AtomicInteger createdUsers = new AtomicInteger();
+	private final AtomicInteger chunks = new AtomicInteger();
+	private long duration;
+	
+	/**
+	 * @return The number of users found in LDAP
+	 */
+	public int getUsers() {
+		return users.get();
+	}
+	
+	public void addUsers(int numOfUsers) {
+		users.addAndGet(numOfUsers);
+		chunks.incrementAndGet();
+	}
+	
+	/**
+	 * @return The number of users skipped because their attributes didn't change
+	 */
+	public int getUnchangedUsers() {
+		return unchangedUsers.get();
+	}
+	
+	public void incrementUnchangedUsers() {
+		unchangedUsers.incrementAndGet();
+	}
+	
+	public int getUpdatedUsers() {
+		return updatedUsers.get();
+	}
+	
+	public void incrementUpdatedUsers() {
+		updatedUsers.incrementAndGet();
+	}
+	
+	public int getCreatedUsers() {
+		return createdUsers.get();
+	}
+	
+	public void incrementCreatedUsers() {
+		createdUsers.incrementAndGet();
+	}
+	
+	public int getChunks() {
+		return chunks.get();
+	}
+	
+	/**
+	 * @return The duration of the synchronization of the users in milliseconds
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	public void setDuration(long duration) {
+		this.duration = duration;
+	}
+
+	@Override
+	public String toString() {
+		return "ldapSync[users=" + getUsers() + ":unchanged=" + getUnchangedUsers() + ":updated=" + getUpdatedUsers()
+			+ ":created=" + getCreatedUsers() + ":chunks=" + getChunks() + ":duration=" + duration + "ms]";
+	}
+}
@@ -45,6 +45,7 @@ public class LDAPUser {
 	private List<String> coachedGroupIds;
 	private Attributes attributes;
 	private IdentityRef cachedIdentity;
+	private String fingerprint;
 	
 	public String getDn() {
 		return dn;
@@ -141,6 +142,17 @@ public class LDAPUser {
 	public void setCachedIdentity(IdentityRef cachedIdentity) {
 		this.cachedIdentity = cachedIdentity;
 	}
+
+	/**
+	 * @return A hash of the attributes mapped to user properties
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	public void setFingerprint(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
 	
 	@Override
 	public int hashCode() {
@@ -89,6 +89,12 @@ public interface AssessmentService {
 	
 	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, RepositoryEntry entry);
 	
+	/**
+	 * @param entry The course / repository entry
+	 * @return All the assessment entries of all the users in the repository entry
+	 */
+	public List<AssessmentEntry> loadAssessmentEntriesByRepositoryEntry(RepositoryEntry entry);
+	
 	public List<AssessmentEntry> loadAssessmentEntries(BusinessGroup assessedGroup, RepositoryEntry entry, String subIdent);
 	
 	/**
@@ -281,6 +281,26 @@ public class AssessmentEntryDAO {
 				.getResultList();
 	}
 
+	/**
+	 * Load all the assessment entries of the assessed repository entry with
+	 * their identity. The anonym users are excluded by the query.
+	 * 
+	 * @param entry The assessed course / repository entry (mandatory)
+	 * @return A list of assessment entries
+	 */
+	public List<AssessmentEntry> loadAssessmentEntriesByRepositoryEntry(RepositoryEntryRef entry) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select data from assessmententry data ")
+		   .append(" inner join fetch data.identity ident")
+		   .append(" inner join fetch data.repositoryEntry v")
+		   .append(" left join fetch data.referenceEntry refEntry")
+		   .append(" where data.repositoryEntry.key=:repositoryEntryKey");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), AssessmentEntry.class)
+				.setParameter("repositoryEntryKey", entry.getKey())
+				.getResultList();
+	}
+
 	/**
 	 * Load all the assessment entries for a specific user and a specific assessed repository entry
 	 * (typically a course).
@@ -106,6 +106,11 @@ public class AssessmentServiceImpl implements AssessmentService, UserDataDeletab
 		return assessmentEntryDao.loadAssessmentEntriesByAssessedIdentity(assessedIdentity, entry);
 	}
 
+	@Override
+	public List<AssessmentEntry> loadAssessmentEntriesByRepositoryEntry(RepositoryEntry entry) {
+		return assessmentEntryDao.loadAssessmentEntriesByRepositoryEntry(entry);
+	}
+
 	@Override
 	public List<AssessmentEntry> loadAssessmentEntries(BusinessGroup assessedGroup, RepositoryEntry entry, String subIdent) {
 		return assessmentEntryDao.loadAssessmentEntryByGroup(assessedGroup.getBaseGroup(), entry, subIdent);
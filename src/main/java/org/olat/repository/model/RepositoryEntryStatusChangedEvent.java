@@ -19,6 +19,7 @@
  */
 package org.olat.repository.model;
 
+import org.olat.core.util.event.CoalescableEvent;
 import org.olat.core.util.event.MultiUserEvent;
 
 /**
@@ -27,7 +28,7 @@ import org.olat.core.util.event.MultiUserEvent;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
-public class RepositoryEntryStatusChangedEvent extends MultiUserEvent {
+public class RepositoryEntryStatusChangedEvent extends MultiUserEvent implements CoalescableEvent {
 
 	private static final long serialVersionUID = -8624039692057985920L;
 	
@@ -43,4 +44,9 @@ public class RepositoryEntryStatusChangedEvent extends MultiUserEvent {
 	public Long getRepositoryEntryKey() {
 		return repositoryEntryKey;
 	}
+
+	@Override
+	public String getCoalescingKey() {
+		return repositoryEntryKey == null ? null : repositoryEntryKey.toString();
+	}
 }
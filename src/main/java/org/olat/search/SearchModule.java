@@ -101,6 +101,8 @@ public class SearchModule extends AbstractSpringModule {
 	private int searchTimeout;
 	@Value("${search.folder.pool.size:3}")
 	private int folderPoolSize;
+	@Value("${search.indexer.parallel.writing:false}")
+	private boolean parallelWriting;
 	@Value("${restart.window.start}")
 	private int restartWindowStart;
 	@Value("${restart.window.end}")
@@ -123,6 +125,12 @@ public class SearchModule extends AbstractSpringModule {
 
 	@Value("${search.ram.buffer.size:16}")
 	private double ramBufferSizeMB;
+	@Value("${search.nrt.enabled:true}")
+	private boolean nearRealTimeEnabled;
+	@Value("${search.nrt.refresh.interval:1000}")
+	private long nearRealTimeRefreshInterval;
+	@Value("${search.nrt.commit.interval:60000}")
+	private long nearRealTimeCommitInterval;
 	private boolean useCompoundFile = false;
 	
 	@Autowired @Qualifier("fileSizeSuffixes")
@@ -312,6 +320,14 @@ public class SearchModule extends AbstractSpringModule {
 	public int getFolderPoolSize() {
 		return folderPoolSize;
 	}
+	
+	/**
+	 * @return true if the workers of the full indexer add the documents directly
+	 * 		to the index writer, false if a single writer thread adds them
+	 */
+	public boolean isParallelWriting() {
+		return parallelWriting;
+	}
 
 	/**
 	 * @return Start hour for restart-window.
@@ -431,6 +447,28 @@ public class SearchModule extends AbstractSpringModule {
 		this.ramBufferSizeMB = ramBufferSizeMB;
 	}
 
+	/**
+	 * @return true if the permanent index is written by a long-lived writer
+	 * 		and searched with near real-time readers
+	 */
+	public boolean isNearRealTimeEnabled() {
+		return nearRealTimeEnabled;
+	}
+
+	/**
+	 * @return The interval in milliseconds between two refreshes of the searchers
+	 */
+	public long getNearRealTimeRefreshInterval() {
+		return nearRealTimeRefreshInterval;
+	}
+
+	/**
+	 * @return The interval in milliseconds between two commits of the permanent index
+	 */
+	public long getNearRealTimeCommitInterval() {
+		return nearRealTimeCommitInterval;
+	}
+
 	public boolean getUseCompoundFile() {
 		return useCompoundFile;
 	}
@@ -38,7 +38,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -89,6 +91,7 @@ import org.quartz.JobDetail;
 import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * 
@@ -119,6 +122,7 @@ public class SearchServiceImpl implements SearchService, GenericEventListener {
 	
 	private ExecutorService searchExecutor;
 	private OOSearcherManager indexSearcherRefMgr;
+	private ScheduledExecutorService refreshScheduler;
 
 	private String[] fields = {
 			AbstractOlatDocument.TITLE_FIELD_NAME, AbstractOlatDocument.DESCRIPTION_FIELD_NAME,
@@ -252,6 +256,13 @@ public class SearchServiceImpl implements SearchService, GenericEventListener {
 		permanentIndexPath = searchModuleConfig.getFullPermanentIndexPath();
 		
 		createIndexSearcherManager();
+		
+		long refreshInterval = searchModuleConfig.getNearRealTimeRefreshInterval();
+		if(searchModuleConfig.isNearRealTimeEnabled() && refreshInterval > 0) {
+			// the searchers are refreshed periodically and not by every search
+			refreshScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("oo-search-refresh-"));
+			refreshScheduler.scheduleWithFixedDelay(this::maybeRefreshIndexSearcher, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+		}
 
 		if (startingFullIndexingAllowed()) {
 			try {
@@ -489,6 +500,9 @@ public class SearchServiceImpl implements SearchService, GenericEventListener {
 		if(statusStr.equals(FullIndexerStatus.STATUS_RUNNING)){
 			stopIndexing();
 		}
+		if(refreshScheduler != null) {
+			refreshScheduler.shutdown();
+		}
 		try {
 			if (indexSearcherRefMgr != null) {
 				indexSearcherRefMgr.close();
@@ -510,10 +524,23 @@ public class SearchServiceImpl implements SearchService, GenericEventListener {
 			throw new ServiceNotAvailableException("Local search not available");
 		}
 		
-		indexSearcherRefMgr.maybeRefresh();
+		if(refreshScheduler == null) {
+			indexSearcherRefMgr.maybeRefresh();
+		}
 		return indexSearcherRefMgr.acquire();
 	}
 	
+	private void maybeRefreshIndexSearcher() {
+		try {
+			OOSearcherManager refMgr = indexSearcherRefMgr;
+			if(refMgr != null) {
+				refMgr.maybeRefresh();
+			}
+		} catch (Exception e) {
+			log.error("Cannot refresh the index searcher", e);
+		}
+	}
+	
 	protected void releaseIndexSearcher(IndexSearcher s) {
 		if(indexSearcherRefMgr != null) {
 			try {
@@ -527,18 +554,55 @@ public class SearchServiceImpl implements SearchService, GenericEventListener {
 
 	private IndexSearcher newSearcher() throws IOException {
 		DirectoryReader classicReader = DirectoryReader.open(FSDirectory.open(new File(indexPath).toPath()));
-		DirectoryReader permanentReader = DirectoryReader.open(FSDirectory.open(new File(permanentIndexPath).toPath()));
-		OOMultiReader mReader = new OOMultiReader(classicReader, permanentReader);
-		return new IndexSearcher(mReader);
+		DirectoryReader permanentReader = lifeIndexer.openReader();
+		try {
+			return new IndexSearcher(new OOMultiReader(classicReader, permanentReader));
+		} finally {
+			// the multi reader holds its own references
+			classicReader.decRef();
+			permanentReader.decRef();
+		}
+	}
+	
+	/**
+	 * Reopen only the readers which have changed and reuse the other.
+	 * 
+	 * @param current The current searcher
+	 * @return A new searcher or null if nothing has changed
+	 * @throws IOException
+	 */
+	private IndexSearcher newSearcherIfChanged(IndexSearcher current) throws IOException {
+		OOMultiReader r = (OOMultiReader)current.getIndexReader();
+		DirectoryReader newReader = DirectoryReader.openIfChanged(r.getReader());
+		DirectoryReader newPermReader = lifeIndexer.openReaderIfChanged(r.getPermanentReader());
+		if (newReader == null && newPermReader == null) {
+			return null;
+		}
+		
+		try {
+			return new IndexSearcher(new OOMultiReader(newReader == null ? r.getReader() : newReader,
+					newPermReader == null ? r.getPermanentReader() : newPermReader));
+		} finally {
+			if(newReader != null) {
+				newReader.decRef();
+			}
+			if(newPermReader != null) {
+				newPermReader.decRef();
+			}
+		}
 	}
 
+	/**
+	 * The multi reader doesn't close but reference its sub readers, they
+	 * can be shared between the old and the refreshed searcher.
+	 */
 	private static class OOMultiReader extends MultiReader {
 		
 		private final DirectoryReader reader;
 		private final DirectoryReader permanentReader;
 		
 		public OOMultiReader(DirectoryReader reader, DirectoryReader permanentReader) throws IOException {
-			super(reader, permanentReader);
+			super(new IndexReader[] { reader, permanentReader }, false);
 			this.reader = reader;
 			this.permanentReader = permanentReader;
 		}
@@ -580,14 +644,7 @@ public class SearchServiceImpl implements SearchService, GenericEventListener {
 		    if(refresh.getAndSet(false)) {
 		    	searcher = getSearcher(factory);
 		    } else {
-		    	final OOMultiReader r = (OOMultiReader)referenceToRefresh.getIndexReader();
-		    	final IndexReader newReader = DirectoryReader.openIfChanged(r.getReader());
-		    	final IndexReader newPermReader = DirectoryReader.openIfChanged(r.getPermanentReader());  
-		    	if (newReader == null && newPermReader == null) {
-		    		searcher = null;
-		    	} else {
-			    	searcher = getSearcher(factory);
-			    }
+		    	searcher = factory.newSearcherIfChanged(referenceToRefresh);
 		    }
 		    return searcher;
 		}
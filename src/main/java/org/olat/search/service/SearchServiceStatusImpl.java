@@ -27,11 +27,13 @@ package org.olat.search.service;
 
 import java.util.Date;
 
+import org.olat.core.CoreSpringFactory;
 import org.olat.search.SearchService;
 import org.olat.search.SearchServiceStatus;
 import org.olat.search.service.indexer.FullIndexerStatus;
 import org.olat.search.service.indexer.Index;
 import org.olat.search.service.indexer.LifeFullIndexer;
+import org.olat.search.service.indexer.SearchAccessCache;
 
 /**
  * Collection of search-service states. Includes state of full-index, index and search.
@@ -45,6 +47,16 @@ public class SearchServiceStatusImpl implements SearchServiceStatus {
 	
 	private boolean indexExists; 
 	private long queryCount;
+	private final boolean indexUpToDate;
+	private final long indexLag;
+	
+	private final long accessCheckAverageTime;
+	private final long accessCheckMaxTime;
+	private final long lastAccessCheckTime;
+	private final int lastAccessChecks;
+	private final long accessChecks;
+	private final long accessDecisionHits;
+	private final long accessDecisionMisses;
 	
 
 	/**
@@ -59,6 +71,31 @@ public class SearchServiceStatusImpl implements SearchServiceStatus {
 		lifeIndexerStatus = lifeIndexer.getStatus();
 		indexExists = indexer.existIndex();
 		queryCount = search.getQueryCount();
+		indexUpToDate = lifeIndexer.isUpToDate();
+		indexLag = lifeIndexer.getIndexLag();
+		
+		SearchAccessCache accessCache = CoreSpringFactory.getImpl(SearchAccessCache.class);
+		accessCheckAverageTime = accessCache.getAverageAccessCheckTime();
+		accessCheckMaxTime = accessCache.getMaxAccessCheckTime();
+		lastAccessCheckTime = accessCache.getLastAccessCheckTime();
+		lastAccessChecks = accessCache.getLastChecks();
+		accessChecks = accessCache.getTotalChecks();
+		accessDecisionHits = accessCache.getDecisionHits();
+		accessDecisionMisses = accessCache.getDecisionMisses();
+	}
+
+	/**
+	 * @return true if the permanent index is updated near real time
+	 */
+	public boolean getIndexUpToDate() {
+		return indexUpToDate;
+	}
+	
+	/**
+	 * @return The age in milliseconds of the oldest change not yet searchable
+	 */
+	public long getIndexLag() {
+		return indexLag;
 	}
 
 	@Override
@@ -109,4 +146,47 @@ public class SearchServiceStatusImpl implements SearchServiceStatus {
 	public long getQueryCount() {
 		return queryCount;
 	}
+
+	/**
+	 * @return The average time in milliseconds to check the access of the hits of a query
+	 */
+	public long getAccessCheckAverageTime() {
+		return accessCheckAverageTime;
+	}
+
+	/**
+	 * @return The max. time in milliseconds to check the access of the hits of a query
+	 */
+	public long getAccessCheckMaxTime() {
+		return accessCheckMaxTime;
+	}
+
+	/**
+	 * @return The time in milliseconds to check the access of the hits of the last query
+	 */
+	public long getLastAccessCheckTime() {
+		return lastAccessCheckTime;
+	}
+
+	/**
+	 * @return The number of hits checked for the last query
+	 */
+	public int getLastAccessChecks() {
+		return lastAccessChecks;
+	}
+
+	/**
+	 * @return Number of hits checked since last restart
+	 */
+	public long getAccessChecks() {
+		return accessChecks;
+	}
+
+	public long getAccessDecisionHits() {
+		return accessDecisionHits;
+	}
+
+	public long getAccessDecisionMisses() {
+		return accessDecisionMisses;
+	}
 }
@@ -116,11 +116,30 @@ public abstract class AbstractPortfolioMapIndexer extends AbstractHierarchicalIn
 	@Override
 	public boolean checkAccess(ContextEntry contextEntry, BusinessControl businessControl, Identity identity, Roles roles) {
 		try {
+			if(roles.isGuestOnly()) {
+				return false;
+			}
 			OLATResourceable ores = contextEntry.getOLATResourceable();
-			return !roles.isGuestOnly() && frontendManager.isMapVisible(identity, ores) && super.checkAccess(contextEntry, businessControl, identity, roles);
+			return isMapVisible(identity, ores) && super.checkAccess(contextEntry, businessControl, identity, roles);
 		} catch (Exception e) {
 			log.warn("Couldn't ask if map is visible: " + contextEntry, e);
 			return false;
 		}
 	}
-}
\ No newline at end of file
+	
+	private boolean isMapVisible(Identity identity, OLATResourceable ores) {
+		SearchAccessContext accessContext = SearchAccessContext.current();
+		if(accessContext == null) {
+			return frontendManager.isMapVisible(identity, ores);
+		}
+		
+		Long key = ores.getResourceableId();
+		String type = ores.getResourceableTypeName();
+		Boolean visible = accessContext.getDecision(SearchAccessCache.PORTFOLIO_MAP, key, type);
+		if(visible == null) {
+			visible = Boolean.valueOf(frontendManager.isMapVisible(identity, ores));
+			accessContext.putDecision(SearchAccessCache.PORTFOLIO_MAP, key, type, visible.booleanValue());
+		}
+		return visible.booleanValue();
+	}
+}
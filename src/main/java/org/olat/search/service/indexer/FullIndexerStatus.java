@@ -60,11 +60,14 @@ public class FullIndexerStatus {
 	private Map<String,Integer> documentCounters;
 	/** Hashtable with file-type-names as key and Integer-object as counters. */
 	private Map<String,Integer> fileTypeCounters;
+	/** Indexed documents per second with the document-type-names as key. */
+	private Map<String,Double> documentsPerSecond;
 		
 	public FullIndexerStatus(int numberOfPartDocumentCounters) {
 		partDocumentCounters = new int[numberOfPartDocumentCounters];
 		documentCounters = new Hashtable<>();
 		fileTypeCounters = new Hashtable<>();
+		documentsPerSecond = new Hashtable<>();
 	}
 	
 
@@ -142,6 +145,7 @@ public class FullIndexerStatus {
 		}
 		documentCounters = new Hashtable<>();
 		fileTypeCounters = new Hashtable<>();
+		documentsPerSecond = new Hashtable<>();
 		CoreSpringFactory.getImpl(FileDocumentFactory.class).resetExcludedFileSizeCount();
 	}
 
@@ -164,7 +168,7 @@ public class FullIndexerStatus {
 		this.documentCount = documentCount;
 	}
 	
-	public void incrementDocumentCount() {
+	public synchronized void incrementDocumentCount() {
 		documentCount++;
 	}
 
@@ -227,7 +231,7 @@ public class FullIndexerStatus {
 	}
 
 
-	public void addDocumentCount(int docCount) {
+	public synchronized void addDocumentCount(int docCount) {
 		documentCount += docCount;
 	}
 
@@ -268,10 +272,29 @@ public class FullIndexerStatus {
 			buf.append(documentType.getKey());
 			buf.append("=");
 			buf.append(counterValue.toString());
+			Double rate = documentsPerSecond.get(documentType.getKey());
+			if(rate != null) {
+				buf.append(" (").append(String.format("%.1f", rate)).append(" docs/s)");
+			}
 			buf.append("<br />");
 		}
 		return buf.toString();
 	}
+	
+	/**
+	 * Set the indexing rates.
+	 * @param documentsPerSecond  New map with document-type-names as key and documents per second as value.
+	 */
+	public void setDocumentsPerSecond(Map<String,Double> documentsPerSecond) {
+		this.documentsPerSecond = documentsPerSecond;
+	}
+	
+	/**
+	 * @return The number of indexed documents per second with the document-type-names as key
+	 */
+	public Map<String,Double> getDocumentsPerSecond() {
+		return documentsPerSecond;
+	}
 
 	/**
 	 * Set new file-type counters Hashtable.
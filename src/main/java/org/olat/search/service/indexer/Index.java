@@ -78,7 +78,10 @@ public class Index {
 		// do not start search engine in test mode, some repository tests might lead to nullpointers
 		// since only dummy entries are generated (or fix the search service to handle those correctly)
 		if (!Settings.isJUnitTest()) {
-			lifeIndexer.fullIndex();
+			if(!lifeIndexer.isUpToDate()) {
+				// the near real time updates keep the permanent index up to date
+				lifeIndexer.fullIndex();
+			}
 			fullIndexer.startIndexing();
 		}
 	}
@@ -20,10 +20,13 @@
 package org.olat.search.service.indexer;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SegmentInfos;
 import org.apache.lucene.store.Directory;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
@@ -38,16 +41,42 @@ import org.olat.core.util.CodeHelper;
 public class IndexWriterHolder {
 	private static final Logger log = Tracing.createLoggerFor(IndexWriterHolder.class);
 	
+	/* commit data written by the last commit of an orderly close */
+	private static final String CLEAN_SHUTDOWN = "olat.clean.shutdown";
+	
 	private Directory indexPath;
 	private JmsIndexer indexer;
+	private final boolean keepOpen;
 	
 	private AtomicInteger counter = new AtomicInteger(0);
 	private IndexWriter writerRef;
 
 	public IndexWriterHolder(Directory indexPath, JmsIndexer indexer)
+	throws IOException {
+		this(indexPath, indexer, false);
+	}
+	
+	/**
+	 * 
+	 * @param indexPath The directory of the index
+	 * @param indexer The indexer which configures the writer
+	 * @param keepOpen If true, the writer is not committed and closed when released
+	 * 		but lives until the holder is closed (near real-time mode)
+	 * @throws IOException
+	 */
+	public IndexWriterHolder(Directory indexPath, JmsIndexer indexer, boolean keepOpen)
 	throws IOException {
 		this.indexPath = indexPath;
 		this.indexer = indexer;
+		this.keepOpen = keepOpen;
+	}
+	
+	public boolean isKeepOpen() {
+		return keepOpen;
+	}
+	
+	public Directory getDirectory() {
+		return indexPath;
 	}
 	
 	/**
@@ -69,6 +98,33 @@ public class IndexWriterHolder {
 		return created;
 	}
 
+	/**
+	 * Read the marker of the last commit which tells if the writer was closed
+	 * orderly, and reset it with a commit. A crash after this point leaves the
+	 * marker unset.
+	 * 
+	 * @return true if the last writer was closed orderly and all its changes are committed
+	 */
+	public synchronized boolean checkAndResetCleanShutdown() {
+		boolean clean = false;
+		IndexWriter writer = null;
+		try {
+			if(DirectoryReader.indexExists(indexPath)) {
+				Map<String,String> userData = SegmentInfos.readLatestCommit(indexPath).getUserData();
+				clean = "true".equals(userData.get(CLEAN_SHUTDOWN));
+			}
+			writer = getAndLock();
+			writer.setLiveCommitData(Collections.singletonMap(CLEAN_SHUTDOWN, "false").entrySet());
+			writer.commit();
+		} catch (IOException e) {
+			log.error("",  e);
+			clean = false;
+		} finally {
+			release(writer);
+		}
+		return clean;
+	}
+
 	public synchronized IndexWriter getAndLock() throws IOException {
 		if(writerRef == null) {
 			long start = System.nanoTime();
@@ -87,7 +143,7 @@ public class IndexWriterHolder {
 		if(indexWriter != null) {
 			try {
 				int used = counter.decrementAndGet();
-				if(used == 0) {
+				if(used == 0 && !keepOpen) {
 					long start = System.nanoTime();
 					indexWriter.commit();
 					indexWriter.close();
@@ -100,14 +156,55 @@ public class IndexWriterHolder {
 		}
 	}
 	
+	/**
+	 * Open a near real-time reader from the writer, the reader sees
+	 * the changes not committed.
+	 * 
+	 * @return A reader
+	 * @throws IOException
+	 */
+	public synchronized DirectoryReader openReader() throws IOException {
+		IndexWriter indexWriter = getAndLock();
+		try {
+			return DirectoryReader.open(indexWriter);
+		} finally {
+			release(indexWriter);
+		}
+	}
+	
+	/**
+	 * Commit the changes of the long-lived writer.
+	 * 
+	 * @return true if something was committed
+	 */
+	public synchronized boolean commit() {
+		IndexWriter indexWriter = writerRef;
+		if(indexWriter != null && indexWriter.hasUncommittedChanges()) {
+			try {
+				long start = System.nanoTime();
+				indexWriter.commit();
+				if(log.isDebugEnabled()) log.debug("Commit writer takes (ms): " + CodeHelper.nanoToMilliTime(start));
+				return true;
+			} catch (IOException e) {
+				log.error("", e);
+			}
+		}
+		return false;
+	}
+	
 	public synchronized void close() {
 		IndexWriter indexWriter = writerRef;
 		if(indexWriter != null) {
 			try {
+				if(keepOpen) {
+					indexWriter.setLiveCommitData(Collections.singletonMap(CLEAN_SHUTDOWN, "true").entrySet());
+				}
 				indexWriter.commit();
 				indexWriter.close();
 			} catch (IOException e) {
 				log.error("", e);
+			} finally {
+				writerRef = null;
 			}
 		}
 	}
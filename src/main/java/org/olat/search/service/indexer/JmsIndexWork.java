@@ -40,6 +40,7 @@ public class JmsIndexWork implements Serializable {
 	private String indexType;
 	private List<Long> keyList;
 	private String action;
+	private long creationTime = System.currentTimeMillis();
 	
 	public JmsIndexWork() {
 		//
@@ -80,4 +81,15 @@ public class JmsIndexWork implements Serializable {
 	public void setAction(String action) {
 		this.action = action;
 	}
+
+	/**
+	 * @return The time in milliseconds the work was requested
+	 */
+	public long getCreationTime() {
+		return creationTime;
+	}
+
+	public void setCreationTime(long creationTime) {
+		this.creationTime = creationTime;
+	}
 }
@@ -22,8 +22,11 @@ package org.olat.search.service.indexer;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
@@ -47,9 +50,6 @@ import org.apache.lucene.index.IndexWriterConfig.OpenMode;
 import org.apache.lucene.index.LogDocMergePolicy;
 import org.apache.lucene.index.LogMergePolicy;
 import org.apache.lucene.index.Term;
-import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.olat.core.commons.persistence.DBFactory;
@@ -59,6 +59,7 @@ import org.olat.core.logging.Tracing;
 import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.search.SearchModule;
 import org.olat.search.model.AbstractOlatDocument;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * 
@@ -80,11 +81,18 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 	private CoordinatorManager coordinatorManager;
 
 	private String permanentIndexPath;
-	private DirectoryReader reader;
+	private Directory permanentDirectory;
 	private IndexWriterHolder permanentIndexWriter;
 	
 	private double ramBufferSizeMB;
 	private boolean indexingNode;
+	private final boolean nearRealTime;
+	private final long commitInterval;
+	private ScheduledExecutorService commitScheduler;
+	
+	private volatile boolean upToDate;
+	private volatile long lastChange;
+	private final AtomicLong pendingSince = new AtomicLong();
 
 	private FullIndexerStatus fullIndexerStatus;
 
@@ -94,6 +102,8 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 		indexingNode = searchModuleConfig.isSearchServiceEnabled();
 		ramBufferSizeMB = searchModuleConfig.getRAMBufferSizeMB();
 		permanentIndexPath = searchModuleConfig.getFullPermanentIndexPath();
+		nearRealTime = searchModuleConfig.isNearRealTimeEnabled();
+		commitInterval = searchModuleConfig.getNearRealTimeCommitInterval();
 		fullIndexerStatus = new FullIndexerStatus(0);
 		this.coordinatorManager = coordinatorManager;
 	}
@@ -179,16 +189,28 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 	public void initDirectory() {
 		try {
 			File tempIndexDir = new File(permanentIndexPath);
-			Directory indexPath = FSDirectory.open(tempIndexDir.toPath());
+			permanentDirectory = FSDirectory.open(tempIndexDir.toPath());
 			if(indexingNode) {
-				permanentIndexWriter = new IndexWriterHolder(indexPath, this);
+				// in near real-time mode, a single writer lives as long as the node
+				permanentIndexWriter = new IndexWriterHolder(permanentDirectory, this, nearRealTime);
 				boolean created = permanentIndexWriter.ensureIndexExists();
+				// the changes are acknowledged before the periodic commit, only an orderly
+				// shutdown guarantees that the index contains all of them
+				if(nearRealTime && !created) {
+					upToDate = permanentIndexWriter.checkAndResetCleanShutdown();
+					if(!upToDate) {
+						log.info("Permanent index was not closed orderly, it will be repaired by the next full index");
+					}
+				}
 				if(created) {
 					IndexerEvent event = new IndexerEvent(IndexerEvent.INDEX_CREATED);
 					coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, IndexerEvent.INDEX_ORES);
 				}
+				if(nearRealTime && commitInterval > 0) {
+					commitScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("oo-search-commit-"));
+					commitScheduler.scheduleWithFixedDelay(permanentIndexWriter::commit, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+				}
 			}
-			reader = DirectoryReader.open(indexPath);
 		} catch (IOException e) {
 			log.error("", e);
 		}
@@ -214,6 +236,9 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 	 * [used by Spring]
 	 */
 	public void stop() {
+		if(commitScheduler != null) {
+			commitScheduler.shutdown();
+		}
 		closeQueue();
 		closeWriter();
 	}
@@ -238,7 +263,9 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 	
 	public void closeWriter() {
 		try {
-			permanentIndexWriter.close();
+			if(permanentIndexWriter != null) {
+				permanentIndexWriter.close();
+			}
 		} catch (Exception e) {
 			log.error("", e);
 		}
@@ -252,6 +279,7 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 			indexer.fullIndex(this);
 		}
 		fullIndexerStatus.indexingFinished();
+		upToDate = nearRealTime;
 		log.info("end full reindex of life index");
 	}
 
@@ -260,6 +288,64 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 		return fullIndexerStatus;
 	}
 
+	@Override
+	public boolean isUpToDate() {
+		return upToDate;
+	}
+
+	@Override
+	public long getIndexLag() {
+		long since = pendingSince.get();
+		return since == 0 ? 0 : Math.max(0, System.currentTimeMillis() - since);
+	}
+	
+	/**
+	 * Remember the oldest change which is not searchable.
+	 * 
+	 * @param requestTime The time the change was requested
+	 */
+	private void changed(long requestTime) {
+		pendingSince.accumulateAndGet(requestTime, (since, time) -> since == 0 ? time : Math.min(since, time));
+		lastChange = System.currentTimeMillis();
+	}
+	
+	private void searchable(long openTime) {
+		if(lastChange < openTime) {
+			pendingSince.set(0);
+		}
+	}
+
+	@Override
+	public DirectoryReader openReader() throws IOException {
+		long openTime = System.currentTimeMillis();
+		DirectoryReader reader;
+		if(nearRealTime && permanentIndexWriter != null) {
+			reader = permanentIndexWriter.openReader();
+		} else {
+			reader = DirectoryReader.open(getPermanentDirectory());
+		}
+		searchable(openTime);
+		return reader;
+	}
+
+	@Override
+	public DirectoryReader openReaderIfChanged(DirectoryReader reader) throws IOException {
+		long openTime = System.currentTimeMillis();
+		// a reader opened from the writer is reopened from the writer
+		DirectoryReader newReader = DirectoryReader.openIfChanged(reader);
+		if(newReader != null) {
+			searchable(openTime);
+		}
+		return newReader;
+	}
+	
+	private Directory getPermanentDirectory() throws IOException {
+		if(permanentDirectory == null) {
+			permanentDirectory = FSDirectory.open(new File(permanentIndexPath).toPath());
+		}
+		return permanentDirectory;
+	}
+
 	@Override
 	public void indexDocument(String type, Long key) {
 		QueueSender sender;
@@ -298,7 +384,20 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 
 	@Override
 	public void deleteDocument(String type, Long key) {
-		indexDocument(type, Collections.singletonList(key));
+		QueueSender sender;
+		QueueSession session;
+		try {
+			JmsIndexWork workUnit = new JmsIndexWork(JmsIndexWork.DELETE, type, key);
+			session = connection.createQueueSession(false, QueueSession.AUTO_ACKNOWLEDGE );
+			ObjectMessage message = session.createObjectMessage();
+			message.setObject(workUnit);
+
+			sender = session.createSender(getJmsQueue());
+			sender.send( message );
+			session.close();
+		} catch (JMSException e) {
+			log.error("", e );
+		}
 	}
 
 	@Override
@@ -312,6 +411,7 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 				} else if(JmsIndexWork.DELETE.equals(workUnit.getAction())) {
 					doDelete(workUnit);
 				}
+				changed(workUnit.getCreationTime());
 				message.acknowledge();
 			} catch (JMSException e) {
 				log.error("", e);
@@ -345,20 +445,6 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 		}
 	}
 	
-	private DirectoryReader getReader() throws IOException {
-		if(reader == null) {
-			File tempIndexDir = new File(permanentIndexPath);
-			Directory indexPath = FSDirectory.open(tempIndexDir.toPath());
-			reader = DirectoryReader.open(indexPath);
-		} else {
-			DirectoryReader newReader = DirectoryReader.openIfChanged(reader);
-			if(newReader != null) {
-				reader = newReader;
-			}
-		}
-		return reader;
-	}
-
 	@Override
 	public IndexWriter getAndLockWriter() throws IOException {
 		return permanentIndexWriter.getAndLock();
@@ -377,6 +463,7 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 			writer = permanentIndexWriter.getAndLock();
 			writer.deleteDocuments(uuidTerm);
 		} catch (IOException e) {
+			upToDate = false;
 			log.error("", e);
 		} finally {
 			permanentIndexWriter.release(writer);
@@ -394,23 +481,17 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 		
 		IndexWriter writer = null;
 		try {
-			DirectoryReader currentReader = getReader();
-			IndexSearcher searcher = new IndexSearcher(currentReader);
 			writer = permanentIndexWriter.getAndLock();
-			
 			for(Document document:documents) {
 				if(document != null) {
+					// update deletes the document with the same URL if any and adds the new one
 					String resourceUrl = document.get(AbstractOlatDocument.RESOURCEURL_FIELD_NAME);
 					Term uuidTerm = new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, resourceUrl);
-					TopDocs hits = searcher.search(new TermQuery(uuidTerm), 10);
-					if(hits.totalHits > 0) {
-						writer.updateDocument(uuidTerm, document);
-					} else {
-						writer.addDocument(document);
-					}
+					writer.updateDocument(uuidTerm, document);
 				}
 			}
 		} catch (IOException e) {
+			upToDate = false;
 			log.error("", e);
 		} finally {
 			permanentIndexWriter.release(writer);
@@ -422,15 +503,9 @@ public class JmsIndexer implements MessageListener, LifeFullIndexer, ConfigOnOff
 		try {
 			String resourceUrl = document.get(AbstractOlatDocument.RESOURCEURL_FIELD_NAME);
 			Term uuidTerm = new Term(AbstractOlatDocument.RESOURCEURL_FIELD_NAME, resourceUrl);
-			DirectoryReader currentReader = getReader();
-			IndexSearcher searcher = new IndexSearcher(currentReader);
-			TopDocs hits = searcher.search(new TermQuery(uuidTerm), 10);
-			if(hits.totalHits > 0) {
-				writer.updateDocument(uuidTerm, document);
-			} else {
-				writer.addDocument(document);
-			}
+			writer.updateDocument(uuidTerm, document);
 		} catch (IOException e) {
+			upToDate = false;
 			log.error("", e);
 		}
 	}
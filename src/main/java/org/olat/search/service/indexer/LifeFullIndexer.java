@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 
 /**
@@ -42,6 +43,35 @@ public interface LifeFullIndexer {
 	
 	public FullIndexerStatus getStatus();
 	
+	/**
+	 * @return true if the index is updated document per document and a full
+	 * 		index is only needed to repair it
+	 */
+	public boolean isUpToDate();
+	
+	/**
+	 * @return The time in milliseconds since the oldest change which is written
+	 * 		but not yet searchable, 0 if all changes are searchable
+	 */
+	public long getIndexLag();
+	
+	/**
+	 * Open a reader of the index. In near real-time mode, the reader
+	 * sees the documents written but not committed.
+	 * 
+	 * @return A new reader
+	 * @throws IOException
+	 */
+	public DirectoryReader openReader() throws IOException;
+	
+	/**
+	 * 
+	 * @param reader A reader opened by this indexer
+	 * @return A new reader or null if the index has not changed
+	 * @throws IOException
+	 */
+	public DirectoryReader openReaderIfChanged(DirectoryReader reader) throws IOException;
+	
 	/**
 	 * Ask to index the document with the specified key
 	 * @param type
@@ -33,10 +33,11 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
-import java.util.Hashtable;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -97,6 +98,8 @@ public class OlatFullIndexer {
 	private double ramBufferSizeMB;
 	
 	private final int indexerPoolSize;
+	/** The workers add the documents directly to the thread-safe index writer. */
+	private final boolean parallelWriting;
 	
 	/** Current status of full-indexer. */
 	private FullIndexerStatus fullIndexerStatus;
@@ -108,10 +111,11 @@ public class OlatFullIndexer {
 	/* Define number of documents which will be added befor sleeping (indexInterval for CPU load). */
 	int documentsPerInterval;
   /* Counts added documents in indexInterval. */
-	private int sleepDocumentCounter = 0;
+	private final AtomicInteger sleepDocumentCounter = new AtomicInteger(0);
 	/* List of Integer objects to count number of docs for each type. Key = document-type. */
 	private Map<String,Integer> documentCounters;
 	private Map<String,Integer> fileTypeCounters;
+	private Map<String,DocumentTypeRate> documentRates;
 
 	private final MainIndexer mainIndexer;
 	private final SearchService searchService;
@@ -141,6 +145,7 @@ public class OlatFullIndexer {
 		} else {
 			indexerPoolSize = searchModule.getFolderPoolSize() - 1;
 		}
+		parallelWriting = searchModule.isParallelWriting();
 		indexPath = searchModule.getFullIndexPath();
 		tempIndexPath = searchModule.getFullTempIndexPath();
 		indexInterval = searchModule.getIndexInterval();
@@ -232,7 +237,7 @@ public class OlatFullIndexer {
 				indexerExecutor = new ThreadPoolExecutor(indexerPoolSize, indexerPoolSize, 0L, TimeUnit.MILLISECONDS,
 						queue, indexWorkersThreadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
 			}
-			if(indexerWriterExecutor == null) {
+			if(indexerWriterExecutor == null && !parallelWriting) {
 				BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(2);
 				indexerWriterExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue, indexWriterThreadFactory);
 			}
@@ -255,18 +260,24 @@ public class OlatFullIndexer {
 			indexerExecutor.awaitTermination(10, TimeUnit.MINUTES);
 			DBFactory.getInstance().commitAndCloseSession();
 			
-			log.info("Wait until index writer executor is finished");
-			int waitWriter = 0;
-			while (indexerWriterExecutor.getActiveCount() > 0 && (waitWriter++ < MAX_WAITING_COUNT)) { 
-				Thread.sleep(1000);
+			if(parallelWriting) {
+				log.info("Close index writer");
+				fullIndexerStatus.setIndexSize(indexWriter.maxDoc());
+				closeIndexWriter();
+			} else {
+				log.info("Wait until index writer executor is finished");
+				int waitWriter = 0;
+				while (indexerWriterExecutor.getActiveCount() > 0 && (waitWriter++ < MAX_WAITING_COUNT)) { 
+					Thread.sleep(1000);
+				}
+				
+				log.info("Close index writer executor");
+				fullIndexerStatus.setIndexSize(indexWriter.maxDoc());
+				//shutdown the index writer thread
+				indexerWriterExecutor.submit(new CloseIndexCallable());
+				indexerWriterExecutor.shutdown();
+				indexerWriterExecutor.awaitTermination(1, TimeUnit.MINUTES);
 			}
-			
-			log.info("Close index writer executor");
-			fullIndexerStatus.setIndexSize(indexWriter.maxDoc());
-			//shutdown the index writer thread
-			indexerWriterExecutor.submit(new CloseIndexCallable());
-			indexerWriterExecutor.shutdown();
-			indexerWriterExecutor.awaitTermination(1, TimeUnit.MINUTES);
 		} catch (IOException e) {
 			log.warn("Can not create IndexWriter, indexname=" + tempIndexPath, e);
 		} finally {
@@ -347,15 +358,27 @@ public class OlatFullIndexer {
 	 * Add a document to the index writer. The document is indexed by a single threaded executor,
 	 * Lucene want that write operations happen within a single thread. The access is synchronized
 	 * to block concurrent access to the executor. It blocks the text extractors and allow a
-	 * ridiculously small queue but memory efficient.
+	 * ridiculously small queue but memory efficient.<br>
+	 * In parallel writing mode, the calling thread adds the document to the index writer which
+	 * is thread-safe and buffers the documents of every thread in its own segment.
 	 * 
 	 * @param document
 	 * @throws IOException
 	 */
 	public void addDocument(Document document) throws InterruptedException {
-		DBFactory.getInstance().commitAndCloseSession();
-		
-		if (!stopIndexing && indexerWriterExecutor != null && !indexerWriterExecutor.isShutdown()) {
+		if(parallelWriting) {
+			if (!stopIndexing && indexWriter != null) {
+				try {
+					writeDocument(document);
+				} catch (InterruptedException e) {
+					throw e;
+				} catch (Exception e) {
+					log.error("", e);
+				}
+			}
+		} else if (!stopIndexing && indexerWriterExecutor != null && !indexerWriterExecutor.isShutdown()) {
+			// release the connection while waiting for the writer thread
+			DBFactory.getInstance().commitAndCloseSession();
 			synchronized(indexerWriterBlock) {//once at a time please, wait, you have enough time
 				Future<Boolean> future = indexerWriterExecutor.submit(new AddDocumentCallable(document));
 				try {
@@ -368,35 +391,41 @@ public class OlatFullIndexer {
 
 		incrementDocumentTypeCounter(document);
 		incrementFileTypeCounter(document);
-		fullIndexerStatus.setNumberAvailableFolderIndexer(indexerExecutor.getPoolSize());
-		fullIndexerStatus.setNumberRunningFolderIndexer(indexerExecutor.getActiveCount());
+		ThreadPoolExecutor executor = indexerExecutor;
+		if(executor != null) {
+			fullIndexerStatus.setNumberAvailableFolderIndexer(executor.getPoolSize());
+			fullIndexerStatus.setNumberRunningFolderIndexer(executor.getActiveCount());
+		}
+	}
+	
+	private void writeDocument(Document document) throws Exception {
+		indexWriter.addDocument(document);
+		fullIndexerStatus.incrementDocumentCount();
+		if (indexInterval != 0 && sleepDocumentCounter.getAndIncrement() >= documentsPerInterval) {
+			sleepDocumentCounter.set(0);
+			Thread.sleep(indexInterval);
+		} else if (stopIndexing) {
+			throw new InterruptedException("Do stop indexing at element=" + indexWriter.maxDoc());
+		}
+		countIndexPerMinute();
 	}
 	
 	private void incrementFileTypeCounter(Document document) {
 		String fileType = document.get(OlatDocument.FILETYPE_FIELD_NAME);
 		if ( (fileType != null) && (!fileType.equals(""))) {
-			int intValue = 0;
-			if (fileTypeCounters.containsKey(fileType)) {
-			  Integer fileCounter = fileTypeCounters.get(fileType);
-			  intValue = fileCounter.intValue();
-			}
-			intValue++;
-			fileTypeCounters.put(fileType, Integer.valueOf(intValue));
+			fileTypeCounters.merge(fileType, Integer.valueOf(1), Integer::sum);
 		}
 	}
 
 	private void incrementDocumentTypeCounter(Document document) {
 		String documentType = document.get(OlatDocument.DOCUMENTTYPE_FIELD_NAME);
-		int intValue = 0;
-		if (documentCounters.containsKey(documentType)) {
-		  Integer docCounter = documentCounters.get(documentType);
-		  intValue = docCounter.intValue();
+		if(documentType != null) {
+			documentCounters.merge(documentType, Integer.valueOf(1), Integer::sum);
+			documentRates.computeIfAbsent(documentType, type -> new DocumentTypeRate()).increment();
 		}
-		intValue++;
-		documentCounters.put(documentType, Integer.valueOf(intValue));
 	}
 
-	private void countIndexPerMinute() {
+	private synchronized void countIndexPerMinute() {
 		long currentTime = System.currentTimeMillis();
 		if (lastMinute+60000 > currentTime) {
 			// it is teh same minute
@@ -418,6 +447,11 @@ public class OlatFullIndexer {
 	public FullIndexerStatus getStatus() {
 		fullIndexerStatus.setDocumentCounters(documentCounters);
 		fullIndexerStatus.setFileTypeCounters(fileTypeCounters);
+		Map<String,Double> documentsPerSecond = new HashMap<>();
+		for(Map.Entry<String,DocumentTypeRate> rate:documentRates.entrySet()) {
+			documentsPerSecond.put(rate.getKey(), Double.valueOf(rate.getValue().getDocumentsPerSecond()));
+		}
+		fullIndexerStatus.setDocumentsPerSecond(documentsPerSecond);
 		fullIndexerStatus.setDocumentQueueSize(0);
 		return fullIndexerStatus;
 	}
@@ -442,17 +476,22 @@ public class OlatFullIndexer {
 	}
 	
 	private void resetDocumentCounters() {
-		documentCounters = new Hashtable<>();
-		fileTypeCounters = new Hashtable<>();		
+		documentCounters = new ConcurrentHashMap<>();
+		fileTypeCounters = new ConcurrentHashMap<>();
+		documentRates = new ConcurrentHashMap<>();
+	}
+	
+	private void closeIndexWriter() throws IOException {
+		indexWriter.commit();
+		indexWriter.close();
+		indexWriter = null;
 	}
 	
 	private class CloseIndexCallable implements Callable<Boolean> {
 
 		@Override
 		public Boolean call() throws Exception {
-			indexWriter.commit();
-			indexWriter.close();
-			indexWriter = null;
+			closeIndexWriter();
 			return Boolean.TRUE;
 		}
 	}
@@ -466,19 +505,32 @@ public class OlatFullIndexer {
 
 		@Override
 		public Boolean call() throws Exception {
-			indexWriter.addDocument(document);
-			fullIndexerStatus.incrementDocumentCount();
-			if (indexInterval != 0 && sleepDocumentCounter++ >= documentsPerInterval) {
-				sleepDocumentCounter = 0;
-				Thread.sleep(indexInterval);
-			} else if (stopIndexing) {
-				throw new InterruptedException("Do stop indexing at element=" + indexWriter.maxDoc());
-			}
-			countIndexPerMinute();
+			writeDocument(document);
 			return Boolean.TRUE;
 		}
 	}
 	
+	/**
+	 * Number of documents of a type and the time between the first
+	 * and the last one.
+	 */
+	private static class DocumentTypeRate {
+		
+		private final long start = System.currentTimeMillis();
+		private final AtomicInteger count = new AtomicInteger();
+		private volatile long last = start;
+		
+		public void increment() {
+			count.incrementAndGet();
+			last = System.currentTimeMillis();
+		}
+		
+		public double getDocumentsPerSecond() {
+			long duration = Math.max(1000l, last - start);
+			return count.get() * 1000.0d / duration;
+		}
+	}
+	
 	private static class IndexerThreadFactory implements ThreadFactory {
 
 		private static final AtomicInteger poolNumber = new AtomicInteger(1);
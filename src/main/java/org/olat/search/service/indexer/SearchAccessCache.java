@@ -0,0 +1,312 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.id.Identity;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.id.context.BusinessControlFactory;
+import org.olat.core.id.context.ContextEntry;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.StringHelper;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.group.BusinessGroup;
+import org.olat.group.BusinessGroupMembership;
+import org.olat.group.BusinessGroupService;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryService;
+import org.olat.search.service.indexer.SearchAccessContext.ResourceKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Batches and memoizes the access checks of the search results. The hits
+ * of a query are grouped by their owning resource (repository entry, business
+ * group) and the resources are loaded with one query per window of results.
+ * The access decisions are remembered for the time of the query and shared
+ * with the following queries of the same identity for a short time to live.<br>
+ * It collects the timing of the access checks for the search status.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+@Service
+public class SearchAccessCache {
+
+	private static final Logger log = Tracing.createLoggerFor(SearchAccessCache.class);
+
+	public static final String REPOSITORY_ENTRY = OresHelper.calculateTypeName(RepositoryEntry.class);
+	public static final String REPOSITORY_ENTRY_LAUNCH = "RepositoryEntryLaunch";
+	public static final String BUSINESS_GROUP = OresHelper.calculateTypeName(BusinessGroup.class);
+	public static final String BUSINESS_GROUP_MEMBER = "BusinessGroupMember";
+	public static final String COURSE_TREE = "CourseTreeEvaluation";
+	public static final String COURSE_NODE = "CourseNodeAccess";
+	public static final String PORTFOLIO_MAP = "PortfolioMapVisible";
+
+	@Value("${search.access.cache.ttl:30000}")
+	private long timeToLive;
+	@Value("${search.access.cache.size:20000}")
+	private int maxSize;
+
+	private final AtomicLong searches = new AtomicLong();
+	private final AtomicLong totalAccessCheckTime = new AtomicLong();
+	private final AtomicLong maxAccessCheckTime = new AtomicLong();
+	private final AtomicLong totalChecks = new AtomicLong();
+	private final AtomicLong decisionHits = new AtomicLong();
+	private final AtomicLong decisionMisses = new AtomicLong();
+	private volatile long lastAccessCheckTime;
+	private volatile int lastChecks;
+
+	private final Map<DecisionKey,CachedDecision> decisions = new LinkedHashMap<DecisionKey,CachedDecision>(256, 0.75f, true) {
+		private static final long serialVersionUID = 2983750983215364402L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<DecisionKey,CachedDecision> eldest) {
+			return size() > maxSize;
+		}
+	};
+
+	@Autowired
+	private RepositoryService repositoryService;
+	@Autowired
+	private BusinessGroupService businessGroupService;
+
+	/**
+	 * Start the access checks of a query and bind the context to the
+	 * current thread.
+	 *
+	 * @param identity The identity which search
+	 * @return The context
+	 */
+	public SearchAccessContext startSearch(Identity identity) {
+		SearchAccessContext context = new SearchAccessContext(identity, this);
+		context.bind();
+		return context;
+	}
+
+	/**
+	 * Unbind the context and collect its statistics.
+	 *
+	 * @param context The context of the query
+	 */
+	public void endSearch(SearchAccessContext context) {
+		context.unbind();
+
+		long accessCheckTime = context.getAccessCheckTime();
+		searches.incrementAndGet();
+		totalAccessCheckTime.addAndGet(accessCheckTime);
+		maxAccessCheckTime.accumulateAndGet(accessCheckTime, Math::max);
+		totalChecks.addAndGet(context.getChecks());
+		decisionHits.addAndGet(context.getDecisionHits());
+		decisionMisses.addAndGet(context.getDecisionMisses());
+		lastAccessCheckTime = accessCheckTime;
+		lastChecks = context.getChecks();
+		if(log.isDebugEnabled()) {
+			log.debug("Search access checks: {} in {}ms, decisions hits: {}, misses: {}, prefetched: {}",
+					context.getChecks(), accessCheckTime, context.getDecisionHits(), context.getDecisionMisses(), context.getPrefetchedResources());
+		}
+	}
+
+	/**
+	 * Group the business paths by their owning resource and load the
+	 * repository entries and the memberships of the business groups which
+	 * are not already in the context.
+	 *
+	 * @param context The context of the query
+	 * @param businessPaths The resource URL of the hits
+	 */
+	public void prefetch(SearchAccessContext context, Collection<String> businessPaths) {
+		long start = System.nanoTime();
+
+		Set<Long> repositoryEntryKeys = new HashSet<>();
+		Set<Long> groupKeys = new HashSet<>();
+		for(String businessPath:businessPaths) {
+			if(!StringHelper.containsNonWhitespace(businessPath)) continue;
+
+			List<ContextEntry> entries = BusinessControlFactory.getInstance().createCEListFromString(businessPath);
+			if(entries.isEmpty() || entries.get(0) == null) continue;
+
+			OLATResourceable ores = entries.get(0).getOLATResourceable();
+			String type = ores.getResourceableTypeName();
+			Long key = ores.getResourceableId();
+			if(REPOSITORY_ENTRY.equals(type) && !context.hasResource(REPOSITORY_ENTRY, key)) {
+				repositoryEntryKeys.add(key);
+			} else if(BUSINESS_GROUP.equals(type) && !context.hasResource(BUSINESS_GROUP_MEMBER, key)) {
+				groupKeys.add(key);
+			}
+		}
+
+		int numOfResources = repositoryEntryKeys.size() + groupKeys.size();
+		if(!repositoryEntryKeys.isEmpty()) {
+			List<RepositoryEntry> entries = repositoryService.loadByKeys(repositoryEntryKeys);
+			for(RepositoryEntry entry:entries) {
+				context.putResource(REPOSITORY_ENTRY, entry.getKey(), entry);
+				repositoryEntryKeys.remove(entry.getKey());
+			}
+			for(Long deletedKey:repositoryEntryKeys) {
+				context.putResource(REPOSITORY_ENTRY, deletedKey, null);
+			}
+		}
+
+		if(!groupKeys.isEmpty()) {
+			List<BusinessGroupMembership> memberships = businessGroupService
+					.getBusinessGroupMembership(groupKeys, context.getIdentity());
+			for(Long groupKey:groupKeys) {
+				context.putResource(BUSINESS_GROUP_MEMBER, groupKey, Boolean.FALSE);
+			}
+			for(BusinessGroupMembership membership:memberships) {
+				if(membership.isOwner() || membership.isParticipant()) {
+					context.putResource(BUSINESS_GROUP_MEMBER, membership.getGroupKey(), Boolean.TRUE);
+				}
+			}
+		}
+
+		context.addPrefetchTime(System.nanoTime() - start, numOfResources);
+	}
+
+	Boolean getDecision(Identity identity, ResourceKey resourceKey) {
+		if(timeToLive <= 0) return null;
+
+		DecisionKey key = new DecisionKey(identity.getKey(), resourceKey);
+		CachedDecision decision;
+		synchronized(decisions) {
+			decision = decisions.get(key);
+			if(decision != null && decision.isExpired()) {
+				decisions.remove(key);
+				decision = null;
+			}
+		}
+		return decision == null ? null : decision.getDecision();
+	}
+
+	void putDecision(Identity identity, ResourceKey resourceKey, boolean decision) {
+		if(timeToLive <= 0) return;
+
+		DecisionKey key = new DecisionKey(identity.getKey(), resourceKey);
+		CachedDecision cachedDecision = new CachedDecision(decision, System.currentTimeMillis() + timeToLive);
+		synchronized(decisions) {
+			decisions.put(key, cachedDecision);
+		}
+	}
+
+	public void clear() {
+		synchronized(decisions) {
+			decisions.clear();
+		}
+	}
+
+	public int size() {
+		synchronized(decisions) {
+			return decisions.size();
+		}
+	}
+
+	public long getSearchCount() {
+		return searches.get();
+	}
+
+	/**
+	 * @return The average time in milliseconds spent in access checks per query
+	 */
+	public long getAverageAccessCheckTime() {
+		long count = searches.get();
+		return count == 0 ? 0 : totalAccessCheckTime.get() / count;
+	}
+
+	public long getMaxAccessCheckTime() {
+		return maxAccessCheckTime.get();
+	}
+
+	public long getLastAccessCheckTime() {
+		return lastAccessCheckTime;
+	}
+
+	public int getLastChecks() {
+		return lastChecks;
+	}
+
+	public long getTotalChecks() {
+		return totalChecks.get();
+	}
+
+	public long getDecisionHits() {
+		return decisionHits.get();
+	}
+
+	public long getDecisionMisses() {
+		return decisionMisses.get();
+	}
+
+	private static class CachedDecision {
+
+		private final boolean decision;
+		private final long expiration;
+
+		public CachedDecision(boolean decision, long expiration) {
+			this.decision = decision;
+			this.expiration = expiration;
+		}
+
+		public Boolean getDecision() {
+			return Boolean.valueOf(decision);
+		}
+
+		public boolean isExpired() {
+			return expiration < System.currentTimeMillis();
+		}
+	}
+
+	private static class DecisionKey {
+
+		private final Long identityKey;
+		private final ResourceKey resourceKey;
+
+		public DecisionKey(Long identityKey, ResourceKey resourceKey) {
+			this.identityKey = identityKey;
+			this.resourceKey = resourceKey;
+		}
+
+		@Override
+		public int hashCode() {
+			return identityKey.hashCode() * 31 + resourceKey.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof DecisionKey) {
+				DecisionKey key = (DecisionKey)obj;
+				return identityKey.equals(key.identityKey) && resourceKey.equals(key.resourceKey);
+			}
+			return false;
+		}
+	}
+}
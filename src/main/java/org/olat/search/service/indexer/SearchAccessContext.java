@@ -0,0 +1,198 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.olat.core.id.Identity;
+
+/**
+ * The state of the access checks of one search query. It holds the resources
+ * loaded for the query (repository entries, course tree evaluations...) and
+ * the access decisions already taken, so every owning resource is checked
+ * only once per query. The decisions are shared with the other queries of the
+ * same identity through the {@link SearchAccessCache} for a short time.<br>
+ * The context is bound to the thread which filters the results, the indexers
+ * retrieve it with {@link #current()} and must work without it.
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class SearchAccessContext {
+
+	private static final ThreadLocal<SearchAccessContext> currentContext = new ThreadLocal<>();
+
+	private final Identity identity;
+	private final SearchAccessCache cache;
+	private final Map<ResourceKey,Boolean> decisions = new HashMap<>();
+	private final Map<ResourceKey,Object> resources = new HashMap<>();
+
+	private long accessCheckTime;
+	private long prefetchTime;
+	private int checks;
+	private int decisionHits;
+	private int decisionMisses;
+	private int prefetchedResources;
+
+	SearchAccessContext(Identity identity, SearchAccessCache cache) {
+		this.identity = identity;
+		this.cache = cache;
+	}
+
+	/**
+	 * @return The context of the search query processed by the current thread or null
+	 */
+	public static SearchAccessContext current() {
+		return currentContext.get();
+	}
+
+	void bind() {
+		currentContext.set(this);
+	}
+
+	void unbind() {
+		currentContext.remove();
+	}
+
+	public Identity getIdentity() {
+		return identity;
+	}
+
+	/**
+	 * @param type The type of decision
+	 * @param key The primary key of the resource
+	 * @param subIdent An optional identifier within the resource (course node...)
+	 * @return The decision or null if the access was not checked
+	 */
+	public Boolean getDecision(String type, Long key, String subIdent) {
+		ResourceKey resourceKey = new ResourceKey(type, key, subIdent);
+		Boolean decision = decisions.get(resourceKey);
+		if(decision == null) {
+			decision = cache.getDecision(identity, resourceKey);
+			if(decision != null) {
+				decisions.put(resourceKey, decision);
+			}
+		}
+
+		if(decision == null) {
+			decisionMisses++;
+		} else {
+			decisionHits++;
+		}
+		return decision;
+	}
+
+	public void putDecision(String type, Long key, String subIdent, boolean decision) {
+		ResourceKey resourceKey = new ResourceKey(type, key, subIdent);
+		decisions.put(resourceKey, Boolean.valueOf(decision));
+		cache.putDecision(identity, resourceKey, decision);
+	}
+
+	/**
+	 * The resources are only held for the time of the query.
+	 *
+	 * @param type The type of resource
+	 * @param key The primary key of the resource
+	 * @param resourceClass The class of the resource
+	 * @return The resource or null if not loaded for this query
+	 */
+	public <U> U getResource(String type, Long key, Class<U> resourceClass) {
+		Object resource = resources.get(new ResourceKey(type, key, null));
+		return resourceClass.isInstance(resource) ? resourceClass.cast(resource) : null;
+	}
+
+	public boolean hasResource(String type, Long key) {
+		return resources.containsKey(new ResourceKey(type, key, null));
+	}
+
+	/**
+	 * @param type The type of resource
+	 * @param key The primary key of the resource
+	 * @param resource The resource, null is allowed to remember that it doesn't exist
+	 */
+	public void putResource(String type, Long key, Object resource) {
+		resources.put(new ResourceKey(type, key, null), resource);
+	}
+
+	public void addAccessCheckTime(long nanos) {
+		accessCheckTime += nanos;
+		checks++;
+	}
+
+	void addPrefetchTime(long nanos, int numOfResources) {
+		prefetchTime += nanos;
+		prefetchedResources += numOfResources;
+	}
+
+	/**
+	 * @return The time spent in access checks in milliseconds
+	 */
+	public long getAccessCheckTime() {
+		return (accessCheckTime + prefetchTime) / 1000000l;
+	}
+
+	public int getChecks() {
+		return checks;
+	}
+
+	public int getDecisionHits() {
+		return decisionHits;
+	}
+
+	public int getDecisionMisses() {
+		return decisionMisses;
+	}
+
+	public int getPrefetchedResources() {
+		return prefetchedResources;
+	}
+
+	static class ResourceKey {
+
+		private final String type;
+		private final Long key;
+		private final String subIdent;
+
+		ResourceKey(String type, Long key, String subIdent) {
+			this.type = type;
+			this.key = key;
+			this.subIdent = subIdent;
+		}
+
+		@Override
+		public int hashCode() {
+			return type.hashCode() + (key == null ? 0 : key.hashCode() * 31) + (subIdent == null ? 0 : subIdent.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof ResourceKey) {
+				ResourceKey rk = (ResourceKey)obj;
+				return type.equals(rk.type) && Objects.equals(key, rk.key) && Objects.equals(subIdent, rk.subIdent);
+			}
+			return false;
+		}
+	}
+}
@@ -49,6 +49,8 @@ import org.olat.search.service.SearchResourceContext;
 import org.olat.search.service.document.GroupDocument;
 import org.olat.search.service.indexer.AbstractHierarchicalIndexer;
 import org.olat.search.service.indexer.OlatFullIndexer;
+import org.olat.search.service.indexer.SearchAccessCache;
+import org.olat.search.service.indexer.SearchAccessContext;
 
 /**
  * Index all business-groups. Includes group-forums and groups-folders. 
@@ -119,26 +121,46 @@ public class GroupIndexer extends AbstractHierarchicalIndexer {
 		}
 		
 		Long key = contextEntry.getOLATResourceable().getResourceableId();
-		BusinessGroup group = businessGroupService.loadBusinessGroup(key);
-		if(group == null || roles.isGuestOnly()) {
-			return false;
+		SearchAccessContext accessContext = SearchAccessContext.current();
+		Boolean allowed = accessContext == null ? null
+				: accessContext.getDecision(SearchAccessCache.BUSINESS_GROUP, key, null);
+		if(allowed == null) {
+			allowed = Boolean.valueOf(isAllowed(key, identity, accessContext));
+			if(accessContext != null) {
+				accessContext.putDecision(SearchAccessCache.BUSINESS_GROUP, key, null, allowed.booleanValue());
+			}
 		}
-		boolean inGroup = businessGroupService.isIdentityInBusinessGroup(identity, group);
-		if (inGroup) {
+		
+		if (allowed.booleanValue()) {
 			return super.checkAccess(contextEntry, businessControl, identity, roles)
 					&& super.checkAccess(businessControl, identity, roles);
-		} else {
-			AccessControlModule acModule = (AccessControlModule)CoreSpringFactory.getBean("acModule");
-			if(acModule.isEnabled()) {
-				ACService acService = CoreSpringFactory.getImpl(ACService.class);
-				OLATResource resource = group.getResource();
-				if(acService.isResourceAccessControled(resource, new Date())) {
-					return super.checkAccess(contextEntry, businessControl, identity, roles)
-							&& super.checkAccess(businessControl, identity, roles);
-				}
-			}
+		}
+		return false;
+	}
+	
+	private boolean isAllowed(Long key, Identity identity, SearchAccessContext accessContext) {
+		// the memberships are prefetched for all the groups of the search results
+		Boolean member = accessContext == null ? null
+				: accessContext.getResource(SearchAccessCache.BUSINESS_GROUP_MEMBER, key, Boolean.class);
+		if(Boolean.TRUE.equals(member)) {
+			return true;
+		}
+
+		BusinessGroup group = businessGroupService.loadBusinessGroup(key);
+		if(group == null) {
 			return false;
 		}
+		if(member == null && businessGroupService.isIdentityInBusinessGroup(identity, group)) {
+			return true;
+		}
+		
+		AccessControlModule acModule = (AccessControlModule)CoreSpringFactory.getBean("acModule");
+		if(acModule.isEnabled()) {
+			ACService acService = CoreSpringFactory.getImpl(ACService.class);
+			OLATResource resource = group.getResource();
+			return acService.isResourceAccessControled(resource, new Date());
+		}
+		return false;
 	}
 
 	@Override
@@ -57,6 +57,8 @@ import org.olat.search.service.SearchResourceContext;
 import org.olat.search.service.indexer.AbstractHierarchicalIndexer;
 import org.olat.search.service.indexer.Indexer;
 import org.olat.search.service.indexer.OlatFullIndexer;
+import org.olat.search.service.indexer.SearchAccessCache;
+import org.olat.search.service.indexer.SearchAccessContext;
 import org.olat.search.service.indexer.repository.course.CourseNodeEntry;
 import org.olat.search.service.indexer.repository.course.CourseNodeIndexer;
 
@@ -168,7 +170,8 @@ public class CourseIndexer extends AbstractHierarchicalIndexer {
 		}
 		if (log.isDebugEnabled()) log.debug("Start identity=" + identity + "  roles=" + roles);
 		Long repositoryKey = contextEntry.getOLATResourceable().getResourceableId();
-		RepositoryEntry repositoryEntry = repositoryManager.lookupRepositoryEntry(repositoryKey);
+		SearchAccessContext accessContext = SearchAccessContext.current();
+		RepositoryEntry repositoryEntry = loadRepositoryEntry(repositoryKey, accessContext);
 		if (log.isDebugEnabled()) log.debug("repositoryEntry=" + repositoryEntry );
 
 		if(roles.isGuestOnly() && repositoryEntry.isGuests()) {
@@ -178,6 +181,55 @@ public class CourseIndexer extends AbstractHierarchicalIndexer {
 		Long nodeId = bcContextEntry.getOLATResourceable().getResourceableId();
 		if (log.isDebugEnabled()) log.debug("nodeId=" + nodeId );
 		ICourse course = CourseFactory.loadCourse(repositoryEntry);
+
+		String nodeIdS = nodeId.toString();
+		CourseNode courseNode = course.getRunStructure().getNode(nodeIdS);
+		if (log.isDebugEnabled()) log.debug("courseNode=" + courseNode );
+		if (courseNode == null) {
+			return false;
+		}
+		
+		Boolean mayAccessWholeTreeUp = accessContext == null ? null
+				: accessContext.getDecision(SearchAccessCache.COURSE_NODE, repositoryKey, nodeIdS);
+		if(mayAccessWholeTreeUp == null) {
+			TreeEvaluation treeEval = getTreeEvaluation(repositoryKey, course, identity, roles, accessContext);
+			mayAccessWholeTreeUp = Boolean.valueOf(mayAccessWholeTreeUp(treeEval, courseNode));
+			if(accessContext != null) {
+				accessContext.putDecision(SearchAccessCache.COURSE_NODE, repositoryKey, nodeIdS, mayAccessWholeTreeUp.booleanValue());
+			}
+		}
+		
+		if (mayAccessWholeTreeUp.booleanValue()) {
+			CourseNodeIndexer courseNodeIndexer = getCourseNodeIndexer(courseNode);
+			bcContextEntry.setTransientState(new CourseNodeEntry(courseNode));
+			return courseNodeIndexer.checkAccess(bcContextEntry, businessControl, identity, roles)
+					&& super.checkAccess(bcContextEntry, businessControl, identity, roles);		
+		} else {
+			return false;
+		}
+	}
+	
+	private RepositoryEntry loadRepositoryEntry(Long repositoryKey, SearchAccessContext accessContext) {
+		if(accessContext != null && accessContext.hasResource(SearchAccessCache.REPOSITORY_ENTRY, repositoryKey)) {
+			return accessContext.getResource(SearchAccessCache.REPOSITORY_ENTRY, repositoryKey, RepositoryEntry.class);
+		}
+		RepositoryEntry repositoryEntry = repositoryManager.lookupRepositoryEntry(repositoryKey);
+		if(accessContext != null) {
+			accessContext.putResource(SearchAccessCache.REPOSITORY_ENTRY, repositoryKey, repositoryEntry);
+		}
+		return repositoryEntry;
+	}
+	
+	/**
+	 * The evaluation of the visible tree is done once per course and per search query.
+	 */
+	private TreeEvaluation getTreeEvaluation(Long repositoryKey, ICourse course, Identity identity, Roles roles, SearchAccessContext accessContext) {
+		if(accessContext != null) {
+			CourseTreeEvaluation courseTreeEval = accessContext.getResource(SearchAccessCache.COURSE_TREE, repositoryKey, CourseTreeEvaluation.class);
+			if(courseTreeEval != null && courseTreeEval.getCourse() == course) {
+				return courseTreeEval.getTreeEvaluation();
+			}
+		}
 		
 		IdentityEnvironment ienv = new IdentityEnvironment();
 		ienv.setIdentity(identity);
@@ -186,15 +238,17 @@ public class CourseIndexer extends AbstractHierarchicalIndexer {
 		if (log.isDebugEnabled()) log.debug("userCourseEnv=" + userCourseEnv + "ienv=" + ienv );
 		
 		CourseNode rootCn = userCourseEnv.getCourseEnvironment().getRunStructure().getRootNode();
-
-		String nodeIdS = nodeId.toString();
-		CourseNode courseNode = course.getRunStructure().getNode(nodeIdS);
-		if (log.isDebugEnabled()) log.debug("courseNode=" + courseNode );
-		
 		TreeEvaluation treeEval = new TreeEvaluation();
 		NodeEvaluation rootNodeEval = rootCn.eval(userCourseEnv.getConditionInterpreter(), treeEval, new VisibleTreeFilter());
 		if (log.isDebugEnabled()) log.debug("rootNodeEval=" + rootNodeEval );
-
+		
+		if(accessContext != null) {
+			accessContext.putResource(SearchAccessCache.COURSE_TREE, repositoryKey, new CourseTreeEvaluation(course, treeEval));
+		}
+		return treeEval;
+	}
+	
+	private boolean mayAccessWholeTreeUp(TreeEvaluation treeEval, CourseNode courseNode) {
 		TreeNode newCalledTreeNode = treeEval.getCorrespondingTreeNode(courseNode);
 		if (newCalledTreeNode == null) {
 			// TreeNode no longer visible
@@ -208,15 +262,7 @@ public class CourseIndexer extends AbstractHierarchicalIndexer {
 		if (log.isDebugEnabled()) log.debug("call mayAccessWholeTreeUp..." );
 		boolean mayAccessWholeTreeUp = NavigationHandler.mayAccessWholeTreeUp(nodeEval);	
 		if (log.isDebugEnabled()) log.debug("call mayAccessWholeTreeUp=" + mayAccessWholeTreeUp );
-		
-		if (mayAccessWholeTreeUp) {
-			CourseNodeIndexer courseNodeIndexer = getCourseNodeIndexer(courseNode);
-			bcContextEntry.setTransientState(new CourseNodeEntry(courseNode));
-			return courseNodeIndexer.checkAccess(bcContextEntry, businessControl, identity, roles)
-					&& super.checkAccess(bcContextEntry, businessControl, identity, roles);		
-		} else {
-			return false;
-		}
+		return mayAccessWholeTreeUp;
 	}
 	
 	private CourseNodeIndexer getCourseNodeIndexer(CourseNode node) {
@@ -227,4 +273,23 @@ public class CourseIndexer extends AbstractHierarchicalIndexer {
 		}
 		return null;
 	}
+	
+	private static class CourseTreeEvaluation {
+		
+		private final ICourse course;
+		private final TreeEvaluation treeEvaluation;
+		
+		public CourseTreeEvaluation(ICourse course, TreeEvaluation treeEvaluation) {
+			this.course = course;
+			this.treeEvaluation = treeEvaluation;
+		}
+
+		public ICourse getCourse() {
+			return course;
+		}
+
+		public TreeEvaluation getTreeEvaluation() {
+			return treeEvaluation;
+		}
+	}
 }
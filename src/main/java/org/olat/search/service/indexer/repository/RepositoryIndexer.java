@@ -57,6 +57,8 @@ import org.olat.search.service.SearchResourceContext;
 import org.olat.search.service.indexer.AbstractHierarchicalIndexer;
 import org.olat.search.service.indexer.Indexer;
 import org.olat.search.service.indexer.OlatFullIndexer;
+import org.olat.search.service.indexer.SearchAccessCache;
+import org.olat.search.service.indexer.SearchAccessContext;
 
 /**
  * Index the whole OLAT-repository.
@@ -207,7 +209,8 @@ public class RepositoryIndexer extends AbstractHierarchicalIndexer {
 		if (debug) log.debug("checkAccess for businessControl=" + businessControl + "  identity=" + identity + "  roles=" + roles);
 		
 		Long repositoryKey = contextEntry.getOLATResourceable().getResourceableId();
-		RepositoryEntry repositoryEntry = repositoryService.loadByKey(repositoryKey);
+		SearchAccessContext accessContext = SearchAccessContext.current();
+		RepositoryEntry repositoryEntry = loadRepositoryEntry(repositoryKey, accessContext);
 		if (repositoryEntry == null) {
 			return false;
 		}
@@ -215,12 +218,47 @@ public class RepositoryIndexer extends AbstractHierarchicalIndexer {
 			return false;
 		}
 		
+		// the access control only matters if the business path goes deeper than the entry
+		boolean deep = businessControl.getEntriesDownTheControls().size() > 1;
+		String launchIdent = deep ? "deep" : "entry";
+		Boolean allowed = accessContext == null ? null
+				: accessContext.getDecision(SearchAccessCache.REPOSITORY_ENTRY_LAUNCH, repositoryKey, launchIdent);
+		if(allowed == null) {
+			allowed = Boolean.valueOf(isAllowedToLaunch(repositoryEntry, deep, identity, roles));
+			if(accessContext != null) {
+				accessContext.putDecision(SearchAccessCache.REPOSITORY_ENTRY_LAUNCH, repositoryKey, launchIdent, allowed.booleanValue());
+			}
+		}
+		
+		if (debug) log.debug("allowed=" + allowed);
+		if (allowed.booleanValue()) {
+			Indexer repositoryEntryIndexer = getRepositoryEntryIndexer(repositoryEntry);
+			if (debug) log.debug("repositoryEntryIndexer=" + repositoryEntryIndexer);
+			if (repositoryEntryIndexer != null) {
+			  return super.checkAccess(contextEntry, businessControl, identity, roles)
+			  		&& repositoryEntryIndexer.checkAccess(contextEntry, businessControl, identity, roles);
+			}
+		}
+		return false;
+	}
+	
+	private RepositoryEntry loadRepositoryEntry(Long repositoryKey, SearchAccessContext accessContext) {
+		if(accessContext != null && accessContext.hasResource(SearchAccessCache.REPOSITORY_ENTRY, repositoryKey)) {
+			return accessContext.getResource(SearchAccessCache.REPOSITORY_ENTRY, repositoryKey, RepositoryEntry.class);
+		}
+		RepositoryEntry repositoryEntry = repositoryService.loadByKey(repositoryKey);
+		if(accessContext != null) {
+			accessContext.putResource(SearchAccessCache.REPOSITORY_ENTRY, repositoryKey, repositoryEntry);
+		}
+		return repositoryEntry;
+	}
+	
+	private boolean isAllowedToLaunch(RepositoryEntry repositoryEntry, boolean deep, Identity identity, Roles roles) {
 		RepositoryEntrySecurity reSecurity = repositoryManager.isAllowed(identity, roles, repositoryEntry);
 		
 		boolean isAllowedToLaunch = false;
 		if (!reSecurity.isEntryAdmin() && !reSecurity.canLaunch() && repositoryEntry.isBookable()) {
-			List<ContextEntry> entries = businessControl.getEntriesDownTheControls();
-			if(entries.size() > 1) {
+			if(deep) {
 				boolean hasAccess = false;
 				ACService acService = CoreSpringFactory.getImpl(ACService.class);
 				AccessResult acResult = acService.isAccessible(repositoryEntry, identity, false); 
@@ -237,17 +275,9 @@ public class RepositoryIndexer extends AbstractHierarchicalIndexer {
 				isAllowedToLaunch = hasAccess;
 			}
 		}
-	
-		if (debug) log.debug("isOwner=" + reSecurity.isEntryAdmin() + "  isAllowedToLaunch=" + isAllowedToLaunch);
-		if (reSecurity.isEntryAdmin() || reSecurity.canLaunch() || isAllowedToLaunch) {
-			Indexer repositoryEntryIndexer = getRepositoryEntryIndexer(repositoryEntry);
-			if (debug) log.debug("repositoryEntryIndexer=" + repositoryEntryIndexer);
-			if (repositoryEntryIndexer != null) {
-			  return super.checkAccess(contextEntry, businessControl, identity, roles)
-			  		&& repositoryEntryIndexer.checkAccess(contextEntry, businessControl, identity, roles);
-			}
-		}
-		return false;
+		
+		if (log.isDebugEnabled()) log.debug("isOwner=" + reSecurity.isEntryAdmin() + "  isAllowedToLaunch=" + isAllowedToLaunch);
+		return reSecurity.isEntryAdmin() || reSecurity.canLaunch() || isAllowedToLaunch;
 	}
 	
 	/**
@@ -28,6 +28,7 @@ package org.olat.search.service.searcher;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -42,6 +43,7 @@ import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
 import org.apache.lucene.search.highlight.QueryScorer;
 import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
 import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.persistence.DBFactory;
 import org.olat.core.id.Identity;
 import org.olat.core.id.Roles;
@@ -57,6 +59,8 @@ import org.olat.search.model.AbstractOlatDocument;
 import org.olat.search.model.ResultDocument;
 import org.olat.search.service.SearchServiceFactory;
 import org.olat.search.service.indexer.Indexer;
+import org.olat.search.service.indexer.SearchAccessCache;
+import org.olat.search.service.indexer.SearchAccessContext;
 
 
 /**
@@ -72,12 +76,14 @@ public class SearchResultsImpl implements SearchResults {
 	private static final String HIGHLIGHT_PRE_TAG  = "<span class=\"o_search_result_highlight\">"; 
 	private static final String HIGHLIGHT_POST_TAG = "</span>";
 	private static final String HIGHLIGHT_SEPARATOR = "...<br />";
+	private static final int ACCESS_BATCH_SIZE = 50;
 	
 	/* Define in module config */
 	private long maxHits;
 	private long totalHits;
 	private long totalDocs;
 	private long queryTime;
+	private long accessCheckTime;
 	private long numberOfIndexDocuments;
 	/* List of ResultDocument. */
 	private List<ResultDocument> resultList;
@@ -133,6 +139,13 @@ public class SearchResultsImpl implements SearchResults {
 	public String getQueryTime() {
 		return Long.toString(queryTime);
 	}
+	
+	/**
+	 * @return The time spent to check the access of the hits in milliseconds.
+	 */
+	public long getAccessCheckTime() {
+		return accessCheckTime;
+	}
 
 	/**
 	 * Set number of search-index-elements. 
@@ -193,33 +206,58 @@ public class SearchResultsImpl implements SearchResults {
 		totalDocs = (docs.scoreDocs == null ? 0 : docs.scoreDocs.length);
 		long numOfDocs = Math.min(maxHits, docs.totalHits);
 		List<ResultDocument> res = new ArrayList<>(maxReturns + 1);
-		for (int i=firstResult; i<numOfDocs && res.size() < maxReturns; i++) {
-			Document doc;
-			if(doHighlight) {
-				doc = searcher.doc(docs.scoreDocs[i].doc);
-			} else {
-				doc = searcher.doc(docs.scoreDocs[i].doc, fields);
-			}
-			
-			String reservedTo = doc.get(AbstractOlatDocument.RESERVED_TO);
-			if(StringHelper.containsNonWhitespace(reservedTo) && !"public".equals(reservedTo)
-					&& !reservedTo.contains(identity.getKey().toString())) {
-				continue;//admin cannot see private documents
-			}
-
-			ResultDocument rDoc = createResultDocument(doc, i, query, analyzer, doHighlight, identity, roles);
-			if(rDoc != null) {
-				res.add(rDoc);
-			}
-			
-			if(i % 10 == 0) {
-				// Do commit after certain number of documents because the transaction should not be too big
-				DBFactory.getInstance().commitAndCloseSession();
+		SearchAccessCache accessCache = CoreSpringFactory.getImpl(SearchAccessCache.class);
+		SearchAccessContext accessContext = accessCache.startSearch(identity);
+		try {
+			for (int i=firstResult; i<numOfDocs && res.size() < maxReturns; i++) {
+				if((i - firstResult) % ACCESS_BATCH_SIZE == 0) {
+					prefetch(searcher, docs, i, (int)Math.min(numOfDocs, (long)i + ACCESS_BATCH_SIZE), accessCache, accessContext);
+				}
+				
+				Document doc;
+				if(doHighlight) {
+					doc = searcher.doc(docs.scoreDocs[i].doc);
+				} else {
+					doc = searcher.doc(docs.scoreDocs[i].doc, fields);
+				}
+				
+				String reservedTo = doc.get(AbstractOlatDocument.RESERVED_TO);
+				if(StringHelper.containsNonWhitespace(reservedTo) && !"public".equals(reservedTo)
+						&& !reservedTo.contains(identity.getKey().toString())) {
+					continue;//admin cannot see private documents
+				}
+	
+				ResultDocument rDoc = createResultDocument(doc, i, query, analyzer, doHighlight, identity, roles, accessContext);
+				if(rDoc != null) {
+					res.add(rDoc);
+				}
+				
+				if(i % 10 == 0) {
+					// Do commit after certain number of documents because the transaction should not be too big
+					DBFactory.getInstance().commitAndCloseSession();
+				}
 			}
+		} finally {
+			accessCache.endSearch(accessContext);
+			accessCheckTime = accessContext.getAccessCheckTime();
 		}
 		return res;
 	}
 	
+	/**
+	 * Load the resources which own the next hits with as few queries as possible.
+	 */
+	private void prefetch(IndexSearcher searcher, TopDocs docs, int from, int to, SearchAccessCache accessCache, SearchAccessContext accessContext)
+	throws IOException {
+		Set<String> resourceUrlField = Collections.singleton(AbstractOlatDocument.RESOURCEURL_FIELD_NAME);
+		List<String> resourceUrls = new ArrayList<>(to - from);
+		for(int i=from; i<to; i++) {
+			Document doc = searcher.doc(docs.scoreDocs[i].doc, resourceUrlField);
+			resourceUrls.add(doc.get(AbstractOlatDocument.RESOURCEURL_FIELD_NAME));
+		}
+		accessCache.prefetch(accessContext, resourceUrls);
+	}
+	
 	/**
 	 * Create a result document. Return null if the identity has not enough privileges to see the document.
 	 * @param doc
@@ -228,17 +266,21 @@ public class SearchResultsImpl implements SearchResults {
 	 * @param doHighlight
 	 * @param identity
 	 * @param roles
+	 * @param accessContext
 	 * @return
 	 * @throws IOException
 	 */
-	private ResultDocument createResultDocument(Document doc, int pos, Query query, Analyzer analyzer, boolean doHighlight, Identity identity, Roles roles) 
+	private ResultDocument createResultDocument(Document doc, int pos, Query query, Analyzer analyzer, boolean doHighlight,
+			Identity identity, Roles roles, SearchAccessContext accessContext) 
 	throws IOException {
 		String resourceUrl = doc.get(AbstractOlatDocument.RESOURCEURL_FIELD_NAME);
 		if(resourceUrl == null) {
 			resourceUrl = "";
 		}	
 		BusinessControl businessControl = BusinessControlFactory.getInstance().createFromString(resourceUrl);
+		long start = System.nanoTime();
 		boolean hasAccess = mainIndexer.checkAccess(null, businessControl, identity, roles);
+		accessContext.addAccessCheckTime(System.nanoTime() - start);
 		
 		ResultDocument resultDoc;
 		if(hasAccess) {
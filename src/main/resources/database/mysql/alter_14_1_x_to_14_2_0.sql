@@ -21,6 +21,28 @@ alter table o_gta_task_revision add constraint task_rev_to_ident_idx foreign key
 alter table o_noti_sub add column subenabled bit default 1;
 
 
+-- mail outbox
+create table o_mail_outbox (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   m_status varchar(16) not null,
+   m_attempts int not null default 0,
+   m_next_attempt datetime not null,
+   m_node_id int,
+   m_storage varchar(255) not null,
+   m_error varchar(2000),
+   primary key (id)
+);
+alter table o_mail_outbox ENGINE = InnoDB;
+
+create index idx_mail_outbox_due_idx on o_mail_outbox (m_status, m_next_attempt);
+
+
+-- efficiency statement
+alter table o_as_eff_statement add column statement_compact longtext;
+
+
 -- index
 create index mark_all_idx on o_mark(resname,resid,creator_id);
 create index idx_eff_stat_course_ident_idx on o_as_eff_statement (fk_identity,course_repo_key);
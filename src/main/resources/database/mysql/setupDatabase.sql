@@ -1235,6 +1235,7 @@ create table if not exists o_as_eff_statement (
    course_short_title varchar(128),
    course_repo_key bigint,
    statement_xml longtext,
+   statement_compact longtext,
    fk_identity bigint,
    fk_resource_id bigint,
    primary key (id)
@@ -2408,6 +2409,19 @@ create table o_sms_message_log (
    primary key (id)
 );
 
+create table o_mail_outbox (
+   id bigint not null auto_increment,
+   creationdate datetime not null,
+   lastmodified datetime not null,
+   m_status varchar(16) not null,
+   m_attempts int not null default 0,
+   m_next_attempt datetime not null,
+   m_node_id int,
+   m_storage varchar(255) not null,
+   m_error varchar(2000),
+   primary key (id)
+);
+
 -- webfeed
 create table o_feed (
    id bigint not null auto_increment,
@@ -3282,6 +3296,7 @@ alter table o_vfs_thumbnail ENGINE = InnoDB;
 alter table o_vfs_revision ENGINE = InnoDB;
 alter table o_wopi_access ENGINE = InnoDB;
 alter table o_sms_message_log ENGINE = InnoDB;
+alter table o_mail_outbox ENGINE = InnoDB;
 alter table o_feed ENGINE = InnoDB;
 alter table o_feed_item ENGINE = InnoDB;
 alter table o_lecture_reason ENGINE = InnoDB;
@@ -3891,6 +3906,9 @@ create index cer_uuid_idx on o_cer_certificate (c_uuid);
 -- sms
 alter table o_sms_message_log add constraint sms_log_to_identity_idx foreign key (fk_identity) references o_bs_identity (id);
 
+-- mail outbox
+create index idx_mail_outbox_due_idx on o_mail_outbox (m_status, m_next_attempt);
+
 -- webfeed
 create index idx_feed_resourceable_idx on o_feed (f_resourceable_id, f_resourceable_type);
 alter table o_feed_item add constraint item_to_feed_fk foreign key(fk_feed_id) references o_feed(id);
@@ -22,6 +22,27 @@ create index idx_task_rev_to_ident_idx on o_gta_task_revision (fk_comment_author
 alter table o_noti_sub add subenabled number default 1;
 
 
+-- mail outbox
+create table o_mail_outbox (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   lastmodified date not null,
+   m_status varchar2(16 char) not null,
+   m_attempts number(20) default 0 not null,
+   m_next_attempt date not null,
+   m_node_id number(20),
+   m_storage varchar2(255 char) not null,
+   m_error varchar2(2000 char),
+   primary key (id)
+);
+
+create index idx_mail_outbox_due_idx on o_mail_outbox (m_status, m_next_attempt);
+
+
+-- efficiency statement
+alter table o_as_eff_statement add statement_compact clob;
+
+
 -- index
 create index mark_all_idx on o_mark(resname,resid,creator_id);
 create index idx_eff_stat_course_ident_idx on o_as_eff_statement (fk_identity,course_repo_key);
@@ -1299,6 +1299,7 @@ create table o_as_eff_statement (
    course_short_title varchar(128 char),
    course_repo_key number(20),
    statement_xml clob,
+   statement_compact clob,
    fk_identity number(20),
    fk_resource_id number(20),
    CONSTRAINT u_o_as_eff_statement UNIQUE (fk_identity, fk_resource_id),
@@ -2491,6 +2492,19 @@ create table o_sms_message_log (
    primary key (id)
 );
 
+create table o_mail_outbox (
+   id number(20) generated always as identity,
+   creationdate date not null,
+   lastmodified date not null,
+   m_status varchar2(16 char) not null,
+   m_attempts number(20) default 0 not null,
+   m_next_attempt date not null,
+   m_node_id number(20),
+   m_storage varchar2(255 char) not null,
+   m_error varchar2(2000 char),
+   primary key (id)
+);
+
 -- webfeed
 create table o_feed (
    id number(20) generated always as identity,
@@ -4048,6 +4062,9 @@ create index cer_uuid_idx on o_cer_certificate (c_uuid);
 alter table o_sms_message_log add constraint sms_log_to_identity_idx foreign key (fk_identity) references o_bs_identity (id);
 create index idx_sms_log_to_identity_idx on o_sms_message_log(fk_identity);
 
+-- mail outbox
+create index idx_mail_outbox_due_idx on o_mail_outbox (m_status, m_next_attempt);
+
 -- webfeed
 create index idx_feed_resourceable_idx on o_feed (f_resourceable_id, f_resourceable_type);
 alter table o_feed_item add constraint item_to_feed_fk foreign key(fk_feed_id) references o_feed(id);
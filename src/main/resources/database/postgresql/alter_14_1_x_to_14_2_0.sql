@@ -25,6 +25,27 @@ create index idx_log_livestream_idx on o_loggingtable(targetresid, creationdate,
 alter table o_noti_sub add column subenabled bool default true;
 
 
+-- mail outbox
+create table o_mail_outbox (
+   id bigserial,
+   creationdate timestamp not null,
+   lastmodified timestamp not null,
+   m_status varchar(16) not null,
+   m_attempts int4 not null default 0,
+   m_next_attempt timestamp not null,
+   m_node_id int4,
+   m_storage varchar(255) not null,
+   m_error varchar(2000),
+   primary key (id)
+);
+
+create index idx_mail_outbox_due_idx on o_mail_outbox (m_status, m_next_attempt);
+
+
+-- efficiency statement
+alter table o_as_eff_statement add column statement_compact text;
+
+
 -- index
 create index mark_all_idx on o_mark(resname,resid,creator_id);
 create index idx_eff_stat_course_ident_idx on o_as_eff_statement (fk_identity,course_repo_key);
@@ -1259,6 +1259,7 @@ create table o_as_eff_statement (
    course_short_title varchar(128),
    course_repo_key int8,
    statement_xml text,
+   statement_compact text,
    fk_identity int8,
    fk_resource_id int8,
    unique(fk_identity, fk_resource_id),
@@ -2434,6 +2435,19 @@ create table o_sms_message_log (
    primary key (id)
 );
 
+create table o_mail_outbox (
+   id bigserial,
+   creationdate timestamp not null,
+   lastmodified timestamp not null,
+   m_status varchar(16) not null,
+   m_attempts int4 not null default 0,
+   m_next_attempt timestamp not null,
+   m_node_id int4,
+   m_storage varchar(255) not null,
+   m_error varchar(2000),
+   primary key (id)
+);
+
 -- webfeed
 create table o_feed (
    id bigserial not null,
@@ -3941,6 +3955,9 @@ create index cer_uuid_idx on o_cer_certificate (c_uuid);
 alter table o_sms_message_log add constraint sms_log_to_identity_idx foreign key (fk_identity) references o_bs_identity (id);
 create index idx_sms_log_to_identity_idx on o_sms_message_log(fk_identity);
 
+-- mail outbox
+create index idx_mail_outbox_due_idx on o_mail_outbox (m_status, m_next_attempt);
+
 -- webfeed
 create index idx_feed_resourceable_idx on o_feed (f_resourceable_id, f_resourceable_type);
 alter table o_feed_item add constraint item_to_feed_fk foreign key(fk_feed_id) references o_feed(id);
@@ -0,0 +1,225 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.basesecurity.manager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.basesecurity.BaseSecurity;
+import org.olat.basesecurity.Group;
+import org.olat.basesecurity.OrganisationRoles;
+import org.olat.basesecurity.OrganisationService;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.id.Organisation;
+import org.olat.core.id.Roles;
+import org.olat.core.logging.Tracing;
+import org.olat.resource.OLATResource;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class IdentityRolesCacheTest extends OlatTestCase {
+	
+	private static final Logger log = Tracing.createLoggerFor(IdentityRolesCacheTest.class);
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private GroupDAO groupDao;
+	@Autowired
+	private BaseSecurity securityManager;
+	@Autowired
+	private IdentityRolesCache identityRolesCache;
+	@Autowired
+	private OrganisationService organisationService;
+	
+	@Test
+	public void getRoles_cached() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-1-");
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(id);
+		Assert.assertTrue(roles.hasRole(OrganisationRoles.user));
+		
+		long hits = identityRolesCache.getHits();
+		Roles cachedRoles = securityManager.getRoles(id);
+		Assert.assertTrue(cachedRoles.hasRole(OrganisationRoles.user));
+		Assert.assertEquals(hits + 1, identityRolesCache.getHits());
+	}
+	
+	@Test
+	public void getRoles_invalidatedByMembership() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-2-");
+		dbInstance.commitAndCloseSession();
+		
+		Roles roles = securityManager.getRoles(id);
+		Assert.assertFalse(roles.isAuthor());
+		
+		Organisation defOrganisation = organisationService.getDefaultOrganisation();
+		organisationService.addMember(defOrganisation, id, OrganisationRoles.author);
+		dbInstance.commitAndCloseSession();
+		
+		Roles authorRoles = securityManager.getRoles(id);
+		Assert.assertTrue(authorRoles.isAuthor());
+		
+		organisationService.removeMember(defOrganisation, id, OrganisationRoles.author, false);
+		dbInstance.commitAndCloseSession();
+		
+		Roles userRoles = securityManager.getRoles(id);
+		Assert.assertFalse(userRoles.isAuthor());
+		Assert.assertTrue(userRoles.hasRole(OrganisationRoles.user));
+	}
+	
+	@Test
+	public void getRoles_rollback() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-3-");
+		dbInstance.commitAndCloseSession();
+		Assert.assertFalse(securityManager.getRoles(id).isAuthor());
+		
+		organisationService.addMember(organisationService.getDefaultOrganisation(), id, OrganisationRoles.author);
+		dbInstance.getCurrentEntityManager().flush();
+		// the transaction see its own changes
+		Assert.assertTrue(securityManager.getRoles(id).isAuthor());
+		dbInstance.rollbackAndCloseSession();
+		
+		Assert.assertFalse(securityManager.getRoles(id).isAuthor());
+	}
+	
+	/**
+	 * An other thread caches the roles without the uncommitted change,
+	 * the transaction which made the change must not see this snapshot.
+	 */
+	@Test
+	public void getRoles_uncommittedChanges() throws Exception {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-6-");
+		dbInstance.commitAndCloseSession();
+		
+		organisationService.addMember(organisationService.getDefaultOrganisation(), id, OrganisationRoles.author);
+		dbInstance.getCurrentEntityManager().flush();
+		
+		AtomicBoolean otherIsAuthor = new AtomicBoolean(true);
+		Thread other = new Thread(() -> {
+			try {
+				otherIsAuthor.set(securityManager.getRoles(id).isAuthor());
+				dbInstance.commitAndCloseSession();
+			} finally {
+				dbInstance.closeSession();
+			}
+		});
+		other.start();
+		other.join(10000);
+		Assert.assertFalse(otherIsAuthor.get());
+		
+		// the transaction see its own changes
+		Assert.assertTrue(securityManager.getRoles(id).isAuthor());
+		dbInstance.commitAndCloseSession();
+		Assert.assertTrue(securityManager.getRoles(id).isAuthor());
+	}
+	
+	@Test
+	public void getPermissions_invalidatedByGrant() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-4-");
+		Group group = groupDao.createGroup();
+		groupDao.addMembershipTwoWay(group, id, "cached-role");
+		OLATResource resource = JunitTestHelper.createRandomResource();
+		dbInstance.commitAndCloseSession();
+		
+		List<String> permissions = groupDao.getPermissions(id, resource);
+		Assert.assertTrue(permissions.isEmpty());
+		Assert.assertFalse(groupDao.hasGrant(id, "cached-perm", resource));
+		
+		groupDao.addGrant(group, "cached-role", "cached-perm", resource);
+		dbInstance.commitAndCloseSession();
+		
+		List<String> grantedPermissions = groupDao.getPermissions(id, resource);
+		Assert.assertEquals(1, grantedPermissions.size());
+		Assert.assertEquals("cached-perm", grantedPermissions.get(0));
+		Assert.assertTrue(groupDao.hasGrant(id, "cached-perm", resource));
+		
+		groupDao.removeGrant(group, "cached-role", "cached-perm", resource);
+		dbInstance.commitAndCloseSession();
+		
+		Assert.assertTrue(groupDao.getPermissions(id, resource).isEmpty());
+		Assert.assertFalse(groupDao.hasGrant(id, "cached-perm", resource));
+	}
+	
+	/**
+	 * Some threads read the roles while the membership of the identity
+	 * changes. After every commit, the roles must be up to date.
+	 */
+	@Test
+	public void getRoles_concurrentChanges() throws Exception {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("roles-cache-5-");
+		Organisation defOrganisation = organisationService.getDefaultOrganisation();
+		dbInstance.commitAndCloseSession();
+		
+		int numOfReaders = 4;
+		AtomicBoolean changing = new AtomicBoolean(true);
+		AtomicInteger errors = new AtomicInteger();
+		CountDownLatch doneSignal = new CountDownLatch(numOfReaders);
+		for(int i=numOfReaders; i-->0; ) {
+			new Thread(() -> {
+				try {
+					while(changing.get()) {
+						securityManager.getRoles(id);
+						dbInstance.commitAndCloseSession();
+					}
+				} catch (Exception e) {
+					log.error("", e);
+					errors.incrementAndGet();
+				} finally {
+					dbInstance.closeSession();
+					doneSignal.countDown();
+				}
+			}).start();
+		}
+		
+		try {
+			for(int i=0; i<25; i++) {
+				organisationService.addMember(defOrganisation, id, OrganisationRoles.author);
+				dbInstance.commitAndCloseSession();
+				Assert.assertTrue(securityManager.getRoles(id).isAuthor());
+				dbInstance.commitAndCloseSession();
+				
+				organisationService.removeMember(defOrganisation, id, OrganisationRoles.author, false);
+				dbInstance.commitAndCloseSession();
+				Assert.assertFalse(securityManager.getRoles(id).isAuthor());
+				dbInstance.commitAndCloseSession();
+			}
+		} finally {
+			changing.set(false);
+		}
+		
+		Assert.assertTrue(doneSignal.await(60, TimeUnit.SECONDS));
+		Assert.assertEquals(0, errors.get());
+	}
+}
@@ -0,0 +1,214 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.DBRuntimeException;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class AdvisoryLockSyncerTest extends OlatTestCase {
+
+	@Autowired
+	private DB dbInstance;
+	@Value("#{@${db.vendor}_${db.source}_DataSource}")
+	private DataSource lockDataSource;
+
+	@Test
+	public void getLockKey() {
+		long key1 = AdvisoryLockSyncer.getLockKey("Course::1");
+		long key2 = AdvisoryLockSyncer.getLockKey("Course::1");
+		long key3 = AdvisoryLockSyncer.getLockKey("Course::2");
+		Assert.assertEquals(key1, key2);
+		Assert.assertNotEquals(key1, key3);
+		Assert.assertTrue(AdvisoryLockSyncer.getLockName(key1).length() <= 64);
+	}
+
+	@Test
+	public void doInSync() {
+		Assume.assumeTrue(AdvisoryLockSyncer.isSupported(dbInstance));
+
+		SyncStatistics statistics = new SyncStatistics();
+		AdvisoryLockSyncer syncer = new AdvisoryLockSyncer(dbInstance, lockDataSource, 4, statistics, 10, 3000);
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("AdvisorySync", 1l);
+		String result = syncer.doInSync(ores, () -> {
+			syncer.assertAlreadyDoInSyncFor(ores);
+			return "synced";
+		});
+		dbInstance.commitAndCloseSession();
+		syncer.shutdown();
+
+		Assert.assertEquals("synced", result);
+		SyncStatistics.SyncPointStatistics syncPoint = statistics.getStatistics("AdvisorySync");
+		Assert.assertNotNull(syncPoint);
+		Assert.assertEquals(1, syncPoint.getWaitTime().getCount());
+		Assert.assertEquals(1, syncPoint.getHoldTime().getCount());
+	}
+
+	@Test
+	public void doInSync_concurrent() throws InterruptedException {
+		Assume.assumeTrue(AdvisoryLockSyncer.isSupported(dbInstance));
+
+		SyncStatistics statistics = new SyncStatistics();
+		AdvisoryLockSyncer syncer = new AdvisoryLockSyncer(dbInstance, lockDataSource, 4, statistics, 10, 3000);
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("AdvisorySync", 2l);
+
+		int numOfThreads = 4;
+		AtomicInteger inSync = new AtomicInteger();
+		AtomicInteger maxInSync = new AtomicInteger();
+		CountDownLatch finished = new CountDownLatch(numOfThreads);
+		for(int i=0; i<numOfThreads; i++) {
+			new Thread(() -> {
+				try {
+					syncer.doInSync(ores, () -> {
+						maxInSync.accumulateAndGet(inSync.incrementAndGet(), Math::max);
+						sleep(50);
+						inSync.decrementAndGet();
+					});
+				} finally {
+					dbInstance.closeSession();
+					finished.countDown();
+				}
+			}).start();
+		}
+
+		Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+		syncer.shutdown();
+		Assert.assertEquals(1, maxInSync.get());
+		Assert.assertEquals(numOfThreads, statistics.getStatistics("AdvisorySync").getWaitTime().getCount());
+	}
+
+	/**
+	 * Two syncers have their own local locks like two nodes of a cluster,
+	 * only the lock of the database prevents the second to enter. The
+	 * callback closes its session which must not release the lock.
+	 */
+	@Test
+	public void doInSync_database() throws InterruptedException {
+		Assume.assumeTrue(AdvisoryLockSyncer.isSupported(dbInstance));
+
+		AdvisoryLockSyncer syncer1 = new AdvisoryLockSyncer(dbInstance, lockDataSource, 4, new SyncStatistics(), 10, 3000);
+		AdvisoryLockSyncer syncer2 = new AdvisoryLockSyncer(dbInstance, lockDataSource, 4, new SyncStatistics(), 10, 3000);
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("AdvisorySync", 3l);
+
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean secondInSync = new AtomicBoolean(false);
+		Thread first = new Thread(() -> {
+			try {
+				syncer1.doInSync(ores, () -> {
+					dbInstance.commitAndCloseSession();
+					locked.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} finally {
+				dbInstance.closeSession();
+			}
+		});
+		first.start();
+		Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+		Thread second = new Thread(() -> {
+			try {
+				syncer2.doInSync(ores, () -> secondInSync.set(true));
+			} finally {
+				dbInstance.closeSession();
+			}
+		});
+		second.start();
+		second.join(1000);
+		Assert.assertFalse(secondInSync.get());
+
+		release.countDown();
+		first.join(10000);
+		second.join(10000);
+		syncer1.shutdown();
+		syncer2.shutdown();
+		Assert.assertTrue(secondInSync.get());
+	}
+
+	/**
+	 * The wait for a lock held by an other node is bounded by the timeout.
+	 */
+	@Test
+	public void doInSync_timeout() throws InterruptedException {
+		Assume.assumeTrue(AdvisoryLockSyncer.isSupported(dbInstance));
+
+		AdvisoryLockSyncer syncer1 = new AdvisoryLockSyncer(dbInstance, lockDataSource, 4, new SyncStatistics(), 10, 3000);
+		AdvisoryLockSyncer syncer2 = new AdvisoryLockSyncer(dbInstance, lockDataSource, 4, new SyncStatistics(), 1, 3000);
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("AdvisorySync", 4l);
+
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread first = new Thread(() -> {
+			try {
+				syncer1.doInSync(ores, () -> {
+					locked.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} finally {
+				dbInstance.closeSession();
+			}
+		});
+		first.start();
+		Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+		AtomicBoolean secondInSync = new AtomicBoolean(false);
+		try {
+			syncer2.doInSync(ores, () -> secondInSync.set(true));
+			Assert.fail("The lock is held by the first syncer");
+		} catch (DBRuntimeException e) {
+			// timeout
+		} finally {
+			dbInstance.closeSession();
+			release.countDown();
+			first.join(10000);
+			syncer1.shutdown();
+			syncer2.shutdown();
+		}
+		Assert.assertFalse(secondInSync.get());
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.jms;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.util.event.MultiUserEvent;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.repository.model.RepositoryEntryStatusChangedEvent;
+
+/**
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class ClusterEventFrameTest {
+
+	@Test
+	public void encodeDecode() throws IOException {
+		List<JMSWrapper> wrappers = new ArrayList<>();
+		wrappers.add(new JMSWrapper(3, 12l, OresHelper.createOLATResourceableInstance("Frame", 27l), new MultiUserEvent("frame-1")));
+		wrappers.add(new JMSWrapper(3, 13l, OresHelper.createOLATResourceableType("FrameType"), new RepositoryEntryStatusChangedEvent(28l)));
+
+		byte[] frame = ClusterEventFrame.encode(3, wrappers);
+		List<JMSWrapper> decoded = ClusterEventFrame.decode(frame);
+		Assert.assertEquals(2, decoded.size());
+
+		JMSWrapper first = decoded.get(0);
+		Assert.assertEquals(Integer.valueOf(3), first.getNodeId());
+		Assert.assertEquals(12l, first.getMsgId());
+		Assert.assertEquals("Frame", first.getOres().getResourceableTypeName());
+		Assert.assertEquals(Long.valueOf(27l), first.getOres().getResourceableId());
+		Assert.assertEquals("frame-1", first.getMultiUserEvent().getCommand());
+
+		JMSWrapper second = decoded.get(1);
+		Assert.assertEquals(13l, second.getMsgId());
+		Assert.assertEquals("FrameType", second.getOres().getResourceableTypeName());
+		Assert.assertTrue(second.getMultiUserEvent() instanceof RepositoryEntryStatusChangedEvent);
+		Assert.assertEquals(Long.valueOf(28l), ((RepositoryEntryStatusChangedEvent)second.getMultiUserEvent()).getRepositoryEntryKey());
+	}
+
+	@Test(expected=IOException.class)
+	public void decodeUnknownFormat() throws IOException {
+		ClusterEventFrame.decode(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+	}
+}
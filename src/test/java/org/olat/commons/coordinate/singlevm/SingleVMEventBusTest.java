@@ -0,0 +1,178 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.singlevm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.event.MultiUserEvent;
+import org.olat.core.util.resource.OresHelper;
+
+/**
+ * Check the listener registry of the event bus and measure the throughput
+ * of register / fire / deregister with 1, 8 and 32 threads.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class SingleVMEventBusTest {
+	
+	private static final Logger log = Tracing.createLoggerFor(SingleVMEventBusTest.class);
+	
+	@Test
+	public void registerFireDeregister() {
+		SingleVMEventBus bus = new SingleVMEventBus();
+		OLATResourceable course = OresHelper.createOLATResourceableInstance(SingleVMEventBusTest.class, 12l);
+		OLATResourceable courseType = OresHelper.lookupType(SingleVMEventBusTest.class);
+		OLATResourceable otherCourse = OresHelper.createOLATResourceableInstance(SingleVMEventBusTest.class, 13l);
+		
+		CountingListener listener = new CountingListener();
+		CountingListener typeListener = new CountingListener();
+		bus.registerFor(listener, null, course);
+		bus.registerFor(typeListener, null, courseType);
+		Assert.assertEquals(1, bus.getListeningIdentityCntFor(course));
+		Assert.assertEquals(1, bus.getListeningIdentityCntFor(courseType));
+		
+		bus.fireEventToListenersOf(new MultiUserEvent("changed"), course);
+		bus.fireEventToListenersOf(new MultiUserEvent("changed"), otherCourse);
+		Assert.assertEquals(1, listener.getCount());
+		Assert.assertEquals(2, typeListener.getCount());
+		
+		bus.deregisterFor(listener, course);
+		bus.deregisterFor(typeListener, courseType);
+		Assert.assertEquals(0, bus.getListeningIdentityCntFor(course));
+		Assert.assertEquals(0, bus.getListeningIdentityCntFor(courseType));
+		
+		bus.fireEventToListenersOf(new MultiUserEvent("changed"), course);
+		Assert.assertEquals(1, listener.getCount());
+		Assert.assertEquals(2, typeListener.getCount());
+	}
+	
+	@Test
+	public void registerTwice() {
+		SingleVMEventBus bus = new SingleVMEventBus();
+		OLATResourceable course = OresHelper.createOLATResourceableInstance(SingleVMEventBusTest.class, 14l);
+		
+		CountingListener listener = new CountingListener();
+		bus.registerFor(listener, null, course);
+		bus.registerFor(listener, null, course);
+		Assert.assertEquals(1, bus.getListeningIdentityCntFor(course));
+		
+		bus.fireEventToListenersOf(new MultiUserEvent("changed"), course);
+		Assert.assertEquals(1, listener.getCount());
+	}
+	
+	@Test
+	public void concurrentRegisterFire_1() throws Exception {
+		concurrentRegisterFire(1);
+	}
+	
+	@Test
+	public void concurrentRegisterFire_8() throws Exception {
+		concurrentRegisterFire(8);
+	}
+	
+	@Test
+	public void concurrentRegisterFire_32() throws Exception {
+		concurrentRegisterFire(32);
+	}
+	
+	/**
+	 * Every thread registers a listener to its own course and a shared one,
+	 * fires an event to both and deregisters. The listeners must receive
+	 * all the events of their own course and nothing must be left in the
+	 * registry.
+	 */
+	private void concurrentRegisterFire(int numOfThreads) throws Exception {
+		final int iterations = 2000;
+		final SingleVMEventBus bus = new SingleVMEventBus();
+		final OLATResourceable sharedCourse = OresHelper.createOLATResourceableInstance(SingleVMEventBusTest.class, 1l);
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch finish = new CountDownLatch(numOfThreads);
+		final AtomicInteger errors = new AtomicInteger();
+		final AtomicLong operations = new AtomicLong();
+		
+		List<Thread> threads = new ArrayList<>();
+		for(int i=0; i<numOfThreads; i++) {
+			final OLATResourceable course = OresHelper.createOLATResourceableInstance(SingleVMEventBusTest.class, Long.valueOf(1000l + i));
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					for(int j=0; j<iterations; j++) {
+						CountingListener listener = new CountingListener();
+						bus.registerFor(listener, null, course);
+						bus.registerFor(listener, null, sharedCourse);
+						bus.fireEventToListenersOf(new MultiUserEvent("changed"), course);
+						bus.fireEventToListenersOf(new MultiUserEvent("changed"), sharedCourse);
+						bus.deregisterFor(listener, course);
+						bus.deregisterFor(listener, sharedCourse);
+						if(listener.getCount() < 2) {
+							errors.incrementAndGet();
+						}
+						operations.addAndGet(6);
+					}
+				} catch(Exception e) {
+					log.error("", e);
+					errors.incrementAndGet();
+				} finally {
+					finish.countDown();
+				}
+			}, "event-bus-test-" + i);
+			thread.start();
+			threads.add(thread);
+		}
+		
+		long startTime = System.nanoTime();
+		start.countDown();
+		boolean done = finish.await(120, TimeUnit.SECONDS);
+		long duration = System.nanoTime() - startTime;
+		Assert.assertTrue(done);
+		Assert.assertEquals(0, errors.get());
+		Assert.assertEquals(0, bus.getListeningIdentityCntFor(sharedCourse));
+		
+		log.info("Event bus with {} threads: {} ops/s", numOfThreads,
+				(operations.get() * TimeUnit.SECONDS.toNanos(1)) / Math.max(1l, duration));
+	}
+	
+	private static class CountingListener implements GenericEventListener {
+		
+		private final AtomicInteger count = new AtomicInteger();
+		
+		public int getCount() {
+			return count.get();
+		}
+
+		@Override
+		public void event(Event event) {
+			count.incrementAndGet();
+		}
+	}
+}
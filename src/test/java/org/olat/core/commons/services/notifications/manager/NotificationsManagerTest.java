@@ -111,6 +111,35 @@ public class NotificationsManagerTest extends OlatTestCase {
 		Assert.assertEquals(publisher, reloadedPublisher);
 	}
 	
+	@Test
+	public void markPublisherNews_buffered() {
+		String identifier = UUID.randomUUID().toString().replace("-", "");
+		SubscriptionContext context = new SubscriptionContext("PS3", Long.valueOf(125), identifier);
+		PublisherData publisherData = new PublisherData("testPublisherSubscriber", "e.g. forumdata=keyofforum", null);
+		Publisher publisher = notificationManager.getOrCreatePublisher(context, publisherData);
+		dbInstance.commitAndCloseSession();
+		
+		sleep(2000);
+		
+		// the test profiles publish the news immediately, collect them like in production
+		NotificationsManagerImpl notificationManagerImpl = (NotificationsManagerImpl)notificationManager;
+		notificationManagerImpl.startNewsFlush(250);
+		try {
+			notificationManager.markPublisherNews(context, null, true);
+			notificationManager.markPublisherNews(context, null, true);
+			dbInstance.commitAndCloseSession();
+			
+			boolean flushed = waitForCondition(() -> {
+				Publisher reloadedPublisher = notificationManager.getPublisher(context);
+				dbInstance.commitAndCloseSession();
+				return publisher.getLatestNewsDate().before(reloadedPublisher.getLatestNewsDate());
+			}, 10000);
+			Assert.assertTrue(flushed);
+		} finally {
+			notificationManagerImpl.stopNewsFlush();
+		}
+	}
+	
 	@Test
 	public void testCreateUpdatePublisher() {
 		String identifier = UUID.randomUUID().toString().replace("-", "");
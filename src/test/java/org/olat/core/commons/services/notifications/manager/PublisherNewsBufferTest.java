@@ -0,0 +1,88 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.notifications.manager;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.services.notifications.manager.PublisherNewsBuffer.PendingNews;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class PublisherNewsBufferTest {
+	
+	@Test
+	public void coalesceNews() {
+		PublisherNewsBuffer buffer = new PublisherNewsBuffer(60000);
+		Long publisherKey = Long.valueOf(1);
+		Date first = new Date(1000);
+		Date latest = new Date(5000);
+		buffer.add(publisherKey, first, false);
+		buffer.add(publisherKey, latest, true);
+		buffer.add(publisherKey, new Date(3000), false);
+		buffer.add(Long.valueOf(2), first, false);
+		Assert.assertEquals(2, buffer.size());
+		
+		List<PendingNews> news = buffer.drain();
+		Assert.assertEquals(2, news.size());
+		Assert.assertEquals(0, buffer.size());
+		
+		PendingNews pending = news.stream()
+				.filter(n -> publisherKey.equals(n.getPublisherKey()))
+				.findFirst().get();
+		Assert.assertEquals(latest, pending.getNewsDate());
+		Assert.assertTrue(pending.isSendEvents());
+		
+		Assert.assertTrue(buffer.drain().isEmpty());
+	}
+	
+	@Test
+	public void subscriberKeys() {
+		PublisherNewsBuffer buffer = new PublisherNewsBuffer(60000);
+		Long publisherKey = Long.valueOf(3);
+		Assert.assertNull(buffer.getSubscriberKeys(publisherKey));
+		
+		Set<Long> keys = new HashSet<>();
+		keys.add(Long.valueOf(10));
+		keys.add(Long.valueOf(11));
+		buffer.putSubscriberKeys(publisherKey, keys);
+		Assert.assertEquals(keys, buffer.getSubscriberKeys(publisherKey));
+		
+		buffer.invalidateSubscriberKeys(publisherKey);
+		Assert.assertNull(buffer.getSubscriberKeys(publisherKey));
+	}
+	
+	@Test
+	public void subscriberKeysExpired() throws InterruptedException {
+		PublisherNewsBuffer buffer = new PublisherNewsBuffer(10);
+		Long publisherKey = Long.valueOf(4);
+		buffer.putSubscriberKeys(publisherKey, Collections.singleton(Long.valueOf(12)));
+		Thread.sleep(50);
+		Assert.assertNull(buffer.getSubscriberKeys(publisherKey));
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class VFSDownloadCounterTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private VFSMetadataDAO vfsMetadataDao;
+	@Autowired
+	private VFSDownloadCounter downloadCounter;
+	
+	@Test
+	public void incrementAndFlush() {
+		String uuid = UUID.randomUUID().toString();
+		String relativePath = "/bcroot/hello/downloads/";
+		String filename = uuid + ".pdf";
+		String uri = "file:///Users/frentix/Documents/bcroot/hello/downloads/" + filename;
+		VFSMetadata metadata = vfsMetadataDao.createMetadata(uuid, relativePath, filename, new Date(), 18l, false, uri, "file", null);
+		dbInstance.commitAndCloseSession();
+		
+		for(int i=0; i<5; i++) {
+			downloadCounter.increment(relativePath, filename);
+		}
+		downloadCounter.flush();
+		
+		VFSMetadata loadedMetadata = vfsMetadataDao.loadMetadata(metadata.getKey());
+		Assert.assertEquals(5, loadedMetadata.getDownloadCount());
+		dbInstance.commitAndCloseSession();
+		
+		// the deltas are added to the persisted count
+		downloadCounter.increment(relativePath, filename);
+		downloadCounter.increment(relativePath, filename);
+		downloadCounter.flush();
+		
+		VFSMetadata reloadedMetadata = vfsMetadataDao.loadMetadata(metadata.getKey());
+		Assert.assertEquals(7, reloadedMetadata.getDownloadCount());
+	}
+}
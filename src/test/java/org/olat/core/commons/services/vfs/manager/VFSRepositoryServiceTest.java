@@ -24,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Map;
 import java.util.UUID;
 
 import org.apache.commons.io.IOUtils;
@@ -87,6 +88,54 @@ public class VFSRepositoryServiceTest extends OlatTestCase {
 		Assert.assertFalse(metadata.isDirectory());	
 	}
 	
+	@Test
+	public void getChildrenMetadataFor() {
+		VFSContainer container = VFSManager.olatRootContainer(VFS_TEST_DIR + "/" + UUID.randomUUID(), null);
+		VFSLeaf firstLeaf = container.createChildLeaf("first.txt");
+		copyTestTxt(firstLeaf);
+		VFSLeaf secondLeaf = container.createChildLeaf("second.txt");
+		copyTestTxt(secondLeaf);
+		container.createChildContainer("sub");
+		VFSMetadata firstMetadata = vfsRepositoryService.getMetadataFor(firstLeaf);
+		dbInstance.commitAndCloseSession();
+		
+		// load the existing and create the missing ones
+		Map<String,VFSMetadata> childrenMetadata = vfsRepositoryService.getChildrenMetadataFor(container);
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(3, childrenMetadata.size());
+		Assert.assertEquals(firstMetadata, childrenMetadata.get("first.txt"));
+		Assert.assertNotNull(childrenMetadata.get("second.txt").getKey());
+		Assert.assertTrue(childrenMetadata.get("sub").isDirectory());
+		
+		// second time, nothing to create
+		Map<String,VFSMetadata> reloadedMetadata = vfsRepositoryService.getChildrenMetadataFor(container);
+		Assert.assertEquals(3, reloadedMetadata.size());
+		Assert.assertEquals(childrenMetadata.get("second.txt"), reloadedMetadata.get("second.txt"));
+		Assert.assertEquals(childrenMetadata.get("sub"), reloadedMetadata.get("sub"));
+	}
+	
+	@Test
+	public void getMetadataFor_requestCache() {
+		VFSLeaf leaf = createFile();
+		VFSMetadata metadata = vfsRepositoryService.getMetadataFor(leaf);
+		dbInstance.commitAndCloseSession();
+		
+		VFSMetadataRequestCache.start();
+		try {
+			VFSMetadata firstLookup = vfsRepositoryService.getMetadataFor(leaf);
+			VFSMetadata secondLookup = vfsRepositoryService.getMetadataFor(leaf);
+			Assert.assertEquals(metadata, firstLookup);
+			Assert.assertSame(firstLookup, secondLookup);
+			
+			// a change clears the cache
+			vfsRepositoryService.updateMetadata(secondLookup);
+			Assert.assertNull(VFSMetadataRequestCache.get(VFSManager.olatRootFile(leaf.getRelPath())));
+		} finally {
+			VFSMetadataRequestCache.end();
+		}
+		dbInstance.commitAndCloseSession();
+	}
+	
 	@Test
 	public void shouldLoadExistingLicenseType() {
 		String typeName = "name";
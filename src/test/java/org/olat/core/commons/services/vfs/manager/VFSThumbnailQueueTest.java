@@ -0,0 +1,217 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.vfs.LocalFileImpl;
+import org.olat.core.util.vfs.VFSLeaf;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class VFSThumbnailQueueTest {
+	
+	private File dir;
+	private VFSLeaf file;
+	
+	@Before
+	public void createFile() throws Exception {
+		dir = Files.createTempDirectory("thumbnails").toFile();
+		File image = new File(dir, "image.jpg");
+		Files.write(image.toPath(), new byte[] { 1, 2, 3 });
+		file = new LocalFileImpl(image);
+	}
+	
+	@After
+	public void deleteFile() {
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+	
+	@Test
+	public void mergeRequests() throws Exception {
+		AtomicInteger generated = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		VFSThumbnailQueue queue = new VFSThumbnailQueue(2, 10, (leaf, maxWidth, maxHeight, fill) -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			generated.incrementAndGet();
+			return true;
+		});
+		
+		try {
+			CountDownLatch listeners = new CountDownLatch(2);
+			Assert.assertTrue(queue.enqueue(file, "hello", 200, 200, false, listeners::countDown));
+			Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+			// same file and same size while the first is generating
+			Assert.assertTrue(queue.enqueue(file, "hello", 200, 200, false, listeners::countDown));
+			Assert.assertEquals(1, queue.getPendingThumbnails());
+			
+			release.countDown();
+			Assert.assertTrue(listeners.await(5, TimeUnit.SECONDS));
+			Assert.assertEquals(1, generated.get());
+			Assert.assertEquals(0, queue.getPendingThumbnails());
+		} finally {
+			queue.shutdown();
+		}
+	}
+	
+	@Test
+	public void awaitThumbnail() throws Exception {
+		AtomicInteger generated = new AtomicInteger();
+		VFSThumbnailQueue queue = new VFSThumbnailQueue(1, 10, (leaf, maxWidth, maxHeight, fill) -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			generated.incrementAndGet();
+			return true;
+		});
+		
+		try {
+			queue.enqueue(file, "hello", 100, 100, true, null);
+			queue.await("hello", file.getName(), 100, 100, true, 5000);
+			Assert.assertEquals(1, generated.get());
+		} finally {
+			queue.shutdown();
+		}
+	}
+	
+	@Test
+	public void queueFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		VFSThumbnailQueue queue = new VFSThumbnailQueue(1, 1, (leaf, maxWidth, maxHeight, fill) -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return true;
+		});
+		
+		try {
+			Assert.assertTrue(queue.enqueue(file, "hello", 10, 10, false, null));
+			Assert.assertTrue(queue.enqueue(file, "hello", 20, 20, false, null));
+			// one in progress, one in the queue, the third is dropped
+			Assert.assertFalse(queue.enqueue(file, "hello", 30, 30, false, null));
+			Assert.assertEquals(2, queue.getPendingThumbnails());
+			release.countDown();
+		} finally {
+			queue.shutdown();
+		}
+	}
+	
+	@Test
+	public void userRequestsBeforeWarmUp() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		VFSThumbnailQueue queue = new VFSThumbnailQueue(1, 10, (leaf, maxWidth, maxHeight, fill) -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			order.add(maxWidth);
+			return true;
+		});
+		
+		try {
+			// block the worker
+			Assert.assertTrue(queue.enqueue(file, "hello", 10, 10, false, null));
+			Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+			Assert.assertTrue(queue.warmUp(file, "hello", 20, 20, false));
+			Assert.assertTrue(queue.warmUp(file, "hello", 30, 30, false));
+			Assert.assertTrue(queue.enqueue(file, "hello", 40, 40, false, null));
+			// a user needs a queued warm-up
+			Assert.assertTrue(queue.enqueue(file, "hello", 30, 30, false, null));
+			
+			release.countDown();
+			waitFor(queue);
+			Assert.assertEquals(Arrays.asList(10, 40, 30, 20), order);
+		} finally {
+			queue.shutdown();
+		}
+	}
+	
+	@Test
+	public void warmUpLimitedToHalfQueue() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		VFSThumbnailQueue queue = new VFSThumbnailQueue(1, 4, (leaf, maxWidth, maxHeight, fill) -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return true;
+		});
+		
+		try {
+			Assert.assertTrue(queue.enqueue(file, "hello", 10, 10, false, null));
+			Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+			Assert.assertTrue(queue.warmUp(file, "hello", 20, 20, false));
+			Assert.assertTrue(queue.warmUp(file, "hello", 30, 30, false));
+			// the warm-ups use at most the half of the queue
+			Assert.assertFalse(queue.warmUp(file, "hello", 40, 40, false));
+			
+			Assert.assertTrue(queue.enqueue(file, "hello", 50, 50, false, null));
+			Assert.assertTrue(queue.enqueue(file, "hello", 60, 60, false, null));
+			Assert.assertEquals(4, queue.getQueueSize());
+			// the queue is full, the last warm-up makes place for the user
+			Assert.assertTrue(queue.enqueue(file, "hello", 70, 70, false, null));
+			Assert.assertEquals(4, queue.getQueueSize());
+			Assert.assertEquals(5, queue.getPendingThumbnails());
+			release.countDown();
+		} finally {
+			queue.shutdown();
+		}
+	}
+	
+	private void waitFor(VFSThumbnailQueue queue) throws InterruptedException {
+		for(int i=0; i<100 && queue.getPendingThumbnails() > 0; i++) {
+			Thread.sleep(50);
+		}
+		Assert.assertEquals(0, queue.getPendingThumbnails());
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.webdav.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.vfs.LocalFolderImpl;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VirtualContainer;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class WebDAVCollectionETagsTest extends OlatTestCase {
+
+	private File dir;
+
+	@Autowired
+	private WebDAVCollectionETags collectionETags;
+
+	@Before
+	public void createDirectory() throws IOException {
+		dir = Files.createTempDirectory("etags").toFile();
+		Files.write(new File(dir, "first.txt").toPath(), "Hello".getBytes());
+	}
+
+	@After
+	public void deleteDirectory() {
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+
+	@Test
+	public void getETag() {
+		VFSContainer container = new LocalFolderImpl(dir);
+		String etag = collectionETags.getETag(container);
+		Assert.assertNotNull(etag);
+		Assert.assertTrue(etag.startsWith("W/\"1-5-"));
+		// cached
+		Assert.assertEquals(etag, collectionETags.getETag(container));
+	}
+
+	@Test
+	public void getETag_newFile() throws IOException {
+		VFSContainer container = new LocalFolderImpl(dir);
+		String etag = collectionETags.getETag(container);
+		Assert.assertNotNull(etag);
+
+		Files.write(new File(dir, "second.txt").toPath(), "World!".getBytes());
+		// force the change of the modification date
+		dir.setLastModified(dir.lastModified() + 2000);
+
+		String newEtag = collectionETags.getETag(container);
+		Assert.assertNotEquals(etag, newEtag);
+		Assert.assertTrue(newEtag.startsWith("W/\"2-11-"));
+	}
+
+	@Test
+	public void getETag_virtual() {
+		VFSContainer container = new VirtualContainer("virtual");
+		Assert.assertNull(collectionETags.getETag(container));
+	}
+}
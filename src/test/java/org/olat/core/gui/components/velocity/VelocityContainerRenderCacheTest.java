@@ -0,0 +1,114 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components.velocity;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.olat.admin.layout.FooterInformations;
+import org.olat.admin.layout.LayoutModule;
+import org.olat.core.gui.components.velocity.VelocityRenderStatistics.RequestStatistics;
+import org.olat.core.gui.components.velocity.VelocityRenderStatistics.RequestTemplate;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class VelocityContainerRenderCacheTest {
+	
+	@Test
+	public void contextFingerprint() {
+		VelocityContainer vc = new VelocityContainer("test", "org/olat/test/_content/test.html", null, null);
+		vc.contextPut("title", "Hello");
+		vc.contextPut("count", Integer.valueOf(3));
+		Long fingerprint = vc.getContextFingerprint();
+		Assert.assertNotNull(fingerprint);
+		
+		// same values, same fingerprint
+		vc.contextPut("title", "Hello");
+		Assert.assertEquals(fingerprint, vc.getContextFingerprint());
+		// the decorator is not part of the fingerprint
+		vc.getContext().put("r", new Object());
+		Assert.assertEquals(fingerprint, vc.getContextFingerprint());
+		vc.getContext().remove("r");
+		
+		vc.contextPut("count", Integer.valueOf(4));
+		Assert.assertNotEquals(fingerprint, vc.getContextFingerprint());
+	}
+	
+	@Test
+	public void cachedOutput() {
+		VelocityContainer vc = new VelocityContainer("test", "org/olat/test/_content/test.html", null, null);
+		vc.setRenderCacheEnabled(true);
+		vc.setCachedOutput(Long.valueOf(12l), "key-1", "<div>Hello</div>");
+		
+		Assert.assertEquals("<div>Hello</div>", vc.getCachedOutput("key-1"));
+		Assert.assertNull(vc.getCachedOutput("key-2"));
+		Assert.assertNull(vc.getCachedOutput(null));
+		
+		vc.setVisible(false);
+		Assert.assertNull(vc.getCachedOutput("key-1"));
+	}
+	
+	@Test
+	public void requestStatistics() {
+		VelocityRenderStatistics statistics = VelocityRenderStatistics.getInstance();
+		statistics.setEnabled(true);
+		statistics.startRequest();
+		statistics.record("org/olat/test/_content/cheap.html", 1000l, false);
+		statistics.record("org/olat/test/_content/expensive.html", 50000l, false);
+		statistics.record("org/olat/test/_content/expensive.html", 2000l, true);
+		RequestStatistics request = statistics.endRequest();
+		statistics.setEnabled(false);
+		
+		List<RequestTemplate> templates = request.getMostExpensiveTemplates(10);
+		Assert.assertEquals(2, templates.size());
+		Assert.assertEquals("org/olat/test/_content/expensive.html", templates.get(0).getPage());
+		Assert.assertEquals(2, templates.get(0).getRenders());
+		Assert.assertEquals(1, templates.get(0).getCacheHits());
+		Assert.assertEquals(52000l, templates.get(0).getTime());
+		Assert.assertNull(statistics.endRequest());
+	}
+	
+	@Test
+	public void requestStatisticsDisabled() {
+		VelocityRenderStatistics statistics = VelocityRenderStatistics.getInstance();
+		statistics.startRequest();
+		statistics.record("org/olat/test/_content/disabled.html", 1000l, false);
+		Assert.assertNull(statistics.endRequest());
+		Assert.assertNull(statistics.getStatistics("org/olat/test/_content/disabled.html"));
+	}
+	
+	@Test
+	public void footerInformationsHashCode() {
+		LayoutModule layoutModule = Mockito.mock(LayoutModule.class);
+		Mockito.when(layoutModule.getFooterLine()).thenReturn("Footer");
+		FooterInformations infos = new FooterInformations(layoutModule);
+		int hashCode = infos.hashCode();
+		Assert.assertEquals(hashCode, infos.hashCode());
+		
+		// the fingerprint of the footer changes with the configuration
+		Mockito.when(layoutModule.getFooterLine()).thenReturn("New footer");
+		Assert.assertNotEquals(hashCode, infos.hashCode());
+	}
+}
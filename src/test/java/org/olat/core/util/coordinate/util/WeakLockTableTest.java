@@ -0,0 +1,57 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.coordinate.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class WeakLockTableTest {
+
+	@Test
+	public void getLockFor() {
+		WeakLockTable table = new WeakLockTable();
+		Object lock1 = table.getLockFor("Course:1");
+		Object lock2 = table.getLockFor("Course:1");
+		Object lock3 = table.getLockFor("Course:2");
+		Assert.assertSame(lock1, lock2);
+		Assert.assertNotSame(lock1, lock3);
+		Assert.assertEquals(2, table.size());
+	}
+
+	@Test
+	public void getLockFor_reclaimed() throws InterruptedException {
+		WeakLockTable table = new WeakLockTable();
+		for(int i=0; i<1000; i++) {
+			Assert.assertNotNull(table.getLockFor("Course:" + i));
+		}
+
+		// the locks are not used anymore
+		for(int i=0; i<20 && table.size() > 0; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		Assert.assertTrue(table.size() < 1000);
+	}
+}
@@ -33,8 +33,10 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -679,7 +681,52 @@ public class I18nTest extends OlatTestCase {
 		
 		i18nMgr.setCachingEnabled(true);
 	}
-
+	
+	/**
+	 * The compiled tables must return the same translations as the
+	 * lookup through the properties files.
+	 */
+	@Test
+	public void testCompiledMessageTable() {
+		i18nMgr.setCachingEnabled(true);
+		String bundleName = "org.olat.core";
+		for (Locale locale : new Locale[] { Locale.GERMAN, Locale.ENGLISH, new Locale("de", "CH") }) {
+			CompiledMessageTable table = i18nMgr.getCompiledMessageTable(bundleName, locale, true, true);
+			assertTrue(table.size() > 0);
+			for (String key : i18nMgr.getResolvedProperties(Locale.GERMAN, bundleName).stringPropertyNames()) {
+				String expected = i18nMgr.getLocalizedString(bundleName, key, null, locale, true, true, true, true, 0);
+				assertEquals(expected, table.getMessage(key, null));
+				assertEquals(expected, i18nMgr.getLocalizedString(bundleName, key, null, locale, true, true));
+			}
+			assertNull(table.getMessage("not.a.key.of.org.olat.core", null));
+		}
+		// the resolved references
+		String subBundleName = "org.olat.core.util.i18n.junittestdata.subtest";
+		CompiledMessageTable subTable = i18nMgr.getCompiledMessageTable(subBundleName, Locale.GERMAN, false, true);
+		assertEquals("Hello world, this is just a test (dont translate it)", subTable.getMessage("recursive.test2", null));
+		// same table until the caches are flushed
+		assertTrue(subTable == i18nMgr.getCompiledMessageTable(subBundleName, Locale.GERMAN, false, true));
+		i18nMgr.clearCaches();
+		assertFalse(subTable == i18nMgr.getCompiledMessageTable(subBundleName, Locale.GERMAN, false, true));
+	}
+	
+	@Test
+	public void testCompiledMessageTableArguments() {
+		Map<String,String> messages = new HashMap<>();
+		messages.put("hello", "Hello {0}, it's {1}");
+		messages.put("broken", "Hello {0");
+		CompiledMessageTable table = new CompiledMessageTable(messages);
+		assertEquals("Hello {0}, it's {1}", table.getMessage("hello", null));
+		assertEquals("Hello world, it's me", table.getMessage("hello", new String[] { "world", "me" }));
+		assertEquals("Hello {0", table.getMessage("broken", null));
+		try {
+			table.getMessage("broken", new String[] { "world" });
+			fail("MessageFormat must throw an exception");
+		} catch (IllegalArgumentException e) {
+			// like MessageFormat.format()
+		}
+	}
+	
 	
 	/**
 	 * Description:<br>
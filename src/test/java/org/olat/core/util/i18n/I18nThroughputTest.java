@@ -0,0 +1,109 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.i18n;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.logging.Tracing;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Throughput of the translations of a typical page: the first keys of
+ * some bundles used by every page, translated with the compiled tables
+ * and with the lookup along the fallbacks. The test only logs the times,
+ * it's not part of the test suite and must be run on demand.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class I18nThroughputTest extends OlatTestCase {
+	
+	private static final Logger log = Tracing.createLoggerFor(I18nThroughputTest.class);
+	
+	private static final String[] PAGE_BUNDLES = new String[] {
+			"org.olat.core", "org.olat.core.gui.components.form", "org.olat.course"
+		};
+	
+	@Autowired
+	private I18nManager i18nMgr;
+	
+	@After
+	public void resetCaching() {
+		i18nMgr.setCachingEnabled(true);
+	}
+
+	@Test
+	public void translatePage() {
+		i18nMgr.setCachingEnabled(true);
+		Locale locale = new Locale("de", "CH");
+		List<String[]> pageKeys = getPageKeys(50);
+		Assert.assertFalse(pageKeys.isEmpty());
+
+		int rounds = 2000;
+		// warm up both paths
+		translatePage(pageKeys, locale, null, true, rounds / 10);
+		translatePage(pageKeys, locale, null, false, rounds / 10);
+		
+		long compiledTime = translatePage(pageKeys, locale, null, true, rounds);
+		long lookupTime = translatePage(pageKeys, locale, null, false, rounds);
+		log.info("Translate {} keys {} times, compiled tables: {}ms, lookup: {}ms",
+				pageKeys.size(), rounds, compiledTime / 1000000l, lookupTime / 1000000l);
+		
+		Object[] args = new Object[] { "Hello", "world", Integer.valueOf(12) };
+		long compiledArgsTime = translatePage(pageKeys, locale, args, true, rounds);
+		long lookupArgsTime = translatePage(pageKeys, locale, args, false, rounds);
+		log.info("Translate {} keys with arguments {} times, compiled tables: {}ms, lookup: {}ms",
+				pageKeys.size(), rounds, compiledArgsTime / 1000000l, lookupArgsTime / 1000000l);
+	}
+	
+	private List<String[]> getPageKeys(int keysPerBundle) {
+		List<String[]> pageKeys = new ArrayList<>();
+		for (String bundleName : PAGE_BUNDLES) {
+			int count = 0;
+			for (String key : i18nMgr.getResolvedProperties(Locale.GERMAN, bundleName).stringPropertyNames()) {
+				if (count++ >= keysPerBundle) break;
+				pageKeys.add(new String[] { bundleName, key });
+			}
+		}
+		return pageKeys;
+	}
+	
+	private long translatePage(List<String[]> pageKeys, Locale locale, Object[] args, boolean compiled, int rounds) {
+		long start = System.nanoTime();
+		int length = 0;
+		for (int i=rounds; i-->0; ) {
+			for (String[] bundleAndKey : pageKeys) {
+				String msg = compiled
+						? i18nMgr.getLocalizedString(bundleAndKey[0], bundleAndKey[1], args, locale, true, true)
+						: i18nMgr.getLocalizedString(bundleAndKey[0], bundleAndKey[1], args, locale, true, true, true, true, 0);
+				length += msg == null ? 0 : msg.length();
+			}
+		}
+		Assert.assertTrue(length > 0);
+		return System.nanoTime() - start;
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.util.mail.model.MailOutboxEntry;
+import org.olat.core.util.mail.model.MailOutboxStatus;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class MailOutboxDAOTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private MailOutboxDAO mailOutboxDao;
+	
+	@Test
+	public void createEntry() {
+		String storage = UUID.randomUUID().toString() + ".eml";
+		MailOutboxEntry entry = mailOutboxDao.createEntry(storage);
+		dbInstance.commitAndCloseSession();
+		
+		MailOutboxEntry reloadedEntry = mailOutboxDao.loadByKey(entry.getKey());
+		Assert.assertNotNull(reloadedEntry);
+		Assert.assertEquals(storage, reloadedEntry.getStorage());
+		Assert.assertEquals(MailOutboxStatus.pending, reloadedEntry.getStatus());
+		Assert.assertEquals(0, reloadedEntry.getAttempts());
+		Assert.assertNotNull(reloadedEntry.getNextAttempt());
+	}
+	
+	@Test
+	public void getDueEntryKeys() {
+		MailOutboxEntry entry = mailOutboxDao.createEntry(UUID.randomUUID().toString() + ".eml");
+		dbInstance.commitAndCloseSession();
+		
+		List<Long> dueKeys = mailOutboxDao.getDueEntryKeys(new Date(), 100000);
+		Assert.assertTrue(dueKeys.contains(entry.getKey()));
+		
+		// retry in the future
+		mailOutboxDao.reschedule(entry.getKey(), 1, new Date(System.currentTimeMillis() + 3600000l), "Timeout");
+		dbInstance.commitAndCloseSession();
+		
+		List<Long> laterKeys = mailOutboxDao.getDueEntryKeys(new Date(), 100000);
+		Assert.assertFalse(laterKeys.contains(entry.getKey()));
+		
+		MailOutboxEntry reloadedEntry = mailOutboxDao.loadByKey(entry.getKey());
+		Assert.assertEquals(1, reloadedEntry.getAttempts());
+		Assert.assertEquals("Timeout", reloadedEntry.getError());
+	}
+	
+	@Test
+	public void claim() {
+		MailOutboxEntry entry = mailOutboxDao.createEntry(UUID.randomUUID().toString() + ".eml");
+		dbInstance.commitAndCloseSession();
+		
+		boolean claimed = mailOutboxDao.claim(entry.getKey(), Integer.valueOf(1));
+		dbInstance.commitAndCloseSession();
+		Assert.assertTrue(claimed);
+		
+		// second node cannot claim it
+		boolean claimedAgain = mailOutboxDao.claim(entry.getKey(), Integer.valueOf(2));
+		dbInstance.commitAndCloseSession();
+		Assert.assertFalse(claimedAgain);
+		
+		MailOutboxEntry reloadedEntry = mailOutboxDao.loadByKey(entry.getKey());
+		Assert.assertEquals(MailOutboxStatus.sending, reloadedEntry.getStatus());
+		Assert.assertEquals(Integer.valueOf(1), reloadedEntry.getNodeId());
+	}
+	
+	@Test
+	public void releaseStaleEntries() {
+		MailOutboxEntry entry = mailOutboxDao.createEntry(UUID.randomUUID().toString() + ".eml");
+		dbInstance.commitAndCloseSession();
+		mailOutboxDao.claim(entry.getKey(), Integer.valueOf(1));
+		dbInstance.commitAndCloseSession();
+		
+		int released = mailOutboxDao.releaseStaleEntries(new Date(System.currentTimeMillis() + 60000l));
+		dbInstance.commitAndCloseSession();
+		Assert.assertTrue(released >= 1);
+		
+		MailOutboxEntry reloadedEntry = mailOutboxDao.loadByKey(entry.getKey());
+		Assert.assertEquals(MailOutboxStatus.pending, reloadedEntry.getStatus());
+		Assert.assertNull(reloadedEntry.getNodeId());
+	}
+	
+	@Test
+	public void markFailedAndCount() {
+		MailOutboxEntry entry = mailOutboxDao.createEntry(UUID.randomUUID().toString() + ".eml");
+		dbInstance.commitAndCloseSession();
+		
+		mailOutboxDao.markFailed(entry.getKey(), 3, "550 Mailbox unavailable");
+		dbInstance.commitAndCloseSession();
+		
+		MailOutboxEntry reloadedEntry = mailOutboxDao.loadByKey(entry.getKey());
+		Assert.assertEquals(MailOutboxStatus.failed, reloadedEntry.getStatus());
+		Assert.assertEquals(3, reloadedEntry.getAttempts());
+		
+		Map<MailOutboxStatus,Long> counts = mailOutboxDao.countByStatus();
+		Assert.assertTrue(counts.get(MailOutboxStatus.failed).longValue() >= 1);
+		Assert.assertNotNull(counts.get(MailOutboxStatus.pending));
+	}
+	
+	@Test
+	public void deleteEntry() {
+		MailOutboxEntry entry = mailOutboxDao.createEntry(UUID.randomUUID().toString() + ".eml");
+		dbInstance.commitAndCloseSession();
+		
+		mailOutboxDao.deleteEntry(entry.getKey());
+		dbInstance.commitAndCloseSession();
+		
+		MailOutboxEntry deletedEntry = mailOutboxDao.loadByKey(entry.getKey());
+		Assert.assertNull(deletedEntry);
+	}
+}
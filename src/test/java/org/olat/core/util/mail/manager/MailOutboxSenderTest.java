@@ -0,0 +1,90 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.util.mail.model.MailOutboxEntry;
+import org.olat.core.util.mail.model.MailOutboxStatus;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class MailOutboxSenderTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private MailOutboxDAO mailOutboxDao;
+	@Autowired
+	private MailOutboxSender mailOutboxSender;
+	
+	@Test
+	public void getRetryDelay() {
+		long firstDelay = mailOutboxSender.getRetryDelay(1);
+		Assert.assertTrue(firstDelay > 0);
+		Assert.assertEquals(2 * firstDelay, mailOutboxSender.getRetryDelay(2));
+		Assert.assertEquals(4 * firstDelay, mailOutboxSender.getRetryDelay(3));
+		// capped at 6 hours
+		Assert.assertEquals(6l * 60l * 60l * 1000l, mailOutboxSender.getRetryDelay(40));
+	}
+	
+	@Test
+	public void retryLater() throws IOException {
+		MailOutboxEntry entry = mailOutboxDao.createEntry(UUID.randomUUID().toString() + ".eml");
+		dbInstance.commitAndCloseSession();
+		
+		File file = Files.createTempFile("outbox", ".eml").toFile();
+		long before = System.currentTimeMillis();
+		mailOutboxSender.retryLater(entry, file, "Connection refused");
+		dbInstance.commitAndCloseSession();
+		
+		MailOutboxEntry retriedEntry = mailOutboxDao.loadByKey(entry.getKey());
+		Assert.assertEquals(MailOutboxStatus.pending, retriedEntry.getStatus());
+		Assert.assertEquals(1, retriedEntry.getAttempts());
+		Assert.assertEquals("Connection refused", retriedEntry.getError());
+		// the precision of the dates is only the second in some databases
+		Assert.assertTrue(retriedEntry.getNextAttempt().getTime() >= before + mailOutboxSender.getRetryDelay(1) - 1000);
+		Assert.assertTrue(file.exists());
+		
+		// retry until the max. number of attempts
+		for(int i=0; i<100 && retriedEntry.getStatus() == MailOutboxStatus.pending; i++) {
+			mailOutboxSender.retryLater(retriedEntry, file, "Connection refused");
+			dbInstance.commitAndCloseSession();
+			retriedEntry = mailOutboxDao.loadByKey(entry.getKey());
+		}
+		Assert.assertEquals(MailOutboxStatus.failed, retriedEntry.getStatus());
+		Assert.assertFalse(file.exists());
+		// never sent again
+		Date nextYear = new Date(System.currentTimeMillis() + 365l * 24l * 60l * 60l * 1000l);
+		Assert.assertFalse(mailOutboxDao.getDueEntryKeys(nextYear, 100000).contains(entry.getKey()));
+	}
+}
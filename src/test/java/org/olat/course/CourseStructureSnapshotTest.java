@@ -0,0 +1,103 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+
+import com.thoughtworks.xstream.XStream;
+
+/**
+ *
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class CourseStructureSnapshotTest {
+
+	private File dir;
+	private File xmlFile;
+
+	@Before
+	public void copyRunStructure() throws IOException {
+		dir = Files.createTempDirectory("snapshot").toFile();
+		xmlFile = new File(dir, PersistingCourseImpl.RUNSTRUCTURE_XML);
+		try(InputStream in = CourseStructureSnapshotTest.class.getResourceAsStream("runstructure_allinone.xml")) {
+			Files.copy(in, xmlFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	@After
+	public void deleteDirectory() {
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+
+	@Test
+	public void writeReadSnapshot() {
+		Structure runStructure = readXml();
+		CourseStructureSnapshot.write(xmlFile, runStructure);
+		Assert.assertTrue(CourseStructureSnapshot.getSnapshotFile(xmlFile).exists());
+
+		Object snapshot = CourseStructureSnapshot.read(xmlFile);
+		Assert.assertTrue(snapshot instanceof Structure);
+		Structure snapshotStructure = (Structure)snapshot;
+		Assert.assertEquals(runStructure.getRootNode().getIdent(), snapshotStructure.getRootNode().getIdent());
+		Assert.assertEquals(runStructure.getRootNode().getChildCount(), snapshotStructure.getRootNode().getChildCount());
+	}
+
+	@Test
+	public void readOutdatedSnapshot() throws IOException {
+		CourseStructureSnapshot.write(xmlFile, readXml());
+		// the XML was changed after the snapshot
+		Files.write(xmlFile.toPath(), "<!-- changed -->".getBytes(), StandardOpenOption.APPEND);
+
+		Object snapshot = CourseStructureSnapshot.read(xmlFile);
+		Assert.assertNull(snapshot);
+	}
+
+	@Test
+	public void readWithoutSnapshot() {
+		Object snapshot = CourseStructureSnapshot.read(xmlFile);
+		Assert.assertNull(snapshot);
+	}
+
+	@Test
+	public void copy() {
+		Structure runStructure = readXml();
+		Structure copy = CourseStructureSnapshot.copy(runStructure);
+		Assert.assertNotSame(runStructure, copy);
+		Assert.assertNotSame(runStructure.getRootNode(), copy.getRootNode());
+		Assert.assertEquals(runStructure.getRootNode().getIdent(), copy.getRootNode().getIdent());
+	}
+
+	private Structure readXml() {
+		XStream xStream = CourseXStreamAliases.getReadCourseXStream();
+		return (Structure)xStream.fromXML(xmlFile);
+	}
+}
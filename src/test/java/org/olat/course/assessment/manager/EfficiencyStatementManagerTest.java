@@ -24,7 +24,9 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.junit.Assert;
@@ -36,6 +38,7 @@ import org.olat.core.id.Roles;
 import org.olat.core.util.mail.MailPackage;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
+import org.olat.course.assessment.AssessmentHelper;
 import org.olat.course.assessment.EfficiencyStatement;
 import org.olat.course.assessment.UserEfficiencyStatement;
 import org.olat.course.assessment.model.UserEfficiencyStatementForCoaching;
@@ -674,6 +677,65 @@ public class EfficiencyStatementManagerTest extends OlatTestCase {
 	    Assert.assertFalse(hasNot);
 	}
 	
+	@Test
+	public void updateEfficiencyStatements() throws URISyntaxException {
+		RepositoryEntry re = deployTestcourse();
+		
+		//add some members
+		List<Identity> participants = new ArrayList<>();
+		for(int i=0; i<6; i++) {
+			Identity participant = JunitTestHelper.createAndPersistIdentityAsRndUser("Eff-Recalc-" + i);
+			repositoryService.addRole(participant, re, GroupRoles.participant.name());
+			participants.add(participant);
+		}
+		dbInstance.commitAndCloseSession();
+		
+		// first calculation writes all the statements
+		effManager.updateEfficiencyStatements(re, participants);
+		dbInstance.commitAndCloseSession();
+		
+		List<Date> lastModifications = new ArrayList<>();
+		for(Identity participant:participants) {
+			UserEfficiencyStatementImpl statement = effManager.getUserEfficiencyStatementFull(re, participant);
+			Assert.assertNotNull(statement);
+			Assert.assertNotNull(statement.getStatementXml());
+			Assert.assertNotNull(statement.getStatementCompact());
+			lastModifications.add(statement.getLastModified());
+		}
+		dbInstance.commitAndCloseSession();
+		
+		// nothing changed, nothing written
+		effManager.updateEfficiencyStatements(re, participants);
+		dbInstance.commitAndCloseSession();
+		
+		for(int i=0; i<participants.size(); i++) {
+			UserEfficiencyStatementImpl statement = effManager.getUserEfficiencyStatementFull(re, participants.get(i));
+			Assert.assertEquals(lastModifications.get(i), statement.getLastModified());
+		}
+	}
+	
+	@Test
+	public void toCompactStatement() {
+		Map<String,Object> nodeData = new HashMap<>();
+		nodeData.put(AssessmentHelper.KEY_IDENTIFYER, "node-1");
+		nodeData.put(AssessmentHelper.KEY_SCORE_F, Float.valueOf(4.5f));
+		nodeData.put(AssessmentHelper.KEY_PASSED, Boolean.TRUE);
+		
+		EfficiencyStatement statement = new EfficiencyStatement();
+		statement.setCourseTitle("Compact");
+		statement.setAssessmentNodes(Collections.singletonList(nodeData));
+		statement.setLastUpdated(1000l);
+		String compact = effManager.toCompactStatement(statement);
+		
+		// the time of the update doesn't matter
+		statement.setLastUpdated(2000l);
+		Assert.assertEquals(compact, effManager.toCompactStatement(statement));
+		
+		// the score does
+		nodeData.put(AssessmentHelper.KEY_SCORE_F, Float.valueOf(5.0f));
+		Assert.assertNotEquals(compact, effManager.toCompactStatement(statement));
+	}
+	
 	private RepositoryEntry deployTestcourse() throws URISyntaxException {
 		//deploy a course
 		URL courseUrl = CoachingLargeTest.class.getResource("CoachingCourse.zip");
@@ -26,12 +26,14 @@ import org.olat.core.id.IdentityEnvironment;
 import org.olat.core.id.Roles;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
+import org.olat.course.condition.interpreter.ConditionExpressionCache;
 import org.olat.course.condition.interpreter.ConditionInterpreter;
 import org.olat.course.run.userview.UserCourseEnvironment;
 import org.olat.course.run.userview.UserCourseEnvironmentImpl;
 import org.olat.repository.RepositoryEntry;
 import org.olat.test.JunitTestHelper;
 import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * 
@@ -39,6 +41,9 @@ import org.olat.test.OlatTestCase;
  */
 public class ConditionTest extends OlatTestCase {
 	
+	@Autowired
+	private ConditionExpressionCache expressionCache;
+	
 	@Test
 	public void complexExpression() throws Exception {
 		UserCourseEnvironment uce = getUserDemoCourseEnvironment();
@@ -325,6 +330,36 @@ public class ConditionTest extends OlatTestCase {
 		Assert.assertFalse(condition, result);
 	}
 
+	@Test
+	public void cachedExpressionPerUser() throws Exception {
+		UserCourseEnvironment uce = getUserDemoCourseEnvironment();
+		ConditionInterpreter interpreter = new ConditionInterpreter(uce);
+		
+		Identity rndId = JunitTestHelper.createAndPersistIdentityAsRndUser("condition-cache");
+		IdentityEnvironment rndIdentityEnv = new IdentityEnvironment(rndId, Roles.userRoles());
+		UserCourseEnvironment rndUce = new UserCourseEnvironmentImpl(rndIdentityEnv, uce.getCourseEnvironment());
+		ConditionInterpreter rndInterpreter = new ConditionInterpreter(rndUce);
+
+		String condition = "hasUserProperty(\"firstName\", \"firstcondition\")";
+		boolean result = interpreter.evaluateCondition(condition);
+		Assert.assertTrue(condition, result);
+		
+		long hits = expressionCache.getHits();
+		boolean rndResult = rndInterpreter.evaluateCondition(condition);
+		Assert.assertFalse(condition, rndResult);
+		Assert.assertEquals(hits + 1, expressionCache.getHits());
+		
+		// the parsed expression is shared but evaluated with the environment of the caller
+		result = interpreter.evaluateCondition(condition);
+		Assert.assertTrue(condition, result);
+		
+		// invalidate the cache at publish
+		expressionCache.invalidate(uce.getCourseEnvironment().getCourseResourceableId());
+		long misses = expressionCache.getMisses();
+		result = interpreter.evaluateCondition(condition);
+		Assert.assertTrue(condition, result);
+		Assert.assertEquals(misses + 1, expressionCache.getMisses());
+	}
 	
 	private UserCourseEnvironment getUserDemoCourseEnvironment() {
 		Identity author = JunitTestHelper.createAndPersistIdentityAsRndUser("junit_auth");
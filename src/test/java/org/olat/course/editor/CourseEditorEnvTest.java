@@ -0,0 +1,69 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.editor;
+
+import java.util.Locale;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.id.Identity;
+import org.olat.course.CourseFactory;
+import org.olat.course.ICourse;
+import org.olat.course.condition.interpreter.ConditionErrorMessage;
+import org.olat.course.condition.interpreter.ConditionExpression;
+import org.olat.course.tree.CourseEditorTreeModel;
+import org.olat.repository.RepositoryEntry;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class CourseEditorEnvTest extends OlatTestCase {
+	
+	@Test
+	public void validateConditionExpression() {
+		Identity author = JunitTestHelper.createAndPersistIdentityAsRndUser("editor-env-");
+		RepositoryEntry re = JunitTestHelper.deployDemoCourse(author);
+		ICourse course = CourseFactory.loadCourse(re);
+		
+		CourseEditorTreeModel editorTreeModel = course.getEditorTreeModel();
+		CourseEditorEnv editorEnv = new CourseEditorEnvImpl(editorTreeModel,
+				course.getCourseEnvironment().getCourseGroupManager(), Locale.ENGLISH);
+		new EditorUserCourseEnvironmentImpl(editorEnv, null);
+		editorEnv.setCurrentCourseNodeId(editorTreeModel.getRootNode().getIdent());
+		
+		// the second validation use the cached expression
+		for(int i=0; i<2; i++) {
+			ConditionErrorMessage[] errors = editorEnv.validateConditionExpression(new ConditionExpression("test", "true"));
+			Assert.assertNull(errors);
+			
+			String condition = "hasUserProperty(\"firstName\", \"firstcondition\")";
+			errors = editorEnv.validateConditionExpression(new ConditionExpression("test", condition));
+			Assert.assertNull(errors);
+		}
+		
+		ConditionErrorMessage[] errors = editorEnv.validateConditionExpression(new ConditionExpression("test", "unknownFunction(\"a\")"));
+		Assert.assertNotNull(errors);
+		Assert.assertEquals(1, errors.length);
+	}
+}
@@ -19,6 +19,7 @@
  */
 package org.olat.ims.qti21.manager;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -129,4 +130,32 @@ public class AssessmentResponseDAOTest extends OlatTestCase {
 		Assert.assertEquals(1, loadedResponses.size());
 		Assert.assertEquals(response, loadedResponses.get(0));
 	}
+	
+	@Test
+	public void loadResponses_testSessionKeys() {
+		// prepare a test and a user
+		RepositoryEntry testEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		Identity assessedIdentity = JunitTestHelper.createAndPersistIdentityAsRndUser("response-session-4");
+		AssessmentEntry assessmentEntry = assessmentService.getOrCreateAssessmentEntry(assessedIdentity, null, testEntry, "-", testEntry);
+		dbInstance.commit();
+
+		//make 2 tests with an item and a response
+		String itemIdentifier = UUID.randomUUID().toString();
+		String responseIdentifier = UUID.randomUUID().toString();
+		AssessmentTestSession testSession1 = testSessionDao.createAndPersistTestSession(testEntry, testEntry, "_", assessmentEntry, assessedIdentity, null, true);
+		AssessmentItemSession itemSession1 = itemSessionDao.createAndPersistAssessmentItemSession(testSession1, null, itemIdentifier);
+		AssessmentResponse response1 = responseDao.createAssessmentResponse(testSession1, itemSession1, responseIdentifier, ResponseLegality.VALID, ResponseDataType.FILE);
+		AssessmentTestSession testSession2 = testSessionDao.createAndPersistTestSession(testEntry, testEntry, "_", assessmentEntry, assessedIdentity, null, true);
+		AssessmentItemSession itemSession2 = itemSessionDao.createAndPersistAssessmentItemSession(testSession2, null, itemIdentifier);
+		AssessmentResponse response2 = responseDao.createAssessmentResponse(testSession2, itemSession2, responseIdentifier, ResponseLegality.VALID, ResponseDataType.FILE);
+		responseDao.save(Arrays.asList(response1, response2));
+		dbInstance.commitAndCloseSession();
+		
+		List<AssessmentResponse> loadedResponses = responseDao.getResponses(Arrays.asList(testSession1.getKey(), testSession2.getKey()));
+		Assert.assertNotNull(loadedResponses);
+		Assert.assertEquals(2, loadedResponses.size());
+		Assert.assertEquals(response1, loadedResponses.get(0));
+		Assert.assertEquals(response2, loadedResponses.get(1));
+		Assert.assertEquals(testSession1.getKey(), loadedResponses.get(0).getAssessmentItemSession().getAssessmentTestSession().getKey());
+	}
 }
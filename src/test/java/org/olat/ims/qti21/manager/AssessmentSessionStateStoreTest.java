@@ -0,0 +1,136 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class AssessmentSessionStateStoreTest {
+	
+	private File dir;
+	
+	@Before
+	public void createDirectory() throws IOException {
+		dir = Files.createTempDirectory("qtisession").toFile();
+	}
+	
+	@After
+	public void deleteDirectory() {
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+	
+	@Test
+	public void storeAndLoad() {
+		AssessmentSessionStateStore store = createStore();
+		File stateFile = new File(dir, "testSessionState.xml");
+		Assert.assertFalse(store.exists(stateFile));
+		
+		store.store(stateFile, xml("1"));
+		store.store(stateFile, xml("2"));
+		Assert.assertTrue(store.exists(stateFile));
+		Assert.assertFalse(stateFile.exists());
+		Assert.assertArrayEquals(xml("2"), store.load(stateFile));
+	}
+	
+	@Test
+	public void replayJournal() {
+		File stateFile = new File(dir, "testSessionState.xml");
+		File itemStateFile = new File(dir, "itemSessionState_12.xml");
+		AssessmentSessionStateStore store = createStore();
+		store.store(stateFile, xml("1"));
+		store.store(itemStateFile, xml("item"));
+		store.store(stateFile, xml("2"));
+		
+		// an other node or a restart only has the journal
+		AssessmentSessionStateStore otherStore = createStore();
+		Assert.assertArrayEquals(xml("2"), otherStore.load(stateFile));
+		Assert.assertArrayEquals(xml("item"), otherStore.load(itemStateFile));
+	}
+	
+	@Test
+	public void replayTruncatedJournal() throws IOException {
+		File stateFile = new File(dir, "testSessionState.xml");
+		AssessmentSessionStateStore store = createStore();
+		store.store(stateFile, xml("1"));
+		
+		// partially written record
+		File journalFile = new File(dir, AssessmentSessionStateStore.JOURNAL_FILENAME);
+		long validLength = journalFile.length();
+		Files.write(journalFile.toPath(), new byte[] { 0x51, 0x4a, 0x52, 0x4e, 0, 12 }, StandardOpenOption.APPEND);
+		
+		AssessmentSessionStateStore otherStore = createStore();
+		Assert.assertArrayEquals(xml("1"), otherStore.load(stateFile));
+		Assert.assertEquals(validLength, journalFile.length());
+		
+		otherStore.store(stateFile, xml("2"));
+		Assert.assertArrayEquals(xml("2"), createStore().load(stateFile));
+	}
+	
+	@Test
+	public void materialize() throws IOException {
+		File stateFile = new File(dir, "testSessionState.xml");
+		AssessmentSessionStateStore store = createStore();
+		store.store(stateFile, xml("1"));
+		store.materialize(dir);
+		
+		Assert.assertTrue(stateFile.exists());
+		Assert.assertFalse(new File(dir, AssessmentSessionStateStore.JOURNAL_FILENAME).exists());
+		Assert.assertArrayEquals(xml("1"), Files.readAllBytes(stateFile.toPath()));
+		Assert.assertNull(createStore().load(stateFile));
+	}
+	
+	@Test
+	public void discard() {
+		File stateFile = new File(dir, "testSessionState.xml");
+		AssessmentSessionStateStore store = createStore();
+		store.store(stateFile, xml("1"));
+		store.discard(dir);
+		
+		Assert.assertNull(store.load(stateFile));
+		Assert.assertFalse(stateFile.exists());
+	}
+	
+	private AssessmentSessionStateStore createStore() {
+		AssessmentSessionStateStore store = new AssessmentSessionStateStore();
+		ReflectionTestUtils.setField(store, "journalEnabled", Boolean.TRUE);
+		ReflectionTestUtils.setField(store, "maxJournalSize", Long.valueOf(1048576l));
+		ReflectionTestUtils.setField(store, "idleFlush", Long.valueOf(300000l));
+		return store;
+	}
+	
+	private static byte[] xml(String content) {
+		return ("<testSessionState><value>" + content + "</value></testSessionState>").getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -36,6 +36,7 @@ import org.olat.core.id.Identity;
 import org.olat.ldap.LDAPError;
 import org.olat.ldap.LDAPLoginManager;
 import org.olat.ldap.LDAPLoginModule;
+import org.olat.ldap.model.LDAPSyncStatistics;
 import org.olat.ldap.ui.LDAPAuthenticationController;
 import org.olat.test.OlatTestCase;
 import org.olat.user.UserManager;
@@ -87,6 +88,41 @@ public class LDAPLoginManagerTest extends OlatTestCase {
 		Assert.assertNotNull(identity);
 	}
 	
+	@Test
+	public void syncUnchangedUsers() throws LDAPException {
+		Assume.assumeTrue(ldapLoginModule.isLDAPEnabled());
+		
+		LDAPError errors = new LDAPError();
+		boolean allOk = ldapManager.doBatchSync(errors);
+		Assert.assertTrue(allOk);
+		
+		// nothing changed, the users are skipped
+		boolean secondAllOk = ldapManager.doBatchSync(errors);
+		Assert.assertTrue(secondAllOk);
+		Assert.assertTrue(errors.isEmpty());
+		LDAPSyncStatistics statistics = ldapManager.getLastSyncStatistics();
+		Assert.assertNotNull(statistics);
+		Assert.assertEquals(0, statistics.getUpdatedUsers());
+		Assert.assertEquals(0, statistics.getCreatedUsers());
+		Assert.assertEquals(statistics.getUsers(), statistics.getUnchangedUsers());
+		
+		// change a user, only this one is synchronized
+		String dn = "uid=updateme,ou=person,dc=olattest,dc=org";
+		Modification mod = new Modification(ModificationType.REPLACE, "givenname", "Jonathan");
+		embeddedLdapRule.ldapConnection().modify(dn, mod);
+		
+		boolean updateAllOk = ldapManager.doBatchSync(errors);
+		Assert.assertTrue(updateAllOk);
+		Assert.assertTrue(errors.isEmpty());
+		LDAPSyncStatistics updateStatistics = ldapManager.getLastSyncStatistics();
+		Assert.assertEquals(1, updateStatistics.getUpdatedUsers());
+		Assert.assertEquals(updateStatistics.getUsers() - 1, updateStatistics.getUnchangedUsers());
+		
+		Identity identity = userManager.findUniqueIdentityByEmail("john.doe@openolat.com");
+		Assert.assertNotNull(identity);
+		Assert.assertEquals("Jonathan", identity.getUser().getFirstName());
+	}
+	
 	@Test
 	public void testUserBindDigest() throws Exception {
 		Assume.assumeTrue(ldapLoginModule.isLDAPEnabled());
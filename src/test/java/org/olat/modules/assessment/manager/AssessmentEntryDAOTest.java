@@ -299,6 +299,38 @@ public class AssessmentEntryDAOTest extends OlatTestCase {
 		Assert.assertEquals(0, assessmentEntriesId3.size());
 	}
 	
+	@Test
+	public void loadAssessmentEntriesByRepositoryEntry() {
+		Identity assessedIdentity1 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-13b");
+		Identity assessedIdentity2 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-14b");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry();
+		RepositoryEntry refEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		String subIdent = UUID.randomUUID().toString();
+		AssessmentEntry nodeAssessmentId1 = assessmentEntryDao
+				.createAssessmentEntry(assessedIdentity1, null, entry, subIdent, refEntry);
+		AssessmentEntry nodeAssessmentId2 = assessmentEntryDao
+				.createAssessmentEntry(assessedIdentity2, null, entry, subIdent, refEntry, 3.0f, Boolean.FALSE, null, null);
+		AssessmentEntry nodeAssessmentId3 = assessmentEntryDao
+				.createAssessmentEntry(assessedIdentity2, null, entry, null, entry, 3.0f, Boolean.FALSE, null, null);
+		AssessmentEntry nodeAssessmentId4 = assessmentEntryDao
+				.createAssessmentEntry(assessedIdentity1, null, refEntry, subIdent, refEntry, 3.0f, Boolean.FALSE, null, null);
+		dbInstance.commitAndCloseSession();
+		
+		List<AssessmentEntry> assessmentEntries = assessmentEntryDao.loadAssessmentEntriesByRepositoryEntry(entry);
+		Assert.assertNotNull(assessmentEntries);
+		Assert.assertEquals(3, assessmentEntries.size());
+		Assert.assertTrue(assessmentEntries.contains(nodeAssessmentId1));
+		Assert.assertTrue(assessmentEntries.contains(nodeAssessmentId2));
+		Assert.assertTrue(assessmentEntries.contains(nodeAssessmentId3));
+		Assert.assertFalse(assessmentEntries.contains(nodeAssessmentId4));
+		dbInstance.commitAndCloseSession();
+		
+		// identities are fetched
+		for(AssessmentEntry assessmentEntry:assessmentEntries) {
+			Assert.assertNotNull(assessmentEntry.getIdentity().getName());
+		}
+	}
+	
 	@Test
 	public void loadAssessmentEntryByGroup() {
 		// a simulated course with 2 groups
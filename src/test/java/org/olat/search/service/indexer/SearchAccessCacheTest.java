@@ -0,0 +1,88 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.repository.RepositoryEntry;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ *
+ */
+public class SearchAccessCacheTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private SearchAccessCache searchAccessCache;
+	
+	@Test
+	public void prefetchRepositoryEntries() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("search-access-1");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry();
+		dbInstance.commitAndCloseSession();
+		
+		String businessPath = "[RepositoryEntry:" + entry.getKey() + "][CourseNode:1234]";
+		SearchAccessContext context = searchAccessCache.startSearch(id);
+		try {
+			Assert.assertSame(context, SearchAccessContext.current());
+			searchAccessCache.prefetch(context, Collections.singletonList(businessPath));
+			Assert.assertTrue(context.hasResource(SearchAccessCache.REPOSITORY_ENTRY, entry.getKey()));
+			RepositoryEntry prefetchedEntry = context.getResource(SearchAccessCache.REPOSITORY_ENTRY, entry.getKey(), RepositoryEntry.class);
+			Assert.assertEquals(entry, prefetchedEntry);
+			Assert.assertEquals(1, context.getPrefetchedResources());
+		} finally {
+			searchAccessCache.endSearch(context);
+		}
+		Assert.assertNull(SearchAccessContext.current());
+	}
+	
+	@Test
+	public void shareDecisionsOfIdentity() {
+		Identity id1 = JunitTestHelper.createAndPersistIdentityAsRndUser("search-access-2");
+		Identity id2 = JunitTestHelper.createAndPersistIdentityAsRndUser("search-access-3");
+		dbInstance.commitAndCloseSession();
+		
+		SearchAccessContext context1 = searchAccessCache.startSearch(id1);
+		Assert.assertNull(context1.getDecision(SearchAccessCache.COURSE_NODE, 27l, "1234"));
+		context1.putDecision(SearchAccessCache.COURSE_NODE, 27l, "1234", true);
+		searchAccessCache.endSearch(context1);
+		
+		// next query of the same user
+		SearchAccessContext context2 = searchAccessCache.startSearch(id1);
+		Assert.assertEquals(Boolean.TRUE, context2.getDecision(SearchAccessCache.COURSE_NODE, 27l, "1234"));
+		Assert.assertNull(context2.getDecision(SearchAccessCache.COURSE_NODE, 27l, "1235"));
+		searchAccessCache.endSearch(context2);
+		
+		// an other user
+		SearchAccessContext context3 = searchAccessCache.startSearch(id2);
+		Assert.assertNull(context3.getDecision(SearchAccessCache.COURSE_NODE, 27l, "1234"));
+		searchAccessCache.endSearch(context3);
+	}
+}
@@ -63,6 +63,7 @@ import org.junit.runners.Suite;
 	org.olat.core.helpers.SettingsTest.class,
 	org.olat.core.util.coordinate.LockEntryTest.class,
 	org.olat.core.util.coordinate.DBPersistentLockManagerTest.class,
+	org.olat.core.util.coordinate.util.WeakLockTableTest.class,
 	org.olat.core.util.StringHelperTest.class,
 	org.olat.core.util.FileUtilsTest.class,
 	org.olat.core.util.FileNameSuffixFilterTest.class,
@@ -76,6 +77,8 @@ import org.junit.runners.Suite;
 	org.olat.core.util.ZipUtilConcatTest.class,
 	org.olat.core.util.mail.EmailAddressValidatorTest.class,
 	org.olat.core.util.mail.manager.MailManagerTest.class,
+	org.olat.core.util.mail.manager.MailOutboxDAOTest.class,
+	org.olat.core.util.mail.manager.MailOutboxSenderTest.class,
 	org.olat.core.util.mail.manager.MailUserDataManagerTest.class,
 	org.olat.core.util.openxml.OpenXmlWorkbookTest.class,
 	org.olat.core.util.openxml.OpenXMLDocumentTest.class,
@@ -86,6 +89,7 @@ import org.junit.runners.Suite;
 	org.olat.core.id.context.HistoryManagerTest.class,
 	org.olat.core.id.IdentityEnvironmentTest.class,
 	org.olat.core.gui.render.VelocityTemplateTest.class,
+	org.olat.core.gui.components.velocity.VelocityContainerRenderCacheTest.class,
 	org.olat.core.gui.control.generic.iframe.IFrameDeliveryMapperTest.class,
 	org.olat.note.NoteTest.class,
 	org.olat.user.UserTest.class,
@@ -97,16 +101,21 @@ import org.junit.runners.Suite;
 	org.olat.commons.calendar.manager.CalendarUserConfigurationDAOTest.class,
 	org.olat.commons.lifecycle.LifeCycleManagerTest.class,
 	org.olat.commons.coordinate.cluster.jms.JMSTest.class,
+	org.olat.commons.coordinate.cluster.jms.ClusterEventFrameTest.class,
 	org.olat.commons.coordinate.cluster.lock.LockTest.class,
+	org.olat.commons.coordinate.cluster.AdvisoryLockSyncerTest.class,
 	org.olat.commons.coordinate.CoordinatorTest.class,
+	org.olat.commons.coordinate.singlevm.SingleVMEventBusTest.class,
 	org.olat.core.commons.services.csp.manager.CSPManagerTest.class,
 	org.olat.core.commons.services.doceditor.manager.DocEditorIdentityServiceTest.class,
 	org.olat.core.commons.services.doceditor.wopi.manager.AccessDAOTest.class,
 	org.olat.core.commons.services.doceditor.wopi.manager.WopiServiceTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSXStreamTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSMetadataDAOTest.class,
+	org.olat.core.commons.services.vfs.manager.VFSDownloadCounterTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSRevisionDAOTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSThumbnailDAOTest.class,
+	org.olat.core.commons.services.vfs.manager.VFSThumbnailQueueTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSRepositoryServiceTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSLockManagerTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSVersioningTest.class,
@@ -118,6 +127,7 @@ import org.junit.runners.Suite;
 	org.olat.core.commons.services.webdav.WebDAVCommandsTest.class,
 	org.olat.core.commons.services.webdav.manager.DigestAuthenticationTest.class,
 	org.olat.core.commons.services.webdav.manager.WebDAVManagerTest.class,
+	org.olat.core.commons.services.webdav.manager.WebDAVCollectionETagsTest.class,
 	org.olat.core.commons.services.webdav.manager.WebDAVAuthManagerTest.class,
 	org.olat.core.commons.services.webdav.servlets.RequestUtilsTest.class,
 	org.olat.core.commons.services.sms.manager.MessageLogDAOTest.class,
@@ -141,6 +151,7 @@ import org.junit.runners.Suite;
 	org.olat.basesecurity.manager.AuthenticationDAOTest.class,
 	org.olat.basesecurity.manager.AuthenticationHistoryDAOTest.class,
 	org.olat.basesecurity.manager.GroupDAOTest.class,
+	org.olat.basesecurity.manager.IdentityRolesCacheTest.class,
 	org.olat.basesecurity.manager.RelationRightDAOTest.class,
 	org.olat.basesecurity.manager.RelationRoleDAOTest.class,
 	org.olat.basesecurity.manager.IdentityToIdentityRelationDAOTest.class,
@@ -194,7 +205,9 @@ import org.junit.runners.Suite;
 	org.olat.course.config.CourseConfigManagerImplTest.class,
 	org.olat.course.groupsandrights.CourseGroupManagementTest.class,
 	org.olat.course.editor.PublishProcessTest.class,
+	org.olat.course.editor.CourseEditorEnvTest.class,
 	org.olat.course.CourseXStreamAliasesTest.class,
+	org.olat.course.CourseStructureSnapshotTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectProviderTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectUserDAOTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectMeetingDAOTest.class,
@@ -308,10 +321,12 @@ import org.junit.runners.Suite;
 	org.olat.properties.PropertyTest.class,
 	org.olat.search.service.document.file.FileDocumentFactoryTest.class,
 	org.olat.search.service.indexer.repository.course.SPCourseNodeIndexerTest.class,
+	org.olat.search.service.indexer.SearchAccessCacheTest.class,
 	org.olat.search.service.document.file.HtmlDocumentTest.class,
 	org.olat.search.service.document.file.PDFDocumentTest.class,
 	org.olat.search.service.document.file.OfficeDocumentTest.class,
 	org.olat.core.commons.services.notifications.manager.NotificationsManagerTest.class,
+	org.olat.core.commons.services.notifications.manager.PublisherNewsBufferTest.class,
 	org.olat.registration.RegistrationManagerTest.class,
 	org.olat.course.nodes.projectbroker.ProjectBrokerManagerTest.class,
 	org.olat.core.commons.persistence.DBTest.class,
@@ -329,6 +344,7 @@ import org.junit.runners.Suite;
 	org.olat.ims.qti21.manager.AssessmentItemSessionDAOTest.class,
 	org.olat.ims.qti21.manager.AssessmentResponseDAOTest.class,
 	org.olat.ims.qti21.manager.CorrectResponsesUtilTest.class,
+	org.olat.ims.qti21.manager.AssessmentSessionStateStoreTest.class,
 	org.olat.ims.qti21.model.xml.AssessmentItemBuilderTest.class,
 	org.olat.ims.qti21.model.xml.MultipleChoiceAssessmentItemBuilderTest.class,
 	org.olat.ims.qti21.model.xml.SingleChoiceAssessmentItemBuilderTest.class,